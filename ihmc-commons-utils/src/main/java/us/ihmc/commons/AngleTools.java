@@ -186,6 +186,243 @@ public class AngleTools
       return ret;
    }
 
+   /**
+    * Trims in place each angle of the array to be in [-<i>pi</i>, <i>pi</i>), see
+    * {@link #trimAngleMinusPiToPi(double)}.
+    *
+    * @param angles the angles to trim. Modified.
+    */
+   public static void trimAngleMinusPiToPi(double[] angles)
+   {
+      trimAngleMinusPiToPi(angles, 0, angles, 0, angles.length);
+   }
+
+   /**
+    * Trims each angle of the array to be in [-<i>pi</i>, <i>pi</i>), see
+    * {@link #trimAngleMinusPiToPi(double)}.
+    *
+    * @param angles              the angles to trim. Not modified.
+    * @param trimmedAnglesToPack the array in which the trimmed angles are stored. Can be
+    *                            {@code angles}. Modified.
+    */
+   public static void trimAngleMinusPiToPi(double[] angles, double[] trimmedAnglesToPack)
+   {
+      trimAngleMinusPiToPi(angles, 0, trimmedAnglesToPack, 0, angles.length);
+   }
+
+   /**
+    * Trims {@code length} angles of the array to be in [-<i>pi</i>, <i>pi</i>), see
+    * {@link #trimAngleMinusPiToPi(double)}.
+    * <p>
+    * The loop has no data-dependent branch such that it can be vectorized. The results are the same
+    * as {@link #trimAngleMinusPiToPi(double)}, except for an angle that rounds to the end of the
+    * range which is returned at the start of the range instead, i.e. the two results differ by
+    * 2*<i>pi</i>.
+    * </p>
+    *
+    * @param angles              the angles to trim. Not modified.
+    * @param anglesOffset        the index of the first angle to trim.
+    * @param trimmedAnglesToPack the array in which the trimmed angles are stored. Can be
+    *                            {@code angles}. Modified.
+    * @param trimmedAnglesOffset the index at which the first trimmed angle is stored.
+    * @param length              the number of angles to trim.
+    */
+   public static void trimAngleMinusPiToPi(double[] angles, int anglesOffset, double[] trimmedAnglesToPack, int trimmedAnglesOffset, int length)
+   {
+      double lowerBound = -PI - EPSILON;
+
+      for (int i = 0; i < length; i++)
+         trimmedAnglesToPack[trimmedAnglesOffset + i] = shiftAngleAboveLowerBound(angles[anglesOffset + i], lowerBound);
+   }
+
+   /**
+    * Computes for each index {@code i} the difference (anglesA[i] - anglesB[i]) in [-<i>pi</i>,
+    * <i>pi</i>), see {@link #computeAngleDifferenceMinusPiToPi(double, double)}.
+    *
+    * @param anglesA           the first angles of the differences. Not modified.
+    * @param anglesB           the second angles of the differences. Not modified.
+    * @param differencesToPack the array in which the differences are stored. Can be {@code anglesA}
+    *                          or {@code anglesB}. Modified.
+    */
+   public static void computeAngleDifferenceMinusPiToPi(double[] anglesA, double[] anglesB, double[] differencesToPack)
+   {
+      computeAngleDifferenceMinusPiToPi(anglesA, 0, anglesB, 0, differencesToPack, 0, anglesA.length);
+   }
+
+   /**
+    * Computes for {@code length} indices {@code i} the difference (anglesA[anglesAOffset + i] -
+    * anglesB[anglesBOffset + i]) in [-<i>pi</i>, <i>pi</i>), see
+    * {@link #computeAngleDifferenceMinusPiToPi(double, double)}.
+    * <p>
+    * The loop has no data-dependent branch such that it can be vectorized. The difference is not
+    * reduced with the remainder operator first, such that the results can differ from
+    * {@link #computeAngleDifferenceMinusPiToPi(double, double)} by a few ulps of the difference when
+    * it is larger than 2*<i>pi</i>, and by 2*<i>pi</i> when it rounds to the end of the range.
+    * </p>
+    *
+    * @param anglesA           the first angles of the differences. Not modified.
+    * @param anglesAOffset     the index of the first angle in {@code anglesA}.
+    * @param anglesB           the second angles of the differences. Not modified.
+    * @param anglesBOffset     the index of the first angle in {@code anglesB}.
+    * @param differencesToPack the array in which the differences are stored. Modified.
+    * @param differencesOffset the index at which the first difference is stored.
+    * @param length            the number of differences to compute.
+    */
+   public static void computeAngleDifferenceMinusPiToPi(double[] anglesA, int anglesAOffset, double[] anglesB, int anglesBOffset, double[] differencesToPack,
+                                                        int differencesOffset, int length)
+   {
+      double lowerBound = -PI - EPSILON;
+
+      for (int i = 0; i < length; i++)
+         differencesToPack[differencesOffset + i] = shiftAngleAboveLowerBound(anglesA[anglesAOffset + i] - anglesB[anglesBOffset + i], lowerBound);
+   }
+
+   /**
+    * Interpolates for each index {@code i} from anglesA[i] to anglesB[i], see
+    * {@link #interpolateAngle(double, double, double)}.
+    *
+    * @param anglesA                  the first angles of the interpolations. Not modified.
+    * @param anglesB                  the second angles of the interpolations. Not modified.
+    * @param alpha                    the percentage to use for the interpolations.
+    * @param interpolatedAnglesToPack the array in which the interpolated angles in [-<i>pi</i>,
+    *                                 <i>pi</i>] are stored. Can be {@code anglesA} or
+    *                                 {@code anglesB}. Modified.
+    */
+   public static void interpolateAngle(double[] anglesA, double[] anglesB, double alpha, double[] interpolatedAnglesToPack)
+   {
+      interpolateAngle(anglesA, 0, anglesB, 0, alpha, interpolatedAnglesToPack, 0, anglesA.length);
+   }
+
+   /**
+    * Interpolates for {@code length} indices {@code i} from anglesA[anglesAOffset + i] to
+    * anglesB[anglesBOffset + i], see {@link #interpolateAngle(double, double, double)}.
+    * <p>
+    * The loop has no data-dependent branch such that it can be vectorized. The results can differ from
+    * {@link #interpolateAngle(double, double, double)} as described in
+    * {@link #computeAngleDifferenceMinusPiToPi(double[], int, double[], int, double[], int, int)}.
+    * </p>
+    *
+    * @param anglesA                  the first angles of the interpolations. Not modified.
+    * @param anglesAOffset            the index of the first angle in {@code anglesA}.
+    * @param anglesB                  the second angles of the interpolations. Not modified.
+    * @param anglesBOffset            the index of the first angle in {@code anglesB}.
+    * @param alpha                    the percentage to use for the interpolations.
+    * @param interpolatedAnglesToPack the array in which the interpolated angles in [-<i>pi</i>,
+    *                                 <i>pi</i>] are stored. Modified.
+    * @param interpolatedAnglesOffset the index at which the first interpolated angle is stored.
+    * @param length                   the number of angles to interpolate.
+    */
+   public static void interpolateAngle(double[] anglesA, int anglesAOffset, double[] anglesB, int anglesBOffset, double alpha,
+                                       double[] interpolatedAnglesToPack, int interpolatedAnglesOffset, int length)
+   {
+      double lowerBound = -PI - EPSILON;
+
+      for (int i = 0; i < length; i++)
+      {
+         double angleA = anglesA[anglesAOffset + i];
+         double difference = shiftAngleAboveLowerBound(anglesB[anglesBOffset + i] - angleA, lowerBound);
+         interpolatedAnglesToPack[interpolatedAnglesOffset + i] = shiftAngleAboveLowerBound(angleA + alpha * difference, lowerBound);
+      }
+   }
+
+   /**
+    * Shifts each angle of the array to be in [<i>startOfAngleRange</i>, (<i>startOfAngleRange +
+    * 2*pi</i>), see {@link #shiftAngleToStartOfRange(double, double)}.
+    *
+    * @param angles              the angles to shift. Not modified.
+    * @param startOfAngleRange   start of the range.
+    * @param shiftedAnglesToPack the array in which the shifted angles are stored. Can be
+    *                            {@code angles}. Modified.
+    */
+   public static void shiftAngleToStartOfRange(double[] angles, double startOfAngleRange, double[] shiftedAnglesToPack)
+   {
+      shiftAngleToStartOfRange(angles, 0, startOfAngleRange, shiftedAnglesToPack, 0, angles.length);
+   }
+
+   /**
+    * Shifts {@code length} angles of the array to be in [<i>startOfAngleRange</i>,
+    * (<i>startOfAngleRange + 2*pi</i>), see {@link #shiftAngleToStartOfRange(double, double)}.
+    * <p>
+    * The loop has no data-dependent branch such that it can be vectorized. The results are the same
+    * as {@link #shiftAngleToStartOfRange(double, double)}, except for an angle that rounds to the end
+    * of the range which is returned at the start of the range instead.
+    * </p>
+    *
+    * @param angles              the angles to shift. Not modified.
+    * @param anglesOffset        the index of the first angle to shift.
+    * @param startOfAngleRange   start of the range.
+    * @param shiftedAnglesToPack the array in which the shifted angles are stored. Modified.
+    * @param shiftedAnglesOffset the index at which the first shifted angle is stored.
+    * @param length              the number of angles to shift.
+    */
+   public static void shiftAngleToStartOfRange(double[] angles, int anglesOffset, double startOfAngleRange, double[] shiftedAnglesToPack,
+                                               int shiftedAnglesOffset, int length)
+   {
+      double lowerBound = startOfAngleRange - EPSILON;
+
+      for (int i = 0; i < length; i++)
+         shiftedAnglesToPack[shiftedAnglesOffset + i] = shiftAngleAboveLowerBound(angles[anglesOffset + i], lowerBound);
+   }
+
+   /**
+    * Unwraps in place a time series of angles, such that the jumps of 2*<i>pi</i> introduced by
+    * trimming the angles are removed.
+    * <p>
+    * The first angle is unchanged, each following angle is replaced by the previous unwrapped angle
+    * plus the difference in [-<i>pi</i>, <i>pi</i>) between the original angle and the original
+    * previous angle.
+    * </p>
+    *
+    * @param angles the angles to unwrap. Modified.
+    */
+   public static void unwrapAngles(double[] angles)
+   {
+      unwrapAngles(angles, 0, angles.length);
+   }
+
+   /**
+    * Unwraps in place {@code length} angles of a time series, see {@link #unwrapAngles(double[])}.
+    *
+    * @param angles the angles to unwrap. Modified.
+    * @param offset the index of the first angle to unwrap, it is unchanged.
+    * @param length the number of angles to unwrap.
+    */
+   public static void unwrapAngles(double[] angles, int offset, int length)
+   {
+      if (length <= 1)
+         return;
+
+      double lowerBound = -PI - EPSILON;
+      double previousAngle = angles[offset];
+      double previousUnwrappedAngle = previousAngle;
+
+      for (int i = offset + 1; i < offset + length; i++)
+      {
+         double angle = angles[i];
+         previousUnwrappedAngle += shiftAngleAboveLowerBound(angle - previousAngle, lowerBound);
+         angles[i] = previousUnwrappedAngle;
+         previousAngle = angle;
+      }
+   }
+
+   /**
+    * Branch-free version of {@link #shiftAngleToStartOfRange(double, double)} used by the batch
+    * methods.
+    * <p>
+    * Both branches of {@link #shiftAngleToStartOfRange(double, double, double)} compute the same
+    * multiple of 2*<i>pi</i>, which is zero when the angle is already in the range. The only
+    * difference is for an angle for which {@code (angle - lowerBound) / 2pi} rounds up to 1.
+    * </p>
+    *
+    * @param angle      the angle to shift.
+    * @param lowerBound the start of the range minus {@link #EPSILON}.
+    * @return the shifted angle.
+    */
+   private static double shiftAngleAboveLowerBound(double angle, double lowerBound)
+   {
+      return angle - Math.floor((angle - lowerBound) / TwoPI) * TwoPI;
+   }
+
    /**
     * Returns an evenly distributed random number between -2PI and 2PI
     *
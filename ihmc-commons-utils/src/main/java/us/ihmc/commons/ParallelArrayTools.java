@@ -0,0 +1,390 @@
+package us.ihmc.commons;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parallel versions of some of the operations of {@link ArrayTools} for large arrays, e.g. when
+ * analyzing logs of tens of millions of samples.
+ * <p>
+ * Arrays shorter than {@link #PARALLEL_THRESHOLD} are processed serially by the corresponding
+ * {@link ArrayTools} method. Longer arrays are split recursively into chunks that are processed by
+ * the common {@link java.util.concurrent.ForkJoinPool}. The results are the same as the ones of the
+ * serial methods.
+ * </p>
+ */
+public class ParallelArrayTools
+{
+   /** Arrays shorter than this are processed serially, the overhead of forking would dominate. */
+   public static final int PARALLEL_THRESHOLD = 1 << 16;
+   /** Number of elements below which a chunk is not split any further. */
+   static final int CHUNK_SIZE = 1 << 14;
+
+   private ParallelArrayTools()
+   {
+   }
+
+   /**
+    * Reverses the order of the elements in the specified array, see {@link ArrayTools#reverse(double[])}.
+    *
+    * @param array the array whose elements are to be reversed.
+    */
+   public static void reverse(double[] array)
+   {
+      if (array.length < PARALLEL_THRESHOLD)
+         ArrayTools.reverse(array);
+      else
+         reverse(array, CHUNK_SIZE);
+   }
+
+   static void reverse(double[] array, int chunkSize)
+   {
+      new RangeAction(chunkSize, 0, array.length >> 1, (from, to) ->
+      {
+         for (int i = from, j = array.length - 1 - from; i < to; i++, j--)
+         {
+            double oldCoefficient_i = array[i];
+            array[i] = array[j];
+            array[j] = oldCoefficient_i;
+         }
+      }).invoke();
+   }
+
+   /**
+    * Reverses the order of the elements in the specified array, see {@link ArrayTools#reverse(float[])}.
+    *
+    * @param array the array whose elements are to be reversed.
+    */
+   public static void reverse(float[] array)
+   {
+      if (array.length < PARALLEL_THRESHOLD)
+         ArrayTools.reverse(array);
+      else
+         reverse(array, CHUNK_SIZE);
+   }
+
+   static void reverse(float[] array, int chunkSize)
+   {
+      new RangeAction(chunkSize, 0, array.length >> 1, (from, to) ->
+      {
+         for (int i = from, j = array.length - 1 - from; i < to; i++, j--)
+         {
+            float oldCoefficient_i = array[i];
+            array[i] = array[j];
+            array[j] = oldCoefficient_i;
+         }
+      }).invoke();
+   }
+
+   /**
+    * Reverses the order of the elements in the specified array, see {@link ArrayTools#reverse(int[])}.
+    *
+    * @param array the array whose elements are to be reversed.
+    */
+   public static void reverse(int[] array)
+   {
+      if (array.length < PARALLEL_THRESHOLD)
+         ArrayTools.reverse(array);
+      else
+         reverse(array, CHUNK_SIZE);
+   }
+
+   static void reverse(int[] array, int chunkSize)
+   {
+      new RangeAction(chunkSize, 0, array.length >> 1, (from, to) ->
+      {
+         for (int i = from, j = array.length - 1 - from; i < to; i++, j--)
+         {
+            int oldCoefficient_i = array[i];
+            array[i] = array[j];
+            array[j] = oldCoefficient_i;
+         }
+      }).invoke();
+   }
+
+   /**
+    * Reverses the order of the elements in the specified array, see {@link ArrayTools#reverse(long[])}.
+    *
+    * @param array the array whose elements are to be reversed.
+    */
+   public static void reverse(long[] array)
+   {
+      if (array.length < PARALLEL_THRESHOLD)
+         ArrayTools.reverse(array);
+      else
+         reverse(array, CHUNK_SIZE);
+   }
+
+   static void reverse(long[] array, int chunkSize)
+   {
+      new RangeAction(chunkSize, 0, array.length >> 1, (from, to) ->
+      {
+         for (int i = from, j = array.length - 1 - from; i < to; i++, j--)
+         {
+            long oldCoefficient_i = array[i];
+            array[i] = array[j];
+            array[j] = oldCoefficient_i;
+         }
+      }).invoke();
+   }
+
+   /**
+    * Reverses the order of the elements in the specified array, see
+    * {@link ArrayTools#reverse(Object[])}.
+    *
+    * @param array the array whose elements are to be reversed.
+    */
+   public static void reverse(Object[] array)
+   {
+      if (array.length < PARALLEL_THRESHOLD)
+         ArrayTools.reverse(array);
+      else
+         reverse(array, CHUNK_SIZE);
+   }
+
+   static void reverse(Object[] array, int chunkSize)
+   {
+      new RangeAction(chunkSize, 0, array.length >> 1, (from, to) ->
+      {
+         for (int i = from, j = array.length - 1 - from; i < to; i++, j--)
+         {
+            Object oldCoefficient_i = array[i];
+            array[i] = array[j];
+            array[j] = oldCoefficient_i;
+         }
+      }).invoke();
+   }
+
+   /**
+    * Tests whether the two arrays have the same length and their elements differ by at most
+    * {@code delta}, see {@link ArrayTools#deltaEquals(double[], double[], double)}.
+    */
+   public static boolean deltaEquals(double[] a, double[] b, double delta)
+   {
+      if (a == null || b == null || a.length < PARALLEL_THRESHOLD)
+         return ArrayTools.deltaEquals(a, b, delta);
+      else
+         return deltaEquals(a, b, delta, CHUNK_SIZE);
+   }
+
+   static boolean deltaEquals(double[] a, double[] b, double delta, int chunkSize)
+   {
+      if (a.length != b.length)
+         return false;
+
+      return new RangePredicateTask(chunkSize, 0, a.length, (from, to) ->
+      {
+         for (int i = from; i < to; i++)
+         {
+            if (Math.abs(a[i] - b[i]) > delta)
+               return false;
+         }
+         return true;
+      }).invoke();
+   }
+
+   /**
+    * Tests whether the two arrays have the same length and their elements differ by at most
+    * {@code delta}, see {@link ArrayTools#deltaEquals(float[], float[], float)}.
+    */
+   public static boolean deltaEquals(float[] a, float[] b, float delta)
+   {
+      if (a == null || b == null || a.length < PARALLEL_THRESHOLD)
+         return ArrayTools.deltaEquals(a, b, delta);
+      else
+         return deltaEquals(a, b, delta, CHUNK_SIZE);
+   }
+
+   static boolean deltaEquals(float[] a, float[] b, float delta, int chunkSize)
+   {
+      if (a.length != b.length)
+         return false;
+
+      return new RangePredicateTask(chunkSize, 0, a.length, (from, to) ->
+      {
+         for (int i = from; i < to; i++)
+         {
+            if (Math.abs(a[i] - b[i]) > delta)
+               return false;
+         }
+         return true;
+      }).invoke();
+   }
+
+   /**
+    * Computes the largest absolute difference between two consecutive values, see
+    * {@link ArrayTools#getMaximumAbsoluteChangeBetweenTicks(double[])}.
+    *
+    * @param values the values to process, not empty.
+    * @return the maximum absolute change, or 0 if there is a single value.
+    */
+   public static double getMaximumAbsoluteChangeBetweenTicks(double[] values)
+   {
+      if (values.length < PARALLEL_THRESHOLD)
+         return ArrayTools.getMaximumAbsoluteChangeBetweenTicks(values);
+      else
+         return getMaximumAbsoluteChangeBetweenTicks(values, CHUNK_SIZE);
+   }
+
+   static double getMaximumAbsoluteChangeBetweenTicks(double[] values, int chunkSize)
+   {
+      if (values.length == 0)
+         throw new ArrayIndexOutOfBoundsException("The array is empty.");
+
+      return new MaximumAbsoluteChangeTask(values, chunkSize, 1, values.length).invoke();
+   }
+
+   /**
+    * Tests whether the absolute change between any two consecutive values is less than
+    * {@code maxAllowedChange}, see {@link ArrayTools#isContinuous(double[], double)}.
+    */
+   public static boolean isContinuous(double[] values, double maxAllowedChange)
+   {
+      double maxChange = getMaximumAbsoluteChangeBetweenTicks(values);
+      return (maxChange < maxAllowedChange);
+   }
+
+   private interface RangeOperation
+   {
+      void apply(int from, int to);
+   }
+
+   private interface RangePredicate
+   {
+      boolean test(int from, int to);
+   }
+
+   /**
+    * Applies the operation to [from, to[ split in chunks of at most {@code chunkSize} elements.
+    */
+   private static class RangeAction extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final int chunkSize;
+      private final int from;
+      private final int to;
+      private final RangeOperation operation;
+
+      RangeAction(int chunkSize, int from, int to, RangeOperation operation)
+      {
+         this.chunkSize = chunkSize;
+         this.from = from;
+         this.to = to;
+         this.operation = operation;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (to - from <= chunkSize)
+         {
+            operation.apply(from, to);
+            return;
+         }
+
+         int mid = (from + to) >>> 1;
+         invokeAll(new RangeAction(chunkSize, from, mid, operation), new RangeAction(chunkSize, mid, to, operation));
+      }
+   }
+
+   /**
+    * Tests whether the predicate holds for all the chunks of at most {@code chunkSize} elements of
+    * [from, to[. The chunks not yet started are skipped as soon as the predicate fails for one chunk.
+    */
+   private static class RangePredicateTask extends RecursiveTask<Boolean>
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final int chunkSize;
+      private final int from;
+      private final int to;
+      private final RangePredicate predicate;
+      private final AtomicBoolean failed;
+
+      RangePredicateTask(int chunkSize, int from, int to, RangePredicate predicate)
+      {
+         this(chunkSize, from, to, predicate, new AtomicBoolean(false));
+      }
+
+      private RangePredicateTask(int chunkSize, int from, int to, RangePredicate predicate, AtomicBoolean failed)
+      {
+         this.chunkSize = chunkSize;
+         this.from = from;
+         this.to = to;
+         this.predicate = predicate;
+         this.failed = failed;
+      }
+
+      @Override
+      protected Boolean compute()
+      {
+         if (failed.get())
+            return false;
+
+         if (to - from <= chunkSize)
+         {
+            if (predicate.test(from, to))
+               return true;
+            failed.set(true);
+            return false;
+         }
+
+         int mid = (from + to) >>> 1;
+         RangePredicateTask right = new RangePredicateTask(chunkSize, mid, to, predicate, failed);
+         right.fork();
+         boolean leftResult = new RangePredicateTask(chunkSize, from, mid, predicate, failed).compute();
+         return right.join() && leftResult;
+      }
+   }
+
+   /**
+    * Computes the maximum absolute change between values[i - 1] and values[i] for i in [from, to[.
+    */
+   private static class MaximumAbsoluteChangeTask extends RecursiveTask<Double>
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final double[] values;
+      private final int chunkSize;
+      private final int from;
+      private final int to;
+
+      MaximumAbsoluteChangeTask(double[] values, int chunkSize, int from, int to)
+      {
+         this.values = values;
+         this.chunkSize = chunkSize;
+         this.from = from;
+         this.to = to;
+      }
+
+      @Override
+      protected Double compute()
+      {
+         if (to - from <= chunkSize)
+         {
+            double maxChange = 0.0;
+            double previousValue = values[from - 1];
+            for (int i = from; i < to; i++)
+            {
+               double nextValue = values[i];
+
+               double absoluteChange = Math.abs(nextValue - previousValue);
+               if (absoluteChange > maxChange)
+                  maxChange = absoluteChange;
+               previousValue = nextValue;
+            }
+            return maxChange;
+         }
+
+         int mid = (from + to) >>> 1;
+         MaximumAbsoluteChangeTask right = new MaximumAbsoluteChangeTask(values, chunkSize, mid, to);
+         right.fork();
+         double leftMaxChange = new MaximumAbsoluteChangeTask(values, chunkSize, from, mid).compute();
+         double rightMaxChange = right.join();
+         // Same comparison as the serial version such that NaN changes are ignored the same way.
+         return rightMaxChange > leftMaxChange ? rightMaxChange : leftMaxChange;
+      }
+   }
+}
@@ -6,26 +6,13 @@ public class ArraySorter
 {
    /**
     * Sort an array in place without allocating any memory.
+    * <p>
+    * The sort is stable, see {@link InPlaceMergeSort}.
+    * </p>
     */
    public static <T> void sort(T[] ts, Comparator<T> comparator)
    {
-      boolean ordered = false;
-
-      while (!ordered)
-      {
-         ordered = true;
-         for (int i = 0; i < ts.length - 1; i++)
-         {
-            T a = ts[i];
-            T b = ts[i + 1];
-
-            if(comparator.compare(a, b) > 0)
-            {
-               ordered = false;
-               swap(ts, i, i + 1);
-            }
-         }
-      }
+      InPlaceMergeSort.sort(ts, comparator);
    }
 
    public static <T> void swap(T[] ts, int a, int b)
@@ -35,16 +22,3 @@ public class ArraySorter
       ts[b] = tmp;
    }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
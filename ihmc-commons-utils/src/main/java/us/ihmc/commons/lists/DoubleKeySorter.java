@@ -0,0 +1,322 @@
+package us.ihmc.commons.lists;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sorts objects by a {@code double} key, e.g. the start time of time intervals.
+ * <p>
+ * Instead of calling a {@link java.util.Comparator} for every comparison, the key of each element is
+ * extracted once into a primitive array. The keys are then sorted along with the original indices of
+ * the elements with a merge sort operating only on primitive arrays, and the resulting permutation
+ * is finally applied in place to the array or list being sorted.
+ * </p>
+ * <p>
+ * The sort is stable and the keys are ordered as by {@link Double#compare(double, double)}. The
+ * internal buffers are reused from one call to the next and only grow when sorting more elements
+ * than ever before, such that this sorter does not allocate memory in steady state. A sorter is not
+ * thread-safe and should not be shared between threads.
+ * </p>
+ */
+public class DoubleKeySorter
+{
+   /** Size of the runs sorted with an insertion sort before merging. */
+   private static final int RUN_SIZE = 16;
+
+   private double[] keys = new double[0];
+   private int[] indices = new int[0];
+   private double[] keysScratch = new double[0];
+   private int[] indicesScratch = new int[0];
+
+   /**
+    * Creates a new sorter, its buffers are allocated on the first sort.
+    */
+   public DoubleKeySorter()
+   {
+   }
+
+   /**
+    * Sorts the given list in increasing order of the keys of its elements.
+    *
+    * @param list        the list to sort. Modified.
+    * @param keyFunction the function used to get the key of each element, it is called once per
+    *                    element.
+    */
+   public <T> void sort(List<T> list, ToDoubleFunction<? super T> keyFunction)
+   {
+      sort(list, keyFunction, false);
+   }
+
+   /**
+    * Sorts the given list according to the keys of its elements.
+    *
+    * @param list        the list to sort. Modified.
+    * @param keyFunction the function used to get the key of each element, it is called once per
+    *                    element.
+    * @param descending  {@code true} to sort in decreasing order of the keys, {@code false} to sort in
+    *                    increasing order. In both cases, elements with equal keys keep their order.
+    */
+   public <T> void sort(List<T> list, ToDoubleFunction<? super T> keyFunction, boolean descending)
+   {
+      int size = list.size();
+      ensureCapacity(size);
+
+      for (int i = 0; i < size; i++)
+         keys[i] = keyFunction.applyAsDouble(list.get(i));
+
+      if (sortIndices(size, descending))
+         applyPermutation(list, size);
+   }
+
+   /**
+    * Sorts the given array in increasing order of the keys of its elements.
+    *
+    * @param array       the array to sort. Modified.
+    * @param keyFunction the function used to get the key of each element, it is called once per
+    *                    element.
+    */
+   public <T> void sort(T[] array, ToDoubleFunction<? super T> keyFunction)
+   {
+      sort(array, keyFunction, false);
+   }
+
+   /**
+    * Sorts the given array according to the keys of its elements.
+    *
+    * @param array       the array to sort. Modified.
+    * @param keyFunction the function used to get the key of each element, it is called once per
+    *                    element.
+    * @param descending  {@code true} to sort in decreasing order of the keys, {@code false} to sort in
+    *                    increasing order. In both cases, elements with equal keys keep their order.
+    */
+   public <T> void sort(T[] array, ToDoubleFunction<? super T> keyFunction, boolean descending)
+   {
+      sort(array, 0, array.length, keyFunction, descending);
+   }
+
+   /**
+    * Sorts the range [{@code fromIndex}, {@code toIndex}[ of the given array according to the keys of
+    * its elements.
+    *
+    * @param array       the array to sort. Modified.
+    * @param fromIndex   the index of the first element to sort, inclusive.
+    * @param toIndex     the index of the last element to sort, exclusive.
+    * @param keyFunction the function used to get the key of each element, it is called once per
+    *                    element.
+    * @param descending  {@code true} to sort in decreasing order of the keys, {@code false} to sort in
+    *                    increasing order. In both cases, elements with equal keys keep their order.
+    */
+   public <T> void sort(T[] array, int fromIndex, int toIndex, ToDoubleFunction<? super T> keyFunction, boolean descending)
+   {
+      int size = toIndex - fromIndex;
+      ensureCapacity(size);
+
+      for (int i = 0; i < size; i++)
+         keys[i] = keyFunction.applyAsDouble(array[fromIndex + i]);
+
+      if (sortIndices(size, descending))
+         applyPermutation(array, fromIndex, size);
+   }
+
+   /**
+    * Computes the order of the given keys, e.g. to then reorder several parallel arrays.
+    * <p>
+    * The returned array is internal to this sorter and is only valid until its next use.
+    * </p>
+    *
+    * @param keys       the keys to sort. Not modified.
+    * @param length     the number of keys to consider, starting from the first one.
+    * @param descending {@code true} to sort in decreasing order of the keys, {@code false} to sort in
+    *                   increasing order.
+    * @return the permutation, for {@code i} in [0, {@code length}[, the {@code i}<sup>th</sup>
+    *         element of the returned array is the index in {@code keys} of the {@code i}<sup>th</sup>
+    *         smallest, or largest, key.
+    */
+   public int[] computeSortedIndices(double[] keys, int length, boolean descending)
+   {
+      ensureCapacity(length);
+      System.arraycopy(keys, 0, this.keys, 0, length);
+      sortIndices(length, descending);
+      return indices;
+   }
+
+   private void ensureCapacity(int size)
+   {
+      if (keys.length >= size)
+         return;
+
+      keys = new double[size];
+      indices = new int[size];
+      keysScratch = new double[size];
+      indicesScratch = new int[size];
+   }
+
+   /**
+    * Sorts the first {@code size} keys along with their original indices.
+    *
+    * @return {@code false} if the keys were already sorted in which case the indices are not updated.
+    */
+   private boolean sortIndices(int size, boolean descending)
+   {
+      for (int i = 0; i < size; i++)
+         indices[i] = i;
+
+      if (isSorted(size, descending))
+         return false;
+
+      for (int runStart = 0; runStart < size; runStart += RUN_SIZE)
+         insertionSort(runStart, Math.min(runStart + RUN_SIZE, size), descending);
+
+      double[] sourceKeys = keys;
+      int[] sourceIndices = indices;
+      double[] destinationKeys = keysScratch;
+      int[] destinationIndices = indicesScratch;
+
+      for (int runSize = RUN_SIZE; runSize < size; runSize *= 2)
+      {
+         for (int start = 0; start < size; start += 2 * runSize)
+         {
+            int middle = Math.min(start + runSize, size);
+            int end = Math.min(start + 2 * runSize, size);
+            merge(sourceKeys, sourceIndices, destinationKeys, destinationIndices, start, middle, end, descending);
+         }
+
+         double[] tempKeys = sourceKeys;
+         sourceKeys = destinationKeys;
+         destinationKeys = tempKeys;
+         int[] tempIndices = sourceIndices;
+         sourceIndices = destinationIndices;
+         destinationIndices = tempIndices;
+      }
+
+      if (sourceKeys != keys)
+      {
+         System.arraycopy(sourceKeys, 0, keys, 0, size);
+         System.arraycopy(sourceIndices, 0, indices, 0, size);
+      }
+
+      return true;
+   }
+
+   private boolean isSorted(int size, boolean descending)
+   {
+      for (int i = 1; i < size; i++)
+      {
+         if (compare(keys[i - 1], keys[i], descending) > 0)
+            return false;
+      }
+      return true;
+   }
+
+   private void insertionSort(int fromIndex, int toIndex, boolean descending)
+   {
+      for (int i = fromIndex + 1; i < toIndex; i++)
+      {
+         double key = keys[i];
+         int index = indices[i];
+         int j = i;
+
+         // Strict comparison such that equal keys keep their order.
+         for (; j > fromIndex && compare(key, keys[j - 1], descending) < 0; j--)
+         {
+            keys[j] = keys[j - 1];
+            indices[j] = indices[j - 1];
+         }
+
+         keys[j] = key;
+         indices[j] = index;
+      }
+   }
+
+   private static void merge(double[] sourceKeys, int[] sourceIndices, double[] destinationKeys, int[] destinationIndices, int start, int middle, int end,
+                             boolean descending)
+   {
+      int left = start;
+      int right = middle;
+
+      for (int i = start; i < end; i++)
+      {
+         // Takes from the left run on ties such that equal keys keep their order.
+         if (right >= end || (left < middle && compare(sourceKeys[left], sourceKeys[right], descending) <= 0))
+         {
+            destinationKeys[i] = sourceKeys[left];
+            destinationIndices[i] = sourceIndices[left];
+            left++;
+         }
+         else
+         {
+            destinationKeys[i] = sourceKeys[right];
+            destinationIndices[i] = sourceIndices[right];
+            right++;
+         }
+      }
+   }
+
+   private static int compare(double keyA, double keyB, boolean descending)
+   {
+      return descending ? Double.compare(keyB, keyA) : Double.compare(keyA, keyB);
+   }
+
+   /**
+    * Reorders the list such that the element at {@code i} is the one that was at {@code indices[i]},
+    * by following the cycles of the permutation. The permutation is reset to the identity.
+    */
+   private <T> void applyPermutation(List<T> list, int size)
+   {
+      for (int start = 0; start < size; start++)
+      {
+         if (indices[start] == start)
+            continue;
+
+         T startElement = list.get(start);
+         int current = start;
+
+         while (true)
+         {
+            int next = indices[current];
+            indices[current] = current;
+
+            if (next == start)
+            {
+               list.set(current, startElement);
+               break;
+            }
+
+            list.set(current, list.get(next));
+            current = next;
+         }
+      }
+   }
+
+   /**
+    * Reorders the range of the array starting at {@code offset} such that the element at
+    * {@code offset + i} is the one that was at {@code offset + indices[i]}, by following the cycles
+    * of the permutation. The permutation is reset to the identity.
+    */
+   private <T> void applyPermutation(T[] array, int offset, int size)
+   {
+      for (int start = 0; start < size; start++)
+      {
+         if (indices[start] == start)
+            continue;
+
+         T startElement = array[offset + start];
+         int current = start;
+
+         while (true)
+         {
+            int next = indices[current];
+            indices[current] = current;
+
+            if (next == start)
+            {
+               array[offset + current] = startElement;
+               break;
+            }
+
+            array[offset + current] = array[offset + next];
+            current = next;
+         }
+      }
+   }
+}
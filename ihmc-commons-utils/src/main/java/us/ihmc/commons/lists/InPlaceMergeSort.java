@@ -0,0 +1,367 @@
+package us.ihmc.commons.lists;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Stable sort of arrays and lists that does not allocate any memory.
+ * <p>
+ * The elements are first sorted by blocks of {@value #BLOCK_SIZE} elements with an insertion sort,
+ * then the blocks are merged pairwise with the SymMerge algorithm, which merges two sorted ranges in
+ * place using rotations. This results in <tt>O(n log(n))</tt> comparisons and
+ * <tt>O(n log(n)<sup>2</sup>)</tt> element moves, far fewer than a bubble sort for anything but a
+ * handful of elements.
+ * </p>
+ * <p>
+ * Input that is already sorted is detected in a single pass of <tt>n - 1</tt> comparisons, and
+ * merges of ranges that are already in order are skipped, such that nearly sorted input is sorted in
+ * almost linear time.
+ * </p>
+ * <p>
+ * Reference: Kim, P. S., and Kutzner, A. "Stable Minimum Storage Merging by Symmetric Comparisons".
+ * </p>
+ */
+public class InPlaceMergeSort
+{
+   /** Size of the blocks sorted with an insertion sort before merging. */
+   static final int BLOCK_SIZE = 20;
+
+   private InPlaceMergeSort()
+   {
+   }
+
+   /**
+    * Sorts the given array in place.
+    *
+    * @param array      the array to sort. Modified.
+    * @param comparator the comparator defining the order of the elements.
+    */
+   public static <T> void sort(T[] array, Comparator<? super T> comparator)
+   {
+      sort(array, 0, array.length, comparator);
+   }
+
+   /**
+    * Sorts the range [{@code fromIndex}, {@code toIndex}[ of the given array in place.
+    *
+    * @param array      the array to sort. Modified.
+    * @param fromIndex  the index of the first element to sort, inclusive.
+    * @param toIndex    the index of the last element to sort, exclusive.
+    * @param comparator the comparator defining the order of the elements.
+    */
+   public static <T> void sort(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator)
+   {
+      if (isSorted(array, fromIndex, toIndex, comparator))
+         return;
+
+      int blockStart = fromIndex;
+      for (; blockStart + BLOCK_SIZE <= toIndex; blockStart += BLOCK_SIZE)
+         insertionSort(array, blockStart, blockStart + BLOCK_SIZE, comparator);
+      insertionSort(array, blockStart, toIndex, comparator);
+
+      for (int blockSize = BLOCK_SIZE; blockSize < toIndex - fromIndex; blockSize *= 2)
+      {
+         int start = fromIndex;
+         for (; start + 2 * blockSize <= toIndex; start += 2 * blockSize)
+            merge(array, start, start + blockSize, start + 2 * blockSize, comparator);
+         if (start + blockSize < toIndex)
+            merge(array, start, start + blockSize, toIndex, comparator);
+      }
+   }
+
+   /**
+    * Sorts the given list in place.
+    * <p>
+    * The list is accessed using {@link List#get(int)} and {@link List#set(int, Object)} and is
+    * expected to provide constant time random access.
+    * </p>
+    *
+    * @param list       the list to sort. Modified.
+    * @param comparator the comparator defining the order of the elements.
+    */
+   public static <T> void sort(List<T> list, Comparator<? super T> comparator)
+   {
+      int size = list.size();
+
+      if (isSorted(list, size, comparator))
+         return;
+
+      int blockStart = 0;
+      for (; blockStart + BLOCK_SIZE <= size; blockStart += BLOCK_SIZE)
+         insertionSort(list, blockStart, blockStart + BLOCK_SIZE, comparator);
+      insertionSort(list, blockStart, size, comparator);
+
+      for (int blockSize = BLOCK_SIZE; blockSize < size; blockSize *= 2)
+      {
+         int start = 0;
+         for (; start + 2 * blockSize <= size; start += 2 * blockSize)
+            merge(list, start, start + blockSize, start + 2 * blockSize, comparator);
+         if (start + blockSize < size)
+            merge(list, start, start + blockSize, size, comparator);
+      }
+   }
+
+   private static <T> boolean isSorted(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator)
+   {
+      for (int i = fromIndex + 1; i < toIndex; i++)
+      {
+         if (comparator.compare(array[i - 1], array[i]) > 0)
+            return false;
+      }
+      return true;
+   }
+
+   private static <T> void insertionSort(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator)
+   {
+      for (int i = fromIndex + 1; i < toIndex; i++)
+      {
+         T element = array[i];
+         int j = i;
+         for (; j > fromIndex && comparator.compare(element, array[j - 1]) < 0; j--)
+            array[j] = array[j - 1];
+         array[j] = element;
+      }
+   }
+
+   /**
+    * Merges the sorted ranges [{@code a}, {@code m}[ and [{@code m}, {@code b}[.
+    */
+   private static <T> void merge(T[] array, int a, int m, int b, Comparator<? super T> comparator)
+   {
+      // The ranges are already in order.
+      if (comparator.compare(array[m - 1], array[m]) <= 0)
+         return;
+
+      if (m - a == 1)
+      { // Inserts array[a] in the second range, before the elements it is equal to to preserve stability.
+         int low = m;
+         int high = b;
+         while (low < high)
+         {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(array[mid], array[a]) < 0)
+               low = mid + 1;
+            else
+               high = mid;
+         }
+         T element = array[a];
+         System.arraycopy(array, a + 1, array, a, low - 1 - a);
+         array[low - 1] = element;
+         return;
+      }
+
+      if (b - m == 1)
+      { // Inserts array[m] in the first range, after the elements it is equal to to preserve stability.
+         int low = a;
+         int high = m;
+         while (low < high)
+         {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(array[m], array[mid]) >= 0)
+               low = mid + 1;
+            else
+               high = mid;
+         }
+         T element = array[m];
+         System.arraycopy(array, low, array, low + 1, m - low);
+         array[low] = element;
+         return;
+      }
+
+      int mid = (a + b) >>> 1;
+      int n = mid + m;
+      int start;
+      int r;
+      if (m > mid)
+      {
+         start = n - b;
+         r = mid;
+      }
+      else
+      {
+         start = a;
+         r = m;
+      }
+      int p = n - 1;
+
+      while (start < r)
+      {
+         int c = (start + r) >>> 1;
+         if (comparator.compare(array[p - c], array[c]) >= 0)
+            start = c + 1;
+         else
+            r = c;
+      }
+
+      int end = n - start;
+      if (start < m && m < end)
+         rotate(array, start, m, end);
+      if (a < start && start < mid)
+         merge(array, a, start, mid, comparator);
+      if (mid < end && end < b)
+         merge(array, mid, end, b, comparator);
+   }
+
+   /**
+    * Swaps the ranges [{@code a}, {@code m}[ and [{@code m}, {@code b}[.
+    */
+   private static <T> void rotate(T[] array, int a, int m, int b)
+   {
+      int i = m - a;
+      int j = b - m;
+
+      while (i != j)
+      {
+         if (i > j)
+         {
+            swapRange(array, m - i, m, j);
+            i -= j;
+         }
+         else
+         {
+            swapRange(array, m - i, m + j - i, i);
+            j -= i;
+         }
+      }
+      swapRange(array, m - i, m, i);
+   }
+
+   private static <T> void swapRange(T[] array, int a, int b, int length)
+   {
+      for (int i = 0; i < length; i++)
+         ArraySorter.swap(array, a + i, b + i);
+   }
+
+   private static <T> boolean isSorted(List<T> list, int size, Comparator<? super T> comparator)
+   {
+      for (int i = 1; i < size; i++)
+      {
+         if (comparator.compare(list.get(i - 1), list.get(i)) > 0)
+            return false;
+      }
+      return true;
+   }
+
+   private static <T> void insertionSort(List<T> list, int fromIndex, int toIndex, Comparator<? super T> comparator)
+   {
+      for (int i = fromIndex + 1; i < toIndex; i++)
+      {
+         T element = list.get(i);
+         int j = i;
+         for (; j > fromIndex && comparator.compare(element, list.get(j - 1)) < 0; j--)
+            list.set(j, list.get(j - 1));
+         list.set(j, element);
+      }
+   }
+
+   /**
+    * Merges the sorted ranges [{@code a}, {@code m}[ and [{@code m}, {@code b}[.
+    */
+   private static <T> void merge(List<T> list, int a, int m, int b, Comparator<? super T> comparator)
+   {
+      // The ranges are already in order.
+      if (comparator.compare(list.get(m - 1), list.get(m)) <= 0)
+         return;
+
+      if (m - a == 1)
+      { // Inserts list[a] in the second range, before the elements it is equal to to preserve stability.
+         T element = list.get(a);
+         int low = m;
+         int high = b;
+         while (low < high)
+         {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(list.get(mid), element) < 0)
+               low = mid + 1;
+            else
+               high = mid;
+         }
+         for (int k = a; k < low - 1; k++)
+            list.set(k, list.get(k + 1));
+         list.set(low - 1, element);
+         return;
+      }
+
+      if (b - m == 1)
+      { // Inserts list[m] in the first range, after the elements it is equal to to preserve stability.
+         T element = list.get(m);
+         int low = a;
+         int high = m;
+         while (low < high)
+         {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(element, list.get(mid)) >= 0)
+               low = mid + 1;
+            else
+               high = mid;
+         }
+         for (int k = m; k > low; k--)
+            list.set(k, list.get(k - 1));
+         list.set(low, element);
+         return;
+      }
+
+      int mid = (a + b) >>> 1;
+      int n = mid + m;
+      int start;
+      int r;
+      if (m > mid)
+      {
+         start = n - b;
+         r = mid;
+      }
+      else
+      {
+         start = a;
+         r = m;
+      }
+      int p = n - 1;
+
+      while (start < r)
+      {
+         int c = (start + r) >>> 1;
+         if (comparator.compare(list.get(p - c), list.get(c)) >= 0)
+            start = c + 1;
+         else
+            r = c;
+      }
+
+      int end = n - start;
+      if (start < m && m < end)
+         rotate(list, start, m, end);
+      if (a < start && start < mid)
+         merge(list, a, start, mid, comparator);
+      if (mid < end && end < b)
+         merge(list, mid, end, b, comparator);
+   }
+
+   /**
+    * Swaps the ranges [{@code a}, {@code m}[ and [{@code m}, {@code b}[.
+    */
+   private static <T> void rotate(List<T> list, int a, int m, int b)
+   {
+      int i = m - a;
+      int j = b - m;
+
+      while (i != j)
+      {
+         if (i > j)
+         {
+            swapRange(list, m - i, m, j);
+            i -= j;
+         }
+         else
+         {
+            swapRange(list, m - i, m + j - i, i);
+            j -= i;
+         }
+      }
+      swapRange(list, m - i, m, i);
+   }
+
+   private static <T> void swapRange(List<T> list, int a, int b, int length)
+   {
+      for (int i = 0; i < length; i++)
+         ListSorter.swap(list, a + i, b + i);
+   }
+}
@@ -0,0 +1,567 @@
+package us.ihmc.commons.lists;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Ring buffer of {@code int}s, same as {@link RingBuffer} but backed by a primitive array such
+ * that no object is created per element.
+ * <p>
+ * When adding elements, the buffer will initially grow up to capacity and then will start
+ * overwriting elements starting with the first one added.
+ * </p>
+ * <p>
+ * In addition, this buffer maintains the sum, mean, minimum, and maximum of its elements. These are
+ * updated in constant amortized time when adding an element and can be queried in constant time:
+ * <ul>
+ * <li>the sum is accumulated in a {@code long} such that it is exact.
+ * <li>the minimum and maximum are tracked with monotonic queues of the buffer's elements.
+ * </ul>
+ * </p>
+ */
+public class IntRingBuffer implements Iterable<Integer>
+{
+   private int currentIndex = -1;
+   private int capacity;
+   private boolean isBufferFull = false;
+
+   private transient int modCount = 0;
+
+   private int[] buffer;
+
+   private long sum = 0L;
+   private final ExtremumQueue minQueue = new ExtremumQueue(false);
+   private final ExtremumQueue maxQueue = new ExtremumQueue(true);
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity the initial capacity of this ring buffer.
+    */
+   public IntRingBuffer(int capacity)
+   {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("Cannot instantiate a buffer with a size of zero or less.");
+      this.capacity = capacity;
+      buffer = new int[capacity];
+      minQueue.setCapacity(capacity);
+      maxQueue.setCapacity(capacity);
+   }
+
+   /**
+    * Resizes this buffer while preserving order and state of the previously added elements when
+    * possible.
+    *
+    * @param newCapacity the new capacity for this ring buffer.
+    */
+   public void changeCapacity(int newCapacity)
+   {
+      if (capacity == newCapacity)
+         return;
+
+      modCount++;
+
+      int[] newBuffer = new int[newCapacity];
+
+      int size = size();
+
+      if (newCapacity > size)
+      {
+         int index = isBufferFull ? currentIndex + 1 : 0;
+
+         for (int offset = 0; offset < Math.min(capacity, newCapacity); offset++)
+         {
+            newBuffer[offset] = buffer[index % capacity];
+            index++;
+         }
+         currentIndex = size() - 1;
+         isBufferFull = false;
+      }
+      else
+      {
+         int index = currentIndex;
+
+         for (int offset = newCapacity - 1; offset >= 0; offset--)
+         {
+            if (index < 0)
+               index += capacity;
+            newBuffer[offset] = buffer[index];
+            index--;
+         }
+         currentIndex = newCapacity - 1;
+         isBufferFull = true;
+      }
+
+      buffer = newBuffer;
+      capacity = newCapacity;
+
+      clearStatistics();
+      minQueue.setCapacity(newCapacity);
+      maxQueue.setCapacity(newCapacity);
+
+      int index = isBufferFull ? currentIndex + 1 : 0;
+
+      for (int offset = 0; offset < size(); offset++)
+      {
+         addToStatistics(index % capacity);
+         index++;
+      }
+   }
+
+   /**
+    * Clears this buffer.
+    */
+   public void reset()
+   {
+      modCount++;
+      currentIndex = -1;
+      isBufferFull = false;
+      clearStatistics();
+   }
+
+   /**
+    * Adds a new element to this buffer, increasing its current size by 1 if not full, otherwise
+    * dropping the oldest element that was added.
+    *
+    * @param newElement the value for the new element.
+    */
+   public void add(int newElement)
+   {
+      modCount++;
+      currentIndex++;
+
+      if (currentIndex >= capacity)
+      {
+         isBufferFull = true;
+         currentIndex = 0;
+      }
+
+      if (isBufferFull)
+         removeFromStatistics(currentIndex);
+
+      buffer[currentIndex] = newElement;
+      addToStatistics(currentIndex);
+   }
+
+   /**
+    * Gets the oldest element that was added to this buffer.
+    *
+    * @return the oldest element.
+    * @throws IndexOutOfBoundsException if this buffer is empty.
+    */
+   public int getFirst()
+   {
+      return getFromFirst(0);
+   }
+
+   /**
+    * Gets the newest element that was added to this buffer.
+    *
+    * @return the newest element.
+    * @throws IndexOutOfBoundsException if this buffer is empty.
+    */
+   public int getLast()
+   {
+      return getFromLast(0);
+   }
+
+   /**
+    * Gets the <tt>N</tt><sup>th</sup> oldest element that was added to this buffer.
+    *
+    * @param offsetFromFirst offset from the oldest element, i.e. <tt>N</tt> above.
+    * @return the <tt>N</tt><sup>th</sup> oldest element.
+    * @throws IndexOutOfBoundsException if {@code offsetFromFirst} &notin; [0, <tt>this.size()</tt>[.
+    */
+   public int getFromFirst(int offsetFromFirst)
+   {
+      if (offsetFromFirst >= size() || offsetFromFirst < 0)
+         throw new IndexOutOfBoundsException(outOfBoundsMessage(offsetFromFirst));
+
+      if (!isBufferFull)
+         return buffer[offsetFromFirst];
+
+      int index = currentIndex + 1 + offsetFromFirst;
+      return buffer[index % capacity];
+   }
+
+   /**
+    * Gets the <tt>N</tt><sup>th</sup> newest element that was added to this buffer.
+    *
+    * @param offsetFromLast offset from the newest element, i.e. <tt>N</tt> above.
+    * @return the <tt>N</tt><sup>th</sup> newest element.
+    * @throws IndexOutOfBoundsException if {@code offsetFromLast} &notin; [0, <tt>this.size()</tt>[.
+    */
+   public int getFromLast(int offsetFromLast)
+   {
+      if (offsetFromLast >= size() || offsetFromLast < 0)
+         throw new IndexOutOfBoundsException(outOfBoundsMessage(offsetFromLast));
+
+      int index = currentIndex - offsetFromLast;
+      if (index < 0)
+         index += capacity;
+      return buffer[index];
+   }
+
+   /**
+    * Gets the sum of the elements of this buffer.
+    *
+    * @return the sum of the elements, or {@code 0} if this buffer is empty.
+    */
+   public long getSum()
+   {
+      return sum;
+   }
+
+   /**
+    * Gets the average of the elements of this buffer.
+    *
+    * @return the average of the elements, or {@link Double#NaN} if this buffer is empty.
+    */
+   public double getMean()
+   {
+      return (double) sum / size();
+   }
+
+   /**
+    * Gets the smallest element of this buffer.
+    *
+    * @return the smallest element.
+    * @throws NoSuchElementException if this buffer is empty.
+    */
+   public int getMin()
+   {
+      return buffer[minQueue.peek()];
+   }
+
+   /**
+    * Gets the largest element of this buffer.
+    *
+    * @return the largest element.
+    * @throws NoSuchElementException if this buffer is empty.
+    */
+   public int getMax()
+   {
+      return buffer[maxQueue.peek()];
+   }
+
+   private void clearStatistics()
+   {
+      sum = 0L;
+      minQueue.clear();
+      maxQueue.clear();
+   }
+
+   private void addToStatistics(int index)
+   {
+      sum += buffer[index];
+      minQueue.push(index);
+      maxQueue.push(index);
+   }
+
+   private void removeFromStatistics(int index)
+   {
+      sum -= buffer[index];
+      minQueue.evict(index);
+      maxQueue.evict(index);
+   }
+
+   /**
+    * Gets whether this buffer has reached its capacity or not.
+    *
+    * @return {@code true} is this ring buffer is full, {@code false} otherwise.
+    */
+   public boolean isBufferFull()
+   {
+      return isBufferFull;
+   }
+
+   /**
+    * Returns <tt>true</tt> if this buffer contains no elements.
+    *
+    * @return <tt>true</tt> if this buffer contains no elements
+    */
+   public boolean isEmpty()
+   {
+      return currentIndex == -1;
+   }
+
+   /**
+    * Returns the current size of this ring buffer.
+    * <p>
+    * When this buffer is full, this method returns <tt>capacity</tt>.
+    * </p>
+    *
+    * @return the number of element in this buffer.
+    */
+   public int size()
+   {
+      if (isBufferFull)
+         return capacity;
+      else
+         return currentIndex + 1;
+   }
+
+   /**
+    * Returns the number of elements this buffer can hold onto.
+    *
+    * @return this buffer's capacity.
+    */
+   public int capacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * Creates a array of this buffer's elements ordered from the oldest to the newest.
+    *
+    * @return the current buffer's elements from oldest to newest.
+    */
+   public int[] toArrayFromFirstToLast()
+   {
+      int size = size();
+      int[] array = new int[size];
+
+      int index = isBufferFull ? currentIndex + 1 : 0;
+
+      for (int offset = 0; offset < size; offset++)
+      {
+         array[offset] = buffer[index % capacity];
+         index++;
+      }
+      return array;
+   }
+
+   /**
+    * Creates a array of this buffer's elements ordered from the newest to the oldest.
+    *
+    * @return the current buffer's elements from newest to oldest.
+    */
+   public int[] toArrayFromLastToFirst()
+   {
+      int size = size();
+      int[] array = new int[size];
+
+      int index = currentIndex;
+
+      for (int offset = 0; offset < size; offset++)
+      {
+         if (index < 0)
+            index += capacity;
+
+         array[offset] = buffer[index];
+         index--;
+      }
+      return array;
+   }
+
+   /**
+    * Returns an iterator over the elements of this ring buffer starting from the oldest element and
+    * ending at the newest element.
+    */
+   @Override
+   public PrimitiveIterator.OfInt iterator()
+   {
+      return new IntRingBufferIterator(false);
+   }
+
+   /**
+    * Returns an iterator over the elements of this ring buffer starting from the newest element and
+    * ending at the oldest element.
+    */
+   public PrimitiveIterator.OfInt reverseIterator()
+   {
+      return new IntRingBufferIterator(true);
+   }
+
+   private String outOfBoundsMessage(int index)
+   {
+      return "Index: " + index + ", Size: " + size();
+   }
+
+   private class IntRingBufferIterator implements PrimitiveIterator.OfInt
+   {
+      /**
+       * Index of element to be returned by subsequent call to next.
+       */
+      int cursor = 0;
+
+      /**
+       * The modCount value that the iterator believes that the buffer should have. If this expectation is
+       * violated, the iterator has detected concurrent modification.
+       */
+      int expectedModCount = modCount;
+
+      /**
+       * Indicates the direction of this iterator:
+       * <ul>
+       * <li>{@code reverse == false}: iterates from oldest to newest element.
+       * <li>{@code reverse == true}: iterates from newest to oldest element.
+       * </ul>
+       */
+      private final boolean reverse;
+
+      private IntRingBufferIterator(boolean reverse)
+      {
+         this.reverse = reverse;
+      }
+
+      public boolean hasNext()
+      {
+         return cursor != size();
+      }
+
+      public int nextInt()
+      {
+         checkForComodification();
+         try
+         {
+            int offset = cursor;
+            int next = reverse ? getFromLast(offset) : getFromFirst(offset);
+            cursor = offset + 1;
+            return next;
+         }
+         catch (IndexOutOfBoundsException e)
+         {
+            checkForComodification();
+            throw new NoSuchElementException();
+         }
+      }
+
+      public void remove()
+      {
+         throw new UnsupportedOperationException("Removing elements from the buffer is not supported.");
+      }
+
+      final void checkForComodification()
+      {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+      }
+   }
+
+   /**
+    * Queue of indices of the buffer's elements for which no newer element is smaller, respectively
+    * greater, such that the first index of the queue is the one of the minimum, respectively maximum.
+    */
+   private class ExtremumQueue
+   {
+      private final boolean isMaxQueue;
+      private int[] indices;
+      private int head = 0;
+      private int size = 0;
+
+      private ExtremumQueue(boolean isMaxQueue)
+      {
+         this.isMaxQueue = isMaxQueue;
+      }
+
+      private void setCapacity(int capacity)
+      {
+         indices = new int[capacity];
+         clear();
+      }
+
+      private void clear()
+      {
+         head = 0;
+         size = 0;
+      }
+
+      private void push(int index)
+      {
+         int value = buffer[index];
+
+         while (size > 0)
+         {
+            int tail = head + size - 1;
+            if (tail >= indices.length)
+               tail -= indices.length;
+
+            int comparison = Integer.compare(buffer[indices[tail]], value);
+            if (isMaxQueue ? comparison > 0 : comparison < 0)
+               break;
+            size--;
+         }
+
+         int tail = head + size;
+         if (tail >= indices.length)
+            tail -= indices.length;
+         indices[tail] = index;
+         size++;
+      }
+
+      private void evict(int index)
+      {
+         // The element being removed is the oldest, if still in the queue it is necessarily at its head.
+         if (size > 0 && indices[head] == index)
+         {
+            head++;
+            if (head == indices.length)
+               head = 0;
+            size--;
+         }
+      }
+
+      private int peek()
+      {
+         if (size == 0)
+            throw new NoSuchElementException("The buffer is empty.");
+         return indices[head];
+      }
+   }
+
+   @Override
+   public boolean equals(Object object)
+   {
+      if (object == this)
+      {
+         return true;
+      }
+      else if (object instanceof IntRingBuffer)
+      {
+         IntRingBuffer other = (IntRingBuffer) object;
+         if (size() != other.size())
+            return false;
+         for (int i = 0; i < size(); i++)
+         {
+            if (getFromFirst(i) != other.getFromFirst(i))
+               return false;
+         }
+         return true;
+      }
+      else
+      {
+         return false;
+      }
+   }
+
+   /**
+    * Computes a hash code over the size of this buffer and its elements from oldest to newest,
+    * consistent with {@link #equals(Object)}.
+    */
+   @Override
+   public int hashCode()
+   {
+      int hashCode = size();
+      for (int i = 0; i < size(); i++)
+         hashCode = 31 * hashCode + Integer.hashCode(getFromFirst(i));
+      return hashCode;
+   }
+
+   @Override
+   public String toString()
+   {
+      if (isEmpty())
+         return "Empty";
+
+      StringBuilder sb = new StringBuilder();
+      int size = size();
+      sb.append("Size: ").append(size).append(", [");
+      sb.append(getFirst());
+      for (int i = 1; i < size; i++)
+         sb.append(',').append(' ').append(getFromFirst(i));
+      sb.append(']');
+      return sb.toString();
+   }
+}
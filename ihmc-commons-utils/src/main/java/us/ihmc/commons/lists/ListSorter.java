@@ -6,27 +6,14 @@ import java.util.Comparator;
 public class ListSorter
 {
    /**
-    * Sort an array in place without allocating any memory.
+    * Sort a list in place without allocating any memory.
+    * <p>
+    * The sort is stable, see {@link InPlaceMergeSort}.
+    * </p>
     */
    public static <T> void sort(List<T> ts, Comparator<T> comparator)
    {
-      boolean ordered = false;
-
-      while (!ordered)
-      {
-         ordered = true;
-         for (int i = 0; i < ts.size() - 1; i++)
-         {
-            T a = ts.get(i);
-            T b = ts.get(i + 1);
-
-            if(comparator.compare(a, b) > 0)
-            {
-               ordered = false;
-               swap(ts, i, i + 1);
-            }
-         }
-      }
+      InPlaceMergeSort.sort(ts, comparator);
    }
 
    public static <T> void swap(List<T> ts, int a, int b)
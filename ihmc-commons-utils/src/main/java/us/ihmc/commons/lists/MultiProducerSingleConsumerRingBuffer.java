@@ -0,0 +1,416 @@
+package us.ihmc.commons.lists;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free bounded queue used to gather elements from several producer threads, e.g. perception
+ * and control threads emitting telemetry, into a single consumer thread, e.g. a logger.
+ * <p>
+ * As {@link RingBuffer}, the elements are allocated once at construction and then recycled.
+ * Producers claim a sequence number with {@link #claim()}, fill the corresponding element obtained
+ * with {@link #get(long)}, and make it visible with {@link #publish(long)}. Sequences are claimed
+ * atomically such that producers never share an element, and each element is published
+ * independently such that a slow producer does not prevent the others from claiming. The consumer
+ * sees the elements in sequence order and only up to the first element that has been claimed but
+ * not published yet.
+ * </p>
+ * <p>
+ * The consumer can process elements one at a time with {@link #peek()} and {@link #release()}, or
+ * in batches with {@link #drain(Consumer)} or {@link #drainRanges(RangeConsumer)}, the latter
+ * handing contiguous ranges of the internal array to the consumer.
+ * </p>
+ * <p>
+ * Published elements are never overwritten: when the consumer falls behind and the buffer is full,
+ * {@link #claim()} fails and the overrun is counted, see {@link #getNumberOfOverruns()}.
+ * </p>
+ *
+ * @param <T> the type of the elements.
+ */
+@SuppressWarnings("unchecked")
+public class MultiProducerSingleConsumerRingBuffer<T>
+{
+   /**
+    * Consumer of contiguous ranges of elements.
+    */
+   public interface RangeConsumer
+   {
+      /**
+       * Processes the elements in [{@code fromIndex}, {@code toIndex}[.
+       * <p>
+       * The internal array is an {@code Object[]}, as in {@link RingBuffer}, such that the allocator
+       * can return any subclass of the element type. The elements are to be cast individually.
+       * </p>
+       *
+       * @param elements  the internal array of the buffer. Should not be modified nor kept after this
+       *                  call.
+       * @param fromIndex the index of the first element to process, inclusive.
+       * @param toIndex   the index of the last element to process, exclusive.
+       */
+      void accept(Object[] elements, int fromIndex, int toIndex);
+   }
+
+   private final int capacity;
+   private final T[] buffer;
+   private final BiConsumer<T, T> copier;
+
+   /** Next sequence to be claimed by a producer. */
+   private final AtomicLong claimSequence = new AtomicLong(0);
+   /** For each element, the sequence under which it was last published. */
+   private final AtomicLongArray publishedSequences;
+   /** Number of elements released so far, written by the consumer only. */
+   private final AtomicLong head = new AtomicLong(0);
+
+   // Only accessed by the consumer thread.
+   private long consumerSequence = 0;
+
+   private final LongAdder numberOfOverruns = new LongAdder();
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity  the maximum number of elements claimed and not yet released.
+    * @param allocator builder used to instantiate this buffer's elements.
+    */
+   public MultiProducerSingleConsumerRingBuffer(int capacity, Supplier<T> allocator)
+   {
+      this(capacity, allocator, null);
+   }
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity  the maximum number of elements claimed and not yet released.
+    * @param allocator builder used to instantiate this buffer's elements.
+    * @param copier    copier required to use {@link #offer(Object)} and {@link #poll(Object)}.
+    */
+   public MultiProducerSingleConsumerRingBuffer(int capacity, Supplier<T> allocator, BiConsumer<T, T> copier)
+   {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("Cannot instantiate a buffer with a size of zero or less.");
+      this.capacity = capacity;
+      this.copier = copier;
+
+      buffer = (T[]) new Object[capacity];
+      for (int i = 0; i < capacity; i++)
+         buffer[i] = allocator.get();
+
+      publishedSequences = new AtomicLongArray(capacity);
+      for (int i = 0; i < capacity; i++)
+         publishedSequences.set(i, -1L);
+   }
+
+   /**
+    * Claims the next free element.
+    * <p>
+    * The element is to be obtained with {@link #get(long)}, filled, and then published with
+    * {@link #publish(long)}. Every successful claim must be followed by a publish, otherwise the
+    * consumer will wait forever on the claimed element. This method can be called from any thread.
+    * </p>
+    *
+    * @return the sequence of the claimed element, or {@code -1} if the buffer is full in which case
+    *         an overrun is counted.
+    */
+   public long claim()
+   {
+      while (true)
+      {
+         long sequence = claimSequence.get();
+
+         if (sequence - head.get() >= capacity)
+         {
+            numberOfOverruns.increment();
+            return -1L;
+         }
+
+         if (claimSequence.compareAndSet(sequence, sequence + 1))
+            return sequence;
+      }
+   }
+
+   /**
+    * Gets the element associated to the given sequence.
+    *
+    * @param sequence the sequence returned by {@link #claim()}.
+    * @return the element to fill.
+    */
+   public T get(long sequence)
+   {
+      return buffer[toIndex(sequence)];
+   }
+
+   /**
+    * Makes the element of the given sequence visible to the consumer.
+    * <p>
+    * This method is intended to be called from the producer thread that claimed {@code sequence}.
+    * </p>
+    *
+    * @param sequence the sequence returned by {@link #claim()}.
+    */
+   public void publish(long sequence)
+   {
+      publishedSequences.setRelease(toIndex(sequence), sequence);
+   }
+
+   /**
+    * Claims a new element, sets it to {@code newElementToCopy}, and publishes it.
+    * <p>
+    * This method can be called from any thread.
+    * </p>
+    *
+    * @param newElementToCopy the value for the new element.
+    * @return {@code true} if the element was published, {@code false} if the buffer is full.
+    * @throws UnsupportedOperationException if this buffer was not given a copier.
+    */
+   public boolean offer(T newElementToCopy)
+   {
+      if (copier == null)
+         throw new UnsupportedOperationException("Unable to copy new data to internal element without a copier. Use claim() instead.");
+
+      long sequence = claim();
+      if (sequence == -1L)
+         return false;
+
+      copier.accept(get(sequence), newElementToCopy);
+      publish(sequence);
+      return true;
+   }
+
+   /**
+    * Gets the oldest published element that has not been released yet.
+    * <p>
+    * The element is owned by the consumer until {@link #release()} is called. This method is intended
+    * to be called from the consumer thread only.
+    * </p>
+    *
+    * @return the oldest published element, or {@code null} if there is none.
+    */
+   public T peek()
+   {
+      if (!isPublished(consumerSequence))
+         return null;
+
+      return buffer[toIndex(consumerSequence)];
+   }
+
+   /**
+    * Hands the element returned by {@link #peek()} back to the producers.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @throws IllegalStateException if there is no element to release.
+    */
+   public void release()
+   {
+      if (!isPublished(consumerSequence))
+         throw new IllegalStateException("There is no published element to release.");
+
+      consumerSequence++;
+      head.setRelease(consumerSequence);
+   }
+
+   /**
+    * Copies the oldest published element into {@code destination} and releases it.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @param destination the object in which the element is stored. Modified.
+    * @return {@code true} if an element was copied, {@code false} if there was none.
+    * @throws UnsupportedOperationException if this buffer was not given a copier.
+    */
+   public boolean poll(T destination)
+   {
+      if (copier == null)
+         throw new UnsupportedOperationException("Unable to copy internal element without a copier. Use peek() instead.");
+
+      T element = peek();
+      if (element == null)
+         return false;
+
+      copier.accept(destination, element);
+      release();
+      return true;
+   }
+
+   /**
+    * Passes all the published elements to {@code consumer}, from oldest to newest, and releases them.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @param consumer the function to call on each element, it should not keep a reference to the
+    *                 elements.
+    * @return the number of elements processed.
+    */
+   public int drain(Consumer<? super T> consumer)
+   {
+      return drain(consumer, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Passes up to {@code maxElements} published elements to {@code consumer}, from oldest to newest,
+    * and releases them.
+    * <p>
+    * The elements are released all at once after processing the last one. This method is intended to
+    * be called from the consumer thread only.
+    * </p>
+    *
+    * @param consumer    the function to call on each element, it should not keep a reference to the
+    *                    elements.
+    * @param maxElements the maximum number of elements to process.
+    * @return the number of elements processed.
+    */
+   public int drain(Consumer<? super T> consumer, int maxElements)
+   {
+      int numberOfElements = countPublishedElements(maxElements);
+
+      for (int i = 0; i < numberOfElements; i++)
+         consumer.accept(buffer[toIndex(consumerSequence + i)]);
+
+      releaseElements(numberOfElements);
+      return numberOfElements;
+   }
+
+   /**
+    * Passes all the published elements to {@code consumer} as at most two contiguous ranges of the
+    * internal array, from oldest to newest, and releases them.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @param consumer the function to call on each range.
+    * @return the number of elements processed.
+    */
+   public int drainRanges(RangeConsumer consumer)
+   {
+      return drainRanges(consumer, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Passes up to {@code maxElements} published elements to {@code consumer} as at most two
+    * contiguous ranges of the internal array, from oldest to newest, and releases them.
+    * <p>
+    * The elements are released all at once after processing the last range. This method is intended
+    * to be called from the consumer thread only.
+    * </p>
+    *
+    * @param consumer    the function to call on each range.
+    * @param maxElements the maximum number of elements to process.
+    * @return the number of elements processed.
+    */
+   public int drainRanges(RangeConsumer consumer, int maxElements)
+   {
+      int numberOfElements = countPublishedElements(maxElements);
+
+      if (numberOfElements > 0)
+      {
+         int fromIndex = toIndex(consumerSequence);
+         int toIndex = fromIndex + numberOfElements;
+
+         if (toIndex <= capacity)
+         {
+            consumer.accept(buffer, fromIndex, toIndex);
+         }
+         else
+         {
+            consumer.accept(buffer, fromIndex, capacity);
+            consumer.accept(buffer, 0, toIndex - capacity);
+         }
+      }
+
+      releaseElements(numberOfElements);
+      return numberOfElements;
+   }
+
+   private int countPublishedElements(int maxElements)
+   {
+      int numberOfElements = 0;
+
+      while (numberOfElements < maxElements && numberOfElements < capacity && isPublished(consumerSequence + numberOfElements))
+         numberOfElements++;
+
+      return numberOfElements;
+   }
+
+   private void releaseElements(int numberOfElements)
+   {
+      if (numberOfElements > 0)
+      {
+         consumerSequence += numberOfElements;
+         head.setRelease(consumerSequence);
+      }
+   }
+
+   private boolean isPublished(long sequence)
+   {
+      return publishedSequences.getAcquire(toIndex(sequence)) == sequence;
+   }
+
+   private int toIndex(long sequence)
+   {
+      return (int) (sequence % capacity);
+   }
+
+   /**
+    * Returns the number of elements claimed and not released yet, including the ones that are not
+    * published yet.
+    * <p>
+    * When called while the producers or consumer are active, the returned value is only a snapshot.
+    * </p>
+    *
+    * @return the number of element in this buffer.
+    */
+   public int size()
+   {
+      long released = head.get();
+      return (int) Math.min(claimSequence.get() - released, capacity);
+   }
+
+   /**
+    * Returns <tt>true</tt> if this buffer contains no claimed element.
+    */
+   public boolean isEmpty()
+   {
+      return size() == 0;
+   }
+
+   /**
+    * Returns the maximum number of elements claimed and not released yet.
+    *
+    * @return this buffer's capacity.
+    */
+   public int capacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * Gets the number of successful calls to {@link #claim()} so far.
+    */
+   public long getNumberOfClaimedElements()
+   {
+      return claimSequence.get();
+   }
+
+   /**
+    * Gets the number of elements released so far.
+    */
+   public long getNumberOfReleasedElements()
+   {
+      return head.get();
+   }
+
+   /**
+    * Gets the number of calls to {@link #claim()} that failed because the buffer was full.
+    */
+   public long getNumberOfOverruns()
+   {
+      return numberOfOverruns.sum();
+   }
+}
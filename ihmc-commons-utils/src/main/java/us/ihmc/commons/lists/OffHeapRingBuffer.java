@@ -0,0 +1,353 @@
+package us.ihmc.commons.lists;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+/**
+ * Ring buffer of fixed-layout records stored outside of the Java heap.
+ * <p>
+ * This buffer has the same semantics as {@link RingBuffer} but instead of holding onto objects, each
+ * record is made of a fixed set of primitive columns declared at construction. The data is stored
+ * in a single direct {@link ByteBuffer} organized as a structure of arrays: the values of a given
+ * column for all the records are contiguous in memory. This allows to keep long histories of many
+ * signals without putting any pressure on the garbage collector, and to export a window of a column
+ * without copying it, see {@link #exportColumn(int, int, int, Consumer)}.
+ * </p>
+ * <p>
+ * Typical usage:
+ *
+ * <pre>
+ * OffHeapRingBuffer history = new OffHeapRingBuffer(60000, ColumnType.LONG, ColumnType.DOUBLE);
+ * history.add();
+ * history.setLongFromLast(0, 0, timestamp);
+ * history.setDoubleFromLast(1, 0, jointTorque);
+ * </pre>
+ * </p>
+ */
+public class OffHeapRingBuffer
+{
+   /**
+    * Type of the values of a column.
+    */
+   public enum ColumnType
+   {
+      DOUBLE(Double.BYTES), FLOAT(Float.BYTES), LONG(Long.BYTES), INT(Integer.BYTES);
+
+      private final int size;
+
+      ColumnType(int size)
+      {
+         this.size = size;
+      }
+
+      /**
+       * Gets the size in bytes of a value of this type.
+       */
+      public int getSize()
+      {
+         return size;
+      }
+   }
+
+   private int currentIndex = -1;
+   private final int capacity;
+   private boolean isBufferFull = false;
+
+   private final ByteBuffer buffer;
+   private final ColumnType[] columnTypes;
+   /** Position in bytes in {@link #buffer} of the first value of each column. */
+   private final int[] columnOffsets;
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity    the number of records this buffer can hold onto.
+    * @param columnTypes the type of each column of the records.
+    * @throws IllegalArgumentException if the capacity is zero or less, no column is given, or the
+    *                                  total size exceeds the maximum size of a {@link ByteBuffer}.
+    */
+   public OffHeapRingBuffer(int capacity, ColumnType... columnTypes)
+   {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("Cannot instantiate a buffer with a size of zero or less.");
+      if (columnTypes.length == 0)
+         throw new IllegalArgumentException("Cannot instantiate a buffer without columns.");
+
+      this.capacity = capacity;
+      this.columnTypes = columnTypes.clone();
+      columnOffsets = new int[columnTypes.length];
+
+      long size = 0;
+
+      for (int column = 0; column < columnTypes.length; column++)
+      {
+         columnOffsets[column] = (int) size;
+         size += (long) capacity * columnTypes[column].getSize();
+         // Pads the columns such that each starts on an 8-byte boundary.
+         size = (size + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+
+         if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The buffer size exceeds the maximum size of a ByteBuffer: " + size + " bytes.");
+      }
+
+      buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+   }
+
+   /**
+    * Clears this buffer.
+    * <p>
+    * Note that the memory is not cleared, a newly added record holds the values of the record
+    * previously stored at the same place.
+    * </p>
+    */
+   public void reset()
+   {
+      currentIndex = -1;
+      isBufferFull = false;
+   }
+
+   /**
+    * Adds a new record to this buffer, increasing its current size by 1 if not full, otherwise
+    * dropping the oldest record that was added.
+    * <p>
+    * The values of the new record are undefined until set, for instance with
+    * {@link #setDoubleFromLast(int, int, double)}.
+    * </p>
+    */
+   public void add()
+   {
+      currentIndex++;
+
+      if (currentIndex >= capacity)
+      {
+         isBufferFull = true;
+         currentIndex = 0;
+      }
+   }
+
+   public double getDoubleFromFirst(int column, int offsetFromFirst)
+   {
+      return buffer.getDouble(byteIndex(column, ColumnType.DOUBLE, indexFromFirst(offsetFromFirst)));
+   }
+
+   public double getDoubleFromLast(int column, int offsetFromLast)
+   {
+      return buffer.getDouble(byteIndex(column, ColumnType.DOUBLE, indexFromLast(offsetFromLast)));
+   }
+
+   public void setDoubleFromFirst(int column, int offsetFromFirst, double value)
+   {
+      buffer.putDouble(byteIndex(column, ColumnType.DOUBLE, indexFromFirst(offsetFromFirst)), value);
+   }
+
+   public void setDoubleFromLast(int column, int offsetFromLast, double value)
+   {
+      buffer.putDouble(byteIndex(column, ColumnType.DOUBLE, indexFromLast(offsetFromLast)), value);
+   }
+
+   public float getFloatFromFirst(int column, int offsetFromFirst)
+   {
+      return buffer.getFloat(byteIndex(column, ColumnType.FLOAT, indexFromFirst(offsetFromFirst)));
+   }
+
+   public float getFloatFromLast(int column, int offsetFromLast)
+   {
+      return buffer.getFloat(byteIndex(column, ColumnType.FLOAT, indexFromLast(offsetFromLast)));
+   }
+
+   public void setFloatFromFirst(int column, int offsetFromFirst, float value)
+   {
+      buffer.putFloat(byteIndex(column, ColumnType.FLOAT, indexFromFirst(offsetFromFirst)), value);
+   }
+
+   public void setFloatFromLast(int column, int offsetFromLast, float value)
+   {
+      buffer.putFloat(byteIndex(column, ColumnType.FLOAT, indexFromLast(offsetFromLast)), value);
+   }
+
+   public long getLongFromFirst(int column, int offsetFromFirst)
+   {
+      return buffer.getLong(byteIndex(column, ColumnType.LONG, indexFromFirst(offsetFromFirst)));
+   }
+
+   public long getLongFromLast(int column, int offsetFromLast)
+   {
+      return buffer.getLong(byteIndex(column, ColumnType.LONG, indexFromLast(offsetFromLast)));
+   }
+
+   public void setLongFromFirst(int column, int offsetFromFirst, long value)
+   {
+      buffer.putLong(byteIndex(column, ColumnType.LONG, indexFromFirst(offsetFromFirst)), value);
+   }
+
+   public void setLongFromLast(int column, int offsetFromLast, long value)
+   {
+      buffer.putLong(byteIndex(column, ColumnType.LONG, indexFromLast(offsetFromLast)), value);
+   }
+
+   public int getIntFromFirst(int column, int offsetFromFirst)
+   {
+      return buffer.getInt(byteIndex(column, ColumnType.INT, indexFromFirst(offsetFromFirst)));
+   }
+
+   public int getIntFromLast(int column, int offsetFromLast)
+   {
+      return buffer.getInt(byteIndex(column, ColumnType.INT, indexFromLast(offsetFromLast)));
+   }
+
+   public void setIntFromFirst(int column, int offsetFromFirst, int value)
+   {
+      buffer.putInt(byteIndex(column, ColumnType.INT, indexFromFirst(offsetFromFirst)), value);
+   }
+
+   public void setIntFromLast(int column, int offsetFromLast, int value)
+   {
+      buffer.putInt(byteIndex(column, ColumnType.INT, indexFromLast(offsetFromLast)), value);
+   }
+
+   /**
+    * Exports the values of a column for a contiguous window of records without copying them.
+    * <p>
+    * The window is passed to {@code consumer} as one or two read-only views of the internal memory,
+    * two when the window wraps around the end of the internal memory. Each view holds the values of
+    * consecutive records in the native byte order, from its position to its limit, and can for
+    * instance directly be written to a {@link java.nio.channels.FileChannel}. The views should not be
+    * used once this buffer has been modified.
+    * </p>
+    *
+    * @param column          the index of the column to export.
+    * @param offsetFromFirst the offset from the oldest record of the first record to export.
+    * @param numberOfRecords the number of records to export.
+    * @param consumer        the function to call on each view.
+    * @return the number of views passed to {@code consumer}.
+    * @throws IndexOutOfBoundsException if the window is not within [0, <tt>this.size()</tt>[.
+    */
+   public int exportColumn(int column, int offsetFromFirst, int numberOfRecords, Consumer<ByteBuffer> consumer)
+   {
+      if (numberOfRecords < 0 || offsetFromFirst < 0 || offsetFromFirst + numberOfRecords > size())
+         throw new IndexOutOfBoundsException("Window: [" + offsetFromFirst + ", " + (offsetFromFirst + numberOfRecords) + "[, Size: " + size());
+
+      if (numberOfRecords == 0)
+         return 0;
+
+      int fromIndex = isBufferFull ? (currentIndex + 1 + offsetFromFirst) % capacity : offsetFromFirst;
+      int toIndex = fromIndex + numberOfRecords;
+
+      if (toIndex <= capacity)
+      {
+         consumer.accept(columnView(column, fromIndex, toIndex));
+         return 1;
+      }
+      else
+      {
+         consumer.accept(columnView(column, fromIndex, capacity));
+         consumer.accept(columnView(column, 0, toIndex - capacity));
+         return 2;
+      }
+   }
+
+   private ByteBuffer columnView(int column, int fromIndex, int toIndex)
+   {
+      int valueSize = columnTypes[column].getSize();
+      int position = columnOffsets[column] + fromIndex * valueSize;
+      return buffer.asReadOnlyBuffer().slice(position, (toIndex - fromIndex) * valueSize).order(buffer.order());
+   }
+
+   private int indexFromFirst(int offsetFromFirst)
+   {
+      if (offsetFromFirst >= size() || offsetFromFirst < 0)
+         throw new IndexOutOfBoundsException(outOfBoundsMessage(offsetFromFirst));
+
+      if (!isBufferFull)
+         return offsetFromFirst;
+
+      return (currentIndex + 1 + offsetFromFirst) % capacity;
+   }
+
+   private int indexFromLast(int offsetFromLast)
+   {
+      if (offsetFromLast >= size() || offsetFromLast < 0)
+         throw new IndexOutOfBoundsException(outOfBoundsMessage(offsetFromLast));
+
+      int index = currentIndex - offsetFromLast;
+      if (index < 0)
+         index += capacity;
+      return index;
+   }
+
+   private int byteIndex(int column, ColumnType expectedType, int recordIndex)
+   {
+      if (columnTypes[column] != expectedType)
+         throw new IllegalArgumentException("The column " + column + " is of type " + columnTypes[column] + ", not " + expectedType + ".");
+
+      return columnOffsets[column] + recordIndex * expectedType.getSize();
+   }
+
+   private String outOfBoundsMessage(int index)
+   {
+      return "Index: " + index + ", Size: " + size();
+   }
+
+   /**
+    * Gets the number of columns of the records.
+    */
+   public int getNumberOfColumns()
+   {
+      return columnTypes.length;
+   }
+
+   /**
+    * Gets the type of the given column.
+    */
+   public ColumnType getColumnType(int column)
+   {
+      return columnTypes[column];
+   }
+
+   /**
+    * Gets whether this buffer has reached its capacity or not.
+    *
+    * @return {@code true} is this ring buffer is full, {@code false} otherwise.
+    */
+   public boolean isBufferFull()
+   {
+      return isBufferFull;
+   }
+
+   /**
+    * Returns <tt>true</tt> if this buffer contains no records.
+    *
+    * @return <tt>true</tt> if this buffer contains no records
+    */
+   public boolean isEmpty()
+   {
+      return currentIndex == -1;
+   }
+
+   /**
+    * Returns the current number of records in this ring buffer.
+    * <p>
+    * When this buffer is full, this method returns <tt>capacity</tt>.
+    * </p>
+    *
+    * @return the number of records in this buffer.
+    */
+   public int size()
+   {
+      if (isBufferFull)
+         return capacity;
+      else
+         return currentIndex + 1;
+   }
+
+   /**
+    * Returns the number of records this buffer can hold onto.
+    *
+    * @return this buffer's capacity.
+    */
+   public int capacity()
+   {
+      return capacity;
+   }
+}
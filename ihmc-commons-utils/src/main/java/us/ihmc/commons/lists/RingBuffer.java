@@ -3,8 +3,11 @@ package us.ihmc.commons.lists;
 import java.lang.reflect.Array;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 
 /**
@@ -18,6 +21,12 @@ import java.util.function.Supplier;
  * <p>
  * Note that as {@link RecyclingArrayList}, this implementation recycles memory internally.
  * </p>
+ * <p>
+ * To traverse this buffer without generating garbage, use {@link #forEach(Consumer)},
+ * {@link #forEachFromFirst(ObjIntConsumer)}, {@link #forEachFromLast(ObjIntConsumer)}, or a
+ * {@link Cursor} created once with {@link #newCursor(boolean)} and rewound with
+ * {@link Cursor#reset()}.
+ * </p>
  * 
  * @author Sylvain Bertrand
  * @param <T>
@@ -324,6 +333,106 @@ public class RingBuffer<T> implements Iterable<T>
       return array;
    }
 
+   /**
+    * Copies the references to this buffer's elements ordered from the oldest to the newest into the
+    * given array.
+    *
+    * @param destination the array in which the elements are stored, its length has to be at least
+    *                    <tt>this.size()</tt>. Modified.
+    * @return the number of elements copied, i.e. <tt>this.size()</tt>.
+    * @throws IndexOutOfBoundsException if {@code destination} is too small.
+    */
+   public int copyInto(T[] destination)
+   {
+      int size = size();
+      if (destination.length < size)
+         throw new IndexOutOfBoundsException("The destination is too small, length: " + destination.length + ", size: " + size);
+
+      if (!isBufferFull)
+      {
+         System.arraycopy(buffer, 0, destination, 0, size);
+      }
+      else
+      {
+         int numberOfOldestElements = capacity - currentIndex - 1;
+         System.arraycopy(buffer, currentIndex + 1, destination, 0, numberOfOldestElements);
+         System.arraycopy(buffer, 0, destination, numberOfOldestElements, currentIndex + 1);
+      }
+      return size;
+   }
+
+   /**
+    * Clears the given list and adds to it the references to this buffer's elements ordered from the
+    * oldest to the newest.
+    * <p>
+    * No garbage is generated when the list is already large enough, as for instance with an
+    * {@link java.util.ArrayList} previously filled.
+    * </p>
+    *
+    * @param destination the list in which the elements are stored. Modified.
+    */
+   public void copyInto(List<? super T> destination)
+   {
+      destination.clear();
+      int size = size();
+      for (int offset = 0; offset < size; offset++)
+         destination.add(getFromFirst(offset));
+   }
+
+   /**
+    * Performs the given action on each element of this buffer, starting from the oldest element and
+    * ending at the newest element.
+    *
+    * @param action the action to perform.
+    * @throws ConcurrentModificationException if this buffer is modified by {@code action}.
+    */
+   @Override
+   public void forEach(Consumer<? super T> action)
+   {
+      int expectedModCount = modCount;
+      int size = size();
+      for (int offset = 0; offset < size && modCount == expectedModCount; offset++)
+         action.accept(getFromFirst(offset));
+      if (modCount != expectedModCount)
+         throw new ConcurrentModificationException();
+   }
+
+   /**
+    * Performs the given action on each element of this buffer, starting from the oldest element and
+    * ending at the newest element.
+    *
+    * @param visitor the action to perform, it is given the element and its offset from the oldest
+    *                element.
+    * @throws ConcurrentModificationException if this buffer is modified by {@code visitor}.
+    */
+   public void forEachFromFirst(ObjIntConsumer<? super T> visitor)
+   {
+      int expectedModCount = modCount;
+      int size = size();
+      for (int offset = 0; offset < size && modCount == expectedModCount; offset++)
+         visitor.accept(getFromFirst(offset), offset);
+      if (modCount != expectedModCount)
+         throw new ConcurrentModificationException();
+   }
+
+   /**
+    * Performs the given action on each element of this buffer, starting from the newest element and
+    * ending at the oldest element.
+    *
+    * @param visitor the action to perform, it is given the element and its offset from the newest
+    *                element.
+    * @throws ConcurrentModificationException if this buffer is modified by {@code visitor}.
+    */
+   public void forEachFromLast(ObjIntConsumer<? super T> visitor)
+   {
+      int expectedModCount = modCount;
+      int size = size();
+      for (int offset = 0; offset < size && modCount == expectedModCount; offset++)
+         visitor.accept(getFromLast(offset), offset);
+      if (modCount != expectedModCount)
+         throw new ConcurrentModificationException();
+   }
+
    /**
     * Returns an iterator over the elements of this ring buffer starting from the oldest element and
     * ending at the newest element.
@@ -331,7 +440,7 @@ public class RingBuffer<T> implements Iterable<T>
    @Override
    public Iterator<T> iterator()
    {
-      return new RingBufferIterator(false);
+      return new Cursor(false);
    }
 
    /**
@@ -340,7 +449,20 @@ public class RingBuffer<T> implements Iterable<T>
     */
    public Iterator<T> reverseIterator()
    {
-      return new RingBufferIterator(true);
+      return new Cursor(true);
+   }
+
+   /**
+    * Creates a new iterator that can be reused to traverse this buffer several times, see
+    * {@link Cursor#reset()}.
+    *
+    * @param reverse {@code false} to iterate from the oldest to the newest element, {@code true} to
+    *                iterate from the newest to the oldest element.
+    * @return the new cursor.
+    */
+   public Cursor newCursor(boolean reverse)
+   {
+      return new Cursor(reverse);
    }
 
    private String outOfBoundsMessage(int index)
@@ -348,7 +470,11 @@ public class RingBuffer<T> implements Iterable<T>
       return "Index: " + index + ", Size: " + size();
    }
 
-   private class RingBufferIterator implements Iterator<T>
+   /**
+    * Iterator over the elements of a ring buffer that can be rewound to traverse the buffer again
+    * without creating a new iterator.
+    */
+   public class Cursor implements Iterator<T>
    {
       /**
        * Index of element to be returned by subsequent call to next.
@@ -370,11 +496,21 @@ public class RingBuffer<T> implements Iterable<T>
        */
       private final boolean reverse;
 
-      private RingBufferIterator(boolean reverse)
+      private Cursor(boolean reverse)
       {
          this.reverse = reverse;
       }
 
+      /**
+       * Rewinds this cursor to the first element to iterate over and synchronizes it with the current
+       * state of the buffer.
+       */
+      public void reset()
+      {
+         cursor = 0;
+         expectedModCount = modCount;
+      }
+
       public boolean hasNext()
       {
          return cursor != size();
@@ -0,0 +1,329 @@
+package us.ihmc.commons.lists;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free bounded queue used to pass elements from a single producer thread, e.g. a sensor
+ * driver, to a single consumer thread, e.g. a state estimator.
+ * <p>
+ * As {@link RingBuffer}, the elements are allocated once at construction and then recycled:
+ * <ul>
+ * <li>the producer calls {@link #claim()} to get the next free element, fills it, and makes it
+ * visible to the consumer with {@link #publish()}.
+ * <li>the consumer calls {@link #peek()} to get the oldest published element, which it owns until
+ * it calls {@link #release()} to hand it back to the producer. Alternatively,
+ * {@link #drain(Consumer)} processes all the published elements at once.
+ * </ul>
+ * None of these operations block or allocate. The publication of an element happens-before the
+ * consumer reads it, and the release of an element happens-before the producer claims it again.
+ * </p>
+ * <p>
+ * Unlike {@link RingBuffer}, published elements are never overwritten: when the consumer falls
+ * behind and the buffer is full, {@link #claim()} returns {@code null} and the overrun is counted,
+ * see {@link #getNumberOfOverruns()}.
+ * </p>
+ *
+ * @param <T> the type of the elements.
+ */
+@SuppressWarnings("unchecked")
+public class SingleProducerSingleConsumerRingBuffer<T>
+{
+   private final int capacity;
+   private final T[] buffer;
+   private final BiConsumer<T, T> copier;
+
+   /** Number of elements published so far, written by the producer only. */
+   private final AtomicLong tail = new AtomicLong(0);
+   /** Number of elements released so far, written by the consumer only. */
+   private final AtomicLong head = new AtomicLong(0);
+
+   // Only accessed by the producer thread.
+   private long producerSequence = 0;
+   private long cachedHead = 0;
+   private boolean hasClaimedElement = false;
+   // Only accessed by the consumer thread.
+   private long consumerSequence = 0;
+   private long cachedTail = 0;
+
+   private volatile long numberOfOverruns = 0;
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity  the maximum number of elements published and not yet released.
+    * @param allocator builder used to instantiate this buffer's elements.
+    */
+   public SingleProducerSingleConsumerRingBuffer(int capacity, Supplier<T> allocator)
+   {
+      this(capacity, allocator, null);
+   }
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity  the maximum number of elements published and not yet released.
+    * @param allocator builder used to instantiate this buffer's elements.
+    * @param copier    copier required to use {@link #offer(Object)} and {@link #poll(Object)}.
+    */
+   public SingleProducerSingleConsumerRingBuffer(int capacity, Supplier<T> allocator, BiConsumer<T, T> copier)
+   {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("Cannot instantiate a buffer with a size of zero or less.");
+      this.capacity = capacity;
+      this.copier = copier;
+
+      buffer = (T[]) new Object[capacity];
+      for (int i = 0; i < capacity; i++)
+         buffer[i] = allocator.get();
+   }
+
+   /**
+    * Claims the next free element to be filled by the producer.
+    * <p>
+    * The element is not visible to the consumer until {@link #publish()} is called. Calling this
+    * method again before publishing returns the same element. This method is intended to be called
+    * from the producer thread only.
+    * </p>
+    *
+    * @return the element to fill, or {@code null} if the buffer is full in which case an overrun is
+    *         counted.
+    */
+   public T claim()
+   {
+      if (!hasClaimedElement)
+      {
+         if (producerSequence - cachedHead >= capacity)
+         {
+            cachedHead = head.getAcquire();
+
+            if (producerSequence - cachedHead >= capacity)
+            {
+               numberOfOverruns++;
+               return null;
+            }
+         }
+
+         hasClaimedElement = true;
+      }
+
+      return buffer[toIndex(producerSequence)];
+   }
+
+   /**
+    * Makes the element returned by {@link #claim()} visible to the consumer.
+    * <p>
+    * This method is intended to be called from the producer thread only.
+    * </p>
+    *
+    * @throws IllegalStateException if no element has been claimed.
+    */
+   public void publish()
+   {
+      if (!hasClaimedElement)
+         throw new IllegalStateException("No element has been claimed.");
+
+      hasClaimedElement = false;
+      producerSequence++;
+      tail.setRelease(producerSequence);
+   }
+
+   /**
+    * Claims a new element, sets it to {@code newElementToCopy}, and publishes it.
+    * <p>
+    * This method is intended to be called from the producer thread only.
+    * </p>
+    *
+    * @param newElementToCopy the value for the new element.
+    * @return {@code true} if the element was published, {@code false} if the buffer is full.
+    * @throws UnsupportedOperationException if this buffer was not given a copier.
+    */
+   public boolean offer(T newElementToCopy)
+   {
+      if (copier == null)
+         throw new UnsupportedOperationException("Unable to copy new data to internal element without a copier. Use claim() instead.");
+
+      T element = claim();
+      if (element == null)
+         return false;
+
+      copier.accept(element, newElementToCopy);
+      publish();
+      return true;
+   }
+
+   /**
+    * Gets the oldest published element that has not been released yet.
+    * <p>
+    * The element is owned by the consumer until {@link #release()} is called. This method is intended
+    * to be called from the consumer thread only.
+    * </p>
+    *
+    * @return the oldest published element, or {@code null} if there is none.
+    */
+   public T peek()
+   {
+      if (!hasPublishedElement())
+         return null;
+
+      return buffer[toIndex(consumerSequence)];
+   }
+
+   /**
+    * Hands the element returned by {@link #peek()} back to the producer.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @throws IllegalStateException if there is no element to release.
+    */
+   public void release()
+   {
+      if (!hasPublishedElement())
+         throw new IllegalStateException("There is no published element to release.");
+
+      consumerSequence++;
+      head.setRelease(consumerSequence);
+   }
+
+   /**
+    * Copies the oldest published element into {@code destination} and releases it.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @param destination the object in which the element is stored. Modified.
+    * @return {@code true} if an element was copied, {@code false} if there was none.
+    * @throws UnsupportedOperationException if this buffer was not given a copier.
+    */
+   public boolean poll(T destination)
+   {
+      if (copier == null)
+         throw new UnsupportedOperationException("Unable to copy internal element without a copier. Use peek() instead.");
+
+      T element = peek();
+      if (element == null)
+         return false;
+
+      copier.accept(destination, element);
+      release();
+      return true;
+   }
+
+   /**
+    * Passes all the published elements to {@code consumer}, from oldest to newest, and releases them.
+    * <p>
+    * This method is intended to be called from the consumer thread only.
+    * </p>
+    *
+    * @param consumer the function to call on each element, it should not keep a reference to the
+    *                 elements.
+    * @return the number of elements processed.
+    */
+   public int drain(Consumer<? super T> consumer)
+   {
+      return drain(consumer, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Passes up to {@code maxElements} published elements to {@code consumer}, from oldest to newest,
+    * and releases them.
+    * <p>
+    * The elements are released all at once after processing the last one. This method is intended to
+    * be called from the consumer thread only.
+    * </p>
+    *
+    * @param consumer    the function to call on each element, it should not keep a reference to the
+    *                    elements.
+    * @param maxElements the maximum number of elements to process.
+    * @return the number of elements processed.
+    */
+   public int drain(Consumer<? super T> consumer, int maxElements)
+   {
+      cachedTail = tail.getAcquire();
+      int numberOfElements = (int) Math.min(cachedTail - consumerSequence, maxElements);
+
+      for (int i = 0; i < numberOfElements; i++)
+         consumer.accept(buffer[toIndex(consumerSequence + i)]);
+
+      if (numberOfElements > 0)
+      {
+         consumerSequence += numberOfElements;
+         head.setRelease(consumerSequence);
+      }
+
+      return numberOfElements;
+   }
+
+   private boolean hasPublishedElement()
+   {
+      if (consumerSequence < cachedTail)
+         return true;
+
+      cachedTail = tail.getAcquire();
+      return consumerSequence < cachedTail;
+   }
+
+   private int toIndex(long sequence)
+   {
+      return (int) (sequence % capacity);
+   }
+
+   /**
+    * Returns the number of elements published and not released yet.
+    * <p>
+    * When called while the producer or consumer is active, the returned value is only a snapshot.
+    * </p>
+    *
+    * @return the number of element in this buffer.
+    */
+   public int size()
+   {
+      long released = head.get();
+      return (int) Math.min(tail.get() - released, capacity);
+   }
+
+   /**
+    * Returns <tt>true</tt> if this buffer contains no published element.
+    */
+   public boolean isEmpty()
+   {
+      return size() == 0;
+   }
+
+   /**
+    * Returns the maximum number of elements published and not released yet.
+    *
+    * @return this buffer's capacity.
+    */
+   public int capacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * Gets the number of elements published so far.
+    */
+   public long getNumberOfPublishedElements()
+   {
+      return tail.get();
+   }
+
+   /**
+    * Gets the number of elements released so far.
+    */
+   public long getNumberOfReleasedElements()
+   {
+      return head.get();
+   }
+
+   /**
+    * Gets the number of calls to {@link #claim()} that failed because the buffer was full.
+    */
+   public long getNumberOfOverruns()
+   {
+      return numberOfOverruns;
+   }
+}
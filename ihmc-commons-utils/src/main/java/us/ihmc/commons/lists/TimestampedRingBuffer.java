@@ -0,0 +1,391 @@
+package us.ihmc.commons.lists;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Ring buffer of timestamped elements, e.g. a history of robot states, that can be searched by time.
+ * <p>
+ * This buffer has the same semantics as {@link RingBuffer}, in addition each element is associated
+ * to a timestamp given when adding it. The timestamps are stored in a parallel primitive array and
+ * are required to be non-decreasing, which allows to find the elements around a given time in
+ * <tt>O(log(n))</tt> with {@link #floor(double)}, {@link #ceiling(double)}, and
+ * {@link #bracket(double)}. The typical use-case is to fuse a delayed measurement with the history
+ * of the state at the time the measurement was taken, see
+ * {@link #interpolate(double, Object, Interpolator)}.
+ * </p>
+ * <p>
+ * Note that as {@link RecyclingArrayList}, this implementation recycles memory internally.
+ * </p>
+ *
+ * @param <T> the type of the elements.
+ */
+@SuppressWarnings("unchecked")
+public class TimestampedRingBuffer<T>
+{
+   /**
+    * Interpolates between two elements of the buffer.
+    *
+    * @param <T> the type of the elements.
+    */
+   public interface Interpolator<T>
+   {
+      /**
+       * Computes the element at {@code (1 - alpha) * before + alpha * after}.
+       *
+       * @param before the element before the query time. Not modified.
+       * @param after  the element after the query time. Not modified.
+       * @param alpha  the interpolation factor in [0, 1].
+       * @param result the object in which the result is stored. Modified.
+       */
+      void interpolate(T before, T after, double alpha, T result);
+   }
+
+   private int currentIndex = -1;
+   private final int capacity;
+   private boolean isBufferFull = false;
+
+   private final T[] buffer;
+   private final double[] timestamps;
+   private final BiConsumer<T, T> copier;
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity  the capacity of this ring buffer.
+    * @param allocator builder used to instantiate this buffer's elements.
+    */
+   public TimestampedRingBuffer(int capacity, Supplier<T> allocator)
+   {
+      this(capacity, allocator, null);
+   }
+
+   /**
+    * Create a new empty ring buffer.
+    *
+    * @param capacity  the capacity of this ring buffer.
+    * @param allocator builder used to instantiate this buffer's elements.
+    * @param copier    copier required to use {@link #add(double, Object)}.
+    */
+   public TimestampedRingBuffer(int capacity, Supplier<T> allocator, BiConsumer<T, T> copier)
+   {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("Cannot instantiate a buffer with a size of zero or less.");
+      this.capacity = capacity;
+      this.copier = copier;
+
+      buffer = (T[]) new Object[capacity];
+      for (int i = 0; i < capacity; i++)
+         buffer[i] = allocator.get();
+      timestamps = new double[capacity];
+   }
+
+   /**
+    * Clears this buffer.
+    * <p>
+    * Note that the internal memory is preserved to avoid garbage generation.
+    * </p>
+    */
+   public void reset()
+   {
+      currentIndex = -1;
+      isBufferFull = false;
+   }
+
+   /**
+    * Adds a new element to this buffer, increasing its current size by 1 if not full, otherwise
+    * dropping the oldest element that was added.
+    *
+    * @param timestamp the time associated to the new element, it cannot be less than the time of the
+    *                  newest element.
+    * @return the new element added to this buffer.
+    * @throws IllegalArgumentException if {@code timestamp} is less than the time of the newest
+    *                                  element or is {@link Double#NaN}.
+    */
+   public T add(double timestamp)
+   {
+      if (Double.isNaN(timestamp) || (!isEmpty() && timestamp < timestamps[currentIndex]))
+         throw new IllegalArgumentException("The timestamps must be non-decreasing, newest: " + getLastTime() + ", new: " + timestamp);
+
+      currentIndex++;
+
+      if (currentIndex >= capacity)
+      {
+         isBufferFull = true;
+         currentIndex = 0;
+      }
+
+      timestamps[currentIndex] = timestamp;
+      return buffer[currentIndex];
+   }
+
+   /**
+    * Adds a new element to this buffer and sets it to {@code newElementToCopy}.
+    *
+    * @param timestamp        the time associated to the new element.
+    * @param newElementToCopy the value for the new element.
+    * @see #add(double)
+    * @throws UnsupportedOperationException if this buffer was not given a copier.
+    */
+   public void add(double timestamp, T newElementToCopy)
+   {
+      if (copier == null)
+         throw new UnsupportedOperationException("Unable to copy new data to internal element without a copier. Use add(double) instead.");
+
+      copier.accept(add(timestamp), newElementToCopy);
+   }
+
+   /**
+    * Gets the <tt>N</tt><sup>th</sup> oldest element that was added to this buffer.
+    *
+    * @param offsetFromFirst offset from the oldest element, i.e. <tt>N</tt> above.
+    * @return the <tt>N</tt><sup>th</sup> oldest element.
+    * @throws IndexOutOfBoundsException if {@code offsetFromFirst} &notin; [0, <tt>this.size()</tt>[.
+    */
+   public T getFromFirst(int offsetFromFirst)
+   {
+      return buffer[indexFromFirst(offsetFromFirst)];
+   }
+
+   /**
+    * Gets the <tt>N</tt><sup>th</sup> newest element that was added to this buffer.
+    *
+    * @param offsetFromLast offset from the newest element, i.e. <tt>N</tt> above.
+    * @return the <tt>N</tt><sup>th</sup> newest element.
+    * @throws IndexOutOfBoundsException if {@code offsetFromLast} &notin; [0, <tt>this.size()</tt>[.
+    */
+   public T getFromLast(int offsetFromLast)
+   {
+      return buffer[indexFromLast(offsetFromLast)];
+   }
+
+   /**
+    * Gets the time of the <tt>N</tt><sup>th</sup> oldest element that was added to this buffer.
+    *
+    * @param offsetFromFirst offset from the oldest element, i.e. <tt>N</tt> above.
+    * @return the time of the <tt>N</tt><sup>th</sup> oldest element.
+    * @throws IndexOutOfBoundsException if {@code offsetFromFirst} &notin; [0, <tt>this.size()</tt>[.
+    */
+   public double getTimeFromFirst(int offsetFromFirst)
+   {
+      return timestamps[indexFromFirst(offsetFromFirst)];
+   }
+
+   /**
+    * Gets the time of the <tt>N</tt><sup>th</sup> newest element that was added to this buffer.
+    *
+    * @param offsetFromLast offset from the newest element, i.e. <tt>N</tt> above.
+    * @return the time of the <tt>N</tt><sup>th</sup> newest element.
+    * @throws IndexOutOfBoundsException if {@code offsetFromLast} &notin; [0, <tt>this.size()</tt>[.
+    */
+   public double getTimeFromLast(int offsetFromLast)
+   {
+      return timestamps[indexFromLast(offsetFromLast)];
+   }
+
+   /**
+    * Gets the time of the oldest element.
+    *
+    * @return the time of the oldest element, or {@link Double#NaN} if this buffer is empty.
+    */
+   public double getFirstTime()
+   {
+      return isEmpty() ? Double.NaN : timeAt(0);
+   }
+
+   /**
+    * Gets the time of the newest element.
+    *
+    * @return the time of the newest element, or {@link Double#NaN} if this buffer is empty.
+    */
+   public double getLastTime()
+   {
+      return isEmpty() ? Double.NaN : timestamps[currentIndex];
+   }
+
+   /**
+    * Finds the newest element with a time less than or equal to {@code time}.
+    *
+    * @param time the query time.
+    * @return the offset from the oldest element of the element found, or {@code -1} if
+    *         {@code time} is before the oldest element.
+    */
+   public int floor(double time)
+   {
+      int low = 0;
+      int high = size() - 1;
+      int result = -1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+
+         if (timeAt(mid) <= time)
+         {
+            result = mid;
+            low = mid + 1;
+         }
+         else
+         {
+            high = mid - 1;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Finds the oldest element with a time greater than or equal to {@code time}.
+    *
+    * @param time the query time.
+    * @return the offset from the oldest element of the element found, or {@code -1} if
+    *         {@code time} is after the newest element.
+    */
+   public int ceiling(double time)
+   {
+      int low = 0;
+      int high = size() - 1;
+      int result = -1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+
+         if (timeAt(mid) >= time)
+         {
+            result = mid;
+            high = mid - 1;
+         }
+         else
+         {
+            low = mid + 1;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Finds the pair of consecutive elements bracketing {@code time}.
+    * <p>
+    * When {@code time} matches the time of an element, this element is the lower bound and the upper
+    * bound is the same element if it is the newest, the next element otherwise.
+    * </p>
+    *
+    * @param time the query time.
+    * @return the offset from the oldest element of the lower bound, or {@code -1} if {@code time} is
+    *         not in [<tt>this.getFirstTime()</tt>, <tt>this.getLastTime()</tt>].
+    */
+   public int bracket(double time)
+   {
+      if (isEmpty() || time > getLastTime())
+         return -1;
+      return floor(time);
+   }
+
+   /**
+    * Computes the value at {@code time} by interpolating between the two elements bracketing it.
+    *
+    * @param time         the query time.
+    * @param result       the object in which the result is stored. Modified.
+    * @param interpolator the function used to interpolate between two elements.
+    * @return {@code true} if the result was computed, {@code false} if {@code time} is not in
+    *         [<tt>this.getFirstTime()</tt>, <tt>this.getLastTime()</tt>] in which case
+    *         {@code result} is not modified.
+    */
+   public boolean interpolate(double time, T result, Interpolator<T> interpolator)
+   {
+      int lowerOffset = bracket(time);
+      if (lowerOffset == -1)
+         return false;
+
+      int upperOffset = lowerOffset == size() - 1 ? lowerOffset : lowerOffset + 1;
+      double lowerTime = timeAt(lowerOffset);
+      double upperTime = timeAt(upperOffset);
+      double alpha = upperTime > lowerTime ? (time - lowerTime) / (upperTime - lowerTime) : 0.0;
+
+      interpolator.interpolate(getFromFirst(lowerOffset), getFromFirst(upperOffset), alpha, result);
+      return true;
+   }
+
+   private double timeAt(int offsetFromFirst)
+   {
+      int index = isBufferFull ? currentIndex + 1 + offsetFromFirst : offsetFromFirst;
+      if (index >= capacity)
+         index -= capacity;
+      return timestamps[index];
+   }
+
+   private int indexFromFirst(int offsetFromFirst)
+   {
+      if (offsetFromFirst >= size() || offsetFromFirst < 0)
+         throw new IndexOutOfBoundsException(outOfBoundsMessage(offsetFromFirst));
+
+      if (!isBufferFull)
+         return offsetFromFirst;
+
+      return (currentIndex + 1 + offsetFromFirst) % capacity;
+   }
+
+   private int indexFromLast(int offsetFromLast)
+   {
+      if (offsetFromLast >= size() || offsetFromLast < 0)
+         throw new IndexOutOfBoundsException(outOfBoundsMessage(offsetFromLast));
+
+      int index = currentIndex - offsetFromLast;
+      if (index < 0)
+         index += capacity;
+      return index;
+   }
+
+   private String outOfBoundsMessage(int index)
+   {
+      return "Index: " + index + ", Size: " + size();
+   }
+
+   /**
+    * Gets whether this buffer has reached its capacity or not.
+    *
+    * @return {@code true} is this ring buffer is full, {@code false} otherwise.
+    */
+   public boolean isBufferFull()
+   {
+      return isBufferFull;
+   }
+
+   /**
+    * Returns <tt>true</tt> if this buffer contains no elements.
+    *
+    * @return <tt>true</tt> if this buffer contains no elements
+    */
+   public boolean isEmpty()
+   {
+      return currentIndex == -1;
+   }
+
+   /**
+    * Returns the current size of this ring buffer.
+    * <p>
+    * When this buffer is full, this method returns <tt>capacity</tt>.
+    * </p>
+    *
+    * @return the number of element in this buffer.
+    */
+   public int size()
+   {
+      if (isBufferFull)
+         return capacity;
+      else
+         return currentIndex + 1;
+   }
+
+   /**
+    * Returns the number of elements this buffer can hold onto.
+    *
+    * @return this buffer's capacity.
+    */
+   public int capacity()
+   {
+      return capacity;
+   }
+}
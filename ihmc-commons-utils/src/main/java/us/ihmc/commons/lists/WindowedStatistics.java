@@ -0,0 +1,318 @@
+package us.ihmc.commons.lists;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Statistics over a sliding window of the most recent values of a signal.
+ * <p>
+ * The window is a {@link DoubleRingBuffer}, such that when it is full each new value replaces the
+ * oldest value. All the statistics are updated incrementally in constant amortized time when adding
+ * a value, and queried without traversing the window:
+ * <ul>
+ * <li>the mean and variance are updated with Welford's algorithm, extended to remove the value
+ * leaving the window.
+ * <li>the minimum and maximum are the ones maintained by the window, see
+ * {@link DoubleRingBuffer#getMin()} and {@link DoubleRingBuffer#getMax()}.
+ * <li>optionally, quantiles are estimated from a histogram of the values of the window with a fixed
+ * number of bins over a given range, see
+ * {@link #WindowedStatistics(int, double, double, int)}. A query then costs <tt>O(bins)</tt> and
+ * the error of the estimate is at most the width of one bin for values within the range.
+ * </ul>
+ * </p>
+ * <p>
+ * Non-finite values are kept in the window but are not accounted for in the mean, variance, and
+ * quantiles, which are {@link Double#NaN} while the window contains any.
+ * </p>
+ */
+public class WindowedStatistics
+{
+   private final Window window;
+
+   private int numberOfFiniteValues = 0;
+   private double mean = 0.0;
+   /** Sum of the squared differences to the mean of the finite values of the window. */
+   private double sumOfSquaredDeviations = 0.0;
+
+   private final int[] histogram;
+   private final double histogramLowerBound;
+   private final double histogramUpperBound;
+   private final double binWidth;
+
+   /**
+    * Creates new statistics without quantile estimation.
+    *
+    * @param windowSize the number of values over which the statistics are computed.
+    */
+   public WindowedStatistics(int windowSize)
+   {
+      window = new Window(windowSize);
+      histogram = null;
+      histogramLowerBound = Double.NaN;
+      histogramUpperBound = Double.NaN;
+      binWidth = Double.NaN;
+   }
+
+   /**
+    * Creates new statistics with quantile estimation.
+    *
+    * @param windowSize         the number of values over which the statistics are computed.
+    * @param quantileLowerBound the lower bound of the range of the histogram used to estimate
+    *                           quantiles. Values below are accounted for in the first bin.
+    * @param quantileUpperBound the upper bound of the range of the histogram used to estimate
+    *                           quantiles. Values above are accounted for in the last bin.
+    * @param numberOfBins       the number of bins of the histogram, the larger the more accurate.
+    */
+   public WindowedStatistics(int windowSize, double quantileLowerBound, double quantileUpperBound, int numberOfBins)
+   {
+      if (!(quantileLowerBound < quantileUpperBound))
+         throw new IllegalArgumentException("The lower bound (" + quantileLowerBound + ") must be less than the upper bound (" + quantileUpperBound + ").");
+      if (numberOfBins <= 0)
+         throw new IllegalArgumentException("The number of bins must be positive, was: " + numberOfBins);
+
+      window = new Window(windowSize);
+      histogram = new int[numberOfBins];
+      histogramLowerBound = quantileLowerBound;
+      histogramUpperBound = quantileUpperBound;
+      binWidth = (quantileUpperBound - quantileLowerBound) / numberOfBins;
+   }
+
+   /**
+    * Clears the window and the statistics.
+    */
+   public void reset()
+   {
+      window.clear();
+      numberOfFiniteValues = 0;
+      mean = 0.0;
+      sumOfSquaredDeviations = 0.0;
+      if (histogram != null)
+         Arrays.fill(histogram, 0);
+   }
+
+   /**
+    * Adds a new value to the window, removing the oldest value if the window is full.
+    *
+    * @param value the new value.
+    */
+   public void add(double value)
+   {
+      if (window.size() == window.capacity())
+         remove(window.getFirst());
+
+      window.append(value);
+
+      if (!Double.isFinite(value))
+         return;
+
+      numberOfFiniteValues++;
+      double delta = value - mean;
+      mean += delta / numberOfFiniteValues;
+      sumOfSquaredDeviations += delta * (value - mean);
+
+      if (histogram != null)
+         histogram[toBin(value)]++;
+   }
+
+   private void remove(double value)
+   {
+      if (!Double.isFinite(value))
+         return;
+
+      numberOfFiniteValues--;
+
+      if (numberOfFiniteValues == 0)
+      {
+         mean = 0.0;
+         sumOfSquaredDeviations = 0.0;
+      }
+      else
+      {
+         double delta = value - mean;
+         mean -= delta / numberOfFiniteValues;
+         sumOfSquaredDeviations -= delta * (value - mean);
+      }
+
+      if (histogram != null)
+         histogram[toBin(value)]--;
+   }
+
+   private int toBin(double value)
+   {
+      int bin = (int) ((value - histogramLowerBound) / binWidth);
+      return Math.max(0, Math.min(histogram.length - 1, bin));
+   }
+
+   private boolean hasNonFiniteValues()
+   {
+      return numberOfFiniteValues != window.size();
+   }
+
+   /**
+    * Gets the average of the values of the window.
+    *
+    * @return the mean, or {@link Double#NaN} if the window is empty or holds non-finite values.
+    */
+   public double getMean()
+   {
+      if (window.isEmpty() || hasNonFiniteValues())
+         return Double.NaN;
+      return mean;
+   }
+
+   /**
+    * Gets the population variance of the values of the window.
+    *
+    * @return the variance, or {@link Double#NaN} if the window is empty or holds non-finite values.
+    */
+   public double getVariance()
+   {
+      if (window.isEmpty() || hasNonFiniteValues())
+         return Double.NaN;
+      // Round-off errors accumulated when removing values can make it slightly negative.
+      return Math.max(0.0, sumOfSquaredDeviations / numberOfFiniteValues);
+   }
+
+   /**
+    * Gets the population standard deviation of the values of the window.
+    *
+    * @return the standard deviation, or {@link Double#NaN} if the window is empty or holds non-finite
+    *         values.
+    */
+   public double getStandardDeviation()
+   {
+      return Math.sqrt(getVariance());
+   }
+
+   /**
+    * Gets the smallest value of the window.
+    *
+    * @return the minimum.
+    * @throws NoSuchElementException if the window is empty.
+    */
+   public double getMin()
+   {
+      return window.getMin();
+   }
+
+   /**
+    * Gets the largest value of the window.
+    *
+    * @return the maximum.
+    * @throws NoSuchElementException if the window is empty.
+    */
+   public double getMax()
+   {
+      return window.getMax();
+   }
+
+   /**
+    * Estimates the {@code quantile} of the values of the window.
+    * <p>
+    * The estimate is interpolated within the bin of the histogram holding the value of the requested
+    * rank, such that the error is at most the width of one bin when all the values are within the
+    * range of the histogram.
+    * </p>
+    *
+    * @param quantile the quantile to estimate in [0, 1], e.g. 0.5 for the median.
+    * @return the estimate, or {@link Double#NaN} if the window is empty or holds non-finite values.
+    * @throws UnsupportedOperationException if these statistics were created without quantile
+    *                                       estimation.
+    * @throws IllegalArgumentException      if {@code quantile} is not in [0, 1].
+    */
+   public double getQuantile(double quantile)
+   {
+      if (histogram == null)
+         throw new UnsupportedOperationException("These statistics were created without quantile estimation.");
+      if (!(quantile >= 0.0 && quantile <= 1.0))
+         throw new IllegalArgumentException("The quantile must be in [0, 1], was: " + quantile);
+      if (window.isEmpty() || hasNonFiniteValues())
+         return Double.NaN;
+
+      double min = window.getMin();
+      double max = window.getMax();
+      double rank = quantile * numberOfFiniteValues;
+      int cumulativeCount = 0;
+      double estimate = max;
+
+      for (int bin = 0; bin < histogram.length; bin++)
+      {
+         int count = histogram[bin];
+
+         if (count > 0 && cumulativeCount + count >= rank)
+         {
+            // The first and last bins also hold the values outside the range of the histogram.
+            double binLowerEdge = bin == 0 ? Math.min(histogramLowerBound, min) : histogramLowerBound + bin * binWidth;
+            double binUpperEdge = bin == histogram.length - 1 ? Math.max(histogramUpperBound, max) : histogramLowerBound + (bin + 1) * binWidth;
+            double fraction = (rank - cumulativeCount) / count;
+            estimate = binLowerEdge + fraction * (binUpperEdge - binLowerEdge);
+            break;
+         }
+
+         cumulativeCount += count;
+      }
+
+      // The exact extrema are known, this makes the 0 and 1 quantiles exact.
+      return Math.max(min, Math.min(max, estimate));
+   }
+
+   /**
+    * Gets the window holding the values.
+    * <p>
+    * The window is read-only, modifying it with {@link DoubleRingBuffer#add(double)},
+    * {@link DoubleRingBuffer#reset()}, or {@link DoubleRingBuffer#changeCapacity(int)} throws an
+    * {@link UnsupportedOperationException} as it would desynchronize the statistics.
+    * </p>
+    */
+   public DoubleRingBuffer getWindow()
+   {
+      return window;
+   }
+
+   /**
+    * Returns the number of values currently in the window.
+    */
+   public int size()
+   {
+      return window.size();
+   }
+
+   /**
+    * Window that can only be modified by the statistics it belongs to.
+    */
+   private static class Window extends DoubleRingBuffer
+   {
+      private Window(int capacity)
+      {
+         super(capacity);
+      }
+
+      private void append(double value)
+      {
+         super.add(value);
+      }
+
+      private void clear()
+      {
+         super.reset();
+      }
+
+      @Override
+      public void add(double newElement)
+      {
+         throw new UnsupportedOperationException("The window of the statistics is read-only.");
+      }
+
+      @Override
+      public void reset()
+      {
+         throw new UnsupportedOperationException("The window of the statistics is read-only.");
+      }
+
+      @Override
+      public void changeCapacity(int newCapacity)
+      {
+         throw new UnsupportedOperationException("The window of the statistics is read-only.");
+      }
+   }
+}
@@ -0,0 +1,408 @@
+package us.ihmc.commons.time;
+
+import java.util.Arrays;
+import java.util.List;
+
+import us.ihmc.commons.lists.DoubleKeySorter;
+
+/**
+ * Index over a collection of time intervals to answer containment, overlap, and next-interval
+ * queries without scanning the whole collection.
+ * <p>
+ * The intervals are kept sorted by start time, with their start and end times cached in primitive
+ * arrays. The sorted array is viewed as an implicit balanced binary search tree, the node of the
+ * range [lo, hi[ being its middle element, augmented with the maximum end time of each subtree. A
+ * query then visits <tt>O(log(n) + k)</tt> nodes for <tt>k</tt> results, pruning the subtrees
+ * that end before the query and the elements that start after it.
+ * </p>
+ * <p>
+ * Adding or removing an interval keeps the arrays sorted in <tt>O(n)</tt> element moves. The
+ * augmented end times are recomputed in <tt>O(n)</tt> on the first query following a
+ * modification, such that successive modifications are not penalized. Once the internal arrays
+ * have grown to the size of the collection, the index does not allocate memory.
+ * </p>
+ * <p>
+ * The times are read from the intervals when they are added. If intervals are modified while in
+ * the index, e.g. shifted, {@link #update()} has to be called before the next query.
+ * </p>
+ * <p>
+ * As for {@link TimeIntervalReadOnly#intervalContains(double)} and
+ * {@link TimeIntervalTools#doIntervalsOverlap(TimeIntervalReadOnly, TimeIntervalReadOnly)}, the
+ * intervals are closed: they contain their start and end times.
+ * </p>
+ *
+ * @param <T> the type of the indexed intervals.
+ */
+public class TimeIntervalIndex<T extends TimeIntervalProvider>
+{
+   private Object[] intervals;
+   private double[] startTimes;
+   private double[] endTimes;
+   /** For the node of the range [lo, hi[ at mid = (lo + hi) / 2, the maximum end time in [lo, hi[. */
+   private double[] maxEndTimes;
+   private int size = 0;
+   private boolean isTreeUpToDate = true;
+
+   private final DoubleKeySorter sorter = new DoubleKeySorter();
+
+   /**
+    * Creates a new empty index.
+    */
+   public TimeIntervalIndex()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty index.
+    *
+    * @param initialCapacity the number of intervals that can be added before the internal arrays
+    *                        grow.
+    */
+   public TimeIntervalIndex(int initialCapacity)
+   {
+      intervals = new Object[initialCapacity];
+      startTimes = new double[initialCapacity];
+      endTimes = new double[initialCapacity];
+      maxEndTimes = new double[initialCapacity];
+   }
+
+   /**
+    * Removes all the intervals from this index.
+    */
+   public void clear()
+   {
+      Arrays.fill(intervals, 0, size, null);
+      size = 0;
+      isTreeUpToDate = true;
+   }
+
+   /**
+    * Adds an interval to this index. Intervals with the same start time are ordered by insertion.
+    *
+    * @param interval the interval to add.
+    */
+   public void add(T interval)
+   {
+      ensureCapacity(size + 1);
+
+      TimeIntervalBasics timeInterval = interval.getTimeInterval();
+      double startTime = timeInterval.getStartTime();
+      int index = upperBound(startTime);
+
+      System.arraycopy(intervals, index, intervals, index + 1, size - index);
+      System.arraycopy(startTimes, index, startTimes, index + 1, size - index);
+      System.arraycopy(endTimes, index, endTimes, index + 1, size - index);
+
+      intervals[index] = interval;
+      startTimes[index] = startTime;
+      endTimes[index] = timeInterval.getEndTime();
+      size++;
+      isTreeUpToDate = false;
+   }
+
+   /**
+    * Adds all the given intervals to this index, sorting the index once.
+    *
+    * @param intervals the intervals to add.
+    */
+   public void addAll(List<? extends T> intervals)
+   {
+      ensureCapacity(size + intervals.size());
+
+      for (int i = 0; i < intervals.size(); i++)
+         this.intervals[size++] = intervals.get(i);
+
+      update();
+   }
+
+   /**
+    * Removes an interval from this index.
+    *
+    * @param interval the interval to remove, compared by identity.
+    * @return whether the interval was in this index.
+    */
+   public boolean remove(T interval)
+   {
+      int index = indexOf(interval);
+      if (index < 0)
+         return false;
+
+      removeAt(index);
+      return true;
+   }
+
+   /**
+    * Removes the interval at the given position in start time order.
+    *
+    * @param index the position of the interval to remove.
+    * @return the removed interval.
+    */
+   public T removeAt(int index)
+   {
+      checkIndex(index);
+      T interval = get(index);
+
+      int numberToMove = size - index - 1;
+      System.arraycopy(intervals, index + 1, intervals, index, numberToMove);
+      System.arraycopy(startTimes, index + 1, startTimes, index, numberToMove);
+      System.arraycopy(endTimes, index + 1, endTimes, index, numberToMove);
+
+      size--;
+      intervals[size] = null;
+      isTreeUpToDate = false;
+      return interval;
+   }
+
+   /**
+    * Re-reads the start and end times of all the intervals and sorts them again. This has to be
+    * called after modifying intervals that are in this index.
+    */
+   @SuppressWarnings("unchecked")
+   public void update()
+   {
+      sorter.sort(intervals, 0, size, interval -> ((T) interval).getTimeInterval().getStartTime(), false);
+
+      for (int i = 0; i < size; i++)
+      {
+         TimeIntervalBasics timeInterval = ((T) intervals[i]).getTimeInterval();
+         startTimes[i] = timeInterval.getStartTime();
+         endTimes[i] = timeInterval.getEndTime();
+      }
+
+      isTreeUpToDate = false;
+   }
+
+   /**
+    * Returns the number of intervals in this index.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Returns whether this index holds no interval.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Gets an interval by its position in start time order.
+    *
+    * @param index the position of the interval.
+    * @return the interval.
+    */
+   @SuppressWarnings("unchecked")
+   public T get(int index)
+   {
+      checkIndex(index);
+      return (T) intervals[index];
+   }
+
+   /**
+    * Gets the position in start time order of the given interval.
+    *
+    * @param interval the interval to search for, compared by identity.
+    * @return the position of the interval, or -1 if it is not in this index.
+    */
+   public int indexOf(T interval)
+   {
+      double startTime = interval.getTimeInterval().getStartTime();
+
+      for (int i = lowerBound(startTime); i < size && startTimes[i] == startTime; i++)
+      {
+         if (intervals[i] == interval)
+            return i;
+      }
+
+      // The interval may have been modified without calling update().
+      for (int i = 0; i < size; i++)
+      {
+         if (intervals[i] == interval)
+            return i;
+      }
+
+      return -1;
+   }
+
+   /**
+    * Packs the intervals that contain the given time, see
+    * {@link TimeIntervalReadOnly#intervalContains(double)}.
+    *
+    * @param time         the query time.
+    * @param resultToPack the list in which the intervals are stored in start time order. It is
+    *                     cleared first. Modified.
+    */
+   public void getIntervalsContainingTime(double time, List<? super T> resultToPack)
+   {
+      getIntervalsOverlapping(time, time, resultToPack);
+   }
+
+   /**
+    * Packs the intervals that overlap the given interval, see
+    * {@link TimeIntervalTools#doIntervalsOverlap(TimeIntervalReadOnly, TimeIntervalReadOnly)}.
+    *
+    * @param interval     the query interval.
+    * @param resultToPack the list in which the intervals are stored in start time order. It is
+    *                     cleared first. Modified.
+    */
+   public void getIntervalsOverlapping(TimeIntervalReadOnly interval, List<? super T> resultToPack)
+   {
+      getIntervalsOverlapping(interval.getStartTime(), interval.getEndTime(), resultToPack);
+   }
+
+   /**
+    * Packs the intervals that overlap [{@code startTime}, {@code endTime}].
+    *
+    * @param startTime    the start time of the query interval.
+    * @param endTime      the end time of the query interval.
+    * @param resultToPack the list in which the intervals are stored in start time order. It is
+    *                     cleared first. Modified.
+    */
+   public void getIntervalsOverlapping(double startTime, double endTime, List<? super T> resultToPack)
+   {
+      resultToPack.clear();
+      updateTree();
+      collectOverlapping(0, size, startTime, endTime, resultToPack);
+   }
+
+   /**
+    * Gets the number of intervals that overlap [{@code startTime}, {@code endTime}].
+    *
+    * @param startTime the start time of the query interval.
+    * @param endTime   the end time of the query interval.
+    * @return the number of overlapping intervals.
+    */
+   public int countIntervalsOverlapping(double startTime, double endTime)
+   {
+      updateTree();
+      return countOverlapping(0, size, startTime, endTime);
+   }
+
+   /**
+    * Gets the first interval, in start time order, starting strictly after the given time.
+    *
+    * @param time the query time.
+    * @return the next interval, or {@code null} if no interval starts after {@code time}.
+    */
+   @SuppressWarnings("unchecked")
+   public T getNextInterval(double time)
+   {
+      int index = upperBound(time);
+      return index < size ? (T) intervals[index] : null;
+   }
+
+   @SuppressWarnings("unchecked")
+   private void collectOverlapping(int lo, int hi, double startTime, double endTime, List<? super T> resultToPack)
+   {
+      if (lo >= hi)
+         return;
+
+      int mid = (lo + hi) >>> 1;
+      // No interval of this subtree ends after the query starts.
+      if (maxEndTimes[mid] < startTime)
+         return;
+
+      collectOverlapping(lo, mid, startTime, endTime, resultToPack);
+
+      // This interval and the ones after it start after the query ends.
+      if (startTimes[mid] > endTime)
+         return;
+
+      if (endTimes[mid] >= startTime)
+         resultToPack.add((T) intervals[mid]);
+
+      collectOverlapping(mid + 1, hi, startTime, endTime, resultToPack);
+   }
+
+   private int countOverlapping(int lo, int hi, double startTime, double endTime)
+   {
+      if (lo >= hi || maxEndTimes[(lo + hi) >>> 1] < startTime)
+         return 0;
+
+      int mid = (lo + hi) >>> 1;
+      int count = countOverlapping(lo, mid, startTime, endTime);
+
+      if (startTimes[mid] > endTime)
+         return count;
+
+      if (endTimes[mid] >= startTime)
+         count++;
+
+      return count + countOverlapping(mid + 1, hi, startTime, endTime);
+   }
+
+   private void updateTree()
+   {
+      if (isTreeUpToDate)
+         return;
+
+      updateMaxEndTimes(0, size);
+      isTreeUpToDate = true;
+   }
+
+   private double updateMaxEndTimes(int lo, int hi)
+   {
+      if (lo >= hi)
+         return Double.NEGATIVE_INFINITY;
+
+      int mid = (lo + hi) >>> 1;
+      double maxEndTime = Math.max(endTimes[mid], Math.max(updateMaxEndTimes(lo, mid), updateMaxEndTimes(mid + 1, hi)));
+      maxEndTimes[mid] = maxEndTime;
+      return maxEndTime;
+   }
+
+   /** Index of the first interval starting at or after {@code time}. */
+   private int lowerBound(double time)
+   {
+      int low = 0;
+      int high = size;
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (startTimes[mid] < time)
+            low = mid + 1;
+         else
+            high = mid;
+      }
+      return low;
+   }
+
+   /** Index of the first interval starting strictly after {@code time}. */
+   private int upperBound(double time)
+   {
+      int low = 0;
+      int high = size;
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (startTimes[mid] <= time)
+            low = mid + 1;
+         else
+            high = mid;
+      }
+      return low;
+   }
+
+   private void ensureCapacity(int capacity)
+   {
+      if (capacity <= intervals.length)
+         return;
+
+      int newCapacity = Math.max(capacity, 2 * intervals.length);
+      intervals = Arrays.copyOf(intervals, newCapacity);
+      startTimes = Arrays.copyOf(startTimes, newCapacity);
+      endTimes = Arrays.copyOf(endTimes, newCapacity);
+      maxEndTimes = new double[newCapacity];
+      isTreeUpToDate = false;
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= size)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+   }
+}
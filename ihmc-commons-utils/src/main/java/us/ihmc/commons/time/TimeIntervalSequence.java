@@ -0,0 +1,408 @@
+package us.ihmc.commons.time;
+
+import java.util.Arrays;
+
+import us.ihmc.commons.MathTools;
+
+/**
+ * Sequence of time intervals, e.g. the phases of a contact plan, stored in primitive arrays.
+ * <p>
+ * This is an alternative to a {@code List<? extends TimeIntervalProvider>} when the intervals are
+ * queried often: the start and end times are stored in parallel {@code double[]}, such that no
+ * object is dereferenced to read them. Each interval can optionally be associated with a payload
+ * index, e.g. the index of the phase data in a separate list.
+ * </p>
+ * <p>
+ * The intervals are kept in increasing order of start time, which is enforced when adding them.
+ * This allows to:
+ * <ul>
+ * <li>check the continuity of the sequence in constant time, see {@link #isContinuous()}. The number
+ * of discontinuities between consecutive intervals is updated on every modification.
+ * <li>find the interval active at a given time in <tt>O(log(n))</tt>, see
+ * {@link #findIntervalIndex(double)}.
+ * <li>remove the intervals that have expired from the front of the sequence in constant time and
+ * without moving the remaining intervals, see {@link #removeEndTimesLessThan(double)}.
+ * </ul>
+ * Once the internal arrays have grown to the length of the sequence, it does not allocate memory.
+ * </p>
+ */
+public class TimeIntervalSequence
+{
+   /** Payload index of the intervals added without payload. */
+   public static final int NO_PAYLOAD = -1;
+   /** Same default as {@link TimeIntervalTools#isTimeSequenceContinuous(java.util.List)}. */
+   public static final double DEFAULT_CONTINUITY_EPSILON = 5e-3;
+
+   private final double continuityEpsilon;
+
+   private double[] startTimes;
+   private double[] endTimes;
+   private int[] payloadIndices;
+   /** Position in the arrays of the first interval, the intervals removed from the front are skipped. */
+   private int firstIndex = 0;
+   private int size = 0;
+   /** Number of pairs of consecutive intervals that are not consecutive in time. */
+   private int numberOfDiscontinuities = 0;
+
+   /**
+    * Creates a new empty sequence using {@link #DEFAULT_CONTINUITY_EPSILON}.
+    */
+   public TimeIntervalSequence()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty sequence using {@link #DEFAULT_CONTINUITY_EPSILON}.
+    *
+    * @param initialCapacity the number of intervals that can be added before the internal arrays
+    *                        grow.
+    */
+   public TimeIntervalSequence(int initialCapacity)
+   {
+      this(initialCapacity, DEFAULT_CONTINUITY_EPSILON);
+   }
+
+   /**
+    * Creates a new empty sequence.
+    *
+    * @param initialCapacity   the number of intervals that can be added before the internal arrays
+    *                          grow.
+    * @param continuityEpsilon the tolerance used to check whether an interval starts when the
+    *                          previous one ends, see
+    *                          {@link TimeIntervalTools#isTimeSequenceContinuous(java.util.List, double)}.
+    */
+   public TimeIntervalSequence(int initialCapacity, double continuityEpsilon)
+   {
+      this.continuityEpsilon = continuityEpsilon;
+      startTimes = new double[initialCapacity];
+      endTimes = new double[initialCapacity];
+      payloadIndices = new int[initialCapacity];
+   }
+
+   /**
+    * Removes all the intervals.
+    */
+   public void clear()
+   {
+      firstIndex = 0;
+      size = 0;
+      numberOfDiscontinuities = 0;
+   }
+
+   /**
+    * Appends an interval without payload.
+    *
+    * @param timeInterval the interval to append. Not modified.
+    * @return the index of the new interval.
+    * @see #add(double, double, int)
+    */
+   public int add(TimeIntervalReadOnly timeInterval)
+   {
+      return add(timeInterval.getStartTime(), timeInterval.getEndTime(), NO_PAYLOAD);
+   }
+
+   /**
+    * Appends an interval without payload.
+    *
+    * @param startTime the start time of the new interval.
+    * @param endTime   the end time of the new interval.
+    * @return the index of the new interval.
+    * @see #add(double, double, int)
+    */
+   public int add(double startTime, double endTime)
+   {
+      return add(startTime, endTime, NO_PAYLOAD);
+   }
+
+   /**
+    * Appends an interval.
+    *
+    * @param startTime    the start time of the new interval.
+    * @param endTime      the end time of the new interval.
+    * @param payloadIndex the index associated with the new interval.
+    * @return the index of the new interval.
+    * @throws IllegalArgumentException if the end time is less than the start time or if the start
+    *                                  time is less than the start time of the last interval.
+    */
+   public int add(double startTime, double endTime, int payloadIndex)
+   {
+      checkInterval(startTime, endTime);
+      if (size > 0 && startTime < getStartTime(size - 1))
+         throw new IllegalArgumentException("The start time " + startTime + " is less than the start time of the last interval " + getStartTime(size - 1));
+
+      ensureCapacityForAdd();
+
+      int index = firstIndex + size;
+      startTimes[index] = startTime;
+      endTimes[index] = endTime;
+      payloadIndices[index] = payloadIndex;
+      size++;
+
+      if (size > 1 && !areConsecutive(size - 2))
+         numberOfDiscontinuities++;
+
+      return size - 1;
+   }
+
+   /**
+    * Modifies the times of an interval.
+    *
+    * @param index     the index of the interval to modify.
+    * @param startTime the new start time.
+    * @param endTime   the new end time.
+    * @throws IllegalArgumentException if the end time is less than the start time or if the new start
+    *                                  time breaks the order of the sequence.
+    */
+   public void setInterval(int index, double startTime, double endTime)
+   {
+      checkIndex(index);
+      checkInterval(startTime, endTime);
+      if (index > 0 && startTime < getStartTime(index - 1) || index < size - 1 && startTime > getStartTime(index + 1))
+         throw new IllegalArgumentException("The start time " + startTime + " breaks the order of the sequence at index " + index);
+
+      if (index > 0 && !areConsecutive(index - 1))
+         numberOfDiscontinuities--;
+      if (index < size - 1 && !areConsecutive(index))
+         numberOfDiscontinuities--;
+
+      startTimes[firstIndex + index] = startTime;
+      endTimes[firstIndex + index] = endTime;
+
+      if (index > 0 && !areConsecutive(index - 1))
+         numberOfDiscontinuities++;
+      if (index < size - 1 && !areConsecutive(index))
+         numberOfDiscontinuities++;
+   }
+
+   /**
+    * Modifies the payload index of an interval.
+    *
+    * @param index        the index of the interval to modify.
+    * @param payloadIndex the new payload index.
+    */
+   public void setPayloadIndex(int index, int payloadIndex)
+   {
+      checkIndex(index);
+      payloadIndices[firstIndex + index] = payloadIndex;
+   }
+
+   /**
+    * Shifts all the intervals by the same time, see {@link TimeIntervalBasics#shiftInterval(double)}.
+    *
+    * @param shiftTime the time to add to the start and end times of every interval.
+    */
+   public void shift(double shiftTime)
+   {
+      int end = firstIndex + size;
+
+      for (int i = firstIndex; i < end; i++)
+      {
+         startTimes[i] += shiftTime;
+         endTimes[i] += shiftTime;
+      }
+
+      // Round-off errors may change the outcome of the comparisons near the tolerance.
+      updateNumberOfDiscontinuities();
+   }
+
+   /**
+    * Removes the first intervals of the sequence.
+    *
+    * @param numberOfIntervals the number of intervals to remove from the front.
+    */
+   public void removeFirst(int numberOfIntervals)
+   {
+      if (numberOfIntervals < 0 || numberOfIntervals > size)
+         throw new IndexOutOfBoundsException("Cannot remove " + numberOfIntervals + " intervals, size: " + size);
+
+      for (int i = 0; i < numberOfIntervals; i++)
+      {
+         if (i < size - 1 && !areConsecutive(i))
+            numberOfDiscontinuities--;
+      }
+
+      firstIndex += numberOfIntervals;
+      size -= numberOfIntervals;
+      if (size == 0)
+         firstIndex = 0;
+   }
+
+   /**
+    * Removes the intervals at the front of the sequence that end before the given time. The removal
+    * stops at the first interval that ends at or after {@code time}.
+    *
+    * @param time the current time.
+    * @return the number of intervals removed.
+    */
+   public int removeEndTimesLessThan(double time)
+   {
+      int numberOfIntervals = 0;
+      while (numberOfIntervals < size && endTimes[firstIndex + numberOfIntervals] < time)
+         numberOfIntervals++;
+
+      removeFirst(numberOfIntervals);
+      return numberOfIntervals;
+   }
+
+   /**
+    * Removes the last interval of the sequence.
+    */
+   public void removeLast()
+   {
+      if (size == 0)
+         throw new IndexOutOfBoundsException("The sequence is empty.");
+
+      if (size > 1 && !areConsecutive(size - 2))
+         numberOfDiscontinuities--;
+      size--;
+   }
+
+   /**
+    * Tests whether every interval starts when the previous one ends, equivalent to
+    * {@link TimeIntervalTools#isTimeSequenceContinuous(java.util.List, double)} with the epsilon of
+    * this sequence. This is a constant time operation.
+    *
+    * @return whether the sequence is continuous.
+    */
+   public boolean isContinuous()
+   {
+      return numberOfDiscontinuities == 0;
+   }
+
+   /**
+    * Finds the interval active at the given time.
+    * <p>
+    * The interval searched for is the one with the latest start time less than or equal to
+    * {@code time}, such that at the junction between two consecutive intervals the second one is
+    * returned.
+    * </p>
+    *
+    * @param time the query time.
+    * @return the index of the interval, or -1 if that interval does not contain {@code time}, see
+    *         {@link TimeIntervalReadOnly#intervalContains(double)}.
+    */
+   public int findIntervalIndex(double time)
+   {
+      int low = firstIndex;
+      int high = firstIndex + size;
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (startTimes[mid] <= time)
+            low = mid + 1;
+         else
+            high = mid;
+      }
+
+      int index = low - 1;
+      if (index < firstIndex || endTimes[index] < time)
+         return -1;
+      return index - firstIndex;
+   }
+
+   /**
+    * Packs the times of an interval.
+    *
+    * @param index              the index of the interval.
+    * @param timeIntervalToPack the interval in which the times are stored. Modified.
+    */
+   public void getTimeInterval(int index, TimeIntervalBasics timeIntervalToPack)
+   {
+      checkIndex(index);
+      timeIntervalToPack.setInterval(startTimes[firstIndex + index], endTimes[firstIndex + index]);
+   }
+
+   public double getStartTime(int index)
+   {
+      checkIndex(index);
+      return startTimes[firstIndex + index];
+   }
+
+   public double getEndTime(int index)
+   {
+      checkIndex(index);
+      return endTimes[firstIndex + index];
+   }
+
+   public double getDuration(int index)
+   {
+      return getEndTime(index) - getStartTime(index);
+   }
+
+   /**
+    * Gets the payload index of an interval.
+    *
+    * @param index the index of the interval.
+    * @return the payload index, or {@link #NO_PAYLOAD} if the interval was added without payload.
+    */
+   public int getPayloadIndex(int index)
+   {
+      checkIndex(index);
+      return payloadIndices[firstIndex + index];
+   }
+
+   public int size()
+   {
+      return size;
+   }
+
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   public double getContinuityEpsilon()
+   {
+      return continuityEpsilon;
+   }
+
+   private boolean areConsecutive(int index)
+   {
+      return MathTools.epsilonEquals(endTimes[firstIndex + index], startTimes[firstIndex + index + 1], continuityEpsilon);
+   }
+
+   private void updateNumberOfDiscontinuities()
+   {
+      numberOfDiscontinuities = 0;
+      for (int i = 0; i < size - 1; i++)
+      {
+         if (!areConsecutive(i))
+            numberOfDiscontinuities++;
+      }
+   }
+
+   private void ensureCapacityForAdd()
+   {
+      if (firstIndex + size < startTimes.length)
+         return;
+
+      if (size < startTimes.length / 2)
+      { // Reclaims the space of the intervals removed from the front.
+         System.arraycopy(startTimes, firstIndex, startTimes, 0, size);
+         System.arraycopy(endTimes, firstIndex, endTimes, 0, size);
+         System.arraycopy(payloadIndices, firstIndex, payloadIndices, 0, size);
+      }
+      else
+      {
+         int newCapacity = Math.max(1, 2 * startTimes.length);
+         startTimes = Arrays.copyOfRange(startTimes, firstIndex, firstIndex + newCapacity);
+         endTimes = Arrays.copyOfRange(endTimes, firstIndex, firstIndex + newCapacity);
+         payloadIndices = Arrays.copyOfRange(payloadIndices, firstIndex, firstIndex + newCapacity);
+      }
+
+      firstIndex = 0;
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= size)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+   }
+
+   private static void checkInterval(double startTime, double endTime)
+   {
+      if (endTime < startTime)
+         throw new IllegalArgumentException("The end time is not valid! End time " + endTime + " must be greater than start time " + startTime);
+   }
+}
@@ -1,14 +1,22 @@
 package us.ihmc.commons.time;
 
 import us.ihmc.commons.MathTools;
+import us.ihmc.commons.lists.DoubleKeySorter;
+import us.ihmc.commons.lists.ListSorter;
+import us.ihmc.commons.lists.RecyclingArrayList;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 @SuppressWarnings("unchecked")
 public class TimeIntervalTools
 {
+   /** The times are extracted once per interval and sorted as primitives, one sorter per thread to reuse its buffers. */
+   private static final ThreadLocal<DoubleKeySorter> timeSorter = ThreadLocal.withInitial(DoubleKeySorter::new);
+   private static final ToDoubleFunction<TimeIntervalProvider> startTimeFunction = provider -> provider.getTimeInterval().getStartTime();
+   private static final ToDoubleFunction<TimeIntervalProvider> endTimeFunction = provider -> provider.getTimeInterval().getEndTime();
 
    public static boolean areTimeIntervalsConsecutive(TimeIntervalProvider intervalA, TimeIntervalProvider intervalB)
    {
@@ -57,142 +65,179 @@ public class TimeIntervalTools
 
    static public void sortByStartTime(List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      sort((List<TimeIntervalProvider>) timeIntervalProviders, startTimeComparator);
+      timeSorter.get().sort((List<TimeIntervalProvider>) timeIntervalProviders, startTimeFunction, false);
    }
 
    static public void sortByReverseStartTime(List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      sort((List<TimeIntervalProvider>) timeIntervalProviders, startTimeComparator.reversed());
+      timeSorter.get().sort((List<TimeIntervalProvider>) timeIntervalProviders, startTimeFunction, true);
    }
 
    static public void sortByEndTime(List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      sort((List<TimeIntervalProvider>) timeIntervalProviders, endTimeComparator);
+      timeSorter.get().sort((List<TimeIntervalProvider>) timeIntervalProviders, endTimeFunction, false);
    }
 
    static public void sortByReverseEndTime(List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      sort((List<TimeIntervalProvider>) timeIntervalProviders, endTimeComparator.reversed());
+      timeSorter.get().sort((List<TimeIntervalProvider>) timeIntervalProviders, endTimeFunction, true);
    }
 
    public static <T> void sort(List<T> ts, Comparator<T> comparator)
    {
-      boolean ordered = false;
-
-      while (!ordered)
-      {
-         ordered = true;
-         for (int i = 0; i < ts.size() - 1; i++)
-         {
-            T a = ts.get(i);
-            T b = ts.get(i + 1);
-
-            if (comparator.compare(a, b) > 0)
-            {
-               ordered = false;
-               swap(ts, i, i + 1);
-            }
-         }
-      }
+      ListSorter.sort(ts, comparator);
    }
 
-   private static <T> void swap(List<T> ts, int a, int b)
+   static public void removeStartTimesLessThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      T tmp = ts.get(a);
-      ts.set(a, ts.get(b));
-      ts.set(b, tmp);
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.LESS_THAN, false);
    }
 
-   static public void removeStartTimesLessThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
+   /**
+    * Same as {@link #removeStartTimesLessThan(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByStartTime} is {@code true}.
+    *
+    * @param time                  the time to compare the start times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByStartTime   whether the list is sorted in increasing order of start time, e.g. by
+    *                              {@link #sortByStartTime(List)}.
+    */
+   static public void removeStartTimesLessThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByStartTime)
    {
-      for (int i = 0; i < timeIntervalProviders.size(); i++)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getStartTime() < time)
-         {
-            timeIntervalProviders.remove(i);
-            i--;
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.LESS_THAN, isSortedByStartTime);
    }
 
    static public void removeStartTimesLessThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = 0; i < timeIntervalProviders.size(); i++)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getStartTime() <= time)
-         {
-            timeIntervalProviders.remove(i);
-            i--;
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.LESS_THAN_OR_EQUAL_TO, false);
+   }
+
+   /**
+    * Same as {@link #removeStartTimesLessThanOrEqualTo(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByStartTime} is {@code true}.
+    *
+    * @param time                  the time to compare the start times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByStartTime   whether the list is sorted in increasing order of start time, e.g. by
+    *                              {@link #sortByStartTime(List)}.
+    */
+   static public void removeStartTimesLessThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByStartTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.LESS_THAN_OR_EQUAL_TO, isSortedByStartTime);
    }
 
    static public void removeStartTimesGreaterThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = timeIntervalProviders.size() - 1; i >= 0; i--)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getStartTime() > time)
-         {
-            timeIntervalProviders.remove(i);
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.GREATER_THAN, false);
+   }
+
+   /**
+    * Same as {@link #removeStartTimesGreaterThan(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByStartTime} is {@code true}.
+    *
+    * @param time                  the time to compare the start times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByStartTime   whether the list is sorted in increasing order of start time, e.g. by
+    *                              {@link #sortByStartTime(List)}.
+    */
+   static public void removeStartTimesGreaterThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByStartTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.GREATER_THAN, isSortedByStartTime);
    }
 
    static public void removeStartTimesGreaterThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = timeIntervalProviders.size() - 1; i >= 0; i--)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getStartTime() >= time)
-         {
-            timeIntervalProviders.remove(i);
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.GREATER_THAN_OR_EQUAL_TO, false);
+   }
+
+   /**
+    * Same as {@link #removeStartTimesGreaterThanOrEqualTo(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByStartTime} is {@code true}.
+    *
+    * @param time                  the time to compare the start times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByStartTime   whether the list is sorted in increasing order of start time, e.g. by
+    *                              {@link #sortByStartTime(List)}.
+    */
+   static public void removeStartTimesGreaterThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByStartTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.START, TimeCondition.GREATER_THAN_OR_EQUAL_TO, isSortedByStartTime);
    }
 
    static public void removeEndTimesLessThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = 0; i < timeIntervalProviders.size(); i++)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getEndTime() < time)
-         {
-            timeIntervalProviders.remove(i);
-            i--;
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.LESS_THAN, false);
+   }
+
+   /**
+    * Same as {@link #removeEndTimesLessThan(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByEndTime} is {@code true}.
+    *
+    * @param time                  the time to compare the end times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByEndTime     whether the list is sorted in increasing order of end time, e.g. by
+    *                              {@link #sortByEndTime(List)}.
+    */
+   static public void removeEndTimesLessThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByEndTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.LESS_THAN, isSortedByEndTime);
    }
 
    static public void removeEndTimesLessThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = 0; i < timeIntervalProviders.size(); i++)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getEndTime() <= time)
-         {
-            timeIntervalProviders.remove(i);
-            i--;
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.LESS_THAN_OR_EQUAL_TO, false);
+   }
+
+   /**
+    * Same as {@link #removeEndTimesLessThanOrEqualTo(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByEndTime} is {@code true}.
+    *
+    * @param time                  the time to compare the end times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByEndTime     whether the list is sorted in increasing order of end time, e.g. by
+    *                              {@link #sortByEndTime(List)}.
+    */
+   static public void removeEndTimesLessThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByEndTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.LESS_THAN_OR_EQUAL_TO, isSortedByEndTime);
    }
 
    static public void removeEndTimesGreaterThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = timeIntervalProviders.size() - 1; i >= 0; i--)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getEndTime() > time)
-         {
-            timeIntervalProviders.remove(i);
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.GREATER_THAN, false);
+   }
+
+   /**
+    * Same as {@link #removeEndTimesGreaterThan(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByEndTime} is {@code true}.
+    *
+    * @param time                  the time to compare the end times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByEndTime     whether the list is sorted in increasing order of end time, e.g. by
+    *                              {@link #sortByEndTime(List)}.
+    */
+   static public void removeEndTimesGreaterThan(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByEndTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.GREATER_THAN, isSortedByEndTime);
    }
 
    static public void removeEndTimesGreaterThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders)
    {
-      for (int i = timeIntervalProviders.size() - 1; i >= 0; i--)
-      {
-         if (timeIntervalProviders.get(i).getTimeInterval().getEndTime() >= time)
-         {
-            timeIntervalProviders.remove(i);
-         }
-      }
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.GREATER_THAN_OR_EQUAL_TO, false);
+   }
+
+   /**
+    * Same as {@link #removeEndTimesGreaterThanOrEqualTo(double, List)},
+    * with a binary search of the intervals to remove when {@code isSortedByEndTime} is {@code true}.
+    *
+    * @param time                  the time to compare the end times against.
+    * @param timeIntervalProviders the list to remove the intervals from. Modified.
+    * @param isSortedByEndTime     whether the list is sorted in increasing order of end time, e.g. by
+    *                              {@link #sortByEndTime(List)}.
+    */
+   static public void removeEndTimesGreaterThanOrEqualTo(double time, List<? extends TimeIntervalProvider> timeIntervalProviders, boolean isSortedByEndTime)
+   {
+      removeTimes(time, timeIntervalProviders, TimeType.END, TimeCondition.GREATER_THAN_OR_EQUAL_TO, isSortedByEndTime);
    }
 
    static public <T extends TimeIntervalProvider> List<T> removeAndReturnEndTimesLessThan(double time, List<T> timeIntervalProviders)
@@ -213,16 +258,145 @@ public class TimeIntervalTools
    static public <T extends TimeIntervalProvider> List<T> getIntervalsContainingTime(double time, List<T> timeIntervalProviders)
    {
       List<T> timeIntervalProvidersToRemove = new ArrayList<>();
+      getIntervalsContainingTime(time, timeIntervalProviders, timeIntervalProvidersToRemove);
+      return timeIntervalProvidersToRemove;
+   }
+
+   /**
+    * Packs the intervals that contain the given time, without allocating a new list. For repeated
+    * queries over the same intervals, see {@link TimeIntervalIndex}.
+    *
+    * @param time                  the query time.
+    * @param timeIntervalProviders the intervals to search. Not modified.
+    * @param resultToPack          the list in which the intervals containing {@code time} are stored.
+    *                              It is cleared first. Modified.
+    */
+   static public <T extends TimeIntervalProvider> void getIntervalsContainingTime(double time, List<T> timeIntervalProviders, List<? super T> resultToPack)
+   {
+      resultToPack.clear();
 
       for (int i = 0; i < timeIntervalProviders.size(); i++)
       {
          if (timeIntervalProviders.get(i).getTimeInterval().intervalContains(time))
          {
-            timeIntervalProvidersToRemove.add(timeIntervalProviders.get(i));
+            resultToPack.add(timeIntervalProviders.get(i));
          }
       }
+   }
 
-      return timeIntervalProvidersToRemove;
+   private enum TimeType
+   {
+      START, END;
+
+      double getTime(TimeIntervalProvider timeIntervalProvider)
+      {
+         TimeIntervalBasics timeInterval = timeIntervalProvider.getTimeInterval();
+         return this == START ? timeInterval.getStartTime() : timeInterval.getEndTime();
+      }
+   }
+
+   private enum TimeCondition
+   {
+      LESS_THAN, LESS_THAN_OR_EQUAL_TO, GREATER_THAN, GREATER_THAN_OR_EQUAL_TO;
+
+      boolean test(double intervalTime, double time)
+      {
+         switch (this)
+         {
+            case LESS_THAN:
+               return intervalTime < time;
+            case LESS_THAN_OR_EQUAL_TO:
+               return intervalTime <= time;
+            case GREATER_THAN:
+               return intervalTime > time;
+            default:
+               return intervalTime >= time;
+         }
+      }
+
+      boolean removesPrefix()
+      {
+         return this == LESS_THAN || this == LESS_THAN_OR_EQUAL_TO;
+      }
+   }
+
+   /**
+    * Removes the intervals whose time satisfies the condition in a single pass preserving the order
+    * of the remaining intervals, instead of calling {@link List#remove(int)} for each of them.
+    * <p>
+    * When the list is a {@link RecyclingArrayList}, the removed elements are moved past its end with
+    * {@link RecyclingArrayList#swap(int, int)} such that they are recycled.
+    * </p>
+    */
+   private static <T extends TimeIntervalProvider> void removeTimes(double time, List<T> timeIntervalProviders, TimeType timeType, TimeCondition condition,
+                                                                    boolean isSorted)
+   {
+      int size = timeIntervalProviders.size();
+
+      if (isSorted)
+      {
+         // The intervals to remove are either a prefix or a suffix of the list, the first index for which the condition flips is the cut point.
+         int low = 0;
+         int high = size;
+         while (low < high)
+         {
+            int mid = (low + high) >>> 1;
+            if (condition.test(timeType.getTime(timeIntervalProviders.get(mid)), time) == condition.removesPrefix())
+               low = mid + 1;
+            else
+               high = mid;
+         }
+
+         if (condition.removesPrefix())
+            removeRange(timeIntervalProviders, 0, low);
+         else
+            removeRange(timeIntervalProviders, low, size);
+         return;
+      }
+
+      int newSize = 0;
+
+      for (int i = 0; i < size; i++)
+      {
+         if (condition.test(timeType.getTime(timeIntervalProviders.get(i)), time))
+            continue;
+
+         if (i != newSize)
+            moveElement(timeIntervalProviders, i, newSize);
+         newSize++;
+      }
+
+      truncate(timeIntervalProviders, newSize);
+   }
+
+   /**
+    * Removes the elements in [{@code fromIndex}, {@code toIndex}[ preserving the order of the
+    * remaining elements.
+    */
+   private static <T> void removeRange(List<T> list, int fromIndex, int toIndex)
+   {
+      if (fromIndex >= toIndex)
+         return;
+
+      int size = list.size();
+      for (int i = toIndex; i < size; i++)
+         moveElement(list, i, fromIndex + i - toIndex);
+      truncate(list, size - (toIndex - fromIndex));
+   }
+
+   private static <T> void moveElement(List<T> list, int fromIndex, int toIndex)
+   {
+      if (list instanceof RecyclingArrayList)
+         ((RecyclingArrayList<T>) list).swap(fromIndex, toIndex);
+      else
+         list.set(toIndex, list.get(fromIndex));
+   }
+
+   private static void truncate(List<?> list, int newSize)
+   {
+      // Removing the last element does not shift any element.
+      for (int i = list.size() - 1; i >= newSize; i--)
+         list.remove(i);
    }
 
    public static Comparator<TimeIntervalProvider> startTimeComparator = (TimeIntervalProvider a, TimeIntervalProvider b) -> {
@@ -0,0 +1,281 @@
+package us.ihmc.commons.time;
+
+import java.util.Arrays;
+import java.util.List;
+
+import us.ihmc.commons.MathTools;
+
+/**
+ * Validates a sequence of time intervals incrementally, as the sequence grows at its end, expires at
+ * its front, and is shifted in time, e.g. in receding-horizon planning.
+ * <p>
+ * Two kinds of violations are tracked between consecutive intervals:
+ * <ul>
+ * <li>a discontinuity: the interval does not start when the previous one ends, as checked by
+ * {@link TimeIntervalTools#isTimeSequenceContinuous(List, double)}.
+ * <li>an overlap: the interval starts before the previous one ends, beyond the tolerance.
+ * </ul>
+ * Only the end time of the last interval and the positions of the violations are stored, such that
+ * every mutation costs <tt>O(1)</tt> amortized regardless of the length of the sequence, and the
+ * queries cost <tt>O(1)</tt>. The validator does not allocate memory once its internal arrays have
+ * grown to the number of violations.
+ * </p>
+ * <p>
+ * The validator has to be notified of every mutation of the sequence it validates, in the same
+ * order.
+ * </p>
+ */
+public class TimeSequenceValidator
+{
+   private final double epsilon;
+
+   /** Number of intervals removed from the front since the last clear, i.e. absolute index of the first interval. */
+   private long firstIntervalIndex = 0;
+   private int size = 0;
+   private double lastEndTime = Double.NaN;
+
+   /** Absolute indices of the intervals that do not start when the previous one ends. */
+   private final IndexQueue discontinuityIndices = new IndexQueue();
+   /** Absolute indices of the intervals that start before the previous one ends. */
+   private final IndexQueue overlapIndices = new IndexQueue();
+
+   /**
+    * Creates a new validator with the same tolerance as
+    * {@link TimeIntervalTools#isTimeSequenceContinuous(List)}.
+    */
+   public TimeSequenceValidator()
+   {
+      this(5e-3);
+   }
+
+   /**
+    * Creates a new validator.
+    *
+    * @param epsilon the tolerance on the difference between the end time of an interval and the start
+    *                time of the next one.
+    */
+   public TimeSequenceValidator(double epsilon)
+   {
+      this.epsilon = epsilon;
+   }
+
+   /**
+    * Resets this validator to an empty sequence.
+    */
+   public void clear()
+   {
+      firstIntervalIndex = 0;
+      size = 0;
+      lastEndTime = Double.NaN;
+      discontinuityIndices.clear();
+      overlapIndices.clear();
+   }
+
+   /**
+    * Resets this validator to the given sequence. This costs <tt>O(n)</tt> and is meant to
+    * initialize the validator, the following mutations should then be notified incrementally.
+    *
+    * @param timeIntervalProviders the sequence to validate. Not modified.
+    */
+   public void set(List<? extends TimeIntervalProvider> timeIntervalProviders)
+   {
+      clear();
+
+      for (int i = 0; i < timeIntervalProviders.size(); i++)
+         append(timeIntervalProviders.get(i).getTimeInterval());
+   }
+
+   /**
+    * Notifies that an interval was appended at the end of the sequence.
+    *
+    * @param timeInterval the new interval. Not modified.
+    */
+   public void append(TimeIntervalReadOnly timeInterval)
+   {
+      append(timeInterval.getStartTime(), timeInterval.getEndTime());
+   }
+
+   /**
+    * Notifies that an interval was appended at the end of the sequence.
+    *
+    * @param startTime the start time of the new interval.
+    * @param endTime   the end time of the new interval.
+    */
+   public void append(double startTime, double endTime)
+   {
+      if (size > 0)
+      {
+         long index = firstIntervalIndex + size;
+
+         if (!MathTools.epsilonEquals(lastEndTime, startTime, epsilon))
+            discontinuityIndices.addLast(index);
+         if (startTime < lastEndTime - epsilon)
+            overlapIndices.addLast(index);
+      }
+
+      lastEndTime = endTime;
+      size++;
+   }
+
+   /**
+    * Notifies that the first interval of the sequence was removed.
+    */
+   public void removeFirst()
+   {
+      removeFirst(1);
+   }
+
+   /**
+    * Notifies that the first intervals of the sequence were removed.
+    *
+    * @param numberOfIntervals the number of intervals removed from the front.
+    */
+   public void removeFirst(int numberOfIntervals)
+   {
+      if (numberOfIntervals < 0 || numberOfIntervals > size)
+         throw new IndexOutOfBoundsException("Cannot remove " + numberOfIntervals + " intervals, size: " + size);
+
+      firstIntervalIndex += numberOfIntervals;
+      size -= numberOfIntervals;
+
+      // A violation is between an interval and the previous one, it disappears with the previous one.
+      discontinuityIndices.removeFirstUpTo(firstIntervalIndex);
+      overlapIndices.removeFirstUpTo(firstIntervalIndex);
+
+      if (size == 0)
+         lastEndTime = Double.NaN;
+   }
+
+   /**
+    * Notifies that all the intervals of the sequence were shifted by the same time, see
+    * {@link TimeIntervalBasics#shiftInterval(double)}. This does not change the relation between
+    * consecutive intervals.
+    *
+    * @param shiftTime the time added to the start and end times of every interval.
+    */
+   public void shift(double shiftTime)
+   {
+      lastEndTime += shiftTime;
+   }
+
+   /**
+    * Returns the number of intervals in the validated sequence.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Tests whether every interval starts when the previous one ends.
+    *
+    * @return whether the sequence is continuous.
+    */
+   public boolean isContinuous()
+   {
+      return discontinuityIndices.isEmpty();
+   }
+
+   /**
+    * Tests whether any interval starts before the previous one ends.
+    *
+    * @return whether the sequence has overlaps.
+    */
+   public boolean hasOverlaps()
+   {
+      return !overlapIndices.isEmpty();
+   }
+
+   /**
+    * Gets the index of the first interval that does not start when the previous one ends.
+    *
+    * @return the index of the interval in the sequence, or -1 if the sequence is continuous.
+    */
+   public int getFirstDiscontinuityIndex()
+   {
+      return discontinuityIndices.isEmpty() ? -1 : (int) (discontinuityIndices.getFirst() - firstIntervalIndex);
+   }
+
+   /**
+    * Gets the index of the first interval that starts before the previous one ends.
+    *
+    * @return the index of the interval in the sequence, or -1 if the sequence has no overlap.
+    */
+   public int getFirstOverlapIndex()
+   {
+      return overlapIndices.isEmpty() ? -1 : (int) (overlapIndices.getFirst() - firstIntervalIndex);
+   }
+
+   public int getNumberOfDiscontinuities()
+   {
+      return discontinuityIndices.size();
+   }
+
+   public int getNumberOfOverlaps()
+   {
+      return overlapIndices.size();
+   }
+
+   public double getEpsilon()
+   {
+      return epsilon;
+   }
+
+   /**
+    * Growable queue of increasing indices.
+    */
+   private static class IndexQueue
+   {
+      private long[] indices = new long[8];
+      private int first = 0;
+      private int size = 0;
+
+      void clear()
+      {
+         first = 0;
+         size = 0;
+      }
+
+      void addLast(long index)
+      {
+         if (first + size == indices.length)
+         {
+            if (size < indices.length / 2)
+               System.arraycopy(indices, first, indices, 0, size);
+            else
+               indices = Arrays.copyOfRange(indices, first, first + 2 * indices.length);
+            first = 0;
+         }
+
+         indices[first + size] = index;
+         size++;
+      }
+
+      void removeFirstUpTo(long maxIndex)
+      {
+         while (size > 0 && indices[first] <= maxIndex)
+         {
+            first++;
+            size--;
+         }
+
+         if (size == 0)
+            first = 0;
+      }
+
+      long getFirst()
+      {
+         return indices[first];
+      }
+
+      int size()
+      {
+         return size;
+      }
+
+      boolean isEmpty()
+      {
+         return size == 0;
+      }
+   }
+}
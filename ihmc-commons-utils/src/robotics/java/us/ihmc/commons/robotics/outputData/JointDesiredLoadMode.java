@@ -6,4 +6,16 @@ public enum JointDesiredLoadMode
    LOADED;
 
    public static final JointDesiredLoadMode[] values = values();
+
+   public byte toByte()
+   {
+      return (byte) ordinal();
+   }
+
+   public static JointDesiredLoadMode fromByte(byte enumAsByte)
+   {
+      if (enumAsByte == -1)
+         return null;
+      return values[enumAsByte];
+   }
 }
@@ -27,79 +27,130 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    
    private double maxTorque = Double.NaN;
 
+   /** Mask of the fields that differ from their acknowledged value. */
+   private int changedFields = 0;
+   private JointDesiredControlMode acknowledgedControlMode;
+   private JointDesiredLoadMode acknowledgedLoadMode;
+   private double acknowledgedDesiredTorque = Double.NaN;
+   private double acknowledgedDesiredPosition = Double.NaN;
+   private double acknowledgedDesiredVelocity = Double.NaN;
+   private double acknowledgedDesiredAcceleration = Double.NaN;
+   private boolean acknowledgedResetIntegrators = false;
+   private double acknowledgedStiffness = Double.NaN;
+   private double acknowledgedDamping = Double.NaN;
+   private double acknowledgedMasterGain = Double.NaN;
+   private double acknowledgedVelocityScaling = Double.NaN;
+   private double acknowledgedVelocityIntegrationBreakFrequency = Double.NaN;
+   private double acknowledgedPositionIntegrationBreakFrequency = Double.NaN;
+   private double acknowledgedPositionIntegrationMaxError = Double.NaN;
+   private double acknowledgedVelocityIntegrationMaxError = Double.NaN;
+   private double acknowledgedPositionFeedbackMaxError = Double.NaN;
+   private double acknowledgedVelocityFeedbackMaxError = Double.NaN;
+   private double acknowledgedMaxTorque = Double.NaN;
+
+   private long contentHash;
+   private long contentVersion = 0;
+
+   /** The list holding this joint desired output, notified of every change of content. Can be {@code null}. */
+   private final JointDesiredOutputList parentList;
+   /** Index of this joint desired output in {@link #parentList}. */
+   private final int parentIndex;
+
    public JointDesiredOutput()
    {
+      this(null, -1);
+   }
+
+   JointDesiredOutput(JointDesiredOutputList parentList, int parentIndex)
+   {
+      this.parentList = parentList;
+      this.parentIndex = parentIndex;
+      contentHash = JointDesiredOutputBasics.super.getContentHash();
       clear();
    }
 
    @Override
    public void clear()
    {
-      controlMode = null;
-      loadMode = null;
-      desiredTorque = Double.NaN;
-      desiredPosition = Double.NaN;
-      desiredVelocity = Double.NaN;
-      desiredAcceleration = Double.NaN;
-      resetIntegrators = false;
+      setControlMode(null);
+      setLoadMode(null);
+      setDesiredTorque(Double.NaN);
+      setDesiredPosition(Double.NaN);
+      setDesiredVelocity(Double.NaN);
+      setDesiredAcceleration(Double.NaN);
+      setResetIntegrators(false);
+
+      setStiffness(Double.NaN);
+      setDamping(Double.NaN);
+      setMasterGain(Double.NaN);
 
-      stiffness = Double.NaN;
-      damping = Double.NaN;
-      masterGain = Double.NaN;
+      setVelocityScaling(Double.NaN);
 
-      velocityScaling = Double.NaN;
+      setVelocityIntegrationBreakFrequency(Double.NaN);
+      setPositionIntegrationBreakFrequency(Double.NaN);
+      setPositionIntegrationMaxError(Double.NaN);
+      setVelocityIntegrationMaxError(Double.NaN);
 
-      velocityIntegrationBreakFrequency = Double.NaN;
-      positionIntegrationBreakFrequency = Double.NaN;
-      positionIntegrationMaxError = Double.NaN;
-      velocityIntegrationMaxError = Double.NaN;
+      setPositionFeedbackMaxError(Double.NaN);
+      setVelocityFeedbackMaxError(Double.NaN);
 
-      positionFeedbackMaxError = Double.NaN;
-      velocityFeedbackMaxError = Double.NaN;
-      
-      maxTorque = Double.NaN;
+      setMaxTorque(Double.NaN);
    }
 
    @Override
    public void setControlMode(JointDesiredControlMode controlMode)
    {
+      updateContent(JointDesiredOutputField.CONTROL_MODE, this.controlMode, controlMode);
       this.controlMode = controlMode;
+      updateChangedField(JointDesiredOutputField.CONTROL_MODE, controlMode != acknowledgedControlMode);
    }
 
    @Override
    public void setLoadMode(JointDesiredLoadMode loadMode)
    {
+      updateContent(JointDesiredOutputField.LOAD_MODE, this.loadMode, loadMode);
       this.loadMode = loadMode;
+      updateChangedField(JointDesiredOutputField.LOAD_MODE, loadMode != acknowledgedLoadMode);
    }
 
    @Override
    public void setDesiredTorque(double tau)
    {
+      updateContent(JointDesiredOutputField.DESIRED_TORQUE, desiredTorque, tau);
       desiredTorque = tau;
+      updateChangedField(JointDesiredOutputField.DESIRED_TORQUE, desiredTorque, acknowledgedDesiredTorque);
    }
 
    @Override
    public void setDesiredPosition(double q)
    {
+      updateContent(JointDesiredOutputField.DESIRED_POSITION, desiredPosition, q);
       desiredPosition = q;
+      updateChangedField(JointDesiredOutputField.DESIRED_POSITION, desiredPosition, acknowledgedDesiredPosition);
    }
 
    @Override
    public void setDesiredVelocity(double qd)
    {
+      updateContent(JointDesiredOutputField.DESIRED_VELOCITY, desiredVelocity, qd);
       desiredVelocity = qd;
+      updateChangedField(JointDesiredOutputField.DESIRED_VELOCITY, desiredVelocity, acknowledgedDesiredVelocity);
    }
 
    @Override
    public void setDesiredAcceleration(double qdd)
    {
+      updateContent(JointDesiredOutputField.DESIRED_ACCELERATION, desiredAcceleration, qdd);
       desiredAcceleration = qdd;
+      updateChangedField(JointDesiredOutputField.DESIRED_ACCELERATION, desiredAcceleration, acknowledgedDesiredAcceleration);
    }
 
    @Override
    public void setResetIntegrators(boolean reset)
    {
+      updateContent(JointDesiredOutputField.RESET_INTEGRATORS, resetIntegrators, reset);
       resetIntegrators = reset;
+      updateChangedField(JointDesiredOutputField.RESET_INTEGRATORS, resetIntegrators != acknowledgedResetIntegrators);
    }
 
    @Override
@@ -142,7 +193,9 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    public boolean pollResetIntegratorsRequest()
    {
       boolean resetIntegrators = this.resetIntegrators;
+      updateContent(JointDesiredOutputField.RESET_INTEGRATORS, this.resetIntegrators, false);
       this.resetIntegrators = false;
+      updateChangedField(JointDesiredOutputField.RESET_INTEGRATORS, this.resetIntegrators != acknowledgedResetIntegrators);
       return resetIntegrators;
 
    }
@@ -168,13 +221,17 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setStiffness(double stiffness)
    {
+      updateContent(JointDesiredOutputField.STIFFNESS, this.stiffness, stiffness);
       this.stiffness = stiffness;
+      updateChangedField(JointDesiredOutputField.STIFFNESS, stiffness, acknowledgedStiffness);
    }
 
    @Override
    public void setDamping(double damping)
    {
+      updateContent(JointDesiredOutputField.DAMPING, this.damping, damping);
       this.damping = damping;
+      updateChangedField(JointDesiredOutputField.DAMPING, damping, acknowledgedDamping);
    }
 
    @Override
@@ -186,7 +243,9 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setMasterGain(double masterGain)
    {
+      updateContent(JointDesiredOutputField.MASTER_GAIN, this.masterGain, masterGain);
       this.masterGain = masterGain;
+      updateChangedField(JointDesiredOutputField.MASTER_GAIN, masterGain, acknowledgedMasterGain);
    }
 
    @Override
@@ -198,7 +257,9 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setVelocityScaling(double velocityScaling)
    {
+      updateContent(JointDesiredOutputField.VELOCITY_SCALING, this.velocityScaling, velocityScaling);
       this.velocityScaling = velocityScaling;
+      updateChangedField(JointDesiredOutputField.VELOCITY_SCALING, velocityScaling, acknowledgedVelocityScaling);
    }
 
    @Override
@@ -210,7 +271,13 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setVelocityIntegrationBreakFrequency(double velocityIntegrationBreakFrequency)
    {
+      updateContent(JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY,
+                    this.velocityIntegrationBreakFrequency,
+                    velocityIntegrationBreakFrequency);
       this.velocityIntegrationBreakFrequency = velocityIntegrationBreakFrequency;
+      updateChangedField(JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY,
+                         velocityIntegrationBreakFrequency,
+                         acknowledgedVelocityIntegrationBreakFrequency);
    }
 
    @Override
@@ -222,7 +289,13 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setPositionIntegrationBreakFrequency(double positionIntegrationBreakFrequency)
    {
+      updateContent(JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY,
+                    this.positionIntegrationBreakFrequency,
+                    positionIntegrationBreakFrequency);
       this.positionIntegrationBreakFrequency = positionIntegrationBreakFrequency;
+      updateChangedField(JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY,
+                         positionIntegrationBreakFrequency,
+                         acknowledgedPositionIntegrationBreakFrequency);
    }
 
    @Override
@@ -234,7 +307,9 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setPositionIntegrationMaxError(double maxPositionError)
    {
+      updateContent(JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR, positionIntegrationMaxError, maxPositionError);
       this.positionIntegrationMaxError = maxPositionError;
+      updateChangedField(JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR, positionIntegrationMaxError, acknowledgedPositionIntegrationMaxError);
    }
 
    @Override
@@ -246,7 +321,9 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setVelocityIntegrationMaxError(double maxVelocityError)
    {
+      updateContent(JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR, velocityIntegrationMaxError, maxVelocityError);
       this.velocityIntegrationMaxError = maxVelocityError;
+      updateChangedField(JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR, velocityIntegrationMaxError, acknowledgedVelocityIntegrationMaxError);
    }
 
    @Override
@@ -264,13 +341,99 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
    @Override
    public void setPositionFeedbackMaxError(double positionFeedbackMaxError)
    {
+      updateContent(JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR, this.positionFeedbackMaxError, positionFeedbackMaxError);
       this.positionFeedbackMaxError = positionFeedbackMaxError;
+      updateChangedField(JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR, positionFeedbackMaxError, acknowledgedPositionFeedbackMaxError);
    }
 
    @Override
    public void setVelocityFeedbackMaxError(double velocityFeedbackMaxError)
    {
+      updateContent(JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR, this.velocityFeedbackMaxError, velocityFeedbackMaxError);
       this.velocityFeedbackMaxError = velocityFeedbackMaxError;
+      updateChangedField(JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR, velocityFeedbackMaxError, acknowledgedVelocityFeedbackMaxError);
+   }
+
+   @Override
+   public int getChangedFieldsMask()
+   {
+      return changedFields;
+   }
+
+   @Override
+   public void acknowledgeChanges()
+   {
+      acknowledgedControlMode = controlMode;
+      acknowledgedLoadMode = loadMode;
+      acknowledgedDesiredTorque = desiredTorque;
+      acknowledgedDesiredPosition = desiredPosition;
+      acknowledgedDesiredVelocity = desiredVelocity;
+      acknowledgedDesiredAcceleration = desiredAcceleration;
+      acknowledgedResetIntegrators = resetIntegrators;
+      acknowledgedStiffness = stiffness;
+      acknowledgedDamping = damping;
+      acknowledgedMasterGain = masterGain;
+      acknowledgedVelocityScaling = velocityScaling;
+      acknowledgedVelocityIntegrationBreakFrequency = velocityIntegrationBreakFrequency;
+      acknowledgedPositionIntegrationBreakFrequency = positionIntegrationBreakFrequency;
+      acknowledgedPositionIntegrationMaxError = positionIntegrationMaxError;
+      acknowledgedVelocityIntegrationMaxError = velocityIntegrationMaxError;
+      acknowledgedPositionFeedbackMaxError = positionFeedbackMaxError;
+      acknowledgedVelocityFeedbackMaxError = velocityFeedbackMaxError;
+      acknowledgedMaxTorque = maxTorque;
+      changedFields = 0;
+   }
+
+   private void updateChangedField(JointDesiredOutputField field, double value, double acknowledgedValue)
+   {
+      updateChangedField(field, Double.compare(value, acknowledgedValue) != 0);
+   }
+
+   private void updateChangedField(JointDesiredOutputField field, boolean hasChanged)
+   {
+      if (hasChanged)
+         changedFields |= field.getMask();
+      else
+         changedFields &= ~field.getMask();
+   }
+
+   private void updateContent(JointDesiredOutputField field, double previousValue, double newValue)
+   {
+      if (Double.compare(previousValue, newValue) != 0)
+         updateContent(field.computeHash(newValue) - field.computeHash(previousValue));
+   }
+
+   private void updateContent(JointDesiredOutputField field, Enum<?> previousValue, Enum<?> newValue)
+   {
+      if (previousValue != newValue)
+         updateContent(field.computeHash(newValue) - field.computeHash(previousValue));
+   }
+
+   private void updateContent(JointDesiredOutputField field, boolean previousValue, boolean newValue)
+   {
+      if (previousValue != newValue)
+         updateContent(field.computeHash(newValue) - field.computeHash(previousValue));
+   }
+
+   private void updateContent(long contentHashChange)
+   {
+      contentHash += contentHashChange;
+      contentVersion++;
+
+      if (parentList != null)
+         parentList.updateContent(parentIndex, contentHashChange);
+   }
+
+   @Override
+   public long getContentHash()
+   {
+      return contentHash;
+   }
+
+   @Override
+   public long getContentVersion()
+   {
+      return contentVersion;
    }
 
    public void set(JointDesiredOutput other)
@@ -301,7 +464,9 @@ public class JointDesiredOutput implements JointDesiredOutputBasics
 
    public void setMaxTorque(double feedbackMaxTorque)
    {
+      updateContent(JointDesiredOutputField.MAX_TORQUE, maxTorque, feedbackMaxTorque);
       this.maxTorque = feedbackMaxTorque;
+      updateChangedField(JointDesiredOutputField.MAX_TORQUE, maxTorque, acknowledgedMaxTorque);
    }
    
    
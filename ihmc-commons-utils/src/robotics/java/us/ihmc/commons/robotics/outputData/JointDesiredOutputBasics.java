@@ -4,6 +4,17 @@ public interface JointDesiredOutputBasics extends JointDesiredOutputReadOnly
 {
    void clear();
 
+   /**
+    * Marks the current value of every field as the reference for change tracking.
+    * <p>
+    * For implementations that track changes, {@link #getChangedFieldsMask()} then returns {@code 0}
+    * until a field is modified.
+    * </p>
+    */
+   default void acknowledgeChanges()
+   {
+   }
+
    default void set(JointDesiredOutputReadOnly other)
    {
       setControlMode(other.getControlMode());
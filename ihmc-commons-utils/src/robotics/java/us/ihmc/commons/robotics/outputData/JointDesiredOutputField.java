@@ -0,0 +1,123 @@
+package us.ihmc.commons.robotics.outputData;
+
+/**
+ * Enumerates the fields held in a {@link JointDesiredOutputReadOnly}.
+ * <p>
+ * Each field is associated to a bit, see {@link #getMask()}, such that a set of fields can be
+ * represented with a single {@code int}, e.g. {@link JointDesiredOutputReadOnly#getChangedFieldsMask()}.
+ * </p>
+ */
+public enum JointDesiredOutputField
+{
+   CONTROL_MODE,
+   LOAD_MODE,
+   DESIRED_TORQUE,
+   DESIRED_POSITION,
+   DESIRED_VELOCITY,
+   DESIRED_ACCELERATION,
+   RESET_INTEGRATORS,
+   STIFFNESS,
+   DAMPING,
+   MASTER_GAIN,
+   VELOCITY_SCALING,
+   VELOCITY_INTEGRATION_BREAK_FREQUENCY,
+   POSITION_INTEGRATION_BREAK_FREQUENCY,
+   POSITION_INTEGRATION_MAX_ERROR,
+   VELOCITY_INTEGRATION_MAX_ERROR,
+   POSITION_FEEDBACK_MAX_ERROR,
+   VELOCITY_FEEDBACK_MAX_ERROR,
+   MAX_TORQUE;
+
+   public static final JointDesiredOutputField[] values = values();
+
+   /** Mask with the bit of every field set. */
+   public static final int ALL_FIELDS_MASK = (1 << values.length) - 1;
+
+   public int getMask()
+   {
+      return 1 << ordinal();
+   }
+
+   public boolean isIn(int fieldsMask)
+   {
+      return (fieldsMask & getMask()) != 0;
+   }
+
+   /**
+    * Gets the field corresponding to the lowest bit set in the given mask.
+    * <p>
+    * This allows to iterate over the fields of a mask:
+    *
+    * <pre>
+    * for (int mask = fieldsMask; mask != 0; mask &amp;= mask - 1)
+    * {
+    *    JointDesiredOutputField field = JointDesiredOutputField.firstIn(mask);
+    *    ...
+    * }
+    * </pre>
+    * </p>
+    *
+    * @param fieldsMask the mask of fields.
+    * @return the field of the lowest bit, or {@code null} if the mask is empty.
+    */
+   public static JointDesiredOutputField firstIn(int fieldsMask)
+   {
+      if ((fieldsMask & ALL_FIELDS_MASK) == 0)
+         return null;
+      return values[Integer.numberOfTrailingZeros(fieldsMask)];
+   }
+
+   /**
+    * Returns whether this field holds a {@code double}, as opposed to an enum or a {@code boolean}.
+    */
+   public boolean isDoubleField()
+   {
+      return this != CONTROL_MODE && this != LOAD_MODE && this != RESET_INTEGRATORS;
+   }
+
+   /**
+    * Computes the contribution of this field to the content hash of a joint desired output, see
+    * {@link JointDesiredOutputReadOnly#getContentHash()}.
+    * <p>
+    * Values considered equal by {@link Double#compare(double, double)} have the same hash.
+    * </p>
+    *
+    * @param value the value of the field.
+    * @return the hash of the field value.
+    */
+   public long computeHash(double value)
+   {
+      return computeHash(Double.doubleToLongBits(value));
+   }
+
+   /**
+    * Computes the contribution of this enum field to the content hash of a joint desired output.
+    *
+    * @param value the value of the field, can be {@code null}.
+    * @return the hash of the field value.
+    */
+   public long computeHash(Enum<?> value)
+   {
+      return computeHash(value == null ? -1L : value.ordinal());
+   }
+
+   /**
+    * Computes the contribution of this boolean field to the content hash of a joint desired output.
+    *
+    * @param value the value of the field.
+    * @return the hash of the field value.
+    */
+   public long computeHash(boolean value)
+   {
+      return computeHash(value ? 1L : 0L);
+   }
+
+   private long computeHash(long valueBits)
+   {
+      // Mixing function from SplitMix64, the field is used as seed such that swapping the values of two fields changes the hash.
+      long hash = valueBits + (ordinal() + 1) * 0x9E3779B97F4A7C15L;
+      hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+      hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+      return hash ^ (hash >>> 31);
+   }
+}
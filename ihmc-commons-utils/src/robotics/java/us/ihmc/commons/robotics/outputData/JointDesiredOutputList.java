@@ -8,11 +8,18 @@ public class JointDesiredOutputList implements JointDesiredOutputListBasics
    private final OneDoFJointReadOnly[] joints;
    private final JointDesiredOutput[] jointsData;
    private final TIntObjectHashMap<JointDesiredOutput> jointMap;
+   private final OneDoFJointIndexMap jointIndexMap;
+
+   /** Per joint, the factor applied to its content hash in the content hash of this list. */
+   private final long[] contentHashWeights;
+   private long contentHash;
+   private long contentVersion = 0;
 
    public JointDesiredOutputList(OneDoFJointReadOnly[] joints)
    {
       this.joints = joints;
       this.jointsData = new JointDesiredOutput[joints.length];
+      jointIndexMap = new OneDoFJointIndexMap(joints);
 
       float disableAutoCompaction = 0;
       jointMap = new TIntObjectHashMap<>(joints.length);
@@ -20,16 +27,102 @@ public class JointDesiredOutputList implements JointDesiredOutputListBasics
 
       for (int i = 0; i < joints.length; i++)
       {
-         JointDesiredOutput data = new JointDesiredOutput();
+         JointDesiredOutput data = new JointDesiredOutput(this, i);
          jointsData[i] = data;
          jointMap.put(joints[i].hashCode(), data);
       }
+
+      contentHashWeights = computeContentHashWeights(joints.length);
+      contentHash = JointDesiredOutputListBasics.super.getContentHash();
+   }
+
+   /**
+    * Computes the factor applied to the content hash of each joint desired output in
+    * {@link JointDesiredOutputListReadOnly#getContentHash()}, such that the hash of a list can be
+    * updated when a single joint desired output changes.
+    *
+    * @param numberOfJoints the number of joints in the list.
+    * @return the factor for each joint index.
+    */
+   static long[] computeContentHashWeights(int numberOfJoints)
+   {
+      long[] weights = new long[numberOfJoints];
+      long weight = 1L;
+
+      for (int i = numberOfJoints - 1; i >= 0; i--)
+      {
+         weights[i] = weight;
+         weight *= 31L;
+      }
+
+      return weights;
+   }
+
+   /**
+    * Called by the joint desired outputs of this list every time their content changes.
+    */
+   void updateContent(int index, long contentHashChange)
+   {
+      contentHash += contentHashWeights[index] * contentHashChange;
+      contentVersion++;
+   }
+
+   @Override
+   public long getContentHash()
+   {
+      return contentHash;
+   }
+
+   @Override
+   public long getContentVersion()
+   {
+      return contentVersion;
+   }
+
+   @Override
+   public boolean equals(JointDesiredOutputListReadOnly other)
+   {
+      // Different content hashes guarantee different contents when the joints are in the same order.
+      if (other != null && other != this && hasSameJoints(other) && contentHash != other.getContentHash())
+         return false;
+      return JointDesiredOutputListBasics.super.equals(other);
+   }
+
+   private boolean hasSameJoints(JointDesiredOutputListReadOnly other)
+   {
+      if (other instanceof JointDesiredOutputList)
+         return hasSameJoints(((JointDesiredOutputList) other).joints);
+      else if (other instanceof PackedJointDesiredOutputList)
+         return ((PackedJointDesiredOutputList) other).hasSameJoints(joints);
+      else
+         return false;
+   }
+
+   boolean hasSameJoints(OneDoFJointReadOnly[] otherJoints)
+   {
+      if (otherJoints == joints)
+         return true;
+      if (otherJoints.length != joints.length)
+         return false;
+
+      for (int i = 0; i < joints.length; i++)
+      {
+         if (otherJoints[i] != joints[i])
+            return false;
+      }
+      return true;
    }
 
    @Override
    public boolean hasDataForJoint(OneDoFJointReadOnly joint)
    {
-      return jointMap.containsKey(joint.hashCode());
+      return jointIndexMap.containsJoint(joint);
+   }
+
+   @Override
+   public int getJointIndex(OneDoFJointReadOnly joint)
+   {
+      return jointIndexMap.getIndex(joint);
    }
 
    @Override
@@ -50,6 +143,13 @@ public class JointDesiredOutputList implements JointDesiredOutputListBasics
       return jointsData[index];
    }
 
+   @Override
+   public JointDesiredOutput getJointDesiredOutput(OneDoFJointReadOnly joint)
+   {
+      int index = jointIndexMap.getIndex(joint);
+      return index == -1 ? null : jointsData[index];
+   }
+
    @Override
    public JointDesiredOutput getJointDesiredOutputFromHash(int jointHashCode)
    {
@@ -1,6 +1,9 @@
 package us.ihmc.commons.robotics.outputData;
 
+import org.ejml.data.DMatrixRMaj;
+
 import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+import us.ihmc.mecano.tools.JointStateType;
 
 public interface JointDesiredOutputListBasics extends JointDesiredOutputListReadOnly
 {
@@ -12,20 +15,35 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    /**
     * Clear this and copy the data held in other.
+    * <p>
+    * The joint desired outputs are set field by field without being cleared first, such that the
+    * fields which already hold the value of {@code other} do not change the content version. Only the
+    * joints of this list that {@code other} does not hold are cleared.
+    * </p>
     */
    default void overwriteWith(JointDesiredOutputListReadOnly other)
    {
-      clear();
+      int numberOfJointsSet = 0;
 
       for (int otherIndex = 0; otherIndex < other.getNumberOfJointsWithDesiredOutput(); otherIndex++)
       {
          OneDoFJointReadOnly otherJoint = other.getOneDoFJoint(otherIndex);
-         JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(otherJoint.hashCode());
+         JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(otherJoint);
 
          if (jointDesiredOutput == null)
             continue;
 
          jointDesiredOutput.set(other.getJointDesiredOutput(otherIndex));
+         numberOfJointsSet++;
+      }
+
+      if (numberOfJointsSet == getNumberOfJointsWithDesiredOutput())
+         return;
+
+      for (int index = 0; index < getNumberOfJointsWithDesiredOutput(); index++)
+      {
+         if (!other.hasDataForJoint(getOneDoFJoint(index)))
+            getJointDesiredOutput(index).clear();
       }
    }
    /**
@@ -37,7 +55,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
       for (int otherIndex = 0; otherIndex < other.getNumberOfJointsWithDesiredOutput(); otherIndex++)
       {
          OneDoFJointReadOnly otherJoint = other.getOneDoFJoint(otherIndex);
-         JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(otherJoint.hashCode());
+         JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(otherJoint);
 
          if (jointDesiredOutput == null)
             throwJointNotRegisteredException(otherJoint);
@@ -48,7 +66,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setJointControlMode(OneDoFJointReadOnly joint, JointDesiredControlMode controlMode)
    {
-      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
 
@@ -64,12 +82,145 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
       }
    }
 
+   /**
+    * Acknowledges the changes of every joint desired output in this list.
+    *
+    * @see JointDesiredOutputBasics#acknowledgeChanges()
+    */
+   default void acknowledgeChanges()
+   {
+      for (int i = 0; i < getNumberOfJointsWithDesiredOutput(); i++)
+         getJointDesiredOutput(i).acknowledgeChanges();
+   }
+
    default void requestIntegratorReset()
    {
       for (int i = 0; i < getNumberOfJointsWithDesiredOutput(); i++)
          getJointDesiredOutput(i).setResetIntegrators(true);
    }
 
+   /**
+    * Sets the desired position, velocity, acceleration, or torque in this list from the current state
+    * of the given joints.
+    *
+    * @param stateType    the quantity to copy: {@code CONFIGURATION} for the desired position,
+    *                     {@code VELOCITY}, {@code ACCELERATION}, or {@code EFFORT} for the desired
+    *                     torque.
+    * @param oneDoFJoints the joints to read the state of. Not modified.
+    * @param jointIndices the index in this list of each joint as computed with
+    *                     {@link #computeJointIndices(OneDoFJointReadOnly[], int[])}, joints with an
+    *                     index of {@code -1} are skipped. Not modified.
+    */
+   default void setDesiredsFromOneDoFJoints(JointStateType stateType, OneDoFJointReadOnly[] oneDoFJoints, int[] jointIndices)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredPosition(oneDoFJoints[i].getQ());
+            }
+            break;
+         case VELOCITY:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredVelocity(oneDoFJoints[i].getQd());
+            }
+            break;
+         case ACCELERATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredAcceleration(oneDoFJoints[i].getQdd());
+            }
+            break;
+         case EFFORT:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredTorque(oneDoFJoints[i].getTau());
+            }
+            break;
+         default:
+            throw new IllegalArgumentException("Unexpected state type: " + stateType);
+      }
+   }
+
+   /**
+    * Sets the desired position, velocity, acceleration, or torque in this list from the given array.
+    *
+    * @param stateType    the quantity to copy, see
+    *                     {@link #setDesiredsFromOneDoFJoints(JointStateType, OneDoFJointReadOnly[], int[])}.
+    * @param jointIndices the index in this list for each element of {@code values}, elements with an
+    *                     index of {@code -1} are skipped. Not modified.
+    * @param values       the desired values. Not modified.
+    */
+   default void setDesireds(JointStateType stateType, int[] jointIndices, double[] values)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredPosition(values[i]);
+            }
+            break;
+         case VELOCITY:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredVelocity(values[i]);
+            }
+            break;
+         case ACCELERATION:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredAcceleration(values[i]);
+            }
+            break;
+         case EFFORT:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  getJointDesiredOutput(index).setDesiredTorque(values[i]);
+            }
+            break;
+         default:
+            throw new IllegalArgumentException("Unexpected state type: " + stateType);
+      }
+   }
+
+   /**
+    * Sets the desired position, velocity, acceleration, or torque in this list from the given column
+    * vector.
+    *
+    * @param stateType    the quantity to copy, see
+    *                     {@link #setDesiredsFromOneDoFJoints(JointStateType, OneDoFJointReadOnly[], int[])}.
+    * @param jointIndices the index in this list for each row of {@code values}, rows with an index of
+    *                     {@code -1} are skipped. Not modified.
+    * @param values       the desired values. Not modified.
+    */
+   default void setDesireds(JointStateType stateType, int[] jointIndices, DMatrixRMaj values)
+   {
+      if (values.getNumElements() < jointIndices.length)
+         throw new IllegalArgumentException("The vector is too small, expected at least " + jointIndices.length + " elements but was "
+               + values.getNumElements());
+
+      setDesireds(stateType, jointIndices, values.data);
+   }
+
    default void setJointControlMode(int index, JointDesiredControlMode controlMode)
    {
       JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(index);
@@ -81,7 +232,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setDesiredJointTorque(OneDoFJointReadOnly joint, double desiredTorque)
    {
-      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
 
@@ -99,7 +250,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setDesiredJointPosition(OneDoFJointReadOnly joint, double desiredPosition)
    {
-      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
 
@@ -117,7 +268,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setDesiredJointVelocity(OneDoFJointReadOnly joint, double desiredVelocity)
    {
-      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
 
@@ -135,7 +286,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setDesiredJointAcceleration(OneDoFJointReadOnly joint, double desiredAcceleration)
    {
-      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
 
@@ -153,7 +304,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setupForForceControl(OneDoFJointReadOnly joint, double desiredTorque)
    {
-      JointDesiredOutputBasics lowLevelJointData = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics lowLevelJointData = getJointDesiredOutput(joint);
       if (lowLevelJointData == null)
          throwJointNotRegisteredException(joint);
 
@@ -173,7 +324,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setupForPositionControl(OneDoFJointReadOnly joint, double desiredPosition, double desiredVelocity)
    {
-      JointDesiredOutputBasics lowLevelJointData = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics lowLevelJointData = getJointDesiredOutput(joint);
       if (lowLevelJointData == null)
          throwJointNotRegisteredException(joint);
 
@@ -195,7 +346,7 @@ public interface JointDesiredOutputListBasics extends JointDesiredOutputListRead
 
    default void setResetJointIntegrators(OneDoFJointReadOnly joint, boolean reset)
    {
-      JointDesiredOutputBasics lowLevelJointData = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputBasics lowLevelJointData = getJointDesiredOutput(joint);
       if (lowLevelJointData == null)
          throwJointNotRegisteredException(joint);
 
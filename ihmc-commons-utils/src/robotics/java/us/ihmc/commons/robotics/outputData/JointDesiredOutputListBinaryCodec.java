@@ -0,0 +1,244 @@
+package us.ihmc.commons.robotics.outputData;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of {@link JointDesiredOutputListReadOnly}.
+ * <p>
+ * The encoding starts with a header made of the format version, as a {@code byte}, and the number of
+ * joints, as an {@code int}. Then for each joint, an {@code int} presence mask, see
+ * {@link JointDesiredOutputField#getMask()}, is followed by the value of each field present in the
+ * mask in the order of {@link JointDesiredOutputField}. Enum fields are encoded as a {@code byte},
+ * doubles are encoded on 8 bytes, and the reset integrators request is fully described by its
+ * presence bit. Unset fields, i.e. {@code null} enums or {@code NaN} doubles, take no space.
+ * </p>
+ * <p>
+ * The buffers are read and written from their current position using their byte order, which lets
+ * the caller use heap or direct buffers and embed the encoding in a larger message. Neither encoding
+ * nor decoding allocates.
+ * </p>
+ */
+public class JointDesiredOutputListBinaryCodec
+{
+   /** Version of the format written by {@link #encode(JointDesiredOutputListReadOnly, ByteBuffer)}. */
+   public static final byte FORMAT_VERSION = 1;
+
+   private static final int HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+   private static final int MAXIMUM_JOINT_SIZE = Integer.BYTES + 2 * Byte.BYTES + 15 * Double.BYTES;
+
+   private JointDesiredOutputListBinaryCodec()
+   {
+   }
+
+   /**
+    * Computes the number of bytes needed to encode any list with the given number of joints.
+    *
+    * @param numberOfJoints the number of joints in the list.
+    * @return the maximum size in bytes of the encoding.
+    */
+   public static int computeMaximumEncodedSize(int numberOfJoints)
+   {
+      return HEADER_SIZE + numberOfJoints * MAXIMUM_JOINT_SIZE;
+   }
+
+   /**
+    * Computes the number of bytes needed to encode the given list.
+    *
+    * @param list the list to compute the encoded size of. Not modified.
+    * @return the size in bytes of the encoding.
+    */
+   public static int computeEncodedSize(JointDesiredOutputListReadOnly list)
+   {
+      int size = HEADER_SIZE;
+
+      for (int i = 0; i < list.getNumberOfJointsWithDesiredOutput(); i++)
+      {
+         int presenceMask = computePresenceMask(list.getJointDesiredOutput(i));
+         size += Integer.BYTES;
+
+         for (int mask = presenceMask; mask != 0; mask &= mask - 1)
+         {
+            JointDesiredOutputField field = JointDesiredOutputField.firstIn(mask);
+
+            if (field.isDoubleField())
+               size += Double.BYTES;
+            else if (field != JointDesiredOutputField.RESET_INTEGRATORS)
+               size += Byte.BYTES;
+         }
+      }
+
+      return size;
+   }
+
+   /**
+    * Encodes the given list into the buffer starting at its current position.
+    * <p>
+    * The position of the buffer is advanced by the size of the encoding.
+    * </p>
+    *
+    * @param list   the list to encode. Not modified.
+    * @param buffer the buffer to write to. Modified.
+    * @throws java.nio.BufferOverflowException if the remaining space of the buffer is insufficient,
+    *                                          see {@link #computeEncodedSize(JointDesiredOutputListReadOnly)}.
+    */
+   public static void encode(JointDesiredOutputListReadOnly list, ByteBuffer buffer)
+   {
+      int numberOfJoints = list.getNumberOfJointsWithDesiredOutput();
+      buffer.put(FORMAT_VERSION);
+      buffer.putInt(numberOfJoints);
+
+      for (int i = 0; i < numberOfJoints; i++)
+         encode(list.getJointDesiredOutput(i), buffer);
+   }
+
+   /**
+    * Encodes a single joint desired output into the buffer starting at its current position.
+    *
+    * @param output the joint desired output to encode. Not modified.
+    * @param buffer the buffer to write to. Modified.
+    */
+   public static void encode(JointDesiredOutputReadOnly output, ByteBuffer buffer)
+   {
+      int presenceMask = computePresenceMask(output);
+      buffer.putInt(presenceMask);
+
+      if (JointDesiredOutputField.CONTROL_MODE.isIn(presenceMask))
+         buffer.put(output.getControlMode().toByte());
+      if (JointDesiredOutputField.LOAD_MODE.isIn(presenceMask))
+         buffer.put(output.getLoadMode().toByte());
+      putDouble(presenceMask, JointDesiredOutputField.DESIRED_TORQUE, output.getDesiredTorque(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.DESIRED_POSITION, output.getDesiredPosition(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.DESIRED_VELOCITY, output.getDesiredVelocity(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.DESIRED_ACCELERATION, output.getDesiredAcceleration(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.STIFFNESS, output.getStiffness(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.DAMPING, output.getDamping(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.MASTER_GAIN, output.getMasterGain(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.VELOCITY_SCALING, output.getVelocityScaling(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY, output.getVelocityIntegrationBreakFrequency(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY, output.getPositionIntegrationBreakFrequency(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR, output.getPositionIntegrationMaxError(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR, output.getVelocityIntegrationMaxError(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR, output.getPositionFeedbackMaxError(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR, output.getVelocityFeedbackMaxError(), buffer);
+      putDouble(presenceMask, JointDesiredOutputField.MAX_TORQUE, output.getMaxTorque(), buffer);
+   }
+
+   /**
+    * Decodes a list from the buffer starting at its current position.
+    * <p>
+    * The joints are matched by index, the list to decode into is expected to be for the same joints
+    * in the same order as the encoded list. The fields absent from the encoding are cleared. The
+    * position of the buffer is advanced by the size of the encoding.
+    * </p>
+    *
+    * @param buffer     the buffer to read from. Modified.
+    * @param listToPack the list in which the decoded desired outputs are stored. Modified.
+    * @throws IllegalArgumentException if the format version is not supported or if the number of
+    *                                  joints differs from the size of {@code listToPack}.
+    */
+   public static void decode(ByteBuffer buffer, JointDesiredOutputListBasics listToPack)
+   {
+      byte version = buffer.get();
+      if (version != FORMAT_VERSION)
+         throw new IllegalArgumentException("Unsupported format version: " + version + ", expected: " + FORMAT_VERSION);
+
+      int numberOfJoints = buffer.getInt();
+      if (numberOfJoints != listToPack.getNumberOfJointsWithDesiredOutput())
+         throw new IllegalArgumentException("Number of joints mismatch: encoded " + numberOfJoints + ", list "
+               + listToPack.getNumberOfJointsWithDesiredOutput());
+
+      for (int i = 0; i < numberOfJoints; i++)
+         decode(buffer, listToPack.getJointDesiredOutput(i));
+   }
+
+   /**
+    * Decodes a single joint desired output from the buffer starting at its current position.
+    *
+    * @param buffer       the buffer to read from. Modified.
+    * @param outputToPack the joint desired output in which the decoded data is stored. Modified.
+    */
+   public static void decode(ByteBuffer buffer, JointDesiredOutputBasics outputToPack)
+   {
+      int presenceMask = buffer.getInt();
+
+      outputToPack.setControlMode(JointDesiredOutputField.CONTROL_MODE.isIn(presenceMask) ? JointDesiredControlMode.fromByte(buffer.get()) : null);
+      outputToPack.setLoadMode(JointDesiredOutputField.LOAD_MODE.isIn(presenceMask) ? JointDesiredLoadMode.fromByte(buffer.get()) : null);
+      outputToPack.setDesiredTorque(getDouble(presenceMask, JointDesiredOutputField.DESIRED_TORQUE, buffer));
+      outputToPack.setDesiredPosition(getDouble(presenceMask, JointDesiredOutputField.DESIRED_POSITION, buffer));
+      outputToPack.setDesiredVelocity(getDouble(presenceMask, JointDesiredOutputField.DESIRED_VELOCITY, buffer));
+      outputToPack.setDesiredAcceleration(getDouble(presenceMask, JointDesiredOutputField.DESIRED_ACCELERATION, buffer));
+      outputToPack.setResetIntegrators(JointDesiredOutputField.RESET_INTEGRATORS.isIn(presenceMask));
+      outputToPack.setStiffness(getDouble(presenceMask, JointDesiredOutputField.STIFFNESS, buffer));
+      outputToPack.setDamping(getDouble(presenceMask, JointDesiredOutputField.DAMPING, buffer));
+      outputToPack.setMasterGain(getDouble(presenceMask, JointDesiredOutputField.MASTER_GAIN, buffer));
+      outputToPack.setVelocityScaling(getDouble(presenceMask, JointDesiredOutputField.VELOCITY_SCALING, buffer));
+      outputToPack.setVelocityIntegrationBreakFrequency(getDouble(presenceMask, JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY, buffer));
+      outputToPack.setPositionIntegrationBreakFrequency(getDouble(presenceMask, JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY, buffer));
+      outputToPack.setPositionIntegrationMaxError(getDouble(presenceMask, JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR, buffer));
+      outputToPack.setVelocityIntegrationMaxError(getDouble(presenceMask, JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR, buffer));
+      outputToPack.setPositionFeedbackMaxError(getDouble(presenceMask, JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR, buffer));
+      outputToPack.setVelocityFeedbackMaxError(getDouble(presenceMask, JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR, buffer));
+      outputToPack.setMaxTorque(getDouble(presenceMask, JointDesiredOutputField.MAX_TORQUE, buffer));
+   }
+
+   /**
+    * Computes the mask of the fields that are set in the given joint desired output.
+    *
+    * @param output the joint desired output to compute the presence mask of. Not modified.
+    * @return the mask of the set fields, see {@link JointDesiredOutputField#getMask()}.
+    */
+   public static int computePresenceMask(JointDesiredOutputReadOnly output)
+   {
+      int presenceMask = 0;
+
+      if (output.hasControlMode())
+         presenceMask |= JointDesiredOutputField.CONTROL_MODE.getMask();
+      if (output.hasLoadMode())
+         presenceMask |= JointDesiredOutputField.LOAD_MODE.getMask();
+      if (output.hasDesiredTorque())
+         presenceMask |= JointDesiredOutputField.DESIRED_TORQUE.getMask();
+      if (output.hasDesiredPosition())
+         presenceMask |= JointDesiredOutputField.DESIRED_POSITION.getMask();
+      if (output.hasDesiredVelocity())
+         presenceMask |= JointDesiredOutputField.DESIRED_VELOCITY.getMask();
+      if (output.hasDesiredAcceleration())
+         presenceMask |= JointDesiredOutputField.DESIRED_ACCELERATION.getMask();
+      if (output.peekResetIntegratorsRequest())
+         presenceMask |= JointDesiredOutputField.RESET_INTEGRATORS.getMask();
+      if (output.hasStiffness())
+         presenceMask |= JointDesiredOutputField.STIFFNESS.getMask();
+      if (output.hasDamping())
+         presenceMask |= JointDesiredOutputField.DAMPING.getMask();
+      if (output.hasMasterGain())
+         presenceMask |= JointDesiredOutputField.MASTER_GAIN.getMask();
+      if (output.hasVelocityScaling())
+         presenceMask |= JointDesiredOutputField.VELOCITY_SCALING.getMask();
+      if (output.hasVelocityIntegrationBreakFrequency())
+         presenceMask |= JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY.getMask();
+      if (output.hasPositionIntegrationBreakFrequency())
+         presenceMask |= JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY.getMask();
+      if (output.hasPositionIntegrationMaxError())
+         presenceMask |= JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR.getMask();
+      if (output.hasVelocityIntegrationMaxError())
+         presenceMask |= JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR.getMask();
+      if (output.hasPositionFeedbackMaxError())
+         presenceMask |= JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR.getMask();
+      if (output.hasVelocityFeedbackMaxError())
+         presenceMask |= JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR.getMask();
+      if (output.hasMaxTorque())
+         presenceMask |= JointDesiredOutputField.MAX_TORQUE.getMask();
+
+      return presenceMask;
+   }
+
+   private static void putDouble(int presenceMask, JointDesiredOutputField field, double value, ByteBuffer buffer)
+   {
+      if (field.isIn(presenceMask))
+         buffer.putDouble(value);
+   }
+
+   private static double getDouble(int presenceMask, JointDesiredOutputField field, ByteBuffer buffer)
+   {
+      return field.isIn(presenceMask) ? buffer.getDouble() : Double.NaN;
+   }
+}
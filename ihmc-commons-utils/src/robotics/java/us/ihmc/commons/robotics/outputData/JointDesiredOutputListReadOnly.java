@@ -1,7 +1,10 @@
 package us.ihmc.commons.robotics.outputData;
 
+import org.ejml.data.DMatrixRMaj;
+
 import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointBasics;
 import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+import us.ihmc.mecano.tools.JointStateType;
 
 public interface JointDesiredOutputListReadOnly
 {
@@ -9,11 +12,49 @@ public interface JointDesiredOutputListReadOnly
 
    OneDoFJointReadOnly getOneDoFJoint(int index);
 
+   /**
+    * Gets the index of the given joint in this list, the joint is matched by identity.
+    * <p>
+    * The default implementation performs a linear search, implementations should override it with a
+    * constant time lookup, see {@link OneDoFJointIndexMap}. It is only used by default to precompute
+    * joint indices, see {@link #computeJointIndices(OneDoFJointReadOnly[], int[])}.
+    * </p>
+    *
+    * @param joint the joint to look up. Not modified.
+    * @return the index of the joint or {@code -1} if the joint has not been registered.
+    */
+   default int getJointIndex(OneDoFJointReadOnly joint)
+   {
+      for (int i = 0; i < getNumberOfJointsWithDesiredOutput(); i++)
+      {
+         if (getOneDoFJoint(i) == joint)
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Gets the desired output of the given joint.
+    * <p>
+    * The default implementation falls back to {@link #getJointDesiredOutputFromHash(int)}, the
+    * implementations holding a {@link OneDoFJointIndexMap} override it to match the joint by identity.
+    * </p>
+    *
+    * @param joint the joint to look up. Not modified.
+    * @return the joint desired output or {@code null} if the joint has not been registered.
+    */
    default JointDesiredOutputReadOnly getJointDesiredOutput(OneDoFJointReadOnly joint)
    {
       return getJointDesiredOutputFromHash(joint.hashCode());
    }
 
+   /**
+    * Looks up the joint desired output using the hash code of the joint.
+    * <p>
+    * Two distinct joints with the same hash code cannot be told apart by this method, prefer
+    * {@link #getJointDesiredOutput(OneDoFJointReadOnly)} which resolves the joint by identity.
+    * </p>
+    */
    JointDesiredOutputReadOnly getJointDesiredOutputFromHash(int jointHashCode);
 
    JointDesiredOutputReadOnly getJointDesiredOutput(int index);
@@ -31,9 +72,162 @@ public interface JointDesiredOutputListReadOnly
       }
    }
 
+   /**
+    * Computes the index in this list of each of the given joints.
+    * <p>
+    * The result is meant to be computed once and then passed to the batch methods such as
+    * {@link #insertDesiredsIntoOneDoFJoints(JointStateType, OneDoFJointBasics[], int[])} to avoid a
+    * lookup per joint and per call.
+    * </p>
+    *
+    * @param joints             the joints to get the index of. Not modified.
+    * @param jointIndicesToPack the array in which the indices are stored, a joint that has not been
+    *                           registered gets the index {@code -1}. Modified.
+    */
+   default void computeJointIndices(OneDoFJointReadOnly[] joints, int[] jointIndicesToPack)
+   {
+      for (int i = 0; i < joints.length; i++)
+         jointIndicesToPack[i] = getJointIndex(joints[i]);
+   }
+
+   /**
+    * Computes the index in this list of each of the given joints.
+    *
+    * @param joints the joints to get the index of. Not modified.
+    * @return the joint indices, a joint that has not been registered gets the index {@code -1}.
+    * @see #computeJointIndices(OneDoFJointReadOnly[], int[])
+    */
+   default int[] computeJointIndices(OneDoFJointReadOnly[] joints)
+   {
+      int[] jointIndices = new int[joints.length];
+      computeJointIndices(joints, jointIndices);
+      return jointIndices;
+   }
+
+   /**
+    * Writes the desired position, velocity, acceleration, or torque held in this list into the given
+    * joints.
+    *
+    * @param stateType    the desired quantity to copy: {@code CONFIGURATION} for the desired
+    *                     position, {@code VELOCITY}, {@code ACCELERATION}, or {@code EFFORT} for the
+    *                     desired torque.
+    * @param oneDoFJoints the joints to update. Modified.
+    * @param jointIndices the index in this list of each joint as computed with
+    *                     {@link #computeJointIndices(OneDoFJointReadOnly[], int[])}, joints with an
+    *                     index of {@code -1} are skipped. Not modified.
+    */
+   default void insertDesiredsIntoOneDoFJoints(JointStateType stateType, OneDoFJointBasics[] oneDoFJoints, int[] jointIndices)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setQ(getJointDesiredOutput(index).getDesiredPosition());
+            }
+            break;
+         case VELOCITY:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setQd(getJointDesiredOutput(index).getDesiredVelocity());
+            }
+            break;
+         case ACCELERATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setQdd(getJointDesiredOutput(index).getDesiredAcceleration());
+            }
+            break;
+         case EFFORT:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setTau(getJointDesiredOutput(index).getDesiredTorque());
+            }
+            break;
+         default:
+            throw new IllegalArgumentException("Unexpected state type: " + stateType);
+      }
+   }
+
+   /**
+    * Packs the desired position, velocity, acceleration, or torque held in this list into the given
+    * array.
+    *
+    * @param stateType    the desired quantity to copy, see
+    *                     {@link #insertDesiredsIntoOneDoFJoints(JointStateType, OneDoFJointBasics[], int[])}.
+    * @param jointIndices the index in this list for each element of {@code valuesToPack}, elements
+    *                     with an index of {@code -1} are not modified. Not modified.
+    * @param valuesToPack the array in which the desired values are stored. Modified.
+    */
+   default void getDesireds(JointStateType stateType, int[] jointIndices, double[] valuesToPack)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  valuesToPack[i] = getJointDesiredOutput(index).getDesiredPosition();
+            }
+            break;
+         case VELOCITY:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  valuesToPack[i] = getJointDesiredOutput(index).getDesiredVelocity();
+            }
+            break;
+         case ACCELERATION:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  valuesToPack[i] = getJointDesiredOutput(index).getDesiredAcceleration();
+            }
+            break;
+         case EFFORT:
+            for (int i = 0; i < jointIndices.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  valuesToPack[i] = getJointDesiredOutput(index).getDesiredTorque();
+            }
+            break;
+         default:
+            throw new IllegalArgumentException("Unexpected state type: " + stateType);
+      }
+   }
+
+   /**
+    * Packs the desired position, velocity, acceleration, or torque held in this list into the given
+    * column vector.
+    *
+    * @param stateType    the desired quantity to copy, see
+    *                     {@link #insertDesiredsIntoOneDoFJoints(JointStateType, OneDoFJointBasics[], int[])}.
+    * @param jointIndices the index in this list for each row of {@code valuesToPack}, rows with an
+    *                     index of {@code -1} are not modified. Not modified.
+    * @param valuesToPack the vector in which the desired values are stored. It is reshaped to
+    *                     {@code jointIndices.length} rows. Modified.
+    */
+   default void getDesireds(JointStateType stateType, int[] jointIndices, DMatrixRMaj valuesToPack)
+   {
+      valuesToPack.reshape(jointIndices.length, 1);
+      getDesireds(stateType, jointIndices, valuesToPack.data);
+   }
+
    default boolean hasControlModeForJoint(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          return false;
       else
@@ -51,7 +245,7 @@ public interface JointDesiredOutputListReadOnly
 
    default JointDesiredControlMode getJointControlMode(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
       return jointDesiredOutput.getControlMode();
@@ -67,7 +261,7 @@ public interface JointDesiredOutputListReadOnly
 
    default boolean hasDesiredTorqueForJoint(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          return false;
       else
@@ -85,7 +279,7 @@ public interface JointDesiredOutputListReadOnly
 
    default double getDesiredJointTorque(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
       return jointDesiredOutput.getDesiredTorque();
@@ -101,7 +295,7 @@ public interface JointDesiredOutputListReadOnly
 
    default boolean hasDesiredPositionForJoint(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          return false;
       else
@@ -119,7 +313,7 @@ public interface JointDesiredOutputListReadOnly
 
    default double getDesiredJointPosition(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
       return jointDesiredOutput.getDesiredPosition();
@@ -135,7 +329,7 @@ public interface JointDesiredOutputListReadOnly
 
    default boolean hasDesiredVelocityForJoint(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly lowLevelJointData = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly lowLevelJointData = getJointDesiredOutput(joint);
       if (lowLevelJointData == null)
          return false;
       else
@@ -153,7 +347,7 @@ public interface JointDesiredOutputListReadOnly
 
    default double getDesiredJointVelocity(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
       return jointDesiredOutput.getDesiredVelocity();
@@ -169,7 +363,7 @@ public interface JointDesiredOutputListReadOnly
 
    default boolean hasDesiredAcceleration(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          return false;
       else
@@ -187,7 +381,7 @@ public interface JointDesiredOutputListReadOnly
 
    default double getDesiredJointAcceleration(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly jointDesiredOutput = getJointDesiredOutput(joint);
       if (jointDesiredOutput == null)
          throwJointNotRegisteredException(joint);
       return jointDesiredOutput.getDesiredAcceleration();
@@ -203,7 +397,7 @@ public interface JointDesiredOutputListReadOnly
 
    default boolean pollResetJointIntegrators(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly lowLevelJointData = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly lowLevelJointData = getJointDesiredOutput(joint);
       if (lowLevelJointData == null)
          throwJointNotRegisteredException(joint);
       return lowLevelJointData.pollResetIntegratorsRequest();
@@ -219,7 +413,7 @@ public interface JointDesiredOutputListReadOnly
 
    default boolean peekResetJointIntegrators(OneDoFJointReadOnly joint)
    {
-      JointDesiredOutputReadOnly lowLevelJointData = getJointDesiredOutputFromHash(joint.hashCode());
+      JointDesiredOutputReadOnly lowLevelJointData = getJointDesiredOutput(joint);
       if (lowLevelJointData == null)
          throwJointNotRegisteredException(joint);
       return lowLevelJointData.peekResetIntegratorsRequest();
@@ -234,6 +428,92 @@ public interface JointDesiredOutputListReadOnly
    }
 
 
+   /**
+    * Gets the index of the first joint, starting from {@code fromIndex} included, which desired output
+    * changed since it was last acknowledged.
+    * <p>
+    * This allows to visit only the joints which desired output changed:
+    *
+    * <pre>
+    * for (int i = list.getNextChangedJointIndex(0); i != -1; i = list.getNextChangedJointIndex(i + 1))
+    * {
+    *    int changedFieldsMask = list.getJointDesiredOutput(i).getChangedFieldsMask();
+    *    ...
+    * }
+    * </pre>
+    * </p>
+    *
+    * @param fromIndex the index to start the search from.
+    * @return the index of the next changed joint, or {@code -1} if there is none.
+    * @see JointDesiredOutputReadOnly#getChangedFieldsMask()
+    */
+   default int getNextChangedJointIndex(int fromIndex)
+   {
+      for (int i = fromIndex; i < getNumberOfJointsWithDesiredOutput(); i++)
+      {
+         if (getJointDesiredOutput(i).hasChanged())
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Returns true if the desired output of at least one joint changed since it was last acknowledged.
+    */
+   default boolean hasChanged()
+   {
+      return getNextChangedJointIndex(0) != -1;
+   }
+
+   /**
+    * Gets a hash of the content of this list, combining the content hash of each joint desired output
+    * in order.
+    * <p>
+    * The default implementation visits every joint desired output, {@link JointDesiredOutputList}
+    * and {@link PackedJointDesiredOutputList} maintain the hash as the joint desired outputs are set
+    * and return it in constant time.
+    * </p>
+    *
+    * @return the content hash.
+    * @see JointDesiredOutputReadOnly#getContentHash()
+    */
+   default long getContentHash()
+   {
+      long hash = 1L;
+      for (int i = 0; i < getNumberOfJointsWithDesiredOutput(); i++)
+         hash = 31L * hash + getJointDesiredOutput(i).getContentHash();
+      return hash;
+   }
+
+   /**
+    * Gets the version of the content of this list, an unchanged version guarantees that none of the
+    * joint desired outputs changed.
+    * <p>
+    * This is the sum of the content version of each joint desired output, such that it only increases
+    * as the joint desired outputs change. The default implementation visits every joint desired
+    * output, {@link JointDesiredOutputList} and {@link PackedJointDesiredOutputList} maintain the
+    * version and return it in constant time.
+    * </p>
+    *
+    * @return the content version, or {@code -1} if at least one joint desired output does not track
+    *         its content version.
+    * @see JointDesiredOutputReadOnly#getContentVersion()
+    */
+   default long getContentVersion()
+   {
+      long version = 0L;
+
+      for (int i = 0; i < getNumberOfJointsWithDesiredOutput(); i++)
+      {
+         long jointVersion = getJointDesiredOutput(i).getContentVersion();
+         if (jointVersion == -1L)
+            return -1L;
+         version += jointVersion;
+      }
+
+      return version;
+   }
+
    static void throwJointNotRegisteredException(OneDoFJointReadOnly joint)
    {
       throw new RuntimeException("The joint: " + joint.getName() + " has not been registered.");
@@ -244,6 +524,18 @@ public interface JointDesiredOutputListReadOnly
       throw new RuntimeException("The joint index : " + index + " has not been registered.");
    }
 
+   /**
+    * Compares the content of this list with {@code other}, joint desired outputs are matched by joint.
+    * <p>
+    * The default implementation compares every joint desired output. {@link JointDesiredOutputList}
+    * and {@link PackedJointDesiredOutputList} first compare their content hashes when both lists hold
+    * the same joints in the same order, such that lists with different contents are told apart in
+    * constant time, and only compare every joint when the hashes match.
+    * </p>
+    *
+    * @param other the list to compare to. Not modified.
+    * @return whether both lists hold the same joint desired outputs.
+    */
    default boolean equals(JointDesiredOutputListReadOnly other)
    {
       if (other == null)
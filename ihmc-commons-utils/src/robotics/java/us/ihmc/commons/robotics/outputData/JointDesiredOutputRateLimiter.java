@@ -0,0 +1,305 @@
+package us.ihmc.commons.robotics.outputData;
+
+import java.util.Arrays;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+import us.ihmc.mecano.tools.JointStateType;
+
+/**
+ * Processing stage applying per-joint rate limits and clamps to the desired positions, velocities
+ * and torques of a {@link JointDesiredOutputListReadOnly}.
+ * <p>
+ * At each call to {@link #update(JointDesiredOutputListReadOnly, JointDesiredOutputListBasics)} the
+ * input list is copied into the output list, then for each of the three desireds:
+ * <ol>
+ * <li>the change since the previous tick is limited to {@code rateLimit * dt},
+ * <li>the value is clamped to {@code [lowerLimit, upperLimit]},
+ * <li>if enabled, see {@link #setClampFeedbackErrors(boolean)}, the desired position and velocity
+ * are clamped around the current joint state using the position and velocity feedback max errors of
+ * the input, same as {@link JointDesiredOutputReadOnly#getClampedDesiredPosition(double)} and
+ * {@link JointDesiredOutputReadOnly#getClampedDesiredVelocity(double)}.
+ * </ol>
+ * Each step is performed as a single pass over primitive arrays holding the values of all the
+ * joints. A joint without desired value for a given tick is left untouched and keeps its last valid
+ * value as reference, such that a desired value that disappears and comes back is still rate limited.
+ * The reference values are only cleared with {@link #reset()} or {@link #reset(int)}, after which the
+ * next value goes through unfiltered, or set with {@link #initializeFromJointStates()}.
+ * </p>
+ * <p>
+ * The input and output can be the same list, in which case the list is processed in place.
+ * </p>
+ * <p>
+ * All the limits are infinite by default. This class does not allocate after the first update with
+ * a given pair of input and output lists.
+ * </p>
+ */
+public class JointDesiredOutputRateLimiter
+{
+   private final OneDoFJointReadOnly[] joints;
+   private final double dt;
+
+   private final Stage positionStage;
+   private final Stage velocityStage;
+   private final Stage torqueStage;
+
+   private boolean clampFeedbackErrors = false;
+   private final double[] feedbackMaxErrors;
+
+   private JointDesiredOutputListReadOnly lastInput = null;
+   private JointDesiredOutputListBasics lastOutput = null;
+   private final int[] inputJointIndices;
+   private final int[] outputJointIndices;
+
+   /**
+    * Creates a new rate limiter.
+    *
+    * @param joints the joints to process, the input and output lists are expected to hold data for
+    *               these joints but not necessarily in the same order.
+    * @param dt     the period in seconds at which
+    *               {@link #update(JointDesiredOutputListReadOnly, JointDesiredOutputListBasics)} is
+    *               called.
+    */
+   public JointDesiredOutputRateLimiter(OneDoFJointReadOnly[] joints, double dt)
+   {
+      this.joints = joints;
+      this.dt = dt;
+
+      positionStage = new Stage(JointStateType.CONFIGURATION, joints.length);
+      velocityStage = new Stage(JointStateType.VELOCITY, joints.length);
+      torqueStage = new Stage(JointStateType.EFFORT, joints.length);
+
+      feedbackMaxErrors = new double[joints.length];
+      inputJointIndices = new int[joints.length];
+      outputJointIndices = new int[joints.length];
+   }
+
+   /**
+    * Resets the rate limits such that the next values go through unfiltered.
+    */
+   public void reset()
+   {
+      positionStage.reset();
+      velocityStage.reset();
+      torqueStage.reset();
+   }
+
+   /**
+    * Resets the rate limits of a single joint such that its next values go through unfiltered.
+    *
+    * @param jointIndex the index of the joint in the array given at construction.
+    */
+   public void reset(int jointIndex)
+   {
+      positionStage.previousValues[jointIndex] = Double.NaN;
+      velocityStage.previousValues[jointIndex] = Double.NaN;
+      torqueStage.previousValues[jointIndex] = Double.NaN;
+   }
+
+   /**
+    * Uses the current position, velocity, and torque of the joints as the reference for the rate
+    * limits, such that the next desired values are rate limited from the current state of the joints.
+    */
+   public void initializeFromJointStates()
+   {
+      for (int i = 0; i < joints.length; i++)
+      {
+         positionStage.previousValues[i] = joints[i].getQ();
+         velocityStage.previousValues[i] = joints[i].getQd();
+         torqueStage.previousValues[i] = joints[i].getTau();
+      }
+   }
+
+   public void setPositionRateLimit(int jointIndex, double maxRate)
+   {
+      positionStage.rateLimits[jointIndex] = maxRate;
+   }
+
+   public void setVelocityRateLimit(int jointIndex, double maxRate)
+   {
+      velocityStage.rateLimits[jointIndex] = maxRate;
+   }
+
+   public void setTorqueRateLimit(int jointIndex, double maxRate)
+   {
+      torqueStage.rateLimits[jointIndex] = maxRate;
+   }
+
+   public void setPositionLimits(int jointIndex, double lowerLimit, double upperLimit)
+   {
+      positionStage.setLimits(jointIndex, lowerLimit, upperLimit);
+   }
+
+   public void setVelocityLimit(int jointIndex, double maxAbsoluteVelocity)
+   {
+      velocityStage.setLimits(jointIndex, -maxAbsoluteVelocity, maxAbsoluteVelocity);
+   }
+
+   public void setTorqueLimit(int jointIndex, double maxAbsoluteTorque)
+   {
+      torqueStage.setLimits(jointIndex, -maxAbsoluteTorque, maxAbsoluteTorque);
+   }
+
+   /**
+    * Sets whether the desired position and velocity should be clamped around the current state of the
+    * joints using the feedback max errors of the input, {@code false} by default.
+    */
+   public void setClampFeedbackErrors(boolean clampFeedbackErrors)
+   {
+      this.clampFeedbackErrors = clampFeedbackErrors;
+   }
+
+   /**
+    * Copies {@code input} into {@code output} and applies the rate limits and clamps to the desired
+    * positions, velocities, and torques of {@code output}.
+    * <p>
+    * The desired values are read from {@code input} before {@code output} is modified, such that
+    * {@code input} and {@code output} can be the same list.
+    * </p>
+    *
+    * @param input  the desired outputs to process. Not modified unless it is also {@code output}.
+    * @param output the list in which the result is stored. Modified.
+    */
+   public void update(JointDesiredOutputListReadOnly input, JointDesiredOutputListBasics output)
+   {
+      if (input != lastInput)
+      {
+         input.computeJointIndices(joints, inputJointIndices);
+         lastInput = input;
+      }
+      if (output != lastOutput)
+      {
+         output.computeJointIndices(joints, outputJointIndices);
+         lastOutput = output;
+      }
+
+      positionStage.update(input);
+      velocityStage.update(input);
+      torqueStage.update(input);
+
+      if (clampFeedbackErrors)
+      {
+         clampPositionFeedbackErrors(input, positionStage.values);
+         clampVelocityFeedbackErrors(input, velocityStage.values);
+      }
+
+      positionStage.storePreviousValues();
+      velocityStage.storePreviousValues();
+      torqueStage.storePreviousValues();
+
+      if (output != input)
+         output.overwriteWith(input);
+      output.setDesireds(JointStateType.CONFIGURATION, outputJointIndices, positionStage.values);
+      output.setDesireds(JointStateType.VELOCITY, outputJointIndices, velocityStage.values);
+      output.setDesireds(JointStateType.EFFORT, outputJointIndices, torqueStage.values);
+   }
+
+   private void clampPositionFeedbackErrors(JointDesiredOutputListReadOnly input, double[] positions)
+   {
+      for (int i = 0; i < joints.length; i++)
+      {
+         int index = inputJointIndices[i];
+         feedbackMaxErrors[i] = index == -1 ? Double.NaN : input.getJointDesiredOutput(index).getPositionFeedbackMaxError();
+      }
+
+      for (int i = 0; i < joints.length; i++)
+      {
+         // NaN max errors fail both comparisons and leave the desired position untouched.
+         double currentPosition = joints[i].getQ();
+         if (positions[i] > currentPosition + feedbackMaxErrors[i])
+            positions[i] = currentPosition + feedbackMaxErrors[i];
+         else if (positions[i] < currentPosition - feedbackMaxErrors[i])
+            positions[i] = currentPosition - feedbackMaxErrors[i];
+      }
+   }
+
+   private void clampVelocityFeedbackErrors(JointDesiredOutputListReadOnly input, double[] velocities)
+   {
+      for (int i = 0; i < joints.length; i++)
+      {
+         int index = inputJointIndices[i];
+         feedbackMaxErrors[i] = index == -1 ? Double.NaN : input.getJointDesiredOutput(index).getVelocityFeedbackMaxError();
+      }
+
+      for (int i = 0; i < joints.length; i++)
+      {
+         double currentVelocity = joints[i].getQd();
+         if (velocities[i] > currentVelocity + feedbackMaxErrors[i])
+            velocities[i] = currentVelocity + feedbackMaxErrors[i];
+         else if (velocities[i] < currentVelocity - feedbackMaxErrors[i])
+            velocities[i] = currentVelocity - feedbackMaxErrors[i];
+      }
+   }
+
+   private class Stage
+   {
+      private final JointStateType stateType;
+      private final double[] values;
+      private final double[] previousValues;
+      private final double[] rateLimits;
+      private final double[] lowerLimits;
+      private final double[] upperLimits;
+
+      private Stage(JointStateType stateType, int numberOfJoints)
+      {
+         this.stateType = stateType;
+         values = new double[numberOfJoints];
+         previousValues = new double[numberOfJoints];
+         rateLimits = new double[numberOfJoints];
+         lowerLimits = new double[numberOfJoints];
+         upperLimits = new double[numberOfJoints];
+
+         Arrays.fill(rateLimits, Double.POSITIVE_INFINITY);
+         Arrays.fill(lowerLimits, Double.NEGATIVE_INFINITY);
+         Arrays.fill(upperLimits, Double.POSITIVE_INFINITY);
+         reset();
+      }
+
+      private void setLimits(int jointIndex, double lowerLimit, double upperLimit)
+      {
+         if (lowerLimit > upperLimit)
+            throw new IllegalArgumentException("The lower limit (" + lowerLimit + ") is greater than the upper limit (" + upperLimit + ").");
+
+         lowerLimits[jointIndex] = lowerLimit;
+         upperLimits[jointIndex] = upperLimit;
+      }
+
+      private void reset()
+      {
+         Arrays.fill(previousValues, Double.NaN);
+      }
+
+      private void update(JointDesiredOutputListReadOnly input)
+      {
+         Arrays.fill(values, Double.NaN);
+         input.getDesireds(stateType, inputJointIndices, values);
+
+         for (int i = 0; i < values.length; i++)
+         {
+            // NaN comparisons are false: a missing previous value or desired value skips the rate limit.
+            double maxStep = rateLimits[i] * dt;
+            if (values[i] > previousValues[i] + maxStep)
+               values[i] = previousValues[i] + maxStep;
+            else if (values[i] < previousValues[i] - maxStep)
+               values[i] = previousValues[i] - maxStep;
+         }
+
+         for (int i = 0; i < values.length; i++)
+         {
+            if (values[i] > upperLimits[i])
+               values[i] = upperLimits[i];
+            else if (values[i] < lowerLimits[i])
+               values[i] = lowerLimits[i];
+         }
+      }
+
+      private void storePreviousValues()
+      {
+         for (int i = 0; i < values.length; i++)
+         {
+            // A joint without desired value keeps its last valid value as reference.
+            if (!Double.isNaN(values[i]))
+               previousValues[i] = values[i];
+         }
+      }
+   }
+}
@@ -334,6 +334,87 @@ public interface JointDesiredOutputReadOnly
    }
 
 
+   /**
+    * Gets the fields which value differs from the one they had at the last call to
+    * {@link JointDesiredOutputBasics#acknowledgeChanges()}.
+    * <p>
+    * A cleared bit guarantees that the corresponding field has not changed. The default implementation
+    * does not track changes and reports every field as changed.
+    * </p>
+    *
+    * @return the mask of the changed fields, see {@link JointDesiredOutputField#getMask()}.
+    */
+   default int getChangedFieldsMask()
+   {
+      return JointDesiredOutputField.ALL_FIELDS_MASK;
+   }
+
+   /**
+    * Returns true if at least one field changed since the last call to
+    * {@link JointDesiredOutputBasics#acknowledgeChanges()}.
+    *
+    * @see #getChangedFieldsMask()
+    */
+   default boolean hasChanged()
+   {
+      return getChangedFieldsMask() != 0;
+   }
+
+   /**
+    * Gets a hash of the content of this joint desired output.
+    * <p>
+    * Two joint desired outputs that are equal, see {@link #equals(JointDesiredOutputReadOnly)}, have
+    * the same content hash, such that different hashes guarantee different contents. The default
+    * implementation computes the hash from every field, implementations that track their
+    * {@link #getContentVersion()} maintain it as the fields are set.
+    * </p>
+    *
+    * @return the content hash.
+    */
+   default long getContentHash()
+   {
+      long hash = 0L;
+      hash += JointDesiredOutputField.CONTROL_MODE.computeHash(getControlMode());
+      hash += JointDesiredOutputField.LOAD_MODE.computeHash(getLoadMode());
+      hash += JointDesiredOutputField.DESIRED_TORQUE.computeHash(getDesiredTorque());
+      hash += JointDesiredOutputField.DESIRED_POSITION.computeHash(getDesiredPosition());
+      hash += JointDesiredOutputField.DESIRED_VELOCITY.computeHash(getDesiredVelocity());
+      hash += JointDesiredOutputField.DESIRED_ACCELERATION.computeHash(getDesiredAcceleration());
+      hash += JointDesiredOutputField.RESET_INTEGRATORS.computeHash(peekResetIntegratorsRequest());
+      hash += JointDesiredOutputField.STIFFNESS.computeHash(getStiffness());
+      hash += JointDesiredOutputField.DAMPING.computeHash(getDamping());
+      hash += JointDesiredOutputField.MASTER_GAIN.computeHash(getMasterGain());
+      hash += JointDesiredOutputField.VELOCITY_SCALING.computeHash(getVelocityScaling());
+      hash += JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY.computeHash(getVelocityIntegrationBreakFrequency());
+      hash += JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY.computeHash(getPositionIntegrationBreakFrequency());
+      hash += JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR.computeHash(getPositionIntegrationMaxError());
+      hash += JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR.computeHash(getVelocityIntegrationMaxError());
+      hash += JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR.computeHash(getPositionFeedbackMaxError());
+      hash += JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR.computeHash(getVelocityFeedbackMaxError());
+      hash += JointDesiredOutputField.MAX_TORQUE.computeHash(getMaxTorque());
+      return hash;
+   }
+
+   /**
+    * Gets the version of the content of this joint desired output.
+    * <p>
+    * The version is incremented every time a field is set to a different value, such that comparing
+    * versions tells whether anything changed in between, even if the fields were changed back to
+    * their previous values. Setting a field to the value it already holds does not change the
+    * version, use {@link JointDesiredOutputBasics#set(JointDesiredOutputReadOnly)} rather than
+    * clearing and setting the values again to rewrite the same content every control tick.
+    * </p>
+    * <p>
+    * The default implementation does not track the version and returns {@code -1}.
+    * </p>
+    *
+    * @return the content version, or {@code -1} if not tracked.
+    */
+   default long getContentVersion()
+   {
+      return -1L;
+   }
+
    default String getRepresentativeString()
    {
       String ret = "Joint Desired Output:\n";
@@ -404,6 +485,9 @@ public interface JointDesiredOutputReadOnly
       }
       else
       {
+         // The content hashes can only be compared cheaply when both are maintained.
+         if (getContentVersion() != -1L && other.getContentVersion() != -1L && getContentHash() != other.getContentHash())
+            return false;
          if (getControlMode() != other.getControlMode())
             return false;
          if (getLoadMode() != other.getLoadMode())
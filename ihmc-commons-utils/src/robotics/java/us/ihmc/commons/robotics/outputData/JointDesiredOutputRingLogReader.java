@@ -0,0 +1,281 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static us.ihmc.commons.robotics.outputData.JointDesiredOutputRingLogWriter.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a log written by {@link JointDesiredOutputRingLogWriter}.
+ * <p>
+ * Ticks are identified by their index, counted from the first tick ever recorded. Only the last
+ * {@link #getCapacity()} ticks are available in the log, see {@link #getOldestAvailableTick()} and
+ * {@link #getNewestAvailableTick()}. The reader holds a cursor that can be moved with
+ * {@link #seekToTick(long)} or {@link #seekToTimestamp(long)} and from which ticks can be replayed in
+ * order with {@link #replayNext(JointDesiredOutputListBasics)}.
+ * </p>
+ * <p>
+ * When the writer stopped in the middle of recording a tick, e.g. after a crash, the oldest
+ * available tick may have been partially overwritten. Such a record is detected with the tick index
+ * stored at its start and is skipped by {@link #replayNext(JointDesiredOutputListBasics)} and
+ * {@link #seekToTimestamp(long)}.
+ * </p>
+ */
+public class JointDesiredOutputRingLogReader implements Closeable
+{
+   private final FileChannel channel;
+   private final MappedByteBuffer buffer;
+   private final int numberOfJoints;
+   private final int recordSize;
+   private final int capacity;
+
+   private long currentTick = 0;
+
+   /**
+    * Opens an existing log.
+    *
+    * @param file the file the log was written to.
+    * @throws IOException              if the file cannot be opened or mapped.
+    * @throws IllegalArgumentException if the file is not a log in a supported format.
+    */
+   public JointDesiredOutputRingLogReader(Path file) throws IOException
+   {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+
+      try
+      {
+         if (channel.size() < HEADER_SIZE)
+            throw new IllegalArgumentException("The file is too small to be a log: " + file);
+
+         buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+         if (buffer.getInt(MAGIC_OFFSET) != MAGIC)
+            throw new IllegalArgumentException("The file is not a joint desired output log: " + file);
+         int version = buffer.getInt(VERSION_OFFSET);
+         if (version != FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported format version: " + version + ", expected: " + FORMAT_VERSION);
+
+         numberOfJoints = buffer.getInt(NUMBER_OF_JOINTS_OFFSET);
+         recordSize = buffer.getInt(RECORD_SIZE_OFFSET);
+         capacity = buffer.getInt(CAPACITY_OFFSET);
+
+         if (recordSize != computeRecordSize(numberOfJoints) || HEADER_SIZE + (long) recordSize * capacity > channel.size())
+            throw new IllegalArgumentException("The file is corrupted: " + file);
+      }
+      catch (IOException | RuntimeException e)
+      {
+         channel.close();
+         throw e;
+      }
+
+      currentTick = getOldestAvailableTick();
+   }
+
+   /**
+    * Gets the total number of ticks recorded, including the ones that have been overwritten.
+    * <p>
+    * The value is read from the file, such that a log still being written is followed.
+    * </p>
+    */
+   public long getNumberOfTicks()
+   {
+      return buffer.getLong(NUMBER_OF_TICKS_OFFSET);
+   }
+
+   /**
+    * Gets the index of the oldest tick still present in the log.
+    */
+   public long getOldestAvailableTick()
+   {
+      return Math.max(0, getNumberOfTicks() - capacity);
+   }
+
+   /**
+    * Gets the index of the last recorded tick, or {@code -1} if the log is empty.
+    */
+   public long getNewestAvailableTick()
+   {
+      return getNumberOfTicks() - 1;
+   }
+
+   /**
+    * Returns whether the given tick is present in the log.
+    */
+   public boolean isTickAvailable(long tick)
+   {
+      return tick >= getOldestAvailableTick() && tick <= getNewestAvailableTick();
+   }
+
+   /**
+    * Gets the timestamp the given tick was recorded with.
+    *
+    * @param tick the index of the tick.
+    * @return the timestamp of the tick.
+    * @throws IllegalArgumentException if the tick is not available.
+    * @throws IllegalStateException    if the record of the tick has been overwritten.
+    */
+   public long getTimestamp(long tick)
+   {
+      return buffer.getLong(getRecordOffset(tick) + RECORD_TIMESTAMP_OFFSET);
+   }
+
+   /**
+    * Reads the desired outputs of the given tick.
+    *
+    * @param tick       the index of the tick to read.
+    * @param listToPack the list in which the desired outputs are stored. Its joints are expected to
+    *                   match the ones of the recorded lists, in the same order. Modified.
+    * @return the timestamp of the tick.
+    * @throws IllegalArgumentException if the tick is not available or the list has a different number
+    *                                  of joints.
+    * @throws IllegalStateException    if the record of the tick has been overwritten.
+    */
+   public long read(long tick, JointDesiredOutputListBasics listToPack)
+   {
+      int recordOffset = getRecordOffset(tick);
+      buffer.position(recordOffset + RECORD_DATA_OFFSET);
+      JointDesiredOutputListBinaryCodec.decode(buffer, listToPack);
+      return buffer.getLong(recordOffset + RECORD_TIMESTAMP_OFFSET);
+   }
+
+   /**
+    * Moves the cursor to the given tick.
+    *
+    * @param tick the index of the tick to move to.
+    * @return {@code true} if the tick is available, {@code false} otherwise in which case the cursor
+    *         is not moved.
+    */
+   public boolean seekToTick(long tick)
+   {
+      if (!isTickAvailable(tick))
+         return false;
+
+      currentTick = tick;
+      return true;
+   }
+
+   /**
+    * Moves the cursor to the last tick recorded at or before the given timestamp.
+    * <p>
+    * This method performs a binary search and assumes the recorded timestamps are non-decreasing.
+    * </p>
+    *
+    * @param timestamp the timestamp to search for.
+    * @return the index of the tick the cursor is moved to, or {@code -1} if no available tick was
+    *         recorded at or before {@code timestamp} in which case the cursor is not moved.
+    */
+   public long seekToTimestamp(long timestamp)
+   {
+      long low = getOldestIntactTick();
+      long high = getNewestAvailableTick();
+
+      if (high < low || getTimestamp(low) > timestamp)
+         return -1;
+
+      while (low < high)
+      {
+         long mid = (low + high + 1) >>> 1;
+
+         if (getTimestamp(mid) <= timestamp)
+            low = mid;
+         else
+            high = mid - 1;
+      }
+
+      currentTick = low;
+      return low;
+   }
+
+   /**
+    * Gets the index of the tick the cursor is at, i.e. the next tick to be replayed.
+    */
+   public long getCurrentTick()
+   {
+      return currentTick;
+   }
+
+   /**
+    * Returns whether the cursor is at an available tick.
+    */
+   public boolean hasNext()
+   {
+      return isTickAvailable(currentTick);
+   }
+
+   /**
+    * Reads the tick at the cursor and advances the cursor to the next tick.
+    * <p>
+    * If the cursor fell behind the oldest available tick because the log is still being written, it
+    * is first moved to the oldest available tick. Ticks which record has been overwritten are
+    * skipped.
+    * </p>
+    *
+    * @param listToPack the list in which the desired outputs are stored. Modified.
+    * @return {@code true} if a tick was read, {@code false} if the cursor reached the end of the log.
+    */
+   public boolean replayNext(JointDesiredOutputListBasics listToPack)
+   {
+      currentTick = Math.max(currentTick, getOldestAvailableTick());
+
+      while (hasNext() && !isRecordIntact(currentTick))
+         currentTick++;
+
+      if (!hasNext())
+         return false;
+
+      read(currentTick, listToPack);
+      currentTick++;
+      return true;
+   }
+
+   public int getNumberOfJoints()
+   {
+      return numberOfJoints;
+   }
+
+   public int getCapacity()
+   {
+      return capacity;
+   }
+
+   private long getOldestIntactTick()
+   {
+      long tick = getOldestAvailableTick();
+      while (isTickAvailable(tick) && !isRecordIntact(tick))
+         tick++;
+      return tick;
+   }
+
+   private boolean isRecordIntact(long tick)
+   {
+      return buffer.getLong(computeRecordOffset(tick) + RECORD_TICK_OFFSET) == tick;
+   }
+
+   private int getRecordOffset(long tick)
+   {
+      if (!isTickAvailable(tick))
+         throw new IllegalArgumentException("The tick " + tick + " is not available, available ticks: [" + getOldestAvailableTick() + ", "
+               + getNewestAvailableTick() + "]");
+
+      int recordOffset = computeRecordOffset(tick);
+      if (buffer.getLong(recordOffset + RECORD_TICK_OFFSET) != tick)
+         throw new IllegalStateException("The record of the tick " + tick + " has been overwritten.");
+      return recordOffset;
+   }
+
+   private int computeRecordOffset(long tick)
+   {
+      return HEADER_SIZE + (int) (tick % capacity) * recordSize;
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      channel.close();
+   }
+}
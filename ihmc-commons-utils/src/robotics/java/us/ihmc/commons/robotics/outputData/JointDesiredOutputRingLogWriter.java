@@ -0,0 +1,192 @@
+package us.ihmc.commons.robotics.outputData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the joint desired outputs of every control tick into a memory-mapped file used as a ring
+ * buffer, such that the last {@code capacity} ticks are always available for post-mortem analysis,
+ * see {@link JointDesiredOutputRingLogReader}.
+ * <p>
+ * Each record has a fixed size computed from the number of joints and holds the tick index, a
+ * timestamp, and the list encoded with {@link JointDesiredOutputListBinaryCodec}. Recording a tick
+ * only copies data into the mapped memory: it does not allocate and does not perform any blocking
+ * I/O, flushing to disk is left to the operating system. The whole file is allocated and its pages
+ * are loaded in memory when the writer is created, such that recording does not trigger page faults
+ * nor disk allocation on the control thread.
+ * </p>
+ * <p>
+ * This class is not thread-safe and is meant to be used from the control thread only.
+ * </p>
+ */
+public class JointDesiredOutputRingLogWriter implements Closeable
+{
+   static final int MAGIC = 0x4A444F52; // "JDOR"
+   static final int FORMAT_VERSION = 1;
+
+   static final int MAGIC_OFFSET = 0;
+   static final int VERSION_OFFSET = 4;
+   static final int NUMBER_OF_JOINTS_OFFSET = 8;
+   static final int RECORD_SIZE_OFFSET = 12;
+   static final int CAPACITY_OFFSET = 16;
+   static final int NUMBER_OF_TICKS_OFFSET = 24;
+   static final int HEADER_SIZE = 32;
+
+   static final int RECORD_TICK_OFFSET = 0;
+   static final int RECORD_TIMESTAMP_OFFSET = 8;
+   static final int RECORD_DATA_OFFSET = 16;
+   /** Tick index stored in the records that have never been written. */
+   static final long NO_TICK = -1L;
+
+   private static final int PAGE_SIZE = 4096;
+
+   private final FileChannel channel;
+   private final MappedByteBuffer buffer;
+   private final int numberOfJoints;
+   private final int recordSize;
+   private final int capacity;
+
+   private long numberOfTicks = 0;
+
+   /**
+    * Creates a new ring log, an existing file is overwritten.
+    * <p>
+    * The file is fully written with zeros and mapped in memory before returning, this takes time
+    * proportional to the size of the log and should be done before starting the control thread.
+    * </p>
+    *
+    * @param file           the file to write the log to.
+    * @param numberOfJoints the number of joints in the lists to be recorded.
+    * @param capacity       the number of ticks the log can hold before the oldest ones get overwritten.
+    * @throws IOException if the file cannot be created or mapped.
+    */
+   public JointDesiredOutputRingLogWriter(Path file, int numberOfJoints, int capacity) throws IOException
+   {
+      if (capacity <= 0)
+         throw new IllegalArgumentException("The capacity has to be positive, was: " + capacity);
+
+      this.numberOfJoints = numberOfJoints;
+      this.capacity = capacity;
+      recordSize = computeRecordSize(numberOfJoints);
+
+      long fileSize = HEADER_SIZE + (long) recordSize * capacity;
+      if (fileSize > Integer.MAX_VALUE)
+         throw new IllegalArgumentException("The log is too large to be mapped: " + fileSize + " bytes.");
+
+      channel = FileChannel.open(file,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.READ,
+                                 StandardOpenOption.WRITE);
+      try
+      {
+         // Allocates every page up front instead of letting the first record into each page do it.
+         zeroFill(channel, fileSize);
+         buffer = channel.map(MapMode.READ_WRITE, 0, fileSize);
+      }
+      catch (IOException | RuntimeException e)
+      {
+         channel.close();
+         throw e;
+      }
+
+      for (int i = 0; i < capacity; i++)
+         buffer.putLong(HEADER_SIZE + i * recordSize + RECORD_TICK_OFFSET, NO_TICK);
+
+      buffer.putInt(MAGIC_OFFSET, MAGIC);
+      buffer.putInt(VERSION_OFFSET, FORMAT_VERSION);
+      buffer.putInt(NUMBER_OF_JOINTS_OFFSET, numberOfJoints);
+      buffer.putInt(RECORD_SIZE_OFFSET, recordSize);
+      buffer.putInt(CAPACITY_OFFSET, capacity);
+      buffer.putLong(NUMBER_OF_TICKS_OFFSET, numberOfTicks);
+      buffer.load();
+   }
+
+   private static void zeroFill(FileChannel channel, long fileSize) throws IOException
+   {
+      ByteBuffer zeros = ByteBuffer.allocate(PAGE_SIZE);
+      long position = 0;
+
+      while (position < fileSize)
+      {
+         zeros.clear();
+         zeros.limit((int) Math.min(PAGE_SIZE, fileSize - position));
+
+         while (zeros.hasRemaining())
+            position += channel.write(zeros, position);
+      }
+   }
+
+   static int computeRecordSize(int numberOfJoints)
+   {
+      return RECORD_DATA_OFFSET + JointDesiredOutputListBinaryCodec.computeMaximumEncodedSize(numberOfJoints);
+   }
+
+   /**
+    * Appends a tick to the log, overwriting the oldest one if the log is full.
+    *
+    * @param timestamp the time of the tick, for instance in nanoseconds. Timestamps are expected to
+    *                  be non-decreasing for {@link JointDesiredOutputRingLogReader#seekToTimestamp(long)}
+    *                  to work.
+    * @param list      the desired outputs of the tick. Not modified.
+    * @return the index of the recorded tick.
+    */
+   public long record(long timestamp, JointDesiredOutputListReadOnly list)
+   {
+      if (list.getNumberOfJointsWithDesiredOutput() != numberOfJoints)
+         throw new IllegalArgumentException("Expected " + numberOfJoints + " joints, got " + list.getNumberOfJointsWithDesiredOutput());
+
+      long tick = numberOfTicks;
+      int recordOffset = HEADER_SIZE + (int) (tick % capacity) * recordSize;
+
+      buffer.putLong(recordOffset + RECORD_TICK_OFFSET, tick);
+      buffer.putLong(recordOffset + RECORD_TIMESTAMP_OFFSET, timestamp);
+      buffer.position(recordOffset + RECORD_DATA_OFFSET);
+      JointDesiredOutputListBinaryCodec.encode(list, buffer);
+
+      // Updated last such that readers only consider complete records.
+      numberOfTicks++;
+      buffer.putLong(NUMBER_OF_TICKS_OFFSET, numberOfTicks);
+      return tick;
+   }
+
+   /**
+    * Gets the total number of ticks recorded so far, including the ones that have been overwritten.
+    */
+   public long getNumberOfTicks()
+   {
+      return numberOfTicks;
+   }
+
+   public int getCapacity()
+   {
+      return capacity;
+   }
+
+   public int getNumberOfJoints()
+   {
+      return numberOfJoints;
+   }
+
+   /**
+    * Forces the content of the log to be written to the storage device. This operation blocks and
+    * should not be called from the control thread.
+    */
+   public void flush()
+   {
+      buffer.force();
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      flush();
+      channel.close();
+   }
+}
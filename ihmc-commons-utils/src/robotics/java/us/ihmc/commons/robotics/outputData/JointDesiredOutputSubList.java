@@ -0,0 +1,148 @@
+package us.ihmc.commons.robotics.outputData;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+/**
+ * View over a subset of the joints of a parent {@link JointDesiredOutputListBasics}.
+ * <p>
+ * The joint desired outputs of this list are the ones of the parent, no data is copied: writing to
+ * this list writes directly to the parent and vice versa. This allows sub-controllers, e.g. arm, leg,
+ * or neck controllers, to each be handed a list covering only their joints, while all writing into
+ * the same parent list which then does not need to be assembled with
+ * {@link JointDesiredOutputListBasics#completeWith(JointDesiredOutputListReadOnly)}.
+ * </p>
+ * <p>
+ * Operations on this list, such as {@link #clear()}, only affect the joints of the subset.
+ * </p>
+ */
+public class JointDesiredOutputSubList implements JointDesiredOutputListBasics
+{
+   private final JointDesiredOutputListBasics parent;
+   private final OneDoFJointReadOnly[] joints;
+   private final int[] parentJointIndices;
+   private final JointDesiredOutputBasics[] jointsData;
+   private final TIntObjectHashMap<JointDesiredOutputBasics> jointMap;
+   private final OneDoFJointIndexMap jointIndexMap;
+
+   /**
+    * Creates views over disjoint subsets of the joints of the same parent.
+    *
+    * @param parent       the list holding the joint desired outputs.
+    * @param jointSubsets the joints of each view, a joint can only be part of one subset.
+    * @return the views, in the same order as the subsets.
+    * @throws IllegalArgumentException if a joint is part of several subsets.
+    * @throws RuntimeException         if a joint is not registered in the parent.
+    */
+   public static JointDesiredOutputSubList[] createDisjointSubLists(JointDesiredOutputListBasics parent, OneDoFJointReadOnly[]... jointSubsets)
+   {
+      JointDesiredOutputSubList[] subLists = new JointDesiredOutputSubList[jointSubsets.length];
+      boolean[] isJointUsed = new boolean[parent.getNumberOfJointsWithDesiredOutput()];
+
+      for (int i = 0; i < jointSubsets.length; i++)
+      {
+         subLists[i] = new JointDesiredOutputSubList(parent, jointSubsets[i]);
+
+         for (int parentJointIndex : subLists[i].parentJointIndices)
+         {
+            if (isJointUsed[parentJointIndex])
+               throw new IllegalArgumentException("The joint: " + parent.getOneDoFJoint(parentJointIndex).getName() + " is part of several subsets.");
+            isJointUsed[parentJointIndex] = true;
+         }
+      }
+
+      return subLists;
+   }
+
+   /**
+    * Creates a view over the given joints of the parent.
+    *
+    * @param parent the list holding the joint desired outputs.
+    * @param joints the joints of the subset, they are ordered in this list as in this array.
+    * @throws RuntimeException if a joint is not registered in the parent or is given more than once.
+    */
+   public JointDesiredOutputSubList(JointDesiredOutputListBasics parent, OneDoFJointReadOnly[] joints)
+   {
+      this.parent = parent;
+      this.joints = joints;
+      parentJointIndices = new int[joints.length];
+      jointsData = new JointDesiredOutputBasics[joints.length];
+      jointIndexMap = new OneDoFJointIndexMap(joints);
+
+      float disableAutoCompaction = 0;
+      jointMap = new TIntObjectHashMap<>(joints.length);
+      jointMap.setAutoCompactionFactor(disableAutoCompaction);
+
+      for (int i = 0; i < joints.length; i++)
+      {
+         int parentJointIndex = parent.getJointIndex(joints[i]);
+         if (parentJointIndex == -1)
+            JointDesiredOutputListReadOnly.throwJointNotRegisteredException(joints[i]);
+
+         parentJointIndices[i] = parentJointIndex;
+         jointsData[i] = parent.getJointDesiredOutput(parentJointIndex);
+         jointMap.put(joints[i].hashCode(), jointsData[i]);
+      }
+   }
+
+   public JointDesiredOutputListBasics getParent()
+   {
+      return parent;
+   }
+
+   /**
+    * Gets the index in the parent list of the {@code index}-th joint of this list.
+    */
+   public int getParentJointIndex(int index)
+   {
+      return parentJointIndices[index];
+   }
+
+   @Override
+   public boolean hasDataForJoint(OneDoFJointReadOnly joint)
+   {
+      return jointIndexMap.containsJoint(joint);
+   }
+
+   @Override
+   public int getJointIndex(OneDoFJointReadOnly joint)
+   {
+      return jointIndexMap.getIndex(joint);
+   }
+
+   @Override
+   public OneDoFJointReadOnly getOneDoFJoint(int index)
+   {
+      return joints[index];
+   }
+
+   @Override
+   public int getNumberOfJointsWithDesiredOutput()
+   {
+      return joints.length;
+   }
+
+   @Override
+   public JointDesiredOutputBasics getJointDesiredOutput(int index)
+   {
+      return jointsData[index];
+   }
+
+   @Override
+   public JointDesiredOutputBasics getJointDesiredOutput(OneDoFJointReadOnly joint)
+   {
+      int index = jointIndexMap.getIndex(joint);
+      return index == -1 ? null : jointsData[index];
+   }
+
+   @Override
+   public JointDesiredOutputBasics getJointDesiredOutputFromHash(int jointHashCode)
+   {
+      return jointMap.get(jointHashCode);
+   }
+
+   public String getJointName(int index)
+   {
+      return joints[index].getName();
+   }
+}
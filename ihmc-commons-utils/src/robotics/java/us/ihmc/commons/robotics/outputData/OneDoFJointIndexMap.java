@@ -0,0 +1,74 @@
+package us.ihmc.commons.robotics.outputData;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+/**
+ * Immutable map from joint instance to its index in the array given at construction.
+ * <p>
+ * Joints are matched by identity, not by {@link Object#hashCode()}, such that two distinct joints
+ * can never be confused. The map is an open-addressing table built once at construction, lookups do
+ * not allocate and typically resolve in a single probe.
+ * </p>
+ */
+public class OneDoFJointIndexMap
+{
+   private final OneDoFJointReadOnly[] keys;
+   private final int[] values;
+   private final int mask;
+
+   public OneDoFJointIndexMap(OneDoFJointReadOnly[] joints)
+   {
+      int capacity = Integer.highestOneBit(Math.max(2, 4 * joints.length - 1));
+      keys = new OneDoFJointReadOnly[capacity];
+      values = new int[capacity];
+      mask = capacity - 1;
+
+      for (int i = 0; i < joints.length; i++)
+      {
+         OneDoFJointReadOnly joint = joints[i];
+         int slot = slot(joint);
+
+         while (keys[slot] != null)
+         {
+            if (keys[slot] == joint)
+               JointDesiredOutputListBasics.throwJointAlreadyRegisteredException(joint);
+            slot = (slot + 1) & mask;
+         }
+
+         keys[slot] = joint;
+         values[slot] = i;
+      }
+   }
+
+   /**
+    * Gets the index of the given joint.
+    *
+    * @param joint the joint to look up. Not modified.
+    * @return the joint index or {@code -1} if the joint is not part of this map.
+    */
+   public int getIndex(OneDoFJointReadOnly joint)
+   {
+      int slot = slot(joint);
+
+      while (true)
+      {
+         OneDoFJointReadOnly key = keys[slot];
+         if (key == null)
+            return -1;
+         if (key == joint)
+            return values[slot];
+         slot = (slot + 1) & mask;
+      }
+   }
+
+   public boolean containsJoint(OneDoFJointReadOnly joint)
+   {
+      return getIndex(joint) != -1;
+   }
+
+   private int slot(OneDoFJointReadOnly joint)
+   {
+      int hash = System.identityHashCode(joint) * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & mask;
+   }
+}
@@ -0,0 +1,887 @@
+package us.ihmc.commons.robotics.outputData;
+
+import java.util.Arrays;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointBasics;
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+import us.ihmc.mecano.tools.JointStateType;
+
+/**
+ * Implementation of {@link JointDesiredOutputListBasics} that stores each field of the joint desired
+ * outputs in a contiguous array indexed by joint, i.e. structure-of-arrays layout.
+ * <p>
+ * The {@link JointDesiredOutputBasics} returned by this list are lightweight views over the
+ * internal arrays, they are created once at construction and can be held onto by the user. Bulk
+ * operations such as {@link #clear()}, {@link #overwriteWith(JointDesiredOutputListReadOnly)} and
+ * {@link #completeWith(JointDesiredOutputListReadOnly)} iterate over one array at a time when
+ * possible instead of visiting every joint output object.
+ * </p>
+ */
+public class PackedJointDesiredOutputList implements JointDesiredOutputListBasics
+{
+   private final OneDoFJointReadOnly[] joints;
+   private final JointDesiredOutputView[] jointsData;
+   private final TIntObjectHashMap<JointDesiredOutputView> jointMap;
+   private final OneDoFJointIndexMap jointIndexMap;
+
+   private final JointDesiredControlMode[] controlModes;
+   private final JointDesiredLoadMode[] loadModes;
+
+   private final DoubleField desiredTorques;
+   private final DoubleField desiredPositions;
+   private final DoubleField desiredVelocities;
+   private final DoubleField desiredAccelerations;
+   private final boolean[] resetIntegrators;
+
+   private final DoubleField stiffnesses;
+   private final DoubleField dampings;
+   private final DoubleField masterGains;
+
+   private final DoubleField velocityScalings;
+
+   private final DoubleField velocityIntegrationBreakFrequencies;
+   private final DoubleField positionIntegrationBreakFrequencies;
+   private final DoubleField positionIntegrationMaxErrors;
+   private final DoubleField velocityIntegrationMaxErrors;
+
+   private final DoubleField positionFeedbackMaxErrors;
+   private final DoubleField velocityFeedbackMaxErrors;
+
+   private final DoubleField maxTorques;
+
+   private final DoubleField[] doubleFields;
+
+   private final JointDesiredControlMode[] acknowledgedControlModes;
+   private final JointDesiredLoadMode[] acknowledgedLoadModes;
+   private final boolean[] acknowledgedResetIntegrators;
+   /** Per joint, the mask of the fields that differ from their acknowledged value. */
+   private final int[] changedFields;
+   private final long[] contentHashes;
+   private final long[] contentVersions;
+   /** Per joint, the factor applied to its content hash in the content hash of this list. */
+   private final long[] contentHashWeights;
+   private long listContentHash;
+   private long listContentVersion = 0;
+
+   /** Per position in the arrays passed to {@link #insertDesiredTorquesIntoOneDoFJoints(OneDoFJointBasics[])}, the last joint seen and its index. */
+   private final OneDoFJointReadOnly[] cachedTorqueJoints;
+   private final int[] cachedTorqueJointIndices;
+
+   public PackedJointDesiredOutputList(OneDoFJointReadOnly[] joints)
+   {
+      this.joints = joints;
+      int numberOfJoints = joints.length;
+
+      controlModes = new JointDesiredControlMode[numberOfJoints];
+      loadModes = new JointDesiredLoadMode[numberOfJoints];
+
+      desiredTorques = new DoubleField(JointDesiredOutputField.DESIRED_TORQUE, numberOfJoints);
+      desiredPositions = new DoubleField(JointDesiredOutputField.DESIRED_POSITION, numberOfJoints);
+      desiredVelocities = new DoubleField(JointDesiredOutputField.DESIRED_VELOCITY, numberOfJoints);
+      desiredAccelerations = new DoubleField(JointDesiredOutputField.DESIRED_ACCELERATION, numberOfJoints);
+      resetIntegrators = new boolean[numberOfJoints];
+
+      stiffnesses = new DoubleField(JointDesiredOutputField.STIFFNESS, numberOfJoints);
+      dampings = new DoubleField(JointDesiredOutputField.DAMPING, numberOfJoints);
+      masterGains = new DoubleField(JointDesiredOutputField.MASTER_GAIN, numberOfJoints);
+
+      velocityScalings = new DoubleField(JointDesiredOutputField.VELOCITY_SCALING, numberOfJoints);
+
+      velocityIntegrationBreakFrequencies = new DoubleField(JointDesiredOutputField.VELOCITY_INTEGRATION_BREAK_FREQUENCY, numberOfJoints);
+      positionIntegrationBreakFrequencies = new DoubleField(JointDesiredOutputField.POSITION_INTEGRATION_BREAK_FREQUENCY, numberOfJoints);
+      positionIntegrationMaxErrors = new DoubleField(JointDesiredOutputField.POSITION_INTEGRATION_MAX_ERROR, numberOfJoints);
+      velocityIntegrationMaxErrors = new DoubleField(JointDesiredOutputField.VELOCITY_INTEGRATION_MAX_ERROR, numberOfJoints);
+
+      positionFeedbackMaxErrors = new DoubleField(JointDesiredOutputField.POSITION_FEEDBACK_MAX_ERROR, numberOfJoints);
+      velocityFeedbackMaxErrors = new DoubleField(JointDesiredOutputField.VELOCITY_FEEDBACK_MAX_ERROR, numberOfJoints);
+
+      maxTorques = new DoubleField(JointDesiredOutputField.MAX_TORQUE, numberOfJoints);
+
+      doubleFields = new DoubleField[] {desiredTorques, desiredPositions, desiredVelocities, desiredAccelerations, stiffnesses, dampings, masterGains,
+            velocityScalings, velocityIntegrationBreakFrequencies, positionIntegrationBreakFrequencies, positionIntegrationMaxErrors,
+            velocityIntegrationMaxErrors, positionFeedbackMaxErrors, velocityFeedbackMaxErrors, maxTorques};
+
+      acknowledgedControlModes = new JointDesiredControlMode[numberOfJoints];
+      acknowledgedLoadModes = new JointDesiredLoadMode[numberOfJoints];
+      acknowledgedResetIntegrators = new boolean[numberOfJoints];
+      changedFields = new int[numberOfJoints];
+      contentHashes = new long[numberOfJoints];
+      contentVersions = new long[numberOfJoints];
+      contentHashWeights = JointDesiredOutputList.computeContentHashWeights(numberOfJoints);
+      cachedTorqueJoints = new OneDoFJointReadOnly[numberOfJoints];
+      cachedTorqueJointIndices = new int[numberOfJoints];
+
+      jointsData = new JointDesiredOutputView[numberOfJoints];
+      jointIndexMap = new OneDoFJointIndexMap(joints);
+
+      float disableAutoCompaction = 0;
+      jointMap = new TIntObjectHashMap<>(numberOfJoints);
+      jointMap.setAutoCompactionFactor(disableAutoCompaction);
+
+      for (int i = 0; i < numberOfJoints; i++)
+      {
+         JointDesiredOutputView data = new JointDesiredOutputView(i);
+         jointsData[i] = data;
+         jointMap.put(joints[i].hashCode(), data);
+      }
+
+      for (int i = 0; i < numberOfJoints; i++)
+         contentHashes[i] = jointsData[i].computeContentHash();
+      listContentHash = JointDesiredOutputListBasics.super.getContentHash();
+   }
+
+   @Override
+   public void clear()
+   {
+      for (int i = 0; i < jointsData.length; i++)
+      {
+         JointDesiredOutputView jointData = jointsData[i];
+         jointData.setControlMode(null);
+         jointData.setLoadMode(null);
+         jointData.setResetIntegrators(false);
+      }
+
+      for (DoubleField doubleField : doubleFields)
+         doubleField.fill(Double.NaN);
+   }
+
+   @Override
+   public void overwriteWith(JointDesiredOutputListReadOnly other)
+   {
+      if (!(other instanceof PackedJointDesiredOutputList) || !hasSameJoints((PackedJointDesiredOutputList) other))
+      {
+         JointDesiredOutputListBasics.super.overwriteWith(other);
+         return;
+      }
+
+      PackedJointDesiredOutputList packedOther = (PackedJointDesiredOutputList) other;
+
+      for (int i = 0; i < jointsData.length; i++)
+      {
+         JointDesiredOutputView jointData = jointsData[i];
+         jointData.setControlMode(packedOther.controlModes[i]);
+         jointData.setLoadMode(packedOther.loadModes[i]);
+         jointData.setResetIntegrators(packedOther.resetIntegrators[i]);
+      }
+
+      for (int fieldIndex = 0; fieldIndex < doubleFields.length; fieldIndex++)
+         doubleFields[fieldIndex].set(packedOther.doubleFields[fieldIndex].values);
+   }
+
+   @Override
+   public void completeWith(JointDesiredOutputListReadOnly other)
+   {
+      if (!(other instanceof PackedJointDesiredOutputList) || !hasSameJoints((PackedJointDesiredOutputList) other))
+      {
+         JointDesiredOutputListBasics.super.completeWith(other);
+         return;
+      }
+
+      PackedJointDesiredOutputList packedOther = (PackedJointDesiredOutputList) other;
+      int numberOfJoints = joints.length;
+
+      for (int i = 0; i < numberOfJoints; i++)
+      {
+         JointDesiredOutputView jointData = jointsData[i];
+         if (controlModes[i] == null)
+            jointData.setControlMode(packedOther.controlModes[i]);
+         if (loadModes[i] == null)
+            jointData.setLoadMode(packedOther.loadModes[i]);
+         if (packedOther.resetIntegrators[i])
+            jointData.setResetIntegrators(true);
+      }
+
+      for (int fieldIndex = 0; fieldIndex < doubleFields.length; fieldIndex++)
+      {
+         DoubleField thisField = doubleFields[fieldIndex];
+         double[] otherValues = packedOther.doubleFields[fieldIndex].values;
+
+         for (int i = 0; i < numberOfJoints; i++)
+         {
+            if (Double.isNaN(thisField.values[i]))
+               thisField.set(i, otherValues[i]);
+         }
+      }
+   }
+
+   @Override
+   public void getDesireds(JointStateType stateType, int[] jointIndices, double[] valuesToPack)
+   {
+      double[] field = getField(stateType).values;
+
+      for (int i = 0; i < jointIndices.length; i++)
+      {
+         int index = jointIndices[i];
+         if (index != -1)
+            valuesToPack[i] = field[index];
+      }
+   }
+
+   @Override
+   public void setDesireds(JointStateType stateType, int[] jointIndices, double[] values)
+   {
+      DoubleField field = getField(stateType);
+
+      for (int i = 0; i < jointIndices.length; i++)
+      {
+         int index = jointIndices[i];
+         if (index != -1)
+            field.set(index, values[i]);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p>
+    * The index of the joint found at each position of the array is cached and reused as long as the
+    * same joint is found at that position, the joint is otherwise looked up again. This method does
+    * not allocate memory. Callers that hold onto a fixed array of joints can instead precompute the
+    * indices with {@link #computeJointIndices(OneDoFJointReadOnly[])} and use
+    * {@link #insertDesiredsIntoOneDoFJoints(JointStateType, OneDoFJointBasics[], int[])}.
+    * </p>
+    */
+   @Override
+   public void insertDesiredTorquesIntoOneDoFJoints(OneDoFJointBasics[] oneDoFJoints)
+   {
+      double[] torques = desiredTorques.values;
+
+      for (int i = 0; i < oneDoFJoints.length; i++)
+      {
+         OneDoFJointBasics joint = oneDoFJoints[i];
+         int index;
+
+         if (i < cachedTorqueJoints.length && cachedTorqueJoints[i] == joint)
+         {
+            index = cachedTorqueJointIndices[i];
+         }
+         else
+         {
+            index = jointIndexMap.getIndex(joint);
+
+            if (i < cachedTorqueJoints.length)
+            {
+               cachedTorqueJoints[i] = joint;
+               cachedTorqueJointIndices[i] = index;
+            }
+         }
+
+         if (index != -1)
+            joint.setTau(torques[index]);
+      }
+   }
+
+   @Override
+   public void insertDesiredsIntoOneDoFJoints(JointStateType stateType, OneDoFJointBasics[] oneDoFJoints, int[] jointIndices)
+   {
+      double[] field = getField(stateType).values;
+
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setQ(field[index]);
+            }
+            break;
+         case VELOCITY:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setQd(field[index]);
+            }
+            break;
+         case ACCELERATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setQdd(field[index]);
+            }
+            break;
+         default:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  oneDoFJoints[i].setTau(field[index]);
+            }
+            break;
+      }
+   }
+
+   @Override
+   public void setDesiredsFromOneDoFJoints(JointStateType stateType, OneDoFJointReadOnly[] oneDoFJoints, int[] jointIndices)
+   {
+      DoubleField field = getField(stateType);
+
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  field.set(index, oneDoFJoints[i].getQ());
+            }
+            break;
+         case VELOCITY:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  field.set(index, oneDoFJoints[i].getQd());
+            }
+            break;
+         case ACCELERATION:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  field.set(index, oneDoFJoints[i].getQdd());
+            }
+            break;
+         default:
+            for (int i = 0; i < oneDoFJoints.length; i++)
+            {
+               int index = jointIndices[i];
+               if (index != -1)
+                  field.set(index, oneDoFJoints[i].getTau());
+            }
+            break;
+      }
+   }
+
+   private DoubleField getField(JointStateType stateType)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            return desiredPositions;
+         case VELOCITY:
+            return desiredVelocities;
+         case ACCELERATION:
+            return desiredAccelerations;
+         case EFFORT:
+            return desiredTorques;
+         default:
+            throw new IllegalArgumentException("Unexpected state type: " + stateType);
+      }
+   }
+
+   @Override
+   public int getNextChangedJointIndex(int fromIndex)
+   {
+      for (int i = Math.max(fromIndex, 0); i < changedFields.length; i++)
+      {
+         if (changedFields[i] != 0)
+            return i;
+      }
+      return -1;
+   }
+
+   @Override
+   public void acknowledgeChanges()
+   {
+      int numberOfJoints = joints.length;
+
+      System.arraycopy(controlModes, 0, acknowledgedControlModes, 0, numberOfJoints);
+      System.arraycopy(loadModes, 0, acknowledgedLoadModes, 0, numberOfJoints);
+      System.arraycopy(resetIntegrators, 0, acknowledgedResetIntegrators, 0, numberOfJoints);
+
+      for (DoubleField doubleField : doubleFields)
+         System.arraycopy(doubleField.values, 0, doubleField.acknowledgedValues, 0, numberOfJoints);
+
+      Arrays.fill(changedFields, 0);
+   }
+
+   private void updateContent(int index, long previousHash, long newHash)
+   {
+      long contentHashChange = newHash - previousHash;
+      contentHashes[index] += contentHashChange;
+      contentVersions[index]++;
+      listContentHash += contentHashWeights[index] * contentHashChange;
+      listContentVersion++;
+   }
+
+   @Override
+   public long getContentHash()
+   {
+      return listContentHash;
+   }
+
+   @Override
+   public long getContentVersion()
+   {
+      return listContentVersion;
+   }
+
+   @Override
+   public boolean equals(JointDesiredOutputListReadOnly other)
+   {
+      if (other instanceof PackedJointDesiredOutputList && other != this && hasSameJoints((PackedJointDesiredOutputList) other))
+      {
+         PackedJointDesiredOutputList packedOther = (PackedJointDesiredOutputList) other;
+
+         // Different content hashes guarantee different contents, matching hashes are confirmed field by field.
+         if (listContentHash != packedOther.listContentHash)
+            return false;
+         if (!Arrays.equals(controlModes, packedOther.controlModes) || !Arrays.equals(loadModes, packedOther.loadModes))
+            return false;
+         if (!Arrays.equals(resetIntegrators, packedOther.resetIntegrators))
+            return false;
+
+         for (int fieldIndex = 0; fieldIndex < doubleFields.length; fieldIndex++)
+         {
+            // Arrays.equals compares the bits of the values, same as Double.compare.
+            if (!Arrays.equals(doubleFields[fieldIndex].values, packedOther.doubleFields[fieldIndex].values))
+               return false;
+         }
+         return true;
+      }
+
+      if (other instanceof JointDesiredOutputList && ((JointDesiredOutputList) other).hasSameJoints(joints) && listContentHash != other.getContentHash())
+         return false;
+
+      return JointDesiredOutputListBasics.super.equals(other);
+   }
+
+   private void updateChangedField(int index, JointDesiredOutputField field, boolean hasChanged)
+   {
+      if (hasChanged)
+         changedFields[index] |= field.getMask();
+      else
+         changedFields[index] &= ~field.getMask();
+   }
+
+   private boolean hasSameJoints(PackedJointDesiredOutputList other)
+   {
+      return hasSameJoints(other.joints);
+   }
+
+   boolean hasSameJoints(OneDoFJointReadOnly[] otherJoints)
+   {
+      if (otherJoints == joints)
+         return true;
+      if (otherJoints.length != joints.length)
+         return false;
+
+      for (int i = 0; i < joints.length; i++)
+      {
+         if (otherJoints[i] != joints[i])
+            return false;
+      }
+      return true;
+   }
+
+   @Override
+   public boolean hasDataForJoint(OneDoFJointReadOnly joint)
+   {
+      return jointIndexMap.containsJoint(joint);
+   }
+
+   @Override
+   public int getJointIndex(OneDoFJointReadOnly joint)
+   {
+      return jointIndexMap.getIndex(joint);
+   }
+
+   @Override
+   public OneDoFJointReadOnly getOneDoFJoint(int index)
+   {
+      return joints[index];
+   }
+
+   @Override
+   public int getNumberOfJointsWithDesiredOutput()
+   {
+      return joints.length;
+   }
+
+   @Override
+   public JointDesiredOutputBasics getJointDesiredOutput(int index)
+   {
+      return jointsData[index];
+   }
+
+   @Override
+   public JointDesiredOutputBasics getJointDesiredOutput(OneDoFJointReadOnly joint)
+   {
+      int index = jointIndexMap.getIndex(joint);
+      return index == -1 ? null : jointsData[index];
+   }
+
+   @Override
+   public JointDesiredOutputBasics getJointDesiredOutputFromHash(int jointHashCode)
+   {
+      return jointMap.get(jointHashCode);
+   }
+
+   public String getJointName(int index)
+   {
+      return joints[index].getName();
+   }
+
+   /**
+    * Values of one {@code double} field for all the joints, along with their last acknowledged
+    * values.
+    */
+   private class DoubleField
+   {
+      private final JointDesiredOutputField field;
+      private final double[] values;
+      private final double[] acknowledgedValues;
+
+      private DoubleField(JointDesiredOutputField field, int numberOfJoints)
+      {
+         this.field = field;
+         values = new double[numberOfJoints];
+         acknowledgedValues = new double[numberOfJoints];
+         Arrays.fill(values, Double.NaN);
+         Arrays.fill(acknowledgedValues, Double.NaN);
+      }
+
+      /**
+       * Sets the value of one joint, only a value that differs from the current one updates the
+       * content hash and version of the joint.
+       */
+      private void set(int index, double value)
+      {
+         if (Double.compare(values[index], value) != 0)
+            updateContent(index, field.computeHash(values[index]), field.computeHash(value));
+         values[index] = value;
+         updateChangedField(index, field, Double.compare(value, acknowledgedValues[index]) != 0);
+      }
+
+      private void set(double[] newValues)
+      {
+         for (int index = 0; index < values.length; index++)
+            set(index, newValues[index]);
+      }
+
+      private void fill(double value)
+      {
+         for (int index = 0; index < values.length; index++)
+            set(index, value);
+      }
+
+      private double get(int index)
+      {
+         return values[index];
+      }
+   }
+
+   private class JointDesiredOutputView implements JointDesiredOutputBasics
+   {
+      private final int index;
+
+      private JointDesiredOutputView(int index)
+      {
+         this.index = index;
+      }
+
+      @Override
+      public void clear()
+      {
+         setControlMode(null);
+         setLoadMode(null);
+         setResetIntegrators(false);
+
+         for (DoubleField doubleField : doubleFields)
+            doubleField.set(index, Double.NaN);
+      }
+
+      @Override
+      public void setControlMode(JointDesiredControlMode controlMode)
+      {
+         if (controlModes[index] != controlMode)
+            updateContent(index,
+                          JointDesiredOutputField.CONTROL_MODE.computeHash(controlModes[index]),
+                          JointDesiredOutputField.CONTROL_MODE.computeHash(controlMode));
+         controlModes[index] = controlMode;
+         updateChangedField(index, JointDesiredOutputField.CONTROL_MODE, controlMode != acknowledgedControlModes[index]);
+      }
+
+      @Override
+      public void setLoadMode(JointDesiredLoadMode loadMode)
+      {
+         if (loadModes[index] != loadMode)
+            updateContent(index,
+                          JointDesiredOutputField.LOAD_MODE.computeHash(loadModes[index]),
+                          JointDesiredOutputField.LOAD_MODE.computeHash(loadMode));
+         loadModes[index] = loadMode;
+         updateChangedField(index, JointDesiredOutputField.LOAD_MODE, loadMode != acknowledgedLoadModes[index]);
+      }
+
+      @Override
+      public void setDesiredTorque(double tau)
+      {
+         desiredTorques.set(index, tau);
+      }
+
+      @Override
+      public void setDesiredPosition(double q)
+      {
+         desiredPositions.set(index, q);
+      }
+
+      @Override
+      public void setDesiredVelocity(double qd)
+      {
+         desiredVelocities.set(index, qd);
+      }
+
+      @Override
+      public void setDesiredAcceleration(double qdd)
+      {
+         desiredAccelerations.set(index, qdd);
+      }
+
+      @Override
+      public void setResetIntegrators(boolean reset)
+      {
+         if (resetIntegrators[index] != reset)
+            updateContent(index,
+                          JointDesiredOutputField.RESET_INTEGRATORS.computeHash(resetIntegrators[index]),
+                          JointDesiredOutputField.RESET_INTEGRATORS.computeHash(reset));
+         resetIntegrators[index] = reset;
+         updateChangedField(index, JointDesiredOutputField.RESET_INTEGRATORS, reset != acknowledgedResetIntegrators[index]);
+      }
+
+      @Override
+      public void setStiffness(double stiffness)
+      {
+         stiffnesses.set(index, stiffness);
+      }
+
+      @Override
+      public void setDamping(double damping)
+      {
+         dampings.set(index, damping);
+      }
+
+      @Override
+      public void setMasterGain(double masterGain)
+      {
+         masterGains.set(index, masterGain);
+      }
+
+      @Override
+      public void setVelocityScaling(double velocityScaling)
+      {
+         velocityScalings.set(index, velocityScaling);
+      }
+
+      @Override
+      public void setVelocityIntegrationBreakFrequency(double velocityIntegrationBreakFrequency)
+      {
+         velocityIntegrationBreakFrequencies.set(index, velocityIntegrationBreakFrequency);
+      }
+
+      @Override
+      public void setPositionIntegrationBreakFrequency(double positionIntegrationBreakFrequency)
+      {
+         positionIntegrationBreakFrequencies.set(index, positionIntegrationBreakFrequency);
+      }
+
+      @Override
+      public void setPositionIntegrationMaxError(double maxPositionError)
+      {
+         positionIntegrationMaxErrors.set(index, maxPositionError);
+      }
+
+      @Override
+      public void setVelocityIntegrationMaxError(double maxVelocityError)
+      {
+         velocityIntegrationMaxErrors.set(index, maxVelocityError);
+      }
+
+      @Override
+      public void setPositionFeedbackMaxError(double positionFeedbackMaxError)
+      {
+         positionFeedbackMaxErrors.set(index, positionFeedbackMaxError);
+      }
+
+      @Override
+      public void setVelocityFeedbackMaxError(double velocityFeedbackMaxError)
+      {
+         velocityFeedbackMaxErrors.set(index, velocityFeedbackMaxError);
+      }
+
+      @Override
+      public void setMaxTorque(double maxTorque)
+      {
+         maxTorques.set(index, maxTorque);
+      }
+
+      @Override
+      public JointDesiredControlMode getControlMode()
+      {
+         return controlModes[index];
+      }
+
+      @Override
+      public JointDesiredLoadMode getLoadMode()
+      {
+         return loadModes[index];
+      }
+
+      @Override
+      public double getDesiredTorque()
+      {
+         return desiredTorques.get(index);
+      }
+
+      @Override
+      public double getDesiredPosition()
+      {
+         return desiredPositions.get(index);
+      }
+
+      @Override
+      public double getDesiredVelocity()
+      {
+         return desiredVelocities.get(index);
+      }
+
+      @Override
+      public double getDesiredAcceleration()
+      {
+         return desiredAccelerations.get(index);
+      }
+
+      @Override
+      public boolean pollResetIntegratorsRequest()
+      {
+         boolean reset = resetIntegrators[index];
+         setResetIntegrators(false);
+         return reset;
+      }
+
+      @Override
+      public boolean peekResetIntegratorsRequest()
+      {
+         return resetIntegrators[index];
+      }
+
+      @Override
+      public double getStiffness()
+      {
+         return stiffnesses.get(index);
+      }
+
+      @Override
+      public double getDamping()
+      {
+         return dampings.get(index);
+      }
+
+      @Override
+      public double getMasterGain()
+      {
+         return masterGains.get(index);
+      }
+
+      @Override
+      public double getVelocityScaling()
+      {
+         return velocityScalings.get(index);
+      }
+
+      @Override
+      public double getVelocityIntegrationBreakFrequency()
+      {
+         return velocityIntegrationBreakFrequencies.get(index);
+      }
+
+      @Override
+      public double getPositionIntegrationBreakFrequency()
+      {
+         return positionIntegrationBreakFrequencies.get(index);
+      }
+
+      @Override
+      public double getPositionIntegrationMaxError()
+      {
+         return positionIntegrationMaxErrors.get(index);
+      }
+
+      @Override
+      public double getVelocityIntegrationMaxError()
+      {
+         return velocityIntegrationMaxErrors.get(index);
+      }
+
+      @Override
+      public double getPositionFeedbackMaxError()
+      {
+         return positionFeedbackMaxErrors.get(index);
+      }
+
+      @Override
+      public double getVelocityFeedbackMaxError()
+      {
+         return velocityFeedbackMaxErrors.get(index);
+      }
+
+      @Override
+      public double getMaxTorque()
+      {
+         return maxTorques.get(index);
+      }
+
+      @Override
+      public int getChangedFieldsMask()
+      {
+         return changedFields[index];
+      }
+
+      @Override
+      public void acknowledgeChanges()
+      {
+         acknowledgedControlModes[index] = controlModes[index];
+         acknowledgedLoadModes[index] = loadModes[index];
+         acknowledgedResetIntegrators[index] = resetIntegrators[index];
+
+         for (DoubleField doubleField : doubleFields)
+            doubleField.acknowledgedValues[index] = doubleField.values[index];
+
+         changedFields[index] = 0;
+      }
+
+      @Override
+      public long getContentHash()
+      {
+         return contentHashes[index];
+      }
+
+      @Override
+      public long getContentVersion()
+      {
+         return contentVersions[index];
+      }
+
+      private long computeContentHash()
+      {
+         return JointDesiredOutputBasics.super.getContentHash();
+      }
+
+      @Override
+      public boolean equals(Object object)
+      {
+         if (object instanceof JointDesiredOutputReadOnly)
+            return JointDesiredOutputBasics.super.equals((JointDesiredOutputReadOnly) object);
+         else
+            return false;
+      }
+
+      @Override
+      public String toString()
+      {
+         return getRepresentativeString();
+      }
+   }
+}
@@ -0,0 +1,193 @@
+package us.ihmc.commons.robotics.outputData;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+/**
+ * Lock-free triple buffer used to hand off joint desired outputs from a single writer thread, e.g.
+ * the controller, to a single reader thread, e.g. the hardware driver.
+ * <p>
+ * The writer fills the list returned by {@link #getWriteBuffer()} and calls {@link #publish()} once
+ * the tick is complete. The reader calls {@link #acquire()} to get the latest published list, which
+ * it owns until its next call to {@link #acquire()}. Neither operation blocks or allocates, and the
+ * reader never observes a partially written tick.
+ * </p>
+ * <p>
+ * When the writer publishes twice before the reader acquires, the first tick is never seen by the
+ * reader and counted as dropped, see {@link #getNumberOfDroppedFrames()}. When the reader acquires
+ * before a new tick is published, it gets the same list again and the frame is counted as stale,
+ * see {@link #getNumberOfStaleFrames()}.
+ * </p>
+ */
+public class TripleBufferedJointDesiredOutputList<T extends JointDesiredOutputListBasics>
+{
+   private static final int INDEX_MASK = 0b11;
+   /** Set in the state when the shared buffer holds a tick the reader has not acquired yet. */
+   private static final int FRESH_BIT = 0b100;
+
+   private final T[] buffers;
+   /** Index of the buffer shared between the writer and the reader, combined with {@link #FRESH_BIT}. */
+   private final AtomicInteger sharedState = new AtomicInteger(1);
+
+   // Only accessed by the writer thread.
+   private int writeIndex = 0;
+   // Only accessed by the reader thread.
+   private int readIndex = 2;
+
+   private volatile long numberOfPublishedFrames = 0;
+   private volatile long numberOfDroppedFrames = 0;
+   private volatile long numberOfAcquiredFrames = 0;
+   private volatile long numberOfStaleFrames = 0;
+
+   /**
+    * Creates a triple buffer of {@link JointDesiredOutputList}s for the given joints.
+    *
+    * @param joints the joints to create the desired outputs for.
+    * @return the new triple buffer.
+    */
+   public static TripleBufferedJointDesiredOutputList<JointDesiredOutputList> newTripleBuffer(OneDoFJointReadOnly[] joints)
+   {
+      return new TripleBufferedJointDesiredOutputList<>(() -> new JointDesiredOutputList(joints));
+   }
+
+   /**
+    * Creates a new triple buffer.
+    *
+    * @param bufferSupplier used to create the three lists. The lists are expected to be for the same
+    *                       joints.
+    */
+   @SuppressWarnings("unchecked")
+   public TripleBufferedJointDesiredOutputList(Supplier<T> bufferSupplier)
+   {
+      buffers = (T[]) new JointDesiredOutputListBasics[] {bufferSupplier.get(), bufferSupplier.get(), bufferSupplier.get()};
+   }
+
+   /**
+    * Gets the list the writer should fill for the current tick.
+    * <p>
+    * The content of this list is whatever was in it when it was last used and should be fully
+    * overwritten before publishing. This method is intended to be called from the writer thread only.
+    * </p>
+    *
+    * @return the list to write to.
+    */
+   public T getWriteBuffer()
+   {
+      return buffers[writeIndex];
+   }
+
+   /**
+    * Publishes the content of the write buffer and swaps in a new write buffer.
+    * <p>
+    * This method is intended to be called from the writer thread only.
+    * </p>
+    */
+   public void publish()
+   {
+      int previousState = sharedState.getAndSet(writeIndex | FRESH_BIT);
+      writeIndex = previousState & INDEX_MASK;
+
+      numberOfPublishedFrames++;
+      if ((previousState & FRESH_BIT) != 0)
+         numberOfDroppedFrames++;
+   }
+
+   /**
+    * Copies {@code source} into the write buffer and publishes it.
+    * <p>
+    * This method is intended to be called from the writer thread only.
+    * </p>
+    *
+    * @param source the desired outputs to publish. Not modified.
+    */
+   public void publish(JointDesiredOutputListReadOnly source)
+   {
+      getWriteBuffer().overwriteWith(source);
+      publish();
+   }
+
+   /**
+    * Gets the latest published list.
+    * <p>
+    * The returned list is owned by the reader until the next call to this method. If nothing was
+    * published since the last call, the same list is returned again. Before the first publish, the
+    * returned list is in its initial state.
+    * </p>
+    * <p>
+    * This method is intended to be called from the reader thread only.
+    * </p>
+    *
+    * @return the latest published list.
+    */
+   public T acquire()
+   {
+      if ((sharedState.get() & FRESH_BIT) == 0)
+      {
+         numberOfStaleFrames++;
+      }
+      else
+      {
+         int previousState = sharedState.getAndSet(readIndex);
+         readIndex = previousState & INDEX_MASK;
+         numberOfAcquiredFrames++;
+      }
+
+      return buffers[readIndex];
+   }
+
+   /**
+    * Gets the list last returned by {@link #acquire()} without checking for a newer tick.
+    * <p>
+    * This method is intended to be called from the reader thread only.
+    * </p>
+    *
+    * @return the list currently owned by the reader.
+    */
+   public T getReadBuffer()
+   {
+      return buffers[readIndex];
+   }
+
+   /**
+    * Returns whether a tick has been published that the reader has not acquired yet.
+    */
+   public boolean hasNewFrame()
+   {
+      return (sharedState.get() & FRESH_BIT) != 0;
+   }
+
+   /**
+    * Gets the number of calls to {@link #publish()}.
+    */
+   public long getNumberOfPublishedFrames()
+   {
+      return numberOfPublishedFrames;
+   }
+
+   /**
+    * Gets the number of published ticks that were replaced by a newer one before the reader could
+    * acquire them.
+    */
+   public long getNumberOfDroppedFrames()
+   {
+      return numberOfDroppedFrames;
+   }
+
+   /**
+    * Gets the number of calls to {@link #acquire()} that returned a newly published tick.
+    */
+   public long getNumberOfAcquiredFrames()
+   {
+      return numberOfAcquiredFrames;
+   }
+
+   /**
+    * Gets the number of calls to {@link #acquire()} for which no new tick had been published.
+    */
+   public long getNumberOfStaleFrames()
+   {
+      return numberOfStaleFrames;
+   }
+}
@@ -342,6 +342,129 @@ public class AngleToolsTest
       }
    }
 
+   @Test
+   public void testBatchAngleOperations()
+   {
+      Random random = new Random(4523);
+
+      for (int i = 0; i < 100; i++)
+      {
+         int length = random.nextInt(50);
+         int offset = random.nextInt(5);
+         double[] anglesA = new double[length + offset];
+         double[] anglesB = new double[length + offset];
+         for (int j = 0; j < anglesA.length; j++)
+         {
+            anglesA[j] = RandomNumbers.nextDouble(random, -128.0, 128.0);
+            anglesB[j] = RandomNumbers.nextDouble(random, -128.0, 128.0);
+         }
+         double alpha = random.nextDouble();
+         double startOfAngleRange = RandomNumbers.nextDouble(random, 10.0);
+
+         double[] trimmed = new double[length + offset];
+         double[] differences = new double[length + offset];
+         double[] interpolated = new double[length + offset];
+         double[] shifted = new double[length + offset];
+         AngleTools.trimAngleMinusPiToPi(anglesA, offset, trimmed, offset, length);
+         AngleTools.computeAngleDifferenceMinusPiToPi(anglesA, offset, anglesB, offset, differences, offset, length);
+         AngleTools.interpolateAngle(anglesA, offset, anglesB, offset, alpha, interpolated, offset, length);
+         AngleTools.shiftAngleToStartOfRange(anglesA, offset, startOfAngleRange, shifted, offset, length);
+
+         for (int j = 0; j < offset; j++)
+         {
+            assertEquals(0.0, trimmed[j]);
+            assertEquals(0.0, differences[j]);
+            assertEquals(0.0, interpolated[j]);
+            assertEquals(0.0, shifted[j]);
+         }
+
+         // The batch methods are branch-free and can differ from the scalar ones by rounding, or by 2 pi at the end of the range.
+         for (int j = offset; j < length + offset; j++)
+         {
+            assertAngleEquals(AngleTools.trimAngleMinusPiToPi(anglesA[j]), trimmed[j], 1.0e-12);
+            assertAngleEquals(AngleTools.computeAngleDifferenceMinusPiToPi(anglesA[j], anglesB[j]), differences[j], 1.0e-12);
+            assertAngleEquals(AngleTools.interpolateAngle(anglesA[j], anglesB[j], alpha), interpolated[j], 1.0e-12);
+            assertAngleEquals(AngleTools.shiftAngleToStartOfRange(anglesA[j], startOfAngleRange), shifted[j], 1.0e-12);
+            assertTrue(trimmed[j] >= -Math.PI - AngleTools.EPSILON && trimmed[j] < Math.PI);
+            assertTrue(differences[j] >= -Math.PI - AngleTools.EPSILON && differences[j] < Math.PI);
+            assertTrue(shifted[j] >= startOfAngleRange - AngleTools.EPSILON && shifted[j] < startOfAngleRange + 2.0 * Math.PI);
+         }
+
+         // In place
+         double[] anglesInPlace = anglesA.clone();
+         AngleTools.trimAngleMinusPiToPi(anglesInPlace);
+         AngleTools.trimAngleMinusPiToPi(anglesA, trimmed);
+         assertArrayEquals(trimmed, anglesInPlace);
+
+         anglesInPlace = anglesA.clone();
+         AngleTools.computeAngleDifferenceMinusPiToPi(anglesInPlace, anglesB, anglesInPlace);
+         AngleTools.computeAngleDifferenceMinusPiToPi(anglesA, anglesB, differences);
+         assertArrayEquals(differences, anglesInPlace);
+
+         anglesInPlace = anglesB.clone();
+         AngleTools.interpolateAngle(anglesA, anglesInPlace, alpha, anglesInPlace);
+         AngleTools.interpolateAngle(anglesA, anglesB, alpha, interpolated);
+         assertArrayEquals(interpolated, anglesInPlace);
+
+         anglesInPlace = anglesA.clone();
+         AngleTools.shiftAngleToStartOfRange(anglesInPlace, startOfAngleRange, anglesInPlace);
+         AngleTools.shiftAngleToStartOfRange(anglesA, startOfAngleRange, shifted);
+         assertArrayEquals(shifted, anglesInPlace);
+      }
+
+      // Angles at the boundaries of the range are handled like the scalar methods.
+      double[] boundaryAngles = {-Math.PI, Math.PI, -Math.PI - 0.5 * AngleTools.EPSILON, 0.0, -0.0, 3.0 * Math.PI, -5.0 * Math.PI};
+      double[] trimmedBoundaryAngles = new double[boundaryAngles.length];
+      AngleTools.trimAngleMinusPiToPi(boundaryAngles, trimmedBoundaryAngles);
+      for (int j = 0; j < boundaryAngles.length; j++)
+         assertAngleEquals(AngleTools.trimAngleMinusPiToPi(boundaryAngles[j]), trimmedBoundaryAngles[j], 1.0e-12);
+      assertEquals(-Math.PI - 0.5 * AngleTools.EPSILON, trimmedBoundaryAngles[2]);
+   }
+
+   private static void assertAngleEquals(double expected, double actual, double epsilon)
+   {
+      assertEquals(0.0, AngleTools.computeAngleDifferenceMinusPiToPi(expected, actual), epsilon);
+   }
+
+   @Test
+   public void testUnwrapAngles()
+   {
+      Random random = new Random(7834);
+
+      for (int i = 0; i < 100; i++)
+      {
+         int length = random.nextInt(200);
+         int offset = random.nextInt(5);
+         // Continuous signal with steps smaller than pi, wrapped afterward.
+         double[] signal = new double[length + offset];
+         signal[0] = RandomNumbers.nextDouble(random, 10.0);
+         for (int j = 1; j < signal.length; j++)
+            signal[j] = signal[j - 1] + RandomNumbers.nextDouble(random, 0.9 * Math.PI);
+
+         double[] angles = signal.clone();
+         AngleTools.trimAngleMinusPiToPi(angles, offset, angles, offset, length);
+         AngleTools.unwrapAngles(angles, offset, length);
+
+         for (int j = 0; j < offset; j++)
+            assertEquals(signal[j], angles[j]);
+
+         if (length == 0)
+            continue;
+
+         // The unwrapped signal is the original one up to a constant multiple of 2 pi.
+         double offsetAngle = signal[offset] - angles[offset];
+         assertEquals(0.0, AngleTools.trimAngleMinusPiToPi(offsetAngle), 1.0e-12);
+         for (int j = offset; j < length + offset; j++)
+            assertEquals(signal[j] - offsetAngle, angles[j], 1.0e-9);
+      }
+
+      double[] angles = {3.0, -3.0, 3.0};
+      AngleTools.unwrapAngles(angles);
+      assertEquals(3.0, angles[0]);
+      assertEquals(2.0 * Math.PI - 3.0, angles[1], 1.0e-12);
+      assertEquals(3.0, angles[2], 1.0e-12);
+   }
+
    @Test
    public void testComputeAngleAverage()
    {
@@ -0,0 +1,144 @@
+package us.ihmc.commons;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelArrayToolsTest
+{
+   private static final int ITERATIONS = 200;
+
+   @Test
+   public void testReverse()
+   {
+      Random random = new Random(3467);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         // Small chunks such that the arrays are split in many tasks.
+         int chunkSize = random.nextInt(20) + 1;
+         int length = random.nextInt(500);
+
+         double[] doubles = nextDoubleArray(random, length);
+         double[] expectedDoubles = doubles.clone();
+         ArrayTools.reverse(expectedDoubles);
+         ParallelArrayTools.reverse(doubles, chunkSize);
+         assertArrayEquals(expectedDoubles, doubles);
+
+         float[] floats = new float[length];
+         int[] ints = new int[length];
+         long[] longs = new long[length];
+         Object[] objects = new Object[length];
+         for (int j = 0; j < length; j++)
+         {
+            floats[j] = random.nextFloat();
+            ints[j] = random.nextInt();
+            longs[j] = random.nextLong();
+            objects[j] = Integer.valueOf(j);
+         }
+
+         float[] expectedFloats = floats.clone();
+         ArrayTools.reverse(expectedFloats);
+         ParallelArrayTools.reverse(floats, chunkSize);
+         assertArrayEquals(expectedFloats, floats);
+
+         int[] expectedInts = ints.clone();
+         ArrayTools.reverse(expectedInts);
+         ParallelArrayTools.reverse(ints, chunkSize);
+         assertArrayEquals(expectedInts, ints);
+
+         long[] expectedLongs = longs.clone();
+         ArrayTools.reverse(expectedLongs);
+         ParallelArrayTools.reverse(longs, chunkSize);
+         assertArrayEquals(expectedLongs, longs);
+
+         Object[] expectedObjects = objects.clone();
+         ArrayTools.reverse(expectedObjects);
+         ParallelArrayTools.reverse(objects, chunkSize);
+         assertArrayEquals(expectedObjects, objects);
+      }
+
+      double[] largeArray = new double[ParallelArrayTools.PARALLEL_THRESHOLD + 3];
+      for (int i = 0; i < largeArray.length; i++)
+         largeArray[i] = i;
+      ParallelArrayTools.reverse(largeArray);
+      for (int i = 0; i < largeArray.length; i++)
+         assertEquals(largeArray.length - 1 - i, largeArray[i]);
+   }
+
+   @Test
+   public void testDeltaEquals()
+   {
+      Random random = new Random(9823);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int chunkSize = random.nextInt(20) + 1;
+         int length = random.nextInt(500) + 1;
+         double delta = random.nextDouble();
+
+         double[] a = nextDoubleArray(random, length);
+         double[] b = a.clone();
+         float[] aFloats = new float[length];
+         float[] bFloats = new float[length];
+         for (int j = 0; j < length; j++)
+         {
+            b[j] += RandomNumbers.nextDouble(random, 0.99 * delta);
+            aFloats[j] = (float) a[j];
+            bFloats[j] = (float) b[j];
+         }
+
+         assertTrue(ParallelArrayTools.deltaEquals(a, b, delta, chunkSize));
+         assertEquals(ArrayTools.deltaEquals(aFloats, bFloats, (float) delta), ParallelArrayTools.deltaEquals(aFloats, bFloats, (float) delta, chunkSize));
+
+         int index = random.nextInt(length);
+         b[index] = a[index] + 1.01 * delta;
+         bFloats[index] = aFloats[index] + 1.01f * (float) delta + 1.0e-3f;
+         assertFalse(ParallelArrayTools.deltaEquals(a, b, delta, chunkSize));
+         assertFalse(ParallelArrayTools.deltaEquals(aFloats, bFloats, (float) delta, chunkSize));
+
+         assertFalse(ParallelArrayTools.deltaEquals(a, new double[length + 1], delta, chunkSize));
+      }
+
+      assertFalse(ParallelArrayTools.deltaEquals(null, new double[1], 1.0));
+   }
+
+   @Test
+   public void testGetMaximumAbsoluteChangeBetweenTicks()
+   {
+      Random random = new Random(7645);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int chunkSize = random.nextInt(20) + 1;
+         double[] values = nextDoubleArray(random, random.nextInt(500) + 1);
+
+         if (random.nextBoolean())
+            values[random.nextInt(values.length)] = Double.NaN;
+
+         double expected = ArrayTools.getMaximumAbsoluteChangeBetweenTicks(values);
+         assertEquals(expected, ParallelArrayTools.getMaximumAbsoluteChangeBetweenTicks(values, chunkSize));
+      }
+
+      double[] largeArray = new double[ParallelArrayTools.PARALLEL_THRESHOLD + 7];
+      for (int i = 0; i < largeArray.length; i++)
+         largeArray[i] = Math.sin(0.01 * i);
+      largeArray[largeArray.length / 3] += 0.5;
+      double expected = ArrayTools.getMaximumAbsoluteChangeBetweenTicks(largeArray);
+      assertEquals(expected, ParallelArrayTools.getMaximumAbsoluteChangeBetweenTicks(largeArray));
+      assertEquals(ArrayTools.isContinuous(largeArray, 0.1), ParallelArrayTools.isContinuous(largeArray, 0.1));
+      assertEquals(ArrayTools.isContinuous(largeArray, 1.0), ParallelArrayTools.isContinuous(largeArray, 1.0));
+
+      assertThrows(ArrayIndexOutOfBoundsException.class, () -> ParallelArrayTools.getMaximumAbsoluteChangeBetweenTicks(new double[0]));
+   }
+
+   private static double[] nextDoubleArray(Random random, int length)
+   {
+      double[] array = new double[length];
+      for (int i = 0; i < length; i++)
+         array[i] = RandomNumbers.nextDouble(random, 10.0);
+      return array;
+   }
+}
@@ -0,0 +1,117 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleKeySorterTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testListSortIsStable()
+   {
+      Random random = new Random(93456);
+      DoubleKeySorter sorter = new DoubleKeySorter();
+      // The first value is the key, the second value is the original index used to check stability.
+      ToDoubleFunction<double[]> keyFunction = pair -> pair[0];
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         boolean descending = random.nextBoolean();
+         List<double[]> list = new ArrayList<>(Arrays.asList(nextPairs(random)));
+         List<double[]> expected = new ArrayList<>(list);
+         expected.sort(comparator(descending));
+
+         sorter.sort(list, keyFunction, descending);
+
+         assertArrayEquals(expected.toArray(), list.toArray());
+      }
+   }
+
+   @Test
+   public void testArraySortIsStable()
+   {
+      Random random = new Random(2346);
+      DoubleKeySorter sorter = new DoubleKeySorter();
+      ToDoubleFunction<double[]> keyFunction = pair -> pair[0];
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         boolean descending = random.nextBoolean();
+         double[][] array = nextPairs(random);
+         double[][] expected = array.clone();
+         Arrays.sort(expected, comparator(descending));
+
+         sorter.sort(array, keyFunction, descending);
+
+         assertArrayEquals(expected, array);
+      }
+   }
+
+   @Test
+   public void testComputeSortedIndices()
+   {
+      Random random = new Random(8923);
+      DoubleKeySorter sorter = new DoubleKeySorter();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         double[][] pairs = nextPairs(random);
+         double[] keys = new double[pairs.length + random.nextInt(5)];
+         for (int j = 0; j < pairs.length; j++)
+         {
+            keys[j] = pairs[j][0];
+            pairs[j][1] = j;
+         }
+         double[] keysCopy = keys.clone();
+
+         int[] indices = sorter.computeSortedIndices(keys, pairs.length, false);
+
+         assertArrayEquals(keysCopy, keys);
+         Arrays.sort(pairs, comparator(false));
+         for (int j = 0; j < pairs.length; j++)
+            assertEquals((int) pairs[j][1], indices[j]);
+      }
+   }
+
+   @Test
+   public void testNonFiniteKeys()
+   {
+      DoubleKeySorter sorter = new DoubleKeySorter();
+      Double[] array = {Double.NaN, 1.0, Double.POSITIVE_INFINITY, -0.0, Double.NEGATIVE_INFINITY, 0.0};
+
+      sorter.sort(array, Double::doubleValue);
+
+      assertArrayEquals(new Double[] {Double.NEGATIVE_INFINITY, -0.0, 0.0, 1.0, Double.POSITIVE_INFINITY, Double.NaN}, array);
+   }
+
+   private static Comparator<double[]> comparator(boolean descending)
+   {
+      Comparator<double[]> comparator = Comparator.comparingDouble(pair -> pair[0]);
+      return descending ? comparator.reversed() : comparator;
+   }
+
+   private static double[][] nextPairs(Random random)
+   {
+      int size = random.nextInt(500);
+      int numberOfDistinctValues = random.nextInt(size + 1) + 1;
+      double[][] pairs = new double[size][];
+
+      for (int i = 0; i < size; i++)
+         pairs[i] = new double[] {0.1 * random.nextInt(numberOfDistinctValues), i};
+
+      // Exercises the sorted fast path.
+      if (random.nextInt(3) == 0)
+         Arrays.sort(pairs, comparator(random.nextBoolean()));
+
+      return pairs;
+   }
+}
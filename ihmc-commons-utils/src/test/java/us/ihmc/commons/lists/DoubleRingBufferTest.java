@@ -0,0 +1,183 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.RandomNumbers;
+
+public class DoubleRingBufferTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-10;
+
+   @Test
+   public void testAgainstRingBuffer()
+   {
+      Random random = new Random(34526);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(200) + 1;
+         DoubleRingBuffer buffer = new DoubleRingBuffer(capacity);
+         RingBuffer<double[]> expected = new RingBuffer<>(capacity, () -> new double[1], (dst, src) -> dst[0] = src[0]);
+
+         int numberOfElements = random.nextInt(3 * capacity);
+
+         for (int j = 0; j < numberOfElements; j++)
+         {
+            double newElement = RandomNumbers.nextDouble(random, 100.0);
+            buffer.add(newElement);
+            expected.add(new double[] {newElement});
+
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expected.isBufferFull(), buffer.isBufferFull());
+            assertEquals(expected.getFirst()[0], buffer.getFirst());
+            assertEquals(expected.getLast()[0], buffer.getLast());
+         }
+
+         if (random.nextBoolean())
+         {
+            int newCapacity = random.nextInt(2 * capacity) + 1;
+            buffer.changeCapacity(newCapacity);
+            expected.changeCapacity(newCapacity);
+         }
+
+         assertEquals(expected.size(), buffer.size());
+         assertEquals(expected.capacity(), buffer.capacity());
+
+         double[] firstToLast = buffer.toArrayFromFirstToLast();
+         double[] lastToFirst = buffer.toArrayFromLastToFirst();
+         PrimitiveIterator.OfDouble iterator = buffer.iterator();
+         PrimitiveIterator.OfDouble reverseIterator = buffer.reverseIterator();
+
+         for (int j = 0; j < expected.size(); j++)
+         {
+            assertEquals(expected.getFromFirst(j)[0], buffer.getFromFirst(j));
+            assertEquals(expected.getFromLast(j)[0], buffer.getFromLast(j));
+            assertEquals(expected.getFromFirst(j)[0], firstToLast[j]);
+            assertEquals(expected.getFromLast(j)[0], lastToFirst[j]);
+            assertEquals(expected.getFromFirst(j)[0], iterator.nextDouble());
+            assertEquals(expected.getFromLast(j)[0], reverseIterator.nextDouble());
+         }
+
+         assertFalse(iterator.hasNext());
+         assertFalse(reverseIterator.hasNext());
+         int size = buffer.size();
+         assertThrows(IndexOutOfBoundsException.class, () -> buffer.getFromFirst(size));
+         assertThrows(IndexOutOfBoundsException.class, () -> buffer.getFromLast(size));
+         assertThrows(IndexOutOfBoundsException.class, () -> buffer.getFromLast(-1));
+      }
+   }
+
+   @Test
+   public void testStatistics()
+   {
+      Random random = new Random(7456);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(100) + 1;
+         DoubleRingBuffer buffer = new DoubleRingBuffer(capacity);
+
+         assertEquals(0.0, buffer.getSum());
+         assertTrue(Double.isNaN(buffer.getMean()));
+         assertThrows(NoSuchElementException.class, () -> buffer.getMin());
+         assertThrows(NoSuchElementException.class, () -> buffer.getMax());
+
+         for (int j = 0; j < 5 * capacity; j++)
+         {
+            double newElement;
+            if (random.nextInt(20) == 0)
+               newElement = new double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}[random.nextInt(3)];
+            else
+               newElement = RandomNumbers.nextDouble(random, 1000.0);
+            buffer.add(newElement);
+
+            if (random.nextInt(50) == 0)
+               buffer.changeCapacity(random.nextInt(100) + 1);
+
+            assertStatisticsEqual(buffer);
+         }
+
+         buffer.reset();
+         assertTrue(buffer.isEmpty());
+         assertEquals(0.0, buffer.getSum());
+         assertThrows(NoSuchElementException.class, () -> buffer.getMin());
+      }
+   }
+
+   @Test
+   public void testIteratorConcurrentModification()
+   {
+      DoubleRingBuffer buffer = new DoubleRingBuffer(10);
+      buffer.add(1.0);
+      buffer.add(2.0);
+
+      PrimitiveIterator.OfDouble iterator = buffer.iterator();
+      assertEquals(1.0, iterator.nextDouble());
+      buffer.add(3.0);
+      assertThrows(ConcurrentModificationException.class, () -> iterator.nextDouble());
+
+      List<Double> elements = new ArrayList<>();
+      for (double element : buffer)
+         elements.add(element);
+      Collections.reverse(elements);
+      buffer.reverseIterator().forEachRemaining((double element) -> assertEquals(elements.remove(0).doubleValue(), element));
+   }
+
+   private static void assertStatisticsEqual(DoubleRingBuffer buffer)
+   {
+      double[] elements = buffer.toArrayFromFirstToLast();
+      double expectedSum = 0.0;
+      double expectedMin = elements[0];
+      double expectedMax = elements[0];
+
+      for (double element : elements)
+      {
+         expectedSum += element;
+         if (Double.compare(element, expectedMin) < 0)
+            expectedMin = element;
+         if (Double.compare(element, expectedMax) > 0)
+            expectedMax = element;
+      }
+
+      assertEquals(expectedSum, buffer.getSum(), EPSILON);
+      assertEquals(expectedSum / elements.length, buffer.getMean(), EPSILON);
+      assertEquals(expectedMin, buffer.getMin());
+      assertEquals(expectedMax, buffer.getMax());
+   }
+
+   @Test
+   public void testEqualsAndHashCode()
+   {
+      Random random = new Random(9734);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         DoubleRingBuffer buffer = new DoubleRingBuffer(random.nextInt(20) + 1);
+         int numberOfElements = random.nextInt(50);
+         for (int j = 0; j < numberOfElements; j++)
+            buffer.add(random.nextInt(10) == 0 ? Double.NaN : random.nextDouble());
+
+         // The copy has a different capacity and holds the same elements at different offsets.
+         DoubleRingBuffer copy = new DoubleRingBuffer(buffer.size() + 1);
+         for (int j = 0; j < buffer.size(); j++)
+            copy.add(buffer.getFromFirst(j));
+
+         assertEquals(buffer, copy);
+         assertEquals(buffer.hashCode(), copy.hashCode());
+
+         copy.add(buffer.isEmpty() ? 0 : buffer.getLast());
+         assertNotEquals(buffer, copy);
+      }
+   }
+}
@@ -0,0 +1,104 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class InPlaceMergeSortTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testArraySortIsStable()
+   {
+      Random random = new Random(45676);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int[][] array = nextPairs(random);
+         int[][] expected = array.clone();
+         // Sorting by the first value only, the second value is the original index used to check stability.
+         Comparator<int[]> comparator = Comparator.comparingInt(pair -> pair[0]);
+         Arrays.sort(expected, comparator);
+
+         if (random.nextBoolean())
+            ArraySorter.sort(array, comparator);
+         else
+            InPlaceMergeSort.sort(array, comparator);
+
+         assertArrayEquals(expected, array);
+      }
+   }
+
+   @Test
+   public void testArrayRangeSort()
+   {
+      Random random = new Random(2389);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int[][] array = nextPairs(random);
+         int fromIndex = random.nextInt(array.length + 1);
+         int toIndex = fromIndex + random.nextInt(array.length - fromIndex + 1);
+         int[][] expected = array.clone();
+         Comparator<int[]> comparator = Comparator.comparingInt(pair -> pair[0]);
+         Arrays.sort(expected, fromIndex, toIndex, comparator);
+
+         InPlaceMergeSort.sort(array, fromIndex, toIndex, comparator);
+
+         assertArrayEquals(expected, array);
+      }
+   }
+
+   @Test
+   public void testListSortIsStable()
+   {
+      Random random = new Random(73456);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<int[]> list = new ArrayList<>(Arrays.asList(nextPairs(random)));
+         List<int[]> expected = new ArrayList<>(list);
+         Comparator<int[]> comparator = Comparator.comparingInt(pair -> pair[0]);
+         Collections.sort(expected, comparator);
+
+         if (random.nextBoolean())
+            ListSorter.sort(list, comparator);
+         else
+            InPlaceMergeSort.sort(list, comparator);
+
+         assertArrayEquals(expected.toArray(), list.toArray());
+      }
+   }
+
+   private static int[][] nextPairs(Random random)
+   {
+      int size = random.nextInt(500);
+      int numberOfDistinctValues = random.nextInt(size + 1) + 1;
+      int[][] pairs = new int[size][];
+
+      for (int i = 0; i < size; i++)
+         pairs[i] = new int[] {random.nextInt(numberOfDistinctValues), i};
+
+      // Exercises the sorted and nearly sorted fast paths.
+      int sortedness = random.nextInt(3);
+      if (sortedness > 0)
+      {
+         Arrays.sort(pairs, Comparator.comparingInt(pair -> pair[0]));
+         if (sortedness == 2 && size > 1)
+         {
+            int index = random.nextInt(size - 1);
+            pairs[index][0] = random.nextInt(numberOfDistinctValues);
+         }
+      }
+
+      return pairs;
+   }
+}
@@ -0,0 +1,135 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IntRingBufferTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testAgainstRingBuffer()
+   {
+      Random random = new Random(5682);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(200) + 1;
+         IntRingBuffer buffer = new IntRingBuffer(capacity);
+         RingBuffer<int[]> expected = new RingBuffer<>(capacity, () -> new int[1], (dst, src) -> dst[0] = src[0]);
+
+         int numberOfElements = random.nextInt(3 * capacity);
+
+         for (int j = 0; j < numberOfElements; j++)
+         {
+            int newElement = random.nextInt();
+            buffer.add(newElement);
+            expected.add(new int[] {newElement});
+
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expected.isBufferFull(), buffer.isBufferFull());
+            assertEquals(expected.getFirst()[0], buffer.getFirst());
+            assertEquals(expected.getLast()[0], buffer.getLast());
+         }
+
+         if (random.nextBoolean())
+         {
+            int newCapacity = random.nextInt(2 * capacity) + 1;
+            buffer.changeCapacity(newCapacity);
+            expected.changeCapacity(newCapacity);
+         }
+
+         assertEquals(expected.size(), buffer.size());
+         assertEquals(expected.capacity(), buffer.capacity());
+
+         int[] firstToLast = buffer.toArrayFromFirstToLast();
+         int[] lastToFirst = buffer.toArrayFromLastToFirst();
+         PrimitiveIterator.OfInt iterator = buffer.iterator();
+         PrimitiveIterator.OfInt reverseIterator = buffer.reverseIterator();
+
+         for (int j = 0; j < expected.size(); j++)
+         {
+            assertEquals(expected.getFromFirst(j)[0], buffer.getFromFirst(j));
+            assertEquals(expected.getFromLast(j)[0], buffer.getFromLast(j));
+            assertEquals(expected.getFromFirst(j)[0], firstToLast[j]);
+            assertEquals(expected.getFromLast(j)[0], lastToFirst[j]);
+            assertEquals(expected.getFromFirst(j)[0], iterator.nextInt());
+            assertEquals(expected.getFromLast(j)[0], reverseIterator.nextInt());
+         }
+
+         assertFalse(iterator.hasNext());
+         assertFalse(reverseIterator.hasNext());
+      }
+   }
+
+   @Test
+   public void testStatistics()
+   {
+      Random random = new Random(1287);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(100) + 1;
+         IntRingBuffer buffer = new IntRingBuffer(capacity);
+
+         assertEquals(0L, buffer.getSum());
+         assertThrows(NoSuchElementException.class, () -> buffer.getMin());
+
+         for (int j = 0; j < 5 * capacity; j++)
+         {
+            // Small range of values to exercise duplicates in the min/max queues.
+            buffer.add(random.nextInt(20) - 10);
+
+            if (random.nextInt(50) == 0)
+               buffer.changeCapacity(random.nextInt(100) + 1);
+
+            int[] elements = buffer.toArrayFromFirstToLast();
+            long expectedSum = 0L;
+            int expectedMin = Integer.MAX_VALUE;
+            int expectedMax = Integer.MIN_VALUE;
+
+            for (int element : elements)
+            {
+               expectedSum += element;
+               expectedMin = Math.min(expectedMin, element);
+               expectedMax = Math.max(expectedMax, element);
+            }
+
+            assertEquals(expectedSum, buffer.getSum());
+            assertEquals((double) expectedSum / elements.length, buffer.getMean());
+            assertEquals(expectedMin, buffer.getMin());
+            assertEquals(expectedMax, buffer.getMax());
+         }
+      }
+   }
+
+   @Test
+   public void testEqualsAndHashCode()
+   {
+      Random random = new Random(3457);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         IntRingBuffer buffer = new IntRingBuffer(random.nextInt(20) + 1);
+         int numberOfElements = random.nextInt(50);
+         for (int j = 0; j < numberOfElements; j++)
+            buffer.add(random.nextInt(100));
+
+         // The copy has a different capacity and holds the same elements at different offsets.
+         IntRingBuffer copy = new IntRingBuffer(buffer.size() + 1);
+         for (int j = 0; j < buffer.size(); j++)
+            copy.add(buffer.getFromFirst(j));
+
+         assertEquals(buffer, copy);
+         assertEquals(buffer.hashCode(), copy.hashCode());
+
+         copy.add(buffer.isEmpty() ? 0 : buffer.getLast());
+         assertNotEquals(buffer, copy);
+      }
+   }
+}
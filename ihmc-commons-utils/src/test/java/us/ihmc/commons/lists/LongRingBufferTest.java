@@ -0,0 +1,135 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongRingBufferTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testAgainstRingBuffer()
+   {
+      Random random = new Random(2365);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(200) + 1;
+         LongRingBuffer buffer = new LongRingBuffer(capacity);
+         RingBuffer<long[]> expected = new RingBuffer<>(capacity, () -> new long[1], (dst, src) -> dst[0] = src[0]);
+
+         int numberOfElements = random.nextInt(3 * capacity);
+
+         for (int j = 0; j < numberOfElements; j++)
+         {
+            long newElement = random.nextLong();
+            buffer.add(newElement);
+            expected.add(new long[] {newElement});
+
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expected.isBufferFull(), buffer.isBufferFull());
+            assertEquals(expected.getFirst()[0], buffer.getFirst());
+            assertEquals(expected.getLast()[0], buffer.getLast());
+         }
+
+         if (random.nextBoolean())
+         {
+            int newCapacity = random.nextInt(2 * capacity) + 1;
+            buffer.changeCapacity(newCapacity);
+            expected.changeCapacity(newCapacity);
+         }
+
+         assertEquals(expected.size(), buffer.size());
+         assertEquals(expected.capacity(), buffer.capacity());
+
+         long[] firstToLast = buffer.toArrayFromFirstToLast();
+         long[] lastToFirst = buffer.toArrayFromLastToFirst();
+         PrimitiveIterator.OfLong iterator = buffer.iterator();
+         PrimitiveIterator.OfLong reverseIterator = buffer.reverseIterator();
+
+         for (int j = 0; j < expected.size(); j++)
+         {
+            assertEquals(expected.getFromFirst(j)[0], buffer.getFromFirst(j));
+            assertEquals(expected.getFromLast(j)[0], buffer.getFromLast(j));
+            assertEquals(expected.getFromFirst(j)[0], firstToLast[j]);
+            assertEquals(expected.getFromLast(j)[0], lastToFirst[j]);
+            assertEquals(expected.getFromFirst(j)[0], iterator.nextLong());
+            assertEquals(expected.getFromLast(j)[0], reverseIterator.nextLong());
+         }
+
+         assertFalse(iterator.hasNext());
+         assertFalse(reverseIterator.hasNext());
+      }
+   }
+
+   @Test
+   public void testStatistics()
+   {
+      Random random = new Random(9823);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(100) + 1;
+         LongRingBuffer buffer = new LongRingBuffer(capacity);
+
+         assertEquals(0L, buffer.getSum());
+         assertThrows(NoSuchElementException.class, () -> buffer.getMax());
+
+         for (int j = 0; j < 5 * capacity; j++)
+         {
+            // Large values such that intermediate sums overflow.
+            buffer.add(random.nextLong() / capacity);
+
+            if (random.nextInt(50) == 0)
+               buffer.changeCapacity(random.nextInt(100) + 1);
+
+            long[] elements = buffer.toArrayFromFirstToLast();
+            long expectedSum = 0L;
+            long expectedMin = Long.MAX_VALUE;
+            long expectedMax = Long.MIN_VALUE;
+
+            for (long element : elements)
+            {
+               expectedSum += element;
+               expectedMin = Math.min(expectedMin, element);
+               expectedMax = Math.max(expectedMax, element);
+            }
+
+            assertEquals(expectedSum, buffer.getSum());
+            assertEquals((double) expectedSum / elements.length, buffer.getMean());
+            assertEquals(expectedMin, buffer.getMin());
+            assertEquals(expectedMax, buffer.getMax());
+         }
+      }
+   }
+
+   @Test
+   public void testEqualsAndHashCode()
+   {
+      Random random = new Random(8923);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         LongRingBuffer buffer = new LongRingBuffer(random.nextInt(20) + 1);
+         int numberOfElements = random.nextInt(50);
+         for (int j = 0; j < numberOfElements; j++)
+            buffer.add(random.nextLong());
+
+         // The copy has a different capacity and holds the same elements at different offsets.
+         LongRingBuffer copy = new LongRingBuffer(buffer.size() + 1);
+         for (int j = 0; j < buffer.size(); j++)
+            copy.add(buffer.getFromFirst(j));
+
+         assertEquals(buffer, copy);
+         assertEquals(buffer.hashCode(), copy.hashCode());
+
+         copy.add(buffer.isEmpty() ? 0 : buffer.getLast());
+         assertNotEquals(buffer, copy);
+      }
+   }
+}
@@ -0,0 +1,206 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+public class MultiProducerSingleConsumerRingBufferTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testSingleThreaded()
+   {
+      Random random = new Random(9834);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         MultiProducerSingleConsumerRingBuffer<MutableInt> buffer = new MultiProducerSingleConsumerRingBuffer<>(random.nextInt(50) + 1,
+                                                                                                                MutableInt::new,
+                                                                                                                MutableInt::setValue);
+         Deque<Integer> expected = new ArrayDeque<>();
+         long expectedOverruns = 0;
+         int nextValue = 0;
+
+         for (int j = 0; j < 500; j++)
+         {
+            int action = random.nextInt(4);
+
+            if (action == 0 || action == 1)
+            {
+               boolean success = buffer.offer(new MutableInt(nextValue));
+               assertEquals(expected.size() < buffer.capacity(), success);
+               if (success)
+                  expected.addLast(nextValue++);
+               else
+                  expectedOverruns++;
+            }
+            else if (action == 2)
+            {
+               int maxElements = random.nextInt(10);
+               int expectedNumberOfElements = Math.min(maxElements, expected.size());
+               assertEquals(expectedNumberOfElements, buffer.drain(element -> assertEquals(expected.removeFirst().intValue(), element.intValue()), maxElements));
+            }
+            else
+            {
+               int maxElements = random.nextInt(10);
+               int expectedNumberOfElements = Math.min(maxElements, expected.size());
+               MutableInt numberOfRanges = new MutableInt(0);
+               int numberOfElements = buffer.drainRanges((elements, fromIndex, toIndex) ->
+               {
+                  assertTrue(fromIndex < toIndex);
+                  numberOfRanges.increment();
+                  for (int index = fromIndex; index < toIndex; index++)
+                     assertEquals(expected.removeFirst().intValue(), ((MutableInt) elements[index]).intValue());
+               }, maxElements);
+               assertEquals(expectedNumberOfElements, numberOfElements);
+               assertTrue(numberOfRanges.intValue() <= 2);
+            }
+
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expectedOverruns, buffer.getNumberOfOverruns());
+            if (expected.isEmpty())
+               assertNull(buffer.peek());
+            else
+               assertEquals(expected.getFirst().intValue(), buffer.peek().intValue());
+         }
+      }
+   }
+
+   @Test
+   public void testOutOfOrderPublication()
+   {
+      MultiProducerSingleConsumerRingBuffer<MutableInt> buffer = new MultiProducerSingleConsumerRingBuffer<>(4, MutableInt::new);
+
+      long first = buffer.claim();
+      long second = buffer.claim();
+      buffer.get(first).setValue(1);
+      buffer.get(second).setValue(2);
+
+      // The second element cannot be consumed before the first one is published.
+      buffer.publish(second);
+      assertNull(buffer.peek());
+      assertThrows(IllegalStateException.class, () -> buffer.release());
+      assertEquals(0, buffer.drain(element -> fail()));
+
+      buffer.publish(first);
+      MutableInt sum = new MutableInt(0);
+      assertEquals(2, buffer.drain(element -> sum.setValue(sum.intValue() + element.intValue())));
+      assertEquals(3, sum.intValue());
+      assertTrue(buffer.isEmpty());
+   }
+
+   @Test
+   public void testElementsOfDifferentClasses()
+   {
+      // The allocator can return different subclasses of the element type.
+      MutableInt numberOfAllocations = new MutableInt(0);
+      MultiProducerSingleConsumerRingBuffer<List<Integer>> buffer = new MultiProducerSingleConsumerRingBuffer<>(4, () ->
+      {
+         numberOfAllocations.increment();
+         return numberOfAllocations.intValue() % 2 == 0 ? new ArrayList<>() : new LinkedList<>();
+      });
+
+      for (int i = 0; i < 4; i++)
+      {
+         long sequence = buffer.claim();
+         buffer.get(sequence).add(i);
+         buffer.publish(sequence);
+      }
+
+      MutableInt sum = new MutableInt(0);
+      assertEquals(4, buffer.drainRanges((elements, fromIndex, toIndex) ->
+      {
+         for (int index = fromIndex; index < toIndex; index++)
+            sum.setValue(sum.intValue() + ((List<?>) elements[index]).size());
+      }));
+      assertEquals(4, sum.intValue());
+   }
+
+   @Test
+   public void testConcurrentProducers() throws InterruptedException
+   {
+      MultiProducerSingleConsumerRingBuffer<int[]> buffer = new MultiProducerSingleConsumerRingBuffer<>(64, () -> new int[2]);
+      int numberOfProducers = 4;
+      int numberOfElementsPerProducer = 20000;
+      AtomicReference<Throwable> error = new AtomicReference<>();
+
+      Thread[] producers = new Thread[numberOfProducers];
+
+      for (int producerIndex = 0; producerIndex < numberOfProducers; producerIndex++)
+      {
+         int producerId = producerIndex;
+         producers[producerIndex] = new Thread(() ->
+         {
+            int value = 0;
+
+            while (value < numberOfElementsPerProducer && error.get() == null)
+            {
+               long sequence = buffer.claim();
+               if (sequence == -1L)
+               {
+                  Thread.yield();
+                  continue;
+               }
+               int[] element = buffer.get(sequence);
+               element[0] = producerId;
+               element[1] = value++;
+               buffer.publish(sequence);
+            }
+         });
+      }
+
+      Thread consumer = new Thread(() ->
+      {
+         try
+         {
+            int[] nextValues = new int[numberOfProducers];
+            MutableInt numberOfElements = new MutableInt(0);
+
+            while (numberOfElements.intValue() < numberOfProducers * numberOfElementsPerProducer)
+            {
+               int numberOfDrainedElements = buffer.drainRanges((elements, fromIndex, toIndex) ->
+               {
+                  for (int index = fromIndex; index < toIndex; index++)
+                  {
+                     // Elements from the same producer are received in order.
+                     int[] element = (int[]) elements[index];
+                     assertEquals(nextValues[element[0]]++, element[1]);
+                     numberOfElements.increment();
+                  }
+               });
+
+               if (numberOfDrainedElements == 0)
+                  Thread.yield();
+            }
+         }
+         catch (Throwable e)
+         {
+            error.set(e);
+         }
+      });
+
+      consumer.start();
+      for (Thread producer : producers)
+         producer.start();
+      for (Thread producer : producers)
+         producer.join();
+      consumer.join(10000);
+
+      assertFalse(consumer.isAlive());
+      if (error.get() != null)
+         throw new AssertionError(error.get());
+      assertEquals(numberOfProducers * numberOfElementsPerProducer, buffer.getNumberOfClaimedElements());
+      assertEquals(numberOfProducers * numberOfElementsPerProducer, buffer.getNumberOfReleasedElements());
+      assertTrue(buffer.isEmpty());
+   }
+}
@@ -0,0 +1,187 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.lists.OffHeapRingBuffer.ColumnType;
+
+public class OffHeapRingBufferTest
+{
+   private static final int ITERATIONS = 500;
+
+   @Test
+   public void testAgainstRingBuffer()
+   {
+      Random random = new Random(23487);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(200) + 1;
+         ColumnType[] columnTypes = nextColumnTypes(random);
+         OffHeapRingBuffer buffer = new OffHeapRingBuffer(capacity, columnTypes);
+         RingBuffer<Record> expected = new RingBuffer<>(capacity, () -> new Record(columnTypes.length), Record::set);
+         Record record = new Record(columnTypes.length);
+
+         int numberOfRecords = random.nextInt(3 * capacity);
+
+         for (int j = 0; j < numberOfRecords; j++)
+         {
+            buffer.add();
+
+            for (int column = 0; column < columnTypes.length; column++)
+            {
+               switch (columnTypes[column])
+               {
+                  case DOUBLE:
+                     record.values[column] = random.nextDouble();
+                     buffer.setDoubleFromLast(column, 0, record.values[column]);
+                     break;
+                  case FLOAT:
+                     record.values[column] = random.nextFloat();
+                     buffer.setFloatFromLast(column, 0, (float) record.values[column]);
+                     break;
+                  case LONG:
+                     record.values[column] = random.nextInt();
+                     buffer.setLongFromLast(column, 0, (long) record.values[column]);
+                     break;
+                  case INT:
+                     record.values[column] = random.nextInt();
+                     buffer.setIntFromLast(column, 0, (int) record.values[column]);
+                     break;
+               }
+            }
+
+            expected.add(record);
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expected.isBufferFull(), buffer.isBufferFull());
+         }
+
+         for (int j = 0; j < expected.size(); j++)
+         {
+            for (int column = 0; column < columnTypes.length; column++)
+            {
+               assertEquals(expected.getFromFirst(j).values[column], getValueFromFirst(buffer, column, j));
+               assertEquals(expected.getFromLast(j).values[column], getValueFromLast(buffer, column, j));
+            }
+         }
+
+         int size = buffer.size();
+         assertThrows(IndexOutOfBoundsException.class, () -> buffer.getLongFromLast(0, size));
+         assertThrows(IndexOutOfBoundsException.class, () -> buffer.getIntFromFirst(0, -1));
+      }
+   }
+
+   @Test
+   public void testExportColumn()
+   {
+      Random random = new Random(7834);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int capacity = random.nextInt(200) + 1;
+         OffHeapRingBuffer buffer = new OffHeapRingBuffer(capacity, ColumnType.INT, ColumnType.DOUBLE);
+
+         int numberOfRecords = random.nextInt(3 * capacity) + 1;
+
+         for (int j = 0; j < numberOfRecords; j++)
+         {
+            buffer.add();
+            buffer.setIntFromLast(0, 0, j);
+            buffer.setDoubleFromLast(1, 0, 0.5 * j);
+         }
+
+         int offsetFromFirst = random.nextInt(buffer.size());
+         int length = random.nextInt(buffer.size() - offsetFromFirst + 1);
+         List<ByteBuffer> views = new ArrayList<>();
+         int numberOfViews = buffer.exportColumn(1, offsetFromFirst, length, views::add);
+         assertEquals(numberOfViews, views.size());
+         assertTrue(numberOfViews <= 2);
+
+         int offset = offsetFromFirst;
+         for (ByteBuffer view : views)
+         {
+            assertTrue(view.isReadOnly());
+            while (view.hasRemaining())
+               assertEquals(buffer.getDoubleFromFirst(1, offset++), view.getDouble());
+         }
+         assertEquals(offsetFromFirst + length, offset);
+
+         assertThrows(IndexOutOfBoundsException.class, () -> buffer.exportColumn(0, offsetFromFirst, buffer.size() - offsetFromFirst + 1, views::add));
+      }
+   }
+
+   @Test
+   public void testInvalidUsage()
+   {
+      assertThrows(IllegalArgumentException.class, () -> new OffHeapRingBuffer(0, ColumnType.DOUBLE));
+      assertThrows(IllegalArgumentException.class, () -> new OffHeapRingBuffer(10));
+      assertThrows(IllegalArgumentException.class, () -> new OffHeapRingBuffer(Integer.MAX_VALUE, ColumnType.DOUBLE));
+
+      OffHeapRingBuffer buffer = new OffHeapRingBuffer(10, ColumnType.DOUBLE, ColumnType.LONG);
+      assertThrows(IndexOutOfBoundsException.class, () -> buffer.getDoubleFromFirst(0, 0));
+      buffer.add();
+      assertThrows(IllegalArgumentException.class, () -> buffer.getDoubleFromFirst(1, 0));
+      assertThrows(IllegalArgumentException.class, () -> buffer.setIntFromLast(0, 0, 1));
+      buffer.reset();
+      assertTrue(buffer.isEmpty());
+   }
+
+   private static ColumnType[] nextColumnTypes(Random random)
+   {
+      ColumnType[] columnTypes = new ColumnType[random.nextInt(10) + 1];
+      for (int column = 0; column < columnTypes.length; column++)
+         columnTypes[column] = ColumnType.values()[random.nextInt(ColumnType.values().length)];
+      return columnTypes;
+   }
+
+   private static double getValueFromFirst(OffHeapRingBuffer buffer, int column, int offset)
+   {
+      switch (buffer.getColumnType(column))
+      {
+         case DOUBLE:
+            return buffer.getDoubleFromFirst(column, offset);
+         case FLOAT:
+            return buffer.getFloatFromFirst(column, offset);
+         case LONG:
+            return buffer.getLongFromFirst(column, offset);
+         default:
+            return buffer.getIntFromFirst(column, offset);
+      }
+   }
+
+   private static double getValueFromLast(OffHeapRingBuffer buffer, int column, int offset)
+   {
+      switch (buffer.getColumnType(column))
+      {
+         case DOUBLE:
+            return buffer.getDoubleFromLast(column, offset);
+         case FLOAT:
+            return buffer.getFloatFromLast(column, offset);
+         case LONG:
+            return buffer.getLongFromLast(column, offset);
+         default:
+            return buffer.getIntFromLast(column, offset);
+      }
+   }
+
+   private static class Record
+   {
+      private final double[] values;
+
+      private Record(int numberOfColumns)
+      {
+         values = new double[numberOfColumns];
+      }
+
+      private void set(Record other)
+      {
+         System.arraycopy(other.values, 0, values, 0, values.length);
+      }
+   }
+}
@@ -1,8 +1,11 @@
 package us.ihmc.commons.lists;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.Test;
@@ -205,4 +208,102 @@ public class RingBufferTest
          assertArrayEquals(expected, actual);
       }
    }
+
+   @Test
+   public void testCopyIntoAndVisitors()
+   {
+      Random random = new Random(23423);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         RingBuffer<MutableInt> buffer = new RingBuffer<>(random.nextInt(100) + 1, MutableInt::new, MutableInt::setValue);
+
+         int numberOfElements = random.nextInt(3 * buffer.capacity());
+         for (int j = 0; j < numberOfElements; j++)
+            buffer.add(new MutableInt(j));
+
+         MutableInt[] expected = buffer.toArrayFromFirstToLast();
+         MutableInt[] expectedReversed = buffer.toArrayFromLastToFirst();
+
+         MutableInt[] array = new MutableInt[buffer.size() + random.nextInt(5)];
+         assertEquals(buffer.size(), buffer.copyInto(array));
+         assertArrayEquals(expected, Arrays.copyOf(array, buffer.size()));
+         if (buffer.size() > 0)
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.copyInto(new MutableInt[buffer.size() - 1]));
+
+         List<MutableInt> list = new ArrayList<>(Arrays.asList(new MutableInt(-1)));
+         buffer.copyInto(list);
+         assertEquals(Arrays.asList(expected), list);
+
+         List<MutableInt> visited = new ArrayList<>();
+         buffer.forEach(visited::add);
+         assertEquals(Arrays.asList(expected), visited);
+
+         buffer.forEachFromFirst((element, offset) -> assertSame(expected[offset], element));
+         buffer.forEachFromLast((element, offset) -> assertSame(expectedReversed[offset], element));
+
+         RingBuffer<MutableInt>.Cursor cursor = buffer.newCursor(random.nextBoolean());
+         for (int pass = 0; pass < 2; pass++)
+         {
+            visited.clear();
+            cursor.reset();
+            while (cursor.hasNext())
+               visited.add(cursor.next());
+            assertEquals(buffer.size(), visited.size());
+         }
+      }
+
+      RingBuffer<MutableInt> buffer = new RingBuffer<>(10, MutableInt::new);
+      buffer.add();
+      assertThrows(ConcurrentModificationException.class, () -> buffer.forEach(element -> buffer.add()));
+      RingBuffer<MutableInt>.Cursor cursor = buffer.newCursor(false);
+      buffer.add();
+      assertThrows(ConcurrentModificationException.class, () -> cursor.next());
+      cursor.reset();
+      assertNotNull(cursor.next());
+   }
+
+   @Test
+   public void testNoSteadyStateAllocations()
+   {
+      assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Allocation counting is not available");
+      com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled(), "Allocation counting is disabled");
+
+      RingBuffer<MutableInt> buffer = new RingBuffer<>(100, MutableInt::new, MutableInt::setValue);
+      MutableInt element = new MutableInt();
+      MutableInt[] array = new MutableInt[buffer.capacity()];
+      List<MutableInt> list = new ArrayList<>(buffer.capacity());
+      RingBuffer<MutableInt>.Cursor cursor = buffer.newCursor(true);
+      MutableInt sum = new MutableInt();
+      ObjIntConsumer<MutableInt> visitor = (e, offset) -> sum.setValue(sum.intValue() + e.intValue() + offset);
+
+      // The first pass warms up the JIT, the last two passes differ by 9000 iterations.
+      int[] numberOfIterations = {1000, 1000, 10000};
+      long[] allocatedBytes = new long[numberOfIterations.length];
+
+      for (int pass = 0; pass < numberOfIterations.length; pass++)
+      {
+         long start = threadMXBean.getCurrentThreadAllocatedBytes();
+
+         for (int i = 0; i < numberOfIterations[pass]; i++)
+         {
+            element.setValue(i);
+            buffer.add(element);
+            buffer.copyInto(array);
+            buffer.copyInto(list);
+            buffer.forEachFromFirst(visitor);
+            buffer.forEachFromLast(visitor);
+            cursor.reset();
+            while (cursor.hasNext())
+               sum.setValue(sum.intValue() + cursor.next().intValue());
+         }
+
+         allocatedBytes[pass] = threadMXBean.getCurrentThreadAllocatedBytes() - start;
+      }
+
+      // Allocating even the smallest object per iteration would add at least 9000 * 16 bytes, the slack covers occasional allocations by the JVM.
+      long allocationSlack = 16 * 1024;
+      assertTrue(allocatedBytes[2] - allocatedBytes[1] < allocationSlack, "Allocated bytes grew with the number of iterations: " + Arrays.toString(allocatedBytes));
+   }
 }
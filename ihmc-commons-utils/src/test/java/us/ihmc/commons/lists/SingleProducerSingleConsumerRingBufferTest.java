@@ -0,0 +1,154 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+public class SingleProducerSingleConsumerRingBufferTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testSingleThreaded()
+   {
+      Random random = new Random(45367);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         SingleProducerSingleConsumerRingBuffer<MutableInt> buffer = new SingleProducerSingleConsumerRingBuffer<>(random.nextInt(50) + 1,
+                                                                                                                  MutableInt::new,
+                                                                                                                  MutableInt::setValue);
+         Deque<Integer> expected = new ArrayDeque<>();
+         long expectedOverruns = 0;
+         int nextValue = 0;
+
+         for (int j = 0; j < 500; j++)
+         {
+            if (random.nextBoolean())
+            {
+               boolean success = buffer.offer(new MutableInt(nextValue));
+               assertEquals(expected.size() < buffer.capacity(), success);
+               if (success)
+                  expected.addLast(nextValue++);
+               else
+                  expectedOverruns++;
+            }
+            else if (random.nextBoolean())
+            {
+               MutableInt destination = new MutableInt(-1);
+               assertEquals(!expected.isEmpty(), buffer.poll(destination));
+               if (!expected.isEmpty())
+                  assertEquals(expected.removeFirst().intValue(), destination.intValue());
+            }
+            else
+            {
+               int maxElements = random.nextInt(10);
+               int expectedNumberOfElements = Math.min(maxElements, expected.size());
+               assertEquals(expectedNumberOfElements, buffer.drain(element -> assertEquals(expected.removeFirst().intValue(), element.intValue()), maxElements));
+            }
+
+            assertEquals(expected.size(), buffer.size());
+            assertEquals(expectedOverruns, buffer.getNumberOfOverruns());
+            if (expected.isEmpty())
+               assertNull(buffer.peek());
+            else
+               assertEquals(expected.getFirst().intValue(), buffer.peek().intValue());
+         }
+      }
+   }
+
+   @Test
+   public void testClaimAndRelease()
+   {
+      SingleProducerSingleConsumerRingBuffer<MutableInt> buffer = new SingleProducerSingleConsumerRingBuffer<>(2, MutableInt::new);
+
+      assertThrows(IllegalStateException.class, () -> buffer.publish());
+      assertThrows(IllegalStateException.class, () -> buffer.release());
+      assertThrows(UnsupportedOperationException.class, () -> buffer.offer(new MutableInt()));
+
+      MutableInt first = buffer.claim();
+      assertSame(first, buffer.claim());
+      first.setValue(1);
+      assertNull(buffer.peek());
+      buffer.publish();
+      buffer.claim().setValue(2);
+      buffer.publish();
+      assertNull(buffer.claim());
+      assertEquals(1, buffer.getNumberOfOverruns());
+
+      assertSame(first, buffer.peek());
+      buffer.release();
+      // The released element is recycled.
+      assertSame(first, buffer.claim());
+      assertEquals(2, buffer.peek().intValue());
+      assertEquals(2, buffer.getNumberOfPublishedElements());
+      assertEquals(1, buffer.getNumberOfReleasedElements());
+   }
+
+   @Test
+   public void testConcurrentProducerAndConsumer() throws InterruptedException
+   {
+      SingleProducerSingleConsumerRingBuffer<MutableInt> buffer = new SingleProducerSingleConsumerRingBuffer<>(64, MutableInt::new);
+      int numberOfElements = 100000;
+      AtomicReference<Throwable> error = new AtomicReference<>();
+
+      Thread producer = new Thread(() ->
+      {
+         int value = 0;
+
+         while (value < numberOfElements && error.get() == null)
+         {
+            MutableInt element = buffer.claim();
+            if (element == null)
+            {
+               Thread.yield();
+               continue;
+            }
+            element.setValue(value++);
+            buffer.publish();
+         }
+      });
+
+      Thread consumer = new Thread(() ->
+      {
+         try
+         {
+            MutableInt expectedValue = new MutableInt(0);
+
+            while (expectedValue.intValue() < numberOfElements)
+            {
+               int numberOfDrainedElements = buffer.drain(element ->
+               {
+                  assertEquals(expectedValue.intValue(), element.intValue());
+                  expectedValue.increment();
+               }, 10);
+
+               if (numberOfDrainedElements == 0)
+                  Thread.yield();
+            }
+         }
+         catch (Throwable e)
+         {
+            error.set(e);
+         }
+      });
+
+      consumer.start();
+      producer.start();
+      producer.join();
+      consumer.join(10000);
+
+      assertFalse(consumer.isAlive());
+      if (error.get() != null)
+         throw new AssertionError(error.get());
+      assertEquals(numberOfElements, buffer.getNumberOfPublishedElements());
+      assertEquals(numberOfElements, buffer.getNumberOfReleasedElements());
+      assertTrue(buffer.isEmpty());
+   }
+}
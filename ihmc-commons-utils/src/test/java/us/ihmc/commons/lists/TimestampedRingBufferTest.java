@@ -0,0 +1,133 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.RandomNumbers;
+
+public class TimestampedRingBufferTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testSearchAgainstLinearScan()
+   {
+      Random random = new Random(87234);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         TimestampedRingBuffer<MutableInt> buffer = new TimestampedRingBuffer<>(random.nextInt(100) + 1, MutableInt::new, MutableInt::setValue);
+
+         double time = RandomNumbers.nextDouble(random, 10.0);
+         int numberOfElements = random.nextInt(3 * buffer.capacity()) + 1;
+
+         for (int j = 0; j < numberOfElements; j++)
+         {
+            // Some timestamps are repeated.
+            if (random.nextInt(5) != 0)
+               time += random.nextDouble();
+            buffer.add(time, new MutableInt(j));
+            assertEquals(time, buffer.getLastTime());
+            assertEquals(j, buffer.getFromLast(0).intValue());
+         }
+
+         for (int j = 0; j < 20; j++)
+         {
+            double queryTime;
+            if (random.nextBoolean())
+               queryTime = buffer.getTimeFromFirst(random.nextInt(buffer.size()));
+            else
+               queryTime = RandomNumbers.nextDouble(random, buffer.getFirstTime() - 1.0, buffer.getLastTime() + 1.0);
+
+            int expectedFloor = -1;
+            int expectedCeiling = -1;
+
+            for (int offset = 0; offset < buffer.size(); offset++)
+            {
+               if (buffer.getTimeFromFirst(offset) <= queryTime)
+                  expectedFloor = offset;
+               if (expectedCeiling == -1 && buffer.getTimeFromFirst(offset) >= queryTime)
+                  expectedCeiling = offset;
+            }
+
+            assertEquals(expectedFloor, buffer.floor(queryTime));
+            assertEquals(expectedCeiling, buffer.ceiling(queryTime));
+
+            int bracket = buffer.bracket(queryTime);
+            if (expectedFloor == -1 || expectedCeiling == -1)
+            {
+               assertEquals(-1, bracket);
+            }
+            else
+            {
+               assertEquals(expectedFloor, bracket);
+               assertTrue(buffer.getTimeFromFirst(bracket) <= queryTime);
+               if (bracket < buffer.size() - 1)
+                  assertTrue(buffer.getTimeFromFirst(bracket + 1) > queryTime);
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testInterpolate()
+   {
+      Random random = new Random(2376);
+      TimestampedRingBuffer.Interpolator<double[]> interpolator = (before, after, alpha, result) -> result[0] = (1.0 - alpha) * before[0] + alpha * after[0];
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         TimestampedRingBuffer<double[]> buffer = new TimestampedRingBuffer<>(random.nextInt(100) + 1, () -> new double[1]);
+
+         // Samples of a linear signal such that the interpolation is exact.
+         double slope = RandomNumbers.nextDouble(random, 5.0);
+         double time = RandomNumbers.nextDouble(random, 10.0);
+         int numberOfElements = random.nextInt(3 * buffer.capacity()) + 1;
+
+         for (int j = 0; j < numberOfElements; j++)
+         {
+            time += random.nextDouble() + 1.0e-3;
+            buffer.add(time)[0] = slope * time;
+         }
+
+         double[] result = new double[1];
+
+         for (int j = 0; j < 20; j++)
+         {
+            double queryTime = RandomNumbers.nextDouble(random, buffer.getFirstTime(), buffer.getLastTime());
+            assertTrue(buffer.interpolate(queryTime, result, interpolator));
+            assertEquals(slope * queryTime, result[0], 1.0e-9);
+         }
+
+         assertTrue(buffer.interpolate(buffer.getLastTime(), result, interpolator));
+         assertEquals(slope * buffer.getLastTime(), result[0], EPSILON);
+
+         result[0] = Double.NaN;
+         assertFalse(buffer.interpolate(buffer.getFirstTime() - 0.1, result, interpolator));
+         assertFalse(buffer.interpolate(buffer.getLastTime() + 0.1, result, interpolator));
+         assertTrue(Double.isNaN(result[0]));
+      }
+   }
+
+   @Test
+   public void testInvalidTimestamps()
+   {
+      TimestampedRingBuffer<MutableInt> buffer = new TimestampedRingBuffer<>(5, MutableInt::new);
+
+      assertTrue(Double.isNaN(buffer.getFirstTime()));
+      assertEquals(-1, buffer.floor(0.0));
+      assertEquals(-1, buffer.bracket(0.0));
+      assertThrows(UnsupportedOperationException.class, () -> buffer.add(0.0, new MutableInt()));
+
+      buffer.add(1.0);
+      buffer.add(1.0);
+      assertThrows(IllegalArgumentException.class, () -> buffer.add(0.5));
+      assertThrows(IllegalArgumentException.class, () -> buffer.add(Double.NaN));
+      assertEquals(2, buffer.size());
+   }
+}
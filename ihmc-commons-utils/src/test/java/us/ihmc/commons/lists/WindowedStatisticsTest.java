@@ -0,0 +1,106 @@
+package us.ihmc.commons.lists;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.RandomNumbers;
+
+public class WindowedStatisticsTest
+{
+   private static final int ITERATIONS = 200;
+   private static final double EPSILON = 1.0e-8;
+
+   @Test
+   public void testAgainstNaiveRecomputation()
+   {
+      Random random = new Random(56734);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int windowSize = random.nextInt(100) + 1;
+         double offset = RandomNumbers.nextDouble(random, 5.0);
+         // The values are within the range of the histogram such that the error bound on the quantiles holds.
+         double lowerBound = offset - 5.0 - RandomNumbers.nextDouble(random, 0.0, 2.0);
+         double upperBound = offset + 5.0 + RandomNumbers.nextDouble(random, 0.0, 2.0);
+         int numberOfBins = random.nextInt(200) + 1;
+         double binWidth = (upperBound - lowerBound) / numberOfBins;
+         WindowedStatistics statistics = new WindowedStatistics(windowSize, lowerBound, upperBound, numberOfBins);
+
+         for (int j = 0; j < 5 * windowSize; j++)
+         {
+            statistics.add(offset + RandomNumbers.nextDouble(random, 5.0));
+
+            double[] values = statistics.getWindow().toArrayFromFirstToLast();
+            double expectedMean = Arrays.stream(values).average().getAsDouble();
+            double expectedVariance = Arrays.stream(values).map(value -> (value - expectedMean) * (value - expectedMean)).sum() / values.length;
+            double[] sortedValues = values.clone();
+            Arrays.sort(sortedValues);
+
+            assertEquals(values.length, statistics.size());
+            assertEquals(expectedMean, statistics.getMean(), EPSILON);
+            assertEquals(expectedVariance, statistics.getVariance(), EPSILON);
+            assertEquals(Math.sqrt(expectedVariance), statistics.getStandardDeviation(), 1.0e-6);
+            assertEquals(sortedValues[0], statistics.getMin());
+            assertEquals(sortedValues[sortedValues.length - 1], statistics.getMax());
+            assertEquals(sortedValues[0], statistics.getQuantile(0.0));
+            assertEquals(sortedValues[sortedValues.length - 1], statistics.getQuantile(1.0));
+
+            double quantile = random.nextDouble();
+            int rank = Math.max(0, (int) Math.ceil(quantile * values.length) - 1);
+            assertEquals(sortedValues[rank], statistics.getQuantile(quantile), binWidth + EPSILON);
+         }
+      }
+   }
+
+   @Test
+   public void testNonFiniteValues()
+   {
+      WindowedStatistics statistics = new WindowedStatistics(3);
+
+      assertTrue(Double.isNaN(statistics.getMean()));
+      assertThrows(UnsupportedOperationException.class, () -> statistics.getQuantile(0.5));
+
+      statistics.add(1.0);
+      statistics.add(Double.NaN);
+      statistics.add(3.0);
+      assertTrue(Double.isNaN(statistics.getMean()));
+      assertTrue(Double.isNaN(statistics.getVariance()));
+
+      // Once the NaN has left the window, the statistics recover.
+      statistics.add(5.0);
+      statistics.add(7.0);
+      assertEquals(5.0, statistics.getMean(), EPSILON);
+      assertEquals(8.0 / 3.0, statistics.getVariance(), EPSILON);
+      assertEquals(3.0, statistics.getMin());
+      assertEquals(7.0, statistics.getMax());
+
+      statistics.reset();
+      assertEquals(0, statistics.size());
+      assertTrue(Double.isNaN(statistics.getMean()));
+   }
+
+   @Test
+   public void testInvalidArguments()
+   {
+      assertThrows(IllegalArgumentException.class, () -> new WindowedStatistics(10, 1.0, 0.0, 10));
+      assertThrows(IllegalArgumentException.class, () -> new WindowedStatistics(10, 0.0, 1.0, 0));
+
+      WindowedStatistics statistics = new WindowedStatistics(10, 0.0, 1.0, 10);
+      assertTrue(Double.isNaN(statistics.getQuantile(0.5)));
+      assertThrows(IllegalArgumentException.class, () -> statistics.getQuantile(1.5));
+
+      // The window cannot be modified from outside.
+      statistics.add(0.5);
+      assertThrows(UnsupportedOperationException.class, () -> statistics.getWindow().add(1.0));
+      assertThrows(UnsupportedOperationException.class, () -> statistics.getWindow().reset());
+      assertThrows(UnsupportedOperationException.class, () -> statistics.getWindow().changeCapacity(5));
+      assertEquals(1, statistics.size());
+      assertEquals(0.5, statistics.getMean());
+      statistics.reset();
+      assertEquals(0, statistics.getWindow().size());
+   }
+}
@@ -0,0 +1,93 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+public class JointDesiredOutputListBinaryCodecTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testEncodeDecode()
+   {
+      Random random = new Random(8734);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+         JointDesiredOutputList expected = new JointDesiredOutputList(joints);
+         PackedJointDesiredOutputList actual = new PackedJointDesiredOutputList(joints);
+         PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, expected, random.nextDouble());
+         // Fields absent from the encoding have to be cleared by the decoding.
+         PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, actual, 1.0);
+
+         int maximumSize = JointDesiredOutputListBinaryCodec.computeMaximumEncodedSize(joints.length);
+         ByteBuffer buffer = random.nextBoolean() ? ByteBuffer.allocate(maximumSize + 10) : ByteBuffer.allocateDirect(maximumSize + 10);
+         buffer.order(random.nextBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+         int offset = random.nextInt(10);
+         buffer.position(offset);
+
+         JointDesiredOutputListBinaryCodec.encode(expected, buffer);
+         int encodedSize = buffer.position() - offset;
+         assertEquals(JointDesiredOutputListBinaryCodec.computeEncodedSize(expected), encodedSize);
+         assertTrue(encodedSize <= maximumSize);
+
+         buffer.position(offset);
+         JointDesiredOutputListBinaryCodec.decode(buffer, actual);
+         assertEquals(offset + encodedSize, buffer.position());
+         assertTrue(expected.equals(actual));
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            JointDesiredOutputReadOnly expectedOutput = expected.getJointDesiredOutput(jointIndex);
+            JointDesiredOutputReadOnly actualOutput = actual.getJointDesiredOutput(jointIndex);
+            assertEquals(expectedOutput.peekResetIntegratorsRequest(), actualOutput.peekResetIntegratorsRequest());
+            assertEquals(JointDesiredOutputListBinaryCodec.computePresenceMask(expectedOutput), JointDesiredOutputListBinaryCodec.computePresenceMask(actualOutput));
+         }
+      }
+   }
+
+   @Test
+   public void testEncodedSize()
+   {
+      Random random = new Random(2378);
+      OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+      JointDesiredOutputList list = new JointDesiredOutputList(joints);
+
+      assertEquals(5 + 4 * joints.length, JointDesiredOutputListBinaryCodec.computeEncodedSize(list));
+
+      PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, list, 1.0);
+      assertEquals(JointDesiredOutputListBinaryCodec.computeMaximumEncodedSize(joints.length), JointDesiredOutputListBinaryCodec.computeEncodedSize(list));
+   }
+
+   @Test
+   public void testInvalidInput()
+   {
+      Random random = new Random(6543);
+      OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+      JointDesiredOutputList list = new JointDesiredOutputList(joints);
+      ByteBuffer buffer = ByteBuffer.allocate(JointDesiredOutputListBinaryCodec.computeMaximumEncodedSize(joints.length + 1));
+
+      JointDesiredOutputListBinaryCodec.encode(list, buffer);
+      buffer.put(0, (byte) (JointDesiredOutputListBinaryCodec.FORMAT_VERSION + 1));
+      buffer.flip();
+      assertThrows(IllegalArgumentException.class, () -> JointDesiredOutputListBinaryCodec.decode(buffer, list));
+
+      OneDoFJointReadOnly[] moreJoints = PackedJointDesiredOutputListTest.nextJoints(random);
+      JointDesiredOutputList otherList = new JointDesiredOutputList(moreJoints);
+      buffer.clear();
+      JointDesiredOutputListBinaryCodec.encode(list, buffer);
+      buffer.flip();
+      if (moreJoints.length != joints.length)
+         assertThrows(IllegalArgumentException.class, () -> JointDesiredOutputListBinaryCodec.decode(buffer, otherList));
+   }
+}
@@ -0,0 +1,251 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.MathTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointBasics;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+
+public class JointDesiredOutputRateLimiterTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testAgainstPerJointComputation()
+   {
+      Random random = new Random(6734);
+      double dt = 0.002;
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointBasics[] joints = MultiBodySystemRandomTools.nextOneDoFJointChain(random, random.nextInt(40) + 1).toArray(new OneDoFJointBasics[0]);
+         OneDoFJointBasics[] shuffledJoints = joints.clone();
+         Collections.shuffle(Arrays.asList(shuffledJoints), random);
+
+         JointDesiredOutputRateLimiter rateLimiter = new JointDesiredOutputRateLimiter(joints, dt);
+         boolean clampFeedbackErrors = random.nextBoolean();
+         rateLimiter.setClampFeedbackErrors(clampFeedbackErrors);
+
+         double[][] rateLimits = new double[3][joints.length];
+         double[][] upperLimits = new double[3][joints.length];
+         double[][] lowerLimits = new double[3][joints.length];
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            for (int stage = 0; stage < 3; stage++)
+            {
+               rateLimits[stage][jointIndex] = random.nextBoolean() ? Double.POSITIVE_INFINITY : EuclidCoreRandomTools.nextDouble(random, 0.0, 500.0);
+               upperLimits[stage][jointIndex] = random.nextBoolean() ? Double.POSITIVE_INFINITY : EuclidCoreRandomTools.nextDouble(random, 0.0, 5.0);
+               lowerLimits[stage][jointIndex] = -upperLimits[stage][jointIndex];
+            }
+
+            rateLimiter.setPositionRateLimit(jointIndex, rateLimits[0][jointIndex]);
+            rateLimiter.setVelocityRateLimit(jointIndex, rateLimits[1][jointIndex]);
+            rateLimiter.setTorqueRateLimit(jointIndex, rateLimits[2][jointIndex]);
+            // Finite position limits or -infinity, always below the upper limit.
+            if (random.nextBoolean())
+               lowerLimits[0][jointIndex] = Double.NEGATIVE_INFINITY;
+            else if (Double.isInfinite(upperLimits[0][jointIndex]))
+               lowerLimits[0][jointIndex] = EuclidCoreRandomTools.nextDouble(random, 5.0);
+            else
+               lowerLimits[0][jointIndex] = upperLimits[0][jointIndex] - EuclidCoreRandomTools.nextDouble(random, 0.0, 10.0);
+            rateLimiter.setPositionLimits(jointIndex, lowerLimits[0][jointIndex], upperLimits[0][jointIndex]);
+            rateLimiter.setVelocityLimit(jointIndex, upperLimits[1][jointIndex]);
+            rateLimiter.setTorqueLimit(jointIndex, upperLimits[2][jointIndex]);
+         }
+
+         // The input is ordered differently from the joints given to the rate limiter.
+         JointDesiredOutputList input = new JointDesiredOutputList(shuffledJoints);
+         PackedJointDesiredOutputList output = new PackedJointDesiredOutputList(joints);
+         double[][] previousValues = new double[3][joints.length];
+         for (double[] values : previousValues)
+            Arrays.fill(values, Double.NaN);
+
+         for (int tick = 0; tick < 20; tick++)
+         {
+            PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, input, 0.8);
+            for (OneDoFJointBasics joint : joints)
+            {
+               JointDesiredOutputBasics inputData = input.getJointDesiredOutput(joint);
+               inputData.setPositionFeedbackMaxError(Math.abs(inputData.getPositionFeedbackMaxError()));
+               inputData.setVelocityFeedbackMaxError(Math.abs(inputData.getVelocityFeedbackMaxError()));
+               joint.setQ(EuclidCoreRandomTools.nextDouble(random, 5.0));
+               joint.setQd(EuclidCoreRandomTools.nextDouble(random, 5.0));
+            }
+
+            rateLimiter.update(input, output);
+
+            for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+            {
+               JointDesiredOutputReadOnly inputData = input.getJointDesiredOutput(joints[jointIndex]);
+               JointDesiredOutputReadOnly outputData = output.getJointDesiredOutput(jointIndex);
+
+               double[] inputValues = {inputData.getDesiredPosition(), inputData.getDesiredVelocity(), inputData.getDesiredTorque()};
+               double[] expectedValues = new double[3];
+
+               for (int stage = 0; stage < 3; stage++)
+               {
+                  double value = inputValues[stage];
+
+                  if (!Double.isNaN(value))
+                  {
+                     double previousValue = previousValues[stage][jointIndex];
+                     if (!Double.isNaN(previousValue))
+                     {
+                        double maxStep = rateLimits[stage][jointIndex] * dt;
+                        value = MathTools.clamp(value, previousValue - maxStep, previousValue + maxStep);
+                     }
+                     value = MathTools.clamp(value, lowerLimits[stage][jointIndex], upperLimits[stage][jointIndex]);
+                  }
+
+                  expectedValues[stage] = value;
+               }
+
+               if (clampFeedbackErrors)
+               {
+                  JointDesiredOutput clampedData = new JointDesiredOutput();
+                  clampedData.set(inputData);
+                  clampedData.setDesiredPosition(expectedValues[0]);
+                  clampedData.setDesiredVelocity(expectedValues[1]);
+                  expectedValues[0] = clampedData.getClampedDesiredPosition(joints[jointIndex].getQ());
+                  expectedValues[1] = clampedData.getClampedDesiredVelocity(joints[jointIndex].getQd());
+               }
+
+               assertEquals(expectedValues[0], outputData.getDesiredPosition(), EPSILON);
+               assertEquals(expectedValues[1], outputData.getDesiredVelocity(), EPSILON);
+               assertEquals(expectedValues[2], outputData.getDesiredTorque(), EPSILON);
+               assertEquals(inputData.getStiffness(), outputData.getStiffness());
+               assertEquals(inputData.getControlMode(), outputData.getControlMode());
+
+               for (int stage = 0; stage < 3; stage++)
+               {
+                  if (!Double.isNaN(expectedValues[stage]))
+                     previousValues[stage][jointIndex] = expectedValues[stage];
+               }
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testRateLimitConvergence()
+   {
+      Random random = new Random(3451);
+      OneDoFJointBasics[] joints = MultiBodySystemRandomTools.nextOneDoFJointChain(random, 5).toArray(new OneDoFJointBasics[0]);
+      double dt = 0.01;
+      JointDesiredOutputRateLimiter rateLimiter = new JointDesiredOutputRateLimiter(joints, dt);
+      JointDesiredOutputList input = new JointDesiredOutputList(joints);
+      JointDesiredOutputList output = new JointDesiredOutputList(joints);
+
+      for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         rateLimiter.setTorqueRateLimit(jointIndex, 10.0);
+
+      input.getJointDesiredOutput(0).setDesiredTorque(0.0);
+      rateLimiter.update(input, output);
+      assertEquals(0.0, output.getJointDesiredOutput(0).getDesiredTorque());
+
+      input.getJointDesiredOutput(0).setDesiredTorque(1.0);
+
+      for (int tick = 1; tick <= 10; tick++)
+      {
+         rateLimiter.update(input, output);
+         assertEquals(tick * 0.1, output.getJointDesiredOutput(0).getDesiredTorque(), 1.0e-12);
+         assertTrue(Double.isNaN(output.getJointDesiredOutput(1).getDesiredTorque()));
+      }
+
+      rateLimiter.update(input, output);
+      assertEquals(1.0, output.getJointDesiredOutput(0).getDesiredTorque(), 1.0e-12);
+
+      // After a reset the desired goes through unfiltered.
+      input.getJointDesiredOutput(0).setDesiredTorque(-1.0);
+      rateLimiter.reset();
+      rateLimiter.update(input, output);
+      assertEquals(-1.0, output.getJointDesiredOutput(0).getDesiredTorque());
+   }
+
+   @Test
+   public void testMissingDesired()
+   {
+      Random random = new Random(9812);
+      OneDoFJointBasics[] joints = MultiBodySystemRandomTools.nextOneDoFJointChain(random, 3).toArray(new OneDoFJointBasics[0]);
+      double dt = 0.01;
+      JointDesiredOutputRateLimiter rateLimiter = new JointDesiredOutputRateLimiter(joints, dt);
+      JointDesiredOutputList input = new JointDesiredOutputList(joints);
+      JointDesiredOutputList output = new JointDesiredOutputList(joints);
+
+      for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         rateLimiter.setPositionRateLimit(jointIndex, 10.0);
+
+      input.getJointDesiredOutput(0).setDesiredPosition(0.0);
+      rateLimiter.update(input, output);
+      assertEquals(0.0, output.getJointDesiredOutput(0).getDesiredPosition());
+
+      // The desired disappears for a few ticks and comes back as a large step.
+      input.getJointDesiredOutput(0).setDesiredPosition(Double.NaN);
+      for (int tick = 0; tick < 5; tick++)
+      {
+         rateLimiter.update(input, output);
+         assertTrue(Double.isNaN(output.getJointDesiredOutput(0).getDesiredPosition()));
+      }
+
+      input.getJointDesiredOutput(0).setDesiredPosition(5.0);
+      rateLimiter.update(input, output);
+      assertEquals(0.1, output.getJointDesiredOutput(0).getDesiredPosition(), EPSILON);
+
+      // Resetting a single joint lets its next desired through.
+      rateLimiter.reset(0);
+      rateLimiter.update(input, output);
+      assertEquals(5.0, output.getJointDesiredOutput(0).getDesiredPosition());
+
+      // Seeding from the joint state limits the first desired around the current position.
+      joints[1].setQ(1.0);
+      rateLimiter.initializeFromJointStates();
+      input.getJointDesiredOutput(1).setDesiredPosition(-3.0);
+      rateLimiter.update(input, output);
+      assertEquals(0.9, output.getJointDesiredOutput(1).getDesiredPosition(), EPSILON);
+   }
+
+   @Test
+   public void testInPlaceUpdate()
+   {
+      Random random = new Random(4512);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointBasics[] joints = MultiBodySystemRandomTools.nextOneDoFJointChain(random, random.nextInt(20) + 1).toArray(new OneDoFJointBasics[0]);
+         double dt = 0.002;
+         JointDesiredOutputRateLimiter inPlaceRateLimiter = new JointDesiredOutputRateLimiter(joints, dt);
+         JointDesiredOutputRateLimiter rateLimiter = new JointDesiredOutputRateLimiter(joints, dt);
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            double rateLimit = EuclidCoreRandomTools.nextDouble(random, 0.0, 500.0);
+            double torqueLimit = EuclidCoreRandomTools.nextDouble(random, 0.0, 5.0);
+            inPlaceRateLimiter.setPositionRateLimit(jointIndex, rateLimit);
+            rateLimiter.setPositionRateLimit(jointIndex, rateLimit);
+            inPlaceRateLimiter.setTorqueLimit(jointIndex, torqueLimit);
+            rateLimiter.setTorqueLimit(jointIndex, torqueLimit);
+         }
+
+         JointDesiredOutputList list = new JointDesiredOutputList(joints);
+         JointDesiredOutputList output = new JointDesiredOutputList(joints);
+
+         for (int tick = 0; tick < 10; tick++)
+         {
+            PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, list, 0.8);
+            rateLimiter.update(list, output);
+            inPlaceRateLimiter.update(list, list);
+            assertTrue(output.equals(list));
+         }
+      }
+   }
+}
@@ -0,0 +1,188 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+public class JointDesiredOutputRingLogTest
+{
+   private static final int ITERATIONS = 20;
+
+   @Test
+   public void testRecordAndReplay() throws IOException
+   {
+      Random random = new Random(2345);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+         int capacity = random.nextInt(50) + 1;
+         int numberOfTicks = random.nextInt(3 * capacity);
+         Path file = Files.createTempFile("jointDesiredOutputRingLog", ".bin");
+
+         try
+         {
+            List<JointDesiredOutputList> recordedLists = new ArrayList<>();
+            long[] timestamps = new long[numberOfTicks];
+
+            try (JointDesiredOutputRingLogWriter writer = new JointDesiredOutputRingLogWriter(file, joints.length, capacity))
+            {
+               long timestamp = random.nextInt(1000);
+
+               for (int tick = 0; tick < numberOfTicks; tick++)
+               {
+                  JointDesiredOutputList list = new JointDesiredOutputList(joints);
+                  PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, list, 0.5);
+                  recordedLists.add(list);
+                  timestamp += random.nextInt(3) + 1;
+                  timestamps[tick] = timestamp;
+                  assertEquals(tick, writer.record(timestamp, list));
+               }
+            }
+
+            try (JointDesiredOutputRingLogReader reader = new JointDesiredOutputRingLogReader(file))
+            {
+               long oldestTick = Math.max(0, numberOfTicks - capacity);
+               assertEquals(numberOfTicks, reader.getNumberOfTicks());
+               assertEquals(oldestTick, reader.getOldestAvailableTick());
+               assertEquals(numberOfTicks - 1, reader.getNewestAvailableTick());
+               assertFalse(reader.isTickAvailable(numberOfTicks));
+               if (oldestTick > 0)
+                  assertFalse(reader.seekToTick(oldestTick - 1));
+
+               PackedJointDesiredOutputList replayed = new PackedJointDesiredOutputList(joints);
+               long expectedTick = oldestTick;
+
+               while (reader.replayNext(replayed))
+               {
+                  assertTrue(recordedLists.get((int) expectedTick).equals(replayed));
+                  expectedTick++;
+               }
+               assertEquals(numberOfTicks, expectedTick);
+
+               for (int tick = (int) oldestTick; tick < numberOfTicks; tick++)
+               {
+                  assertEquals(timestamps[tick], reader.getTimestamp(tick));
+                  assertEquals(tick, reader.seekToTimestamp(timestamps[tick]));
+                  if (tick + 1 < numberOfTicks && timestamps[tick + 1] > timestamps[tick] + 1)
+                     assertEquals(tick, reader.seekToTimestamp(timestamps[tick] + 1));
+
+                  assertTrue(reader.seekToTick(tick));
+                  assertTrue(reader.replayNext(replayed));
+                  assertTrue(recordedLists.get(tick).equals(replayed));
+                  assertEquals(tick + 1, reader.getCurrentTick());
+               }
+
+               if (numberOfTicks > 0)
+               {
+                  assertEquals(-1, reader.seekToTimestamp(timestamps[(int) oldestTick] - 1));
+                  assertEquals(numberOfTicks - 1, reader.seekToTimestamp(Long.MAX_VALUE));
+               }
+
+               if (oldestTick > 0)
+                  assertThrows(IllegalArgumentException.class, () -> reader.read(oldestTick - 1, replayed));
+            }
+         }
+         finally
+         {
+            Files.deleteIfExists(file);
+         }
+      }
+   }
+
+   @Test
+   public void testReplayAfterInterruptedRecord() throws IOException
+   {
+      Random random = new Random(8734);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+         int capacity = random.nextInt(10) + 2;
+         int numberOfTicks = capacity + random.nextInt(2 * capacity);
+         Path file = Files.createTempFile("jointDesiredOutputRingLog", ".bin");
+
+         try
+         {
+            List<JointDesiredOutputList> recordedLists = new ArrayList<>();
+
+            try (JointDesiredOutputRingLogWriter writer = new JointDesiredOutputRingLogWriter(file, joints.length, capacity))
+            {
+               for (int tick = 0; tick < numberOfTicks; tick++)
+               {
+                  JointDesiredOutputList list = new JointDesiredOutputList(joints);
+                  PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, list, 0.5);
+                  recordedLists.add(list);
+                  writer.record(tick, list);
+               }
+            }
+
+            // Simulates a writer that stopped after starting to record the next tick over the oldest one.
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+            {
+               MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+               int recordOffset = JointDesiredOutputRingLogWriter.HEADER_SIZE
+                     + (numberOfTicks % capacity) * JointDesiredOutputRingLogWriter.computeRecordSize(joints.length);
+               buffer.putLong(recordOffset + JointDesiredOutputRingLogWriter.RECORD_TICK_OFFSET, numberOfTicks);
+               buffer.putLong(recordOffset + JointDesiredOutputRingLogWriter.RECORD_TIMESTAMP_OFFSET, numberOfTicks);
+               buffer.force();
+            }
+
+            try (JointDesiredOutputRingLogReader reader = new JointDesiredOutputRingLogReader(file))
+            {
+               long oldestTick = numberOfTicks - capacity;
+               PackedJointDesiredOutputList replayed = new PackedJointDesiredOutputList(joints);
+               assertEquals(oldestTick, reader.getOldestAvailableTick());
+               assertThrows(IllegalStateException.class, () -> reader.read(oldestTick, replayed));
+
+               long expectedTick = oldestTick + 1;
+               while (reader.replayNext(replayed))
+               {
+                  assertTrue(recordedLists.get((int) expectedTick).equals(replayed));
+                  expectedTick++;
+               }
+               assertEquals(numberOfTicks, expectedTick);
+
+               assertEquals(oldestTick + 1, reader.seekToTimestamp(oldestTick + 1));
+               assertEquals(-1, reader.seekToTimestamp(oldestTick));
+            }
+         }
+         finally
+         {
+            Files.deleteIfExists(file);
+         }
+      }
+   }
+
+   @Test
+   public void testInvalidFile() throws IOException
+   {
+      Path file = Files.createTempFile("jointDesiredOutputRingLog", ".bin");
+
+      try
+      {
+         Files.write(file, new byte[64]);
+         assertThrows(IllegalArgumentException.class, () -> new JointDesiredOutputRingLogReader(file));
+      }
+      finally
+      {
+         Files.deleteIfExists(file);
+      }
+   }
+}
@@ -0,0 +1,83 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+public class JointDesiredOutputSubListTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testDisjointSubLists()
+   {
+      Random random = new Random(7823);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+         JointDesiredOutputListBasics parent = random.nextBoolean() ? new JointDesiredOutputList(joints) : new PackedJointDesiredOutputList(joints);
+
+         List<OneDoFJointReadOnly> shuffledJoints = Arrays.asList(joints.clone());
+         Collections.shuffle(shuffledJoints, random);
+         int split = random.nextInt(joints.length + 1);
+         OneDoFJointReadOnly[] firstSubset = shuffledJoints.subList(0, split).toArray(new OneDoFJointReadOnly[0]);
+         OneDoFJointReadOnly[] secondSubset = shuffledJoints.subList(split, joints.length).toArray(new OneDoFJointReadOnly[0]);
+
+         JointDesiredOutputSubList[] subLists = JointDesiredOutputSubList.createDisjointSubLists(parent, firstSubset, secondSubset);
+         assertEquals(firstSubset.length, subLists[0].getNumberOfJointsWithDesiredOutput());
+         assertEquals(secondSubset.length, subLists[1].getNumberOfJointsWithDesiredOutput());
+
+         for (int jointIndex = 0; jointIndex < firstSubset.length; jointIndex++)
+         {
+            OneDoFJointReadOnly joint = firstSubset[jointIndex];
+            assertSame(joint, subLists[0].getOneDoFJoint(jointIndex));
+            assertEquals(jointIndex, subLists[0].getJointIndex(joint));
+            assertSame(parent.getJointDesiredOutput(joint), subLists[0].getJointDesiredOutput(jointIndex));
+            assertSame(parent.getJointDesiredOutput(joint), subLists[0].getJointDesiredOutput(joint));
+            assertEquals(parent.getJointIndex(joint), subLists[0].getParentJointIndex(jointIndex));
+            assertFalse(subLists[1].hasDataForJoint(joint));
+            assertNull(subLists[1].getJointDesiredOutput(joint));
+         }
+
+         // Each sub-controller writes into its slice, the parent sees the composition without merging.
+         JointDesiredOutputList expected = new JointDesiredOutputList(joints);
+         PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, expected, 0.5);
+         parent.clear();
+         subLists[0].overwriteWith(expected);
+         subLists[1].overwriteWith(expected);
+         assertTrue(expected.equals(parent));
+
+         // Clearing a sub-list only affects its joints.
+         subLists[0].clear();
+         for (OneDoFJointReadOnly joint : secondSubset)
+            assertEquals(expected.getJointDesiredOutput(joint), parent.getJointDesiredOutput(joint));
+         for (OneDoFJointReadOnly joint : firstSubset)
+            assertEquals(new JointDesiredOutput(), parent.getJointDesiredOutput(joint));
+      }
+   }
+
+   @Test
+   public void testInvalidSubsets()
+   {
+      Random random = new Random(2376);
+      OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+      OneDoFJointReadOnly[] otherJoints = PackedJointDesiredOutputListTest.nextJoints(random);
+      JointDesiredOutputList parent = new JointDesiredOutputList(joints);
+
+      assertThrows(RuntimeException.class, () -> new JointDesiredOutputSubList(parent, otherJoints));
+      assertThrows(IllegalArgumentException.class, () -> JointDesiredOutputSubList.createDisjointSubLists(parent, joints, new OneDoFJointReadOnly[] {joints[0]}));
+   }
+}
@@ -0,0 +1,530 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointBasics;
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+import us.ihmc.mecano.tools.JointStateType;
+import us.ihmc.mecano.tools.MultiBodySystemRandomTools;
+
+public class PackedJointDesiredOutputListTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testAgainstJointDesiredOutputList()
+   {
+      Random random = new Random(3467);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         JointDesiredOutputList expected = new JointDesiredOutputList(joints);
+         PackedJointDesiredOutputList actual = new PackedJointDesiredOutputList(joints);
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            assertFalse(actual.getJointDesiredOutput(jointIndex).hasControlMode());
+            assertFalse(actual.getJointDesiredOutput(jointIndex).hasDesiredTorque());
+            assertSame(actual.getJointDesiredOutput(jointIndex), actual.getJointDesiredOutput(joints[jointIndex]));
+         }
+
+         nextJointDesiredOutputList(random, expected, 0.5);
+         actual.overwriteWith(expected);
+         assertTrue(expected.equals(actual));
+         assertTrue(actual.equals(expected));
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            assertEquals(expected.getJointDesiredOutput(jointIndex), actual.getJointDesiredOutput(jointIndex));
+            assertEquals(expected.getDesiredJointTorque(joints[jointIndex]), actual.getDesiredJointTorque(joints[jointIndex]));
+         }
+
+         actual.clear();
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+            assertEquals(new JointDesiredOutput(), actual.getJointDesiredOutput(jointIndex));
+      }
+   }
+
+   @Test
+   public void testJointLookup()
+   {
+      Random random = new Random(7456);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         OneDoFJointReadOnly[] otherJoints = nextJoints(random);
+         JointDesiredOutputList list = new JointDesiredOutputList(joints);
+         PackedJointDesiredOutputList packedList = new PackedJointDesiredOutputList(joints);
+         DefaultLookupList defaultLookupList = new DefaultLookupList(list);
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            assertEquals(jointIndex, list.getJointIndex(joints[jointIndex]));
+            assertEquals(jointIndex, packedList.getJointIndex(joints[jointIndex]));
+            assertEquals(jointIndex, defaultLookupList.getJointIndex(joints[jointIndex]));
+            assertSame(list.getJointDesiredOutput(jointIndex), list.getJointDesiredOutput(joints[jointIndex]));
+            assertSame(list.getJointDesiredOutput(jointIndex), defaultLookupList.getJointDesiredOutput(joints[jointIndex]));
+            assertTrue(list.hasDataForJoint(joints[jointIndex]));
+         }
+
+         for (OneDoFJointReadOnly otherJoint : otherJoints)
+         {
+            assertEquals(-1, list.getJointIndex(otherJoint));
+            assertEquals(-1, packedList.getJointIndex(otherJoint));
+            assertEquals(-1, defaultLookupList.getJointIndex(otherJoint));
+            assertNull(list.getJointDesiredOutput(otherJoint));
+            assertNull(packedList.getJointDesiredOutput(otherJoint));
+            assertNull(defaultLookupList.getJointDesiredOutput(otherJoint));
+            assertFalse(packedList.hasDataForJoint(otherJoint));
+         }
+      }
+
+      OneDoFJointReadOnly[] joints = nextJoints(random);
+      OneDoFJointReadOnly[] jointsWithDuplicate = new OneDoFJointReadOnly[] {joints[0], joints[0]};
+      assertThrows(RuntimeException.class, () -> new OneDoFJointIndexMap(jointsWithDuplicate));
+   }
+
+   @Test
+   public void testOverwriteWith()
+   {
+      Random random = new Random(9823);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         PackedJointDesiredOutputList source = new PackedJointDesiredOutputList(joints);
+         PackedJointDesiredOutputList destination = new PackedJointDesiredOutputList(joints);
+         JointDesiredOutputList expected = new JointDesiredOutputList(joints);
+
+         nextJointDesiredOutputList(random, source, 0.5);
+         nextJointDesiredOutputList(random, destination, 0.5);
+         expected.overwriteWith(source);
+
+         destination.overwriteWith(source);
+         assertTrue(expected.equals(destination));
+      }
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         // The default implementation with lists that hold only some of the joints of each other.
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         OneDoFJointReadOnly[] sourceJoints = Arrays.copyOfRange(joints, 0, random.nextInt(joints.length + 1));
+         OneDoFJointReadOnly[] destinationJoints = Arrays.copyOfRange(joints, random.nextInt(joints.length + 1), joints.length);
+         Collections.shuffle(Arrays.asList(sourceJoints), random);
+         DefaultLookupList source = new DefaultLookupList(new JointDesiredOutputList(sourceJoints));
+         DefaultLookupList destination = new DefaultLookupList(new JointDesiredOutputList(destinationJoints));
+
+         nextJointDesiredOutputList(random, source, 0.5);
+         nextJointDesiredOutputList(random, destination, 0.5);
+         destination.overwriteWith(source);
+
+         for (int jointIndex = 0; jointIndex < destinationJoints.length; jointIndex++)
+         {
+            JointDesiredOutputReadOnly expectedOutput = source.getJointDesiredOutput(destinationJoints[jointIndex]);
+            if (expectedOutput == null)
+               expectedOutput = new JointDesiredOutput();
+            assertEquals(expectedOutput, destination.getJointDesiredOutput(jointIndex));
+         }
+      }
+   }
+
+   @Test
+   public void testCompleteWith()
+   {
+      Random random = new Random(4576);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         PackedJointDesiredOutputList source = new PackedJointDesiredOutputList(joints);
+         PackedJointDesiredOutputList destination = new PackedJointDesiredOutputList(joints);
+         JointDesiredOutputList expected = new JointDesiredOutputList(joints);
+
+         nextJointDesiredOutputList(random, source, 0.5);
+         nextJointDesiredOutputList(random, destination, 0.5);
+         expected.overwriteWith(destination);
+         expected.completeWith(source);
+
+         destination.completeWith(source);
+         assertTrue(expected.equals(destination));
+      }
+   }
+
+   @Test
+   public void testBatchTransfer()
+   {
+      Random random = new Random(23466);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointBasics[] joints = MultiBodySystemRandomTools.nextOneDoFJointChain(random, random.nextInt(40) + 1).toArray(new OneDoFJointBasics[0]);
+         OneDoFJointBasics[] shuffledJoints = joints.clone();
+         Collections.shuffle(Arrays.asList(shuffledJoints), random);
+
+         JointDesiredOutputListBasics[] lists = {new JointDesiredOutputList(joints), new PackedJointDesiredOutputList(joints)};
+
+         for (JointDesiredOutputListBasics list : lists)
+         {
+            nextJointDesiredOutputList(random, list, 1.0);
+            int[] jointIndices = list.computeJointIndices(shuffledJoints);
+
+            for (int j = 0; j < 2; j++)
+            {
+               list.insertDesiredTorquesIntoOneDoFJoints(shuffledJoints);
+               for (OneDoFJointBasics joint : shuffledJoints)
+                  assertEquals(list.getDesiredJointTorque(joint), joint.getTau());
+               list.getJointDesiredOutput(random.nextInt(joints.length)).setDesiredTorque(EuclidCoreRandomTools.nextDouble(random, 10.0));
+            }
+
+            // Alternating between arrays, and reusing an array after replacing some of its joints.
+            OneDoFJointBasics[] reusedJoints = shuffledJoints.clone();
+            for (int j = 0; j < 4; j++)
+            {
+               OneDoFJointBasics[] jointsToInsert = j % 2 == 0 ? reusedJoints : joints;
+               for (OneDoFJointBasics joint : jointsToInsert)
+                  joint.setTau(Double.NaN);
+               list.insertDesiredTorquesIntoOneDoFJoints(jointsToInsert);
+               for (OneDoFJointBasics joint : jointsToInsert)
+                  assertEquals(list.getDesiredJointTorque(joint), joint.getTau());
+               Collections.shuffle(Arrays.asList(reusedJoints), random);
+            }
+
+            for (JointStateType stateType : JointStateType.values())
+            {
+               list.insertDesiredsIntoOneDoFJoints(stateType, shuffledJoints, jointIndices);
+               double[] values = new double[joints.length];
+               list.getDesireds(stateType, jointIndices, values);
+               DMatrixRMaj vector = new DMatrixRMaj(1, 1);
+               list.getDesireds(stateType, jointIndices, vector);
+               assertEquals(joints.length, vector.getNumRows());
+
+               for (int jointIndex = 0; jointIndex < shuffledJoints.length; jointIndex++)
+               {
+                  double expected = getDesired(stateType, list.getJointDesiredOutput(shuffledJoints[jointIndex]));
+                  assertEquals(expected, getState(stateType, shuffledJoints[jointIndex]));
+                  assertEquals(expected, values[jointIndex]);
+                  assertEquals(expected, vector.get(jointIndex));
+               }
+
+               for (int jointIndex = 0; jointIndex < values.length; jointIndex++)
+                  values[jointIndex] = EuclidCoreRandomTools.nextDouble(random, 10.0);
+               list.setDesireds(stateType, jointIndices, values);
+
+               for (int jointIndex = 0; jointIndex < shuffledJoints.length; jointIndex++)
+                  assertEquals(values[jointIndex], getDesired(stateType, list.getJointDesiredOutput(shuffledJoints[jointIndex])));
+
+               list.clear();
+               list.setDesiredsFromOneDoFJoints(stateType, shuffledJoints, jointIndices);
+
+               for (int jointIndex = 0; jointIndex < shuffledJoints.length; jointIndex++)
+                  assertEquals(getState(stateType, shuffledJoints[jointIndex]), getDesired(stateType, list.getJointDesiredOutput(shuffledJoints[jointIndex])));
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testChangeTracking()
+   {
+      Random random = new Random(9823);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         JointDesiredOutputList list = new JointDesiredOutputList(joints);
+         PackedJointDesiredOutputList packedList = new PackedJointDesiredOutputList(joints);
+         assertFalse(list.hasChanged());
+         assertFalse(packedList.hasChanged());
+
+         nextJointDesiredOutputList(random, list, 0.5);
+         packedList.overwriteWith(list);
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            int expectedMask = list.getJointDesiredOutput(jointIndex).getChangedFieldsMask();
+            assertEquals(expectedMask, packedList.getJointDesiredOutput(jointIndex).getChangedFieldsMask());
+         }
+
+         list.acknowledgeChanges();
+         packedList.acknowledgeChanges();
+         assertEquals(-1, list.getNextChangedJointIndex(0));
+         assertEquals(-1, packedList.getNextChangedJointIndex(0));
+
+         // Clearing and setting the same values does not produce any change.
+         JointDesiredOutputList copy = new JointDesiredOutputList(joints);
+         copy.overwriteWith(list);
+         list.clear();
+         packedList.clear();
+         list.overwriteWith(copy);
+         packedList.overwriteWith(copy);
+         assertFalse(list.hasChanged());
+         assertFalse(packedList.hasChanged());
+
+         int changedJointIndex = random.nextInt(joints.length);
+         double newTorque = EuclidCoreRandomTools.nextDouble(random, 10.0) + 20.0;
+         list.getJointDesiredOutput(changedJointIndex).setDesiredTorque(newTorque);
+         packedList.getJointDesiredOutput(joints[changedJointIndex]).setDesiredTorque(newTorque);
+
+         for (JointDesiredOutputListBasics changedList : new JointDesiredOutputListBasics[] {list, packedList})
+         {
+            assertEquals(changedJointIndex, changedList.getNextChangedJointIndex(0));
+            assertEquals(-1, changedList.getNextChangedJointIndex(changedJointIndex + 1));
+            int changedFieldsMask = changedList.getJointDesiredOutput(changedJointIndex).getChangedFieldsMask();
+            assertEquals(JointDesiredOutputField.DESIRED_TORQUE, JointDesiredOutputField.firstIn(changedFieldsMask));
+            assertEquals(JointDesiredOutputField.DESIRED_TORQUE.getMask(), changedFieldsMask);
+
+            // Reverting to the acknowledged value cancels the change.
+            changedList.getJointDesiredOutput(changedJointIndex).setDesiredTorque(copy.getJointDesiredOutput(changedJointIndex).getDesiredTorque());
+            assertFalse(changedList.hasChanged());
+         }
+      }
+   }
+
+   @Test
+   public void testContentHashAndVersion()
+   {
+      Random random = new Random(5390);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = nextJoints(random);
+         JointDesiredOutputList list = new JointDesiredOutputList(joints);
+         PackedJointDesiredOutputList packedList = new PackedJointDesiredOutputList(joints);
+         assertEquals(list.getContentHash(), packedList.getContentHash());
+
+         nextJointDesiredOutputList(random, list, 0.5);
+         PackedJointDesiredOutputList otherPackedList = new PackedJointDesiredOutputList(joints);
+         otherPackedList.overwriteWith(list);
+         // Exercises both the generic and the packed code paths.
+         packedList.overwriteWith(random.nextBoolean() ? list : otherPackedList);
+         assertEquals(list.getContentHash(), packedList.getContentHash());
+
+         for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+         {
+            JointDesiredOutput copy = new JointDesiredOutput();
+            copy.set(list.getJointDesiredOutput(jointIndex));
+            assertEquals(copy.getContentHash(), list.getJointDesiredOutput(jointIndex).getContentHash());
+            assertEquals(copy.getContentHash(), packedList.getJointDesiredOutput(jointIndex).getContentHash());
+         }
+
+         for (JointDesiredOutputListBasics listToTest : new JointDesiredOutputListBasics[] {list, packedList})
+         {
+            long version = listToTest.getContentVersion();
+            long hash = listToTest.getContentHash();
+            assertTrue(version != -1L);
+
+            // Rewriting the same content does not change the version.
+            JointDesiredOutputList copy = new JointDesiredOutputList(joints);
+            copy.overwriteWith(listToTest);
+            listToTest.overwriteWith(copy);
+            assertEquals(version, listToTest.getContentVersion());
+            assertEquals(hash, listToTest.getContentHash());
+
+            int jointIndex = random.nextInt(joints.length);
+            JointDesiredOutputBasics output = listToTest.getJointDesiredOutput(jointIndex);
+            double previousStiffness = output.getStiffness();
+            output.setStiffness(Double.isNaN(previousStiffness) ? 1.0 : previousStiffness + 1.0);
+            assertTrue(listToTest.getContentVersion() > version);
+            assertTrue(listToTest.getContentHash() != hash);
+            assertFalse(copy.equals(listToTest));
+
+            output.setStiffness(previousStiffness);
+            assertEquals(hash, listToTest.getContentHash());
+            assertTrue(copy.equals(listToTest));
+
+            // Changing a field back and forth is still a change, and querying does not modify the version.
+            long jointVersion = output.getContentVersion();
+            assertEquals(version + 2, listToTest.getContentVersion());
+            assertEquals(jointVersion, output.getContentVersion());
+            double previousPosition = output.getDesiredPosition();
+            output.setDesiredPosition(Double.isNaN(previousPosition) ? 1.0 : previousPosition + 1.0);
+            output.setDesiredPosition(previousPosition);
+            assertTrue(output.getContentVersion() > jointVersion);
+            assertTrue(listToTest.getContentVersion() > version + 2);
+
+            assertEquals(computeContentHash(listToTest), listToTest.getContentHash());
+            assertEquals(computeContentVersion(listToTest), listToTest.getContentVersion());
+         }
+
+         // The bulk operations between packed lists only change the version of the joints which values differ.
+         otherPackedList.overwriteWith(packedList);
+         int jointIndex = random.nextInt(joints.length);
+         double previousTorque = otherPackedList.getJointDesiredOutput(jointIndex).getDesiredTorque();
+         otherPackedList.getJointDesiredOutput(jointIndex).setDesiredTorque(Double.isNaN(previousTorque) ? 1.0 : previousTorque + 1.0);
+         long[] jointVersions = new long[joints.length];
+         for (int k = 0; k < joints.length; k++)
+            jointVersions[k] = packedList.getJointDesiredOutput(k).getContentVersion();
+         long version = packedList.getContentVersion();
+
+         packedList.overwriteWith(otherPackedList);
+         assertEquals(version + 1, packedList.getContentVersion());
+         for (int k = 0; k < joints.length; k++)
+            assertEquals(jointVersions[k] + (k == jointIndex ? 1 : 0), packedList.getJointDesiredOutput(k).getContentVersion());
+         assertEquals(otherPackedList.getContentHash(), packedList.getContentHash());
+
+         nextJointDesiredOutputList(random, list, 0.5);
+         otherPackedList.overwriteWith(list);
+         packedList.completeWith(otherPackedList);
+         assertEquals(computeContentHash(packedList), packedList.getContentHash());
+         assertEquals(computeContentVersion(packedList), packedList.getContentVersion());
+         packedList.clear();
+         assertEquals(new PackedJointDesiredOutputList(joints).getContentHash(), packedList.getContentHash());
+         assertEquals(computeContentVersion(packedList), packedList.getContentVersion());
+      }
+   }
+
+   /**
+    * List relying on the default joint lookups, i.e. on the lookup by hash code of the wrapped list.
+    */
+   private static class DefaultLookupList implements JointDesiredOutputListBasics
+   {
+      private final JointDesiredOutputListBasics list;
+
+      private DefaultLookupList(JointDesiredOutputListBasics list)
+      {
+         this.list = list;
+      }
+
+      @Override
+      public boolean hasDataForJoint(OneDoFJointReadOnly joint)
+      {
+         return list.hasDataForJoint(joint);
+      }
+
+      @Override
+      public OneDoFJointReadOnly getOneDoFJoint(int index)
+      {
+         return list.getOneDoFJoint(index);
+      }
+
+      @Override
+      public JointDesiredOutputBasics getJointDesiredOutput(int index)
+      {
+         return list.getJointDesiredOutput(index);
+      }
+
+      @Override
+      public JointDesiredOutputBasics getJointDesiredOutputFromHash(int jointHashCode)
+      {
+         return list.getJointDesiredOutputFromHash(jointHashCode);
+      }
+
+      @Override
+      public int getNumberOfJointsWithDesiredOutput()
+      {
+         return list.getNumberOfJointsWithDesiredOutput();
+      }
+   }
+
+   private static long computeContentHash(JointDesiredOutputListReadOnly list)
+   {
+      long hash = 1L;
+      for (int i = 0; i < list.getNumberOfJointsWithDesiredOutput(); i++)
+         hash = 31L * hash + list.getJointDesiredOutput(i).getContentHash();
+      return hash;
+   }
+
+   private static long computeContentVersion(JointDesiredOutputListReadOnly list)
+   {
+      long version = 0L;
+      for (int i = 0; i < list.getNumberOfJointsWithDesiredOutput(); i++)
+         version += list.getJointDesiredOutput(i).getContentVersion();
+      return version;
+   }
+
+   private static double getDesired(JointStateType stateType, JointDesiredOutputReadOnly output)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            return output.getDesiredPosition();
+         case VELOCITY:
+            return output.getDesiredVelocity();
+         case ACCELERATION:
+            return output.getDesiredAcceleration();
+         default:
+            return output.getDesiredTorque();
+      }
+   }
+
+   private static double getState(JointStateType stateType, OneDoFJointReadOnly joint)
+   {
+      switch (stateType)
+      {
+         case CONFIGURATION:
+            return joint.getQ();
+         case VELOCITY:
+            return joint.getQd();
+         case ACCELERATION:
+            return joint.getQdd();
+         default:
+            return joint.getTau();
+      }
+   }
+
+   static OneDoFJointReadOnly[] nextJoints(Random random)
+   {
+      return MultiBodySystemRandomTools.nextOneDoFJointChain(random, random.nextInt(40) + 1).toArray(new OneDoFJointReadOnly[0]);
+   }
+
+   static void nextJointDesiredOutputList(Random random, JointDesiredOutputListBasics listToRandomize, double probabilityOfSettingField)
+   {
+      listToRandomize.clear();
+
+      for (int jointIndex = 0; jointIndex < listToRandomize.getNumberOfJointsWithDesiredOutput(); jointIndex++)
+      {
+         JointDesiredOutputBasics output = listToRandomize.getJointDesiredOutput(jointIndex);
+
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setControlMode(EuclidCoreRandomTools.nextElementIn(random, JointDesiredControlMode.values));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setLoadMode(EuclidCoreRandomTools.nextElementIn(random, JointDesiredLoadMode.values));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setDesiredTorque(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setDesiredPosition(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setDesiredVelocity(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setDesiredAcceleration(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         output.setResetIntegrators(random.nextDouble() < probabilityOfSettingField);
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setStiffness(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setDamping(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setMasterGain(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setVelocityScaling(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setVelocityIntegrationBreakFrequency(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setPositionIntegrationBreakFrequency(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setPositionIntegrationMaxError(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setVelocityIntegrationMaxError(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setPositionFeedbackMaxError(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setVelocityFeedbackMaxError(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         if (random.nextDouble() < probabilityOfSettingField)
+            output.setMaxTorque(EuclidCoreRandomTools.nextDouble(random, 10.0));
+      }
+   }
+}
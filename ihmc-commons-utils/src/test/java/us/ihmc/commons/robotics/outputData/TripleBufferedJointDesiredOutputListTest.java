@@ -0,0 +1,129 @@
+package us.ihmc.commons.robotics.outputData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.mecano.multiBodySystem.interfaces.OneDoFJointReadOnly;
+
+public class TripleBufferedJointDesiredOutputListTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testPublishAndAcquire()
+   {
+      Random random = new Random(4562);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+         TripleBufferedJointDesiredOutputList<JointDesiredOutputList> tripleBuffer = TripleBufferedJointDesiredOutputList.newTripleBuffer(joints);
+         JointDesiredOutputList expected = new JointDesiredOutputList(joints);
+
+         assertFalse(tripleBuffer.hasNewFrame());
+         assertSame(tripleBuffer.getReadBuffer(), tripleBuffer.acquire());
+         assertEquals(1, tripleBuffer.getNumberOfStaleFrames());
+
+         long expectedDropped = 0;
+         long expectedStale = 1;
+         boolean hasNewFrame = false;
+
+         for (int tick = 0; tick < 20; tick++)
+         {
+            if (random.nextBoolean())
+            {
+               PackedJointDesiredOutputListTest.nextJointDesiredOutputList(random, expected, 0.5);
+               JointDesiredOutputList writeBuffer = tripleBuffer.getWriteBuffer();
+               assertNotSame(tripleBuffer.getReadBuffer(), writeBuffer);
+               writeBuffer.overwriteWith(expected);
+               tripleBuffer.publish();
+
+               if (hasNewFrame)
+                  expectedDropped++;
+               hasNewFrame = true;
+            }
+            else
+            {
+               JointDesiredOutputList acquired = tripleBuffer.acquire();
+               assertNotSame(tripleBuffer.getWriteBuffer(), acquired);
+
+               if (!hasNewFrame)
+                  expectedStale++;
+               hasNewFrame = false;
+
+               if (tripleBuffer.getNumberOfPublishedFrames() > 0)
+                  assertTrue(expected.equals(acquired));
+            }
+
+            assertEquals(hasNewFrame, tripleBuffer.hasNewFrame());
+            assertEquals(expectedDropped, tripleBuffer.getNumberOfDroppedFrames());
+            assertEquals(expectedStale, tripleBuffer.getNumberOfStaleFrames());
+         }
+      }
+   }
+
+   @Test
+   public void testConcurrentSnapshotsAreConsistent() throws InterruptedException
+   {
+      Random random = new Random(2341);
+      OneDoFJointReadOnly[] joints = PackedJointDesiredOutputListTest.nextJoints(random);
+      TripleBufferedJointDesiredOutputList<PackedJointDesiredOutputList> tripleBuffer = new TripleBufferedJointDesiredOutputList<>(() -> new PackedJointDesiredOutputList(joints));
+      int numberOfTicks = 100000;
+      AtomicReference<Throwable> error = new AtomicReference<>();
+
+      Thread writer = new Thread(() ->
+      {
+         for (int tick = 1; tick <= numberOfTicks; tick++)
+         {
+            PackedJointDesiredOutputList writeBuffer = tripleBuffer.getWriteBuffer();
+            for (int jointIndex = 0; jointIndex < joints.length; jointIndex++)
+               writeBuffer.getJointDesiredOutput(jointIndex).setDesiredTorque(tick);
+            tripleBuffer.publish();
+         }
+      });
+
+      Thread reader = new Thread(() ->
+      {
+         try
+         {
+            double previousTick = 0.0;
+
+            while (previousTick < numberOfTicks)
+            {
+               PackedJointDesiredOutputList readBuffer = tripleBuffer.acquire();
+               double tick = readBuffer.getJointDesiredOutput(0).getDesiredTorque();
+               if (Double.isNaN(tick))
+                  continue;
+
+               for (int jointIndex = 1; jointIndex < joints.length; jointIndex++)
+                  assertEquals(tick, readBuffer.getJointDesiredOutput(jointIndex).getDesiredTorque());
+               assertTrue(tick >= previousTick);
+               previousTick = tick;
+            }
+         }
+         catch (Throwable e)
+         {
+            error.set(e);
+         }
+      });
+
+      reader.start();
+      writer.start();
+      writer.join();
+      reader.join(10000);
+
+      assertFalse(reader.isAlive());
+      if (error.get() != null)
+         throw new AssertionError(error.get());
+      assertEquals(numberOfTicks, tripleBuffer.getNumberOfPublishedFrames());
+      assertEquals(numberOfTicks, tripleBuffer.getNumberOfAcquiredFrames() + tripleBuffer.getNumberOfDroppedFrames());
+   }
+}
@@ -0,0 +1,146 @@
+package us.ihmc.commons.time;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.RandomNumbers;
+
+public class TimeIntervalIndexTest
+{
+   private static final int ITERATIONS = 200;
+
+   @Test
+   public void testQueriesAgainstLinearScan()
+   {
+      Random random = new Random(34589);
+      List<TimedValue> result = new ArrayList<>();
+      List<TimedValue> expected = new ArrayList<>();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         TimeIntervalIndex<TimedValue> index = new TimeIntervalIndex<>(random.nextInt(4) + 1);
+         List<TimedValue> intervals = new ArrayList<>();
+
+         for (int j = 0; j < 100; j++)
+         {
+            int operation = random.nextInt(4);
+
+            if (operation == 0 && !intervals.isEmpty())
+            {
+               TimedValue toRemove = intervals.remove(random.nextInt(intervals.size()));
+               assertTrue(index.remove(toRemove));
+               assertFalse(index.remove(toRemove));
+            }
+            else if (operation == 1)
+            {
+               List<TimedValue> newIntervals = new ArrayList<>();
+               for (int k = random.nextInt(5); k > 0; k--)
+                  newIntervals.add(nextTimedValue(random, j));
+               intervals.addAll(newIntervals);
+               index.addAll(newIntervals);
+            }
+            else
+            {
+               TimedValue interval = nextTimedValue(random, j);
+               intervals.add(interval);
+               index.add(interval);
+            }
+
+            assertEquals(intervals.size(), index.size());
+            for (int k = 1; k < index.size(); k++)
+               assertTrue(index.get(k - 1).getTimeInterval().getStartTime() <= index.get(k).getTimeInterval().getStartTime());
+
+            double time = RandomNumbers.nextDouble(random, 0.0, 11.0);
+            index.getIntervalsContainingTime(time, result);
+            TimeIntervalTools.getIntervalsContainingTime(time, intervals, expected);
+            assertSameElements(expected, result);
+
+            TimeInterval query = nextTimeInterval(random);
+            index.getIntervalsOverlapping(query, result);
+            expected.clear();
+            for (TimedValue interval : intervals)
+            {
+               if (TimeIntervalTools.doIntervalsOverlap(interval.getTimeInterval(), query))
+                  expected.add(interval);
+            }
+            assertSameElements(expected, result);
+            assertEquals(expected.size(), index.countIntervalsOverlapping(query.getStartTime(), query.getEndTime()));
+
+            TimedValue expectedNext = null;
+            for (TimedValue interval : intervals)
+            {
+               double startTime = interval.getTimeInterval().getStartTime();
+               if (startTime > time && (expectedNext == null || startTime < expectedNext.getTimeInterval().getStartTime()))
+                  expectedNext = interval;
+            }
+            TimedValue next = index.getNextInterval(time);
+            if (expectedNext == null)
+               assertNull(next);
+            else
+               assertEquals(expectedNext.getTimeInterval().getStartTime(), next.getTimeInterval().getStartTime());
+         }
+      }
+   }
+
+   @Test
+   public void testUpdateAfterModifyingIntervals()
+   {
+      Random random = new Random(9834);
+      List<TimedValue> result = new ArrayList<>();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         TimeIntervalIndex<TimedValue> index = new TimeIntervalIndex<>();
+         List<TimedValue> intervals = new ArrayList<>();
+         for (int j = 0; j < 50; j++)
+            intervals.add(nextTimedValue(random, j));
+         index.addAll(intervals);
+
+         for (TimedValue interval : intervals)
+            interval.getTimeInterval().shiftInterval(RandomNumbers.nextDouble(random, 3.0));
+         index.update();
+
+         double time = RandomNumbers.nextDouble(random, -3.0, 13.0);
+         index.getIntervalsContainingTime(time, result);
+         assertSameElements(TimeIntervalTools.getIntervalsContainingTime(time, intervals), result);
+
+         TimedValue toRemove = intervals.get(random.nextInt(intervals.size()));
+         assertTrue(index.remove(toRemove));
+         assertEquals(intervals.size() - 1, index.size());
+      }
+
+      TimeIntervalIndex<TimedValue> index = new TimeIntervalIndex<>();
+      index.add(new TimedValue(0, new TimeInterval(0.0, 1.0)));
+      index.clear();
+      assertTrue(index.isEmpty());
+      assertNull(index.getNextInterval(-1.0));
+      index.getIntervalsContainingTime(0.5, result);
+      assertTrue(result.isEmpty());
+      assertThrows(IndexOutOfBoundsException.class, () -> index.get(0));
+   }
+
+   private static void assertSameElements(List<TimedValue> expected, List<TimedValue> actual)
+   {
+      assertEquals(expected.size(), actual.size());
+      for (TimedValue interval : expected)
+         assertTrue(actual.contains(interval));
+   }
+
+   private static TimedValue nextTimedValue(Random random, int value)
+   {
+      return new TimedValue(value, nextTimeInterval(random));
+   }
+
+   private static TimeInterval nextTimeInterval(Random random)
+   {
+      // Rounded times such that some intervals share their start or end times.
+      double startTime = 0.5 * random.nextInt(20);
+      double endTime = startTime + 0.5 * random.nextInt(5);
+      return new TimeInterval(startTime, endTime);
+   }
+}
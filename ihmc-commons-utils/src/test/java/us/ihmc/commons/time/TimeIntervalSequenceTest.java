@@ -0,0 +1,146 @@
+package us.ihmc.commons.time;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.RandomNumbers;
+
+public class TimeIntervalSequenceTest
+{
+   private static final int ITERATIONS = 200;
+
+   @Test
+   public void testAgainstListOfIntervals()
+   {
+      Random random = new Random(45873);
+      TimeInterval timeInterval = new TimeInterval();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         TimeIntervalSequence sequence = new TimeIntervalSequence(random.nextInt(4));
+         List<TimedValue> expected = new ArrayList<>();
+         double time = 0.0;
+
+         for (int j = 0; j < 200; j++)
+         {
+            int operation = random.nextInt(10);
+
+            if (operation == 0 && !expected.isEmpty())
+            {
+               int numberOfIntervals = random.nextInt(expected.size() + 1);
+               sequence.removeFirst(numberOfIntervals);
+               expected.subList(0, numberOfIntervals).clear();
+            }
+            else if (operation == 1)
+            {
+               double expirationTime = expected.isEmpty() ? time : expected.get(random.nextInt(expected.size())).getTimeInterval().getEndTime() + 0.01;
+               int numberRemoved = 0;
+               while (!expected.isEmpty() && expected.get(0).getTimeInterval().getEndTime() < expirationTime)
+               {
+                  expected.remove(0);
+                  numberRemoved++;
+               }
+               assertEquals(numberRemoved, sequence.removeEndTimesLessThan(expirationTime));
+            }
+            else if (operation == 2)
+            {
+               double shiftTime = RandomNumbers.nextDouble(random, 1.0);
+               sequence.shift(shiftTime);
+               for (TimedValue value : expected)
+                  value.getTimeInterval().shiftInterval(shiftTime);
+               time += shiftTime;
+            }
+            else if (operation == 3 && !expected.isEmpty())
+            {
+               sequence.removeLast();
+               expected.remove(expected.size() - 1);
+            }
+            else if (operation == 4 && !expected.isEmpty())
+            {
+               int index = random.nextInt(expected.size());
+               double lowerBound = index > 0 ? expected.get(index - 1).getTimeInterval().getStartTime() : time - 1.0;
+               double upperBound = index < expected.size() - 1 ? expected.get(index + 1).getTimeInterval().getStartTime() : lowerBound + 1.0;
+               double startTime = RandomNumbers.nextDouble(random, lowerBound, upperBound);
+               double endTime = random.nextBoolean() && index < expected.size() - 1 ? upperBound : startTime + random.nextDouble();
+               sequence.setInterval(index, startTime, endTime);
+               expected.get(index).getTimeInterval().setInterval(startTime, endTime);
+            }
+            else
+            {
+               // Mostly continuous intervals, with occasional gaps.
+               double startTime = expected.isEmpty() ? time : expected.get(expected.size() - 1).getTimeInterval().getEndTime();
+               if (random.nextInt(5) == 0)
+                  startTime += random.nextDouble();
+               double endTime = startTime + random.nextDouble();
+               int payloadIndex = random.nextInt(100);
+               assertEquals(expected.size(), sequence.add(startTime, endTime, payloadIndex));
+               expected.add(new TimedValue(payloadIndex, new TimeInterval(startTime, endTime)));
+            }
+
+            assertEquals(expected.size(), sequence.size());
+            assertEquals(TimeIntervalTools.isTimeSequenceContinuous(expected), sequence.isContinuous());
+
+            for (int k = 0; k < expected.size(); k++)
+            {
+               TimeInterval expectedInterval = expected.get(k).getTimeInterval();
+               assertEquals(expectedInterval.getStartTime(), sequence.getStartTime(k));
+               assertEquals(expectedInterval.getEndTime(), sequence.getEndTime(k));
+               assertEquals(expected.get(k).getValue(), sequence.getPayloadIndex(k));
+               sequence.getTimeInterval(k, timeInterval);
+               assertTrue(expectedInterval.epsilonEquals(timeInterval, 0.0));
+            }
+
+            if (!expected.isEmpty())
+            {
+               double queryTime = RandomNumbers.nextDouble(random,
+                                                           expected.get(0).getTimeInterval().getStartTime() - 0.5,
+                                                           expected.get(expected.size() - 1).getTimeInterval().getEndTime() + 0.5);
+               assertEquals(findIntervalIndex(expected, queryTime), sequence.findIntervalIndex(queryTime));
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testInvalidIntervals()
+   {
+      TimeIntervalSequence sequence = new TimeIntervalSequence();
+      assertThrows(IllegalArgumentException.class, () -> sequence.add(1.0, 0.0));
+
+      sequence.add(new TimeInterval(0.0, 1.0));
+      sequence.add(1.0, 2.0);
+      assertEquals(TimeIntervalSequence.NO_PAYLOAD, sequence.getPayloadIndex(0));
+      assertThrows(IllegalArgumentException.class, () -> sequence.add(0.5, 3.0));
+      assertThrows(IllegalArgumentException.class, () -> sequence.setInterval(0, 1.5, 2.0));
+      assertThrows(IndexOutOfBoundsException.class, () -> sequence.getStartTime(2));
+      assertThrows(IndexOutOfBoundsException.class, () -> sequence.removeFirst(3));
+
+      assertEquals(1, sequence.findIntervalIndex(1.0));
+      assertEquals(-1, sequence.findIntervalIndex(-0.1));
+      assertEquals(-1, sequence.findIntervalIndex(2.1));
+
+      sequence.clear();
+      assertTrue(sequence.isEmpty());
+      assertTrue(sequence.isContinuous());
+      assertEquals(-1, sequence.findIntervalIndex(0.0));
+   }
+
+   private static int findIntervalIndex(List<TimedValue> intervals, double time)
+   {
+      int index = -1;
+      for (int i = 0; i < intervals.size(); i++)
+      {
+         if (intervals.get(i).getTimeInterval().getStartTime() <= time)
+            index = i;
+      }
+
+      if (index == -1 || !intervals.get(index).getTimeInterval().intervalContains(time))
+         return -1;
+      return index;
+   }
+}
@@ -1,8 +1,11 @@
 package us.ihmc.commons.time;
 
 import org.junit.jupiter.api.Test;
+import us.ihmc.commons.lists.RecyclingArrayList;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -90,4 +93,93 @@ public class TimeIntervalToolsTest
       assertEquals(arrayValues.size(), 1);
       assertEquals(arrayValues.get(0).getValue(), 6, epsilon);
    }
+
+   @Test
+   public void testRemoveMethodsAgainstNaiveRemoval()
+   {
+      Random random = new Random(23457);
+
+      for (int iteration = 0; iteration < 1000; iteration++)
+      {
+         int size = random.nextInt(50);
+         boolean isSorted = random.nextBoolean();
+         boolean useStartTime = random.nextBoolean();
+         int condition = random.nextInt(4);
+         // Rounded times such that some intervals have the same times as the query.
+         double time = 0.5 * random.nextInt(25);
+
+         ArrayList<TimedValue> arrayValues = new ArrayList<>();
+         for (int i = 0; i < size; i++)
+         {
+            double startTime = 0.5 * random.nextInt(20);
+            arrayValues.add(new TimedValue(i, new TimeInterval(startTime, startTime + 0.5 * random.nextInt(5))));
+         }
+         if (isSorted)
+         {
+            if (useStartTime)
+               TimeIntervalTools.sortByStartTime(arrayValues);
+            else
+               TimeIntervalTools.sortByEndTime(arrayValues);
+         }
+
+         RecyclingArrayList<TimedValue> recyclingValues = new RecyclingArrayList<>(TimedValue::new);
+         for (TimedValue value : arrayValues)
+            recyclingValues.add().set(value);
+         List<TimedValue> recyclingElements = new ArrayList<>(recyclingValues);
+
+         List<Integer> expected = new ArrayList<>();
+         for (TimedValue value : arrayValues)
+         {
+            TimeInterval interval = value.getTimeInterval();
+            double intervalTime = useStartTime ? interval.getStartTime() : interval.getEndTime();
+            boolean remove = condition == 0 ? intervalTime < time : condition == 1 ? intervalTime <= time : condition == 2 ? intervalTime > time : intervalTime >= time;
+            if (!remove)
+               expected.add(value.getValue());
+         }
+
+         remove(time, arrayValues, useStartTime, condition, isSorted);
+         assertEquals(expected, getValues(arrayValues));
+
+         remove(time, recyclingValues, useStartTime, condition, isSorted);
+         assertEquals(expected, getValues(recyclingValues));
+
+         // The removed elements are recycled rather than discarded.
+         for (int i = expected.size(); i < size; i++)
+            assertTrue(recyclingElements.contains(recyclingValues.add()));
+      }
+   }
+
+   private static List<Integer> getValues(List<TimedValue> values)
+   {
+      List<Integer> result = new ArrayList<>();
+      for (TimedValue value : values)
+         result.add(value.getValue());
+      return result;
+   }
+
+   private static void remove(double time, List<TimedValue> values, boolean useStartTime, int condition, boolean isSorted)
+   {
+      if (useStartTime)
+      {
+         if (condition == 0)
+            TimeIntervalTools.removeStartTimesLessThan(time, values, isSorted);
+         else if (condition == 1)
+            TimeIntervalTools.removeStartTimesLessThanOrEqualTo(time, values, isSorted);
+         else if (condition == 2)
+            TimeIntervalTools.removeStartTimesGreaterThan(time, values, isSorted);
+         else
+            TimeIntervalTools.removeStartTimesGreaterThanOrEqualTo(time, values, isSorted);
+      }
+      else
+      {
+         if (condition == 0)
+            TimeIntervalTools.removeEndTimesLessThan(time, values, isSorted);
+         else if (condition == 1)
+            TimeIntervalTools.removeEndTimesLessThanOrEqualTo(time, values, isSorted);
+         else if (condition == 2)
+            TimeIntervalTools.removeEndTimesGreaterThan(time, values, isSorted);
+         else
+            TimeIntervalTools.removeEndTimesGreaterThanOrEqualTo(time, values, isSorted);
+      }
+   }
 }
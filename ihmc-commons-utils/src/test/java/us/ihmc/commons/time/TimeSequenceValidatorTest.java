@@ -0,0 +1,121 @@
+package us.ihmc.commons.time;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import us.ihmc.commons.RandomNumbers;
+
+public class TimeSequenceValidatorTest
+{
+   private static final int ITERATIONS = 200;
+   private static final double EPSILON = 5e-3;
+
+   @Test
+   public void testAgainstFullValidation()
+   {
+      Random random = new Random(68234);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         TimeSequenceValidator validator = new TimeSequenceValidator();
+         List<TimedValue> sequence = new ArrayList<>();
+
+         for (int j = 0; j < 300; j++)
+         {
+            int operation = random.nextInt(6);
+
+            if (operation == 0 && !sequence.isEmpty())
+            {
+               int numberOfIntervals = random.nextInt(Math.min(5, sequence.size()) + 1);
+               sequence.subList(0, numberOfIntervals).clear();
+               if (numberOfIntervals == 1 && random.nextBoolean())
+                  validator.removeFirst();
+               else
+                  validator.removeFirst(numberOfIntervals);
+            }
+            else if (operation == 1)
+            {
+               double shiftTime = RandomNumbers.nextDouble(random, 1.0);
+               for (TimedValue value : sequence)
+                  value.getTimeInterval().shiftInterval(shiftTime);
+               validator.shift(shiftTime);
+            }
+            else
+            {
+               double startTime = sequence.isEmpty() ? 0.0 : sequence.get(sequence.size() - 1).getTimeInterval().getEndTime();
+               int violation = random.nextInt(10);
+               if (violation == 0)
+                  startTime += 0.1 + random.nextDouble(); // Gap
+               else if (violation == 1)
+                  startTime -= 0.1 + random.nextDouble(); // Overlap
+               else
+                  startTime += RandomNumbers.nextDouble(random, 0.5 * EPSILON); // Within the tolerance
+               TimeInterval timeInterval = new TimeInterval(startTime, startTime + 0.2 + random.nextDouble());
+               sequence.add(new TimedValue(j, timeInterval));
+               validator.append(timeInterval);
+            }
+
+            assertEquals(sequence.size(), validator.size());
+            assertEquals(TimeIntervalTools.isTimeSequenceContinuous(sequence), validator.isContinuous());
+            assertEquals(findFirstDiscontinuity(sequence), validator.getFirstDiscontinuityIndex());
+            assertEquals(findFirstOverlap(sequence), validator.getFirstOverlapIndex());
+            assertEquals(findFirstOverlap(sequence) != -1, validator.hasOverlaps());
+         }
+
+         TimeSequenceValidator other = new TimeSequenceValidator();
+         other.set(sequence);
+         assertEquals(validator.getNumberOfDiscontinuities(), other.getNumberOfDiscontinuities());
+         assertEquals(validator.getNumberOfOverlaps(), other.getNumberOfOverlaps());
+         assertEquals(validator.getFirstDiscontinuityIndex(), other.getFirstDiscontinuityIndex());
+      }
+   }
+
+   @Test
+   public void testEmptySequence()
+   {
+      TimeSequenceValidator validator = new TimeSequenceValidator();
+      assertTrue(validator.isContinuous());
+      assertFalse(validator.hasOverlaps());
+      assertEquals(-1, validator.getFirstDiscontinuityIndex());
+      assertThrows(IndexOutOfBoundsException.class, () -> validator.removeFirst());
+
+      validator.append(0.0, 1.0);
+      validator.append(2.0, 3.0);
+      assertEquals(1, validator.getFirstDiscontinuityIndex());
+      validator.removeFirst(2);
+      assertTrue(validator.isContinuous());
+
+      // The first interval appended after emptying the sequence has no predecessor.
+      validator.append(10.0, 11.0);
+      assertTrue(validator.isContinuous());
+      validator.clear();
+      assertEquals(0, validator.size());
+   }
+
+   private static int findFirstDiscontinuity(List<TimedValue> sequence)
+   {
+      for (int i = 1; i < sequence.size(); i++)
+      {
+         if (!TimeIntervalTools.areTimeIntervalsConsecutive(sequence.get(i - 1), sequence.get(i), EPSILON))
+            return i;
+      }
+      return -1;
+   }
+
+   private static int findFirstOverlap(List<TimedValue> sequence)
+   {
+      for (int i = 1; i < sequence.size(); i++)
+      {
+         double previousEndTime = sequence.get(i - 1).getTimeInterval().getEndTime();
+         double startTime = sequence.get(i).getTimeInterval().getStartTime();
+         if (startTime < previousEndTime - EPSILON)
+            return i;
+      }
+      return -1;
+   }
+}